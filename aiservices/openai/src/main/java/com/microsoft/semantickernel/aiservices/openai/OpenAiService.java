@@ -2,7 +2,12 @@
 package com.microsoft.semantickernel.aiservices.openai;
 
 import com.microsoft.semantickernel.services.AIService;
+import com.microsoft.semantickernel.services.openai.OpenAIRateLimiter;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Provides OpenAI service.
@@ -15,16 +20,28 @@ public abstract class OpenAiService<Client> implements AIService {
     private final String serviceId;
     private final String modelId;
     private final String deploymentName;
+    @Nullable
+    private final OpenAIRateLimiter rateLimiter;
 
     protected OpenAiService(
         Client client,
         @Nullable String serviceId,
         String modelId,
         String deploymentName) {
+        this(client, serviceId, modelId, deploymentName, null);
+    }
+
+    protected OpenAiService(
+        Client client,
+        @Nullable String serviceId,
+        String modelId,
+        String deploymentName,
+        @Nullable OpenAIRateLimiter rateLimiter) {
         this.client = client;
         this.serviceId = serviceId;
         this.modelId = modelId;
         this.deploymentName = deploymentName;
+        this.rateLimiter = rateLimiter;
     }
 
     @Nullable
@@ -54,4 +71,51 @@ public abstract class OpenAiService<Client> implements AIService {
     public String getDeploymentName() {
         return deploymentName;
     }
+
+    /**
+     * Gets the rate limiter of the requests.
+     * @return the rate limiter, or {@code null} if the requests are not limited
+     */
+    @Nullable
+    public OpenAIRateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * Gets a request sent through the rate limiter, if any.
+     * @param caller the caller of the request, usually its kernel, or {@code null} for the service
+     * @param estimatedTokens estimates the tokens of the request, only when rate limited
+     * @param request creates the request
+     * @param <T> the type of the result of the request
+     * @return the request
+     */
+    protected <T> Mono<T> limitRate(
+        @Nullable Object caller,
+        IntSupplier estimatedTokens,
+        Supplier<Mono<T>> request) {
+        if (rateLimiter == null) {
+            return Mono.defer(request);
+        }
+        return rateLimiter.execute(caller == null ? this : caller,
+            estimatedTokens.getAsInt(), request);
+    }
+
+    /**
+     * Gets a streaming request sent through the rate limiter, if any.
+     * @param caller the caller of the request, usually its kernel, or {@code null} for the service
+     * @param estimatedTokens estimates the tokens of the request, only when rate limited
+     * @param request creates the request
+     * @param <T> the type of the elements of the stream
+     * @return the request
+     */
+    protected <T> Flux<T> limitRateMany(
+        @Nullable Object caller,
+        IntSupplier estimatedTokens,
+        Supplier<Flux<T>> request) {
+        if (rateLimiter == null) {
+            return Flux.defer(request);
+        }
+        return rateLimiter.executeMany(caller == null ? this : caller,
+            estimatedTokens.getAsInt(), request);
+    }
 }
@@ -5,8 +5,6 @@ import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.models.ChatChoice;
 import com.azure.ai.openai.models.ChatCompletions;
 import com.azure.ai.openai.models.ChatCompletionsFunctionToolCall;
-import com.azure.ai.openai.models.ChatCompletionsFunctionToolDefinition;
-import com.azure.ai.openai.models.ChatCompletionsFunctionToolDefinitionFunction;
 import com.azure.ai.openai.models.ChatCompletionsJsonResponseFormat;
 import com.azure.ai.openai.models.ChatCompletionsNamedToolSelection;
 import com.azure.ai.openai.models.ChatCompletionsOptions;
@@ -27,7 +25,6 @@ import com.azure.ai.openai.models.ChatRequestUserMessage;
 import com.azure.ai.openai.models.ChatResponseMessage;
 import com.azure.ai.openai.models.CompletionsUsage;
 import com.azure.ai.openai.models.FunctionCall;
-import com.azure.ai.openai.models.FunctionDefinition;
 import com.azure.json.JsonOptions;
 import com.azure.json.implementation.DefaultJsonReader;
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -47,6 +44,7 @@ import com.microsoft.semantickernel.exceptions.SKCheckedException;
 import com.microsoft.semantickernel.exceptions.SKException;
 import com.microsoft.semantickernel.functionchoice.AutoFunctionChoiceBehavior;
 import com.microsoft.semantickernel.functionchoice.FunctionChoiceBehavior;
+import com.microsoft.semantickernel.functionchoice.FunctionChoiceBehaviorOptions;
 import com.microsoft.semantickernel.functionchoice.NoneFunctionChoiceBehavior;
 import com.microsoft.semantickernel.functionchoice.RequiredFunctionChoiceBehavior;
 import com.microsoft.semantickernel.hooks.KernelHookEvent;
@@ -74,7 +72,9 @@ import com.microsoft.semantickernel.services.chatcompletion.ChatMessageContent;
 import com.microsoft.semantickernel.services.chatcompletion.StreamingChatContent;
 import com.microsoft.semantickernel.services.chatcompletion.message.ChatMessageContentType;
 import com.microsoft.semantickernel.services.chatcompletion.message.ChatMessageImageContent;
+import com.microsoft.semantickernel.services.openai.OpenAIRateLimiter;
 import com.microsoft.semantickernel.services.openai.OpenAiServiceBuilder;
+import com.microsoft.semantickernel.services.openai.TokenEstimator;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -92,6 +92,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
 
 /**
  * OpenAI chat completion service.
@@ -101,12 +102,24 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
 
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenAIChatCompletion.class);
 
+    // Tool definitions of the functions of the kernel plugins, reused across requests
+    private final OpenAIFunctionCache functionCache = new OpenAIFunctionCache();
+
     protected OpenAIChatCompletion(
         OpenAIAsyncClient client,
         String deploymentName,
         String modelId,
         @Nullable String serviceId) {
-        super(client, serviceId, modelId, deploymentName);
+        this(client, deploymentName, modelId, serviceId, null);
+    }
+
+    protected OpenAIChatCompletion(
+        OpenAIAsyncClient client,
+        String deploymentName,
+        String modelId,
+        @Nullable String serviceId,
+        @Nullable OpenAIRateLimiter rateLimiter) {
+        super(client, serviceId, modelId, deploymentName, rateLimiter);
     }
 
     /**
@@ -201,22 +214,6 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
         ChatHistory chatHistory,
         @Nullable Kernel kernel,
         @Nullable InvocationContext invocationContext) {
-        if (invocationContext != null &&
-            invocationContext.getToolCallBehavior() != null &&
-            invocationContext.getToolCallBehavior().isAutoInvokeAllowed()) {
-            throw new SKException(
-                "ToolCallBehavior auto-invoke is not supported for streaming chat message contents");
-        }
-
-        if (invocationContext != null &&
-            invocationContext.getFunctionChoiceBehavior() != null &&
-            invocationContext.getFunctionChoiceBehavior() instanceof AutoFunctionChoiceBehavior &&
-            ((AutoFunctionChoiceBehavior) invocationContext.getFunctionChoiceBehavior())
-                .isAutoInvoke()) {
-            throw new SKException(
-                "FunctionChoiceBehavior auto-invoke is not supported for streaming chat message contents");
-        }
-
         if (invocationContext != null
             && invocationContext.returnMode() != InvocationReturnMode.NEW_MESSAGES_ONLY) {
             throw new SKException(
@@ -227,18 +224,28 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
 
         ChatMessages messages = new ChatMessages(chatRequestMessages);
 
-        List<OpenAIFunction> functions = new ArrayList<>();
-        if (kernel != null) {
-            kernel.getPlugins()
-                .forEach(plugin -> plugin.getFunctions().forEach((name, function) -> functions
-                    .add(OpenAIFunction.build(function.getMetadata(), plugin.getName()))));
-        }
+        List<OpenAIFunction> functions = functionCache.getFunctions(kernel);
+
+        return internalStreamingChatMessageContentsAsync(
+            messages,
+            kernel,
+            functions,
+            invocationContext,
+            0);
+    }
+
+    private Flux<StreamingChatContent<?>> internalStreamingChatMessageContentsAsync(
+        ChatMessages messages,
+        @Nullable Kernel kernel,
+        List<OpenAIFunction> functions,
+        @Nullable InvocationContext invocationContext,
+        int requestIndex) {
 
         OpenAIToolCallConfig toolCallConfig = getToolCallConfig(
             invocationContext,
             functions,
             messages.allMessages,
-            0);
+            requestIndex);
 
         ChatCompletionsOptions options = executeHook(
             invocationContext,
@@ -251,11 +258,12 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                     toolCallConfig)))
             .getOptions();
 
-        return getClient()
-            .getChatCompletionsStreamWithResponse(
-                getDeploymentName(),
-                options,
-                OpenAIRequestSettings.getRequestOptions())
+        Flux<ChatCompletions> stream = this
+            .limitRateMany(kernel, () -> estimateTokens(options), () -> getClient()
+                .getChatCompletionsStreamWithResponse(
+                    getDeploymentName(),
+                    options,
+                    OpenAIRequestSettings.getRequestOptions()))
             .flatMap(completionsResult -> {
                 if (completionsResult.getStatusCode() >= 400) {
                     //SemanticKernelTelemetry.endSpanWithError(span);
@@ -265,26 +273,140 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                 //SemanticKernelTelemetry.endSpanWithUsage(span, completionsResult.getValue().getUsage());
 
                 return Mono.just(completionsResult.getValue());
-            })
-            .flatMap(completions -> {
-                return Flux.fromIterable(completions.getChoices())
-                    .map(message -> {
-                        AuthorRole role = message.getDelta().getRole() == null
-                            ? AuthorRole.ASSISTANT
-                            : AuthorRole.valueOf(message.getDelta().getRole().toString()
-                                .toUpperCase(Locale.ROOT));
-
-                        return new OpenAIStreamingChatMessageContent<>(
-                            completions.getId(),
-                            role,
-                            message.getDelta().getContent(),
-                            getModelId(),
-                            null,
-                            null,
-                            null,
-                            Arrays.asList());
-                    });
             });
+
+        if (toolCallConfig == null || !toolCallConfig.isAutoInvoke()) {
+            return stream.concatMap(completions -> Flux
+                .fromIterable(completions.getChoices())
+                .<StreamingChatContent<?>>map(
+                    choice -> toStreamingChatMessageContent(completions, choice)));
+        }
+
+        // Stream the content of the response while accumulating its tool call deltas, then
+        // invoke the tool calls and stream the follow-up response
+        StreamingToolCalls toolCalls = new StreamingToolCalls();
+        return stream
+            .concatMap(completions -> Flux
+                .fromIterable(completions.getChoices())
+                .filter(choice -> toolCalls.add(choice.getDelta()))
+                .<StreamingChatContent<?>>map(
+                    choice -> toStreamingChatMessageContent(completions, choice)))
+            .concatWith(Flux.defer(() -> {
+                if (toolCalls.isEmpty()) {
+                    return Flux.empty();
+                }
+
+                ChatRequestAssistantMessage requestMessage = new ChatRequestAssistantMessage(
+                    toolCalls.getContent());
+                requestMessage.setToolCalls(toolCalls.getToolCalls());
+
+                return performToolCalls(kernel, invocationContext, messages.add(requestMessage),
+                    toolCalls.getToolCalls(), getMaxConcurrentInvocations(toolCallConfig))
+                    .flatMapMany(msgs -> internalStreamingChatMessageContentsAsync(msgs, kernel,
+                        functions, invocationContext, requestIndex + 1))
+                    .onErrorResume(FunctionInvocationError.class, e -> {
+                        LOGGER.warn("Tool invocation attempt failed: ", e);
+
+                        // Continue with the failed tool call reported to the model, as long as
+                        // there are attempts left
+                        if (requestIndex < MAXIMUM_INFLIGHT_AUTO_INVOKES) {
+                            messages.assertCommonHistory(e.getMessages());
+                            return internalStreamingChatMessageContentsAsync(
+                                new ChatMessages(e.getMessages()),
+                                kernel,
+                                functions,
+                                invocationContext,
+                                requestIndex + 1);
+                        }
+                        return Flux.error(e);
+                    });
+            }));
+    }
+
+    private StreamingChatContent<?> toStreamingChatMessageContent(
+        ChatCompletions completions,
+        ChatChoice choice) {
+        AuthorRole role = choice.getDelta().getRole() == null
+            ? AuthorRole.ASSISTANT
+            : AuthorRole.valueOf(choice.getDelta().getRole().toString()
+                .toUpperCase(Locale.ROOT));
+
+        return new OpenAIStreamingChatMessageContent<>(
+            completions.getId(),
+            role,
+            choice.getDelta().getContent(),
+            getModelId(),
+            null,
+            null,
+            null,
+            Arrays.asList());
+    }
+
+    /**
+     * Accumulates the content and the tool call deltas of a streamed response.
+     */
+    private static class StreamingToolCalls {
+
+        private final StringBuilder content = new StringBuilder();
+        private final List<String> ids = new ArrayList<>();
+        private final List<String> names = new ArrayList<>();
+        private final List<StringBuilder> arguments = new ArrayList<>();
+
+        /**
+         * Adds a delta of the response.
+         *
+         * @param delta The delta.
+         * @return Whether the delta should be streamed, that is unless it only holds tool calls.
+         */
+        private boolean add(@Nullable ChatResponseMessage delta) {
+            if (delta == null) {
+                return false;
+            }
+            if (delta.getContent() != null) {
+                content.append(delta.getContent());
+            }
+            List<ChatCompletionsToolCall> toolCalls = delta.getToolCalls();
+            if (toolCalls == null || toolCalls.isEmpty()) {
+                return true;
+            }
+            for (ChatCompletionsToolCall toolCall : toolCalls) {
+                if (!(toolCall instanceof ChatCompletionsFunctionToolCall)) {
+                    continue;
+                }
+                FunctionCall function = ((ChatCompletionsFunctionToolCall) toolCall)
+                    .getFunction();
+                // A delta with an id starts a new tool call, the others continue the last one
+                if (toolCall.getId() != null && !toolCall.getId().isEmpty()) {
+                    ids.add(toolCall.getId());
+                    names.add(function == null ? null : function.getName());
+                    arguments.add(new StringBuilder());
+                } else if (ids.isEmpty()) {
+                    continue;
+                }
+                if (function != null && function.getArguments() != null) {
+                    arguments.get(arguments.size() - 1).append(function.getArguments());
+                }
+            }
+            return delta.getContent() != null;
+        }
+
+        private boolean isEmpty() {
+            return ids.isEmpty();
+        }
+
+        @Nullable
+        private String getContent() {
+            return content.length() == 0 ? null : content.toString();
+        }
+
+        private List<ChatCompletionsToolCall> getToolCalls() {
+            List<ChatCompletionsToolCall> toolCalls = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                toolCalls.add(new ChatCompletionsFunctionToolCall(ids.get(i),
+                    new FunctionCall(names.get(i), arguments.get(i).toString())));
+            }
+            return toolCalls;
+        }
     }
 
     @Override
@@ -403,12 +525,7 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
         @Nullable Kernel kernel,
         @Nullable InvocationContext invocationContext) {
 
-        List<OpenAIFunction> functions = new ArrayList<>();
-        if (kernel != null) {
-            kernel.getPlugins()
-                .forEach(plugin -> plugin.getFunctions().forEach((name, function) -> functions
-                    .add(OpenAIFunction.build(function.getMetadata(), plugin.getName()))));
-        }
+        List<OpenAIFunction> functions = functionCache.getFunctions(kernel);
 
         return internalChatMessageContentsAsync(
             messages,
@@ -452,9 +569,10 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                     options.getTemperature(),
                     options.getTopP());
 
-                return getClient()
-                    .getChatCompletionsWithResponse(getDeploymentName(), options,
-                        OpenAIRequestSettings.getRequestOptions())
+                return this
+                    .limitRate(kernel, () -> estimateTokens(options), () -> getClient()
+                        .getChatCompletionsWithResponse(getDeploymentName(), options,
+                            OpenAIRequestSettings.getRequestOptions()))
                     .contextWrite(span.getReactorContextModifier())
                     .flatMap(completionsResult -> {
                         if (completionsResult.getStatusCode() >= 400) {
@@ -506,19 +624,8 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                 // to understand the tool call responses
                 ChatMessages messagesWithToolCall = messages.add(requestMessage);
 
-                return Flux
-                    .fromIterable(toolCalls)
-                    .reduce(
-                        Mono.just(messagesWithToolCall),
-                        (requestMessages, toolCall) -> {
-                            if (toolCall instanceof ChatCompletionsFunctionToolCall) {
-                                return performToolCall(kernel, invocationContext, requestMessages,
-                                    toolCall);
-                            }
-
-                            return requestMessages;
-                        })
-                    .flatMap(it -> it)
+                return performToolCalls(kernel, invocationContext, messagesWithToolCall,
+                    toolCalls, getMaxConcurrentInvocations(toolCallConfig))
                     .flatMap(msgs -> {
                         return internalChatMessageContentsAsync(msgs, kernel, functions,
                             invocationContext, requestIndex + 1);
@@ -550,6 +657,64 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
             });
     }
 
+    private static int getMaxConcurrentInvocations(
+        @Nullable OpenAIToolCallConfig toolCallConfig) {
+        if (toolCallConfig == null || toolCallConfig.getOptions() == null) {
+            return FunctionChoiceBehaviorOptions.DEFAULT_MAX_CONCURRENT_INVOCATIONS;
+        }
+        return toolCallConfig.getOptions().getMaxConcurrentInvocations();
+    }
+
+    private Mono<ChatMessages> performToolCalls(
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext,
+        ChatMessages messages,
+        List<ChatCompletionsToolCall> toolCalls,
+        int maxConcurrentInvocations) {
+
+        // OpenAI only supports function tool call at the moment
+        List<ChatCompletionsToolCall> functionToolCalls = toolCalls
+            .stream()
+            .filter(toolCall -> toolCall instanceof ChatCompletionsFunctionToolCall)
+            .collect(Collectors.toList());
+
+        if (maxConcurrentInvocations <= 1 || functionToolCalls.size() <= 1) {
+            return Flux
+                .fromIterable(functionToolCalls)
+                .reduce(
+                    Mono.just(messages),
+                    (requestMessages, toolCall) -> performToolCall(kernel, invocationContext,
+                        requestMessages, toolCall))
+                .flatMap(it -> it);
+        }
+
+        if (kernel == null) {
+            return Mono.error(new SKException(
+                "A tool call was requested, but no kernel was provided to the invocation, this is a unsupported configuration"));
+        }
+
+        // Invoke the tool calls concurrently, then add their results in the order of the calls,
+        // stopping at the first failure as the sequential invocation does
+        return Flux
+            .fromIterable(functionToolCalls)
+            .flatMapSequential(
+                toolCall -> invokeToolCall(kernel, invocationContext, toolCall).materialize(),
+                maxConcurrentInvocations)
+            .collectList()
+            .flatMap(results -> {
+                ChatMessages requestMessages = messages;
+                for (int i = 0; i < results.size(); i++) {
+                    Signal<ChatRequestMessage> result = results.get(i);
+                    if (result.isOnError()) {
+                        return emitError(functionToolCalls.get(i), requestMessages,
+                            result.getThrowable());
+                    }
+                    requestMessages = requestMessages.add(result.get());
+                }
+                return Mono.just(requestMessages);
+            });
+    }
+
     private Mono<ChatMessages> performToolCall(
         @Nullable Kernel kernel,
         @Nullable InvocationContext invocationContext,
@@ -558,46 +723,48 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
 
         return requestMessages
             .flatMap(messages -> {
-                try {
-                    // OpenAI only supports function tool call at the moment
-                    ChatCompletionsFunctionToolCall functionToolCall = (ChatCompletionsFunctionToolCall) toolCall;
-                    if (kernel == null) {
-                        return Mono.error(new SKException(
-                            "A tool call was requested, but no kernel was provided to the invocation, this is a unsupported configuration"));
-                    }
-
-                    ContextVariableTypes contextVariableTypes = invocationContext == null
-                        ? new ContextVariableTypes()
-                        : invocationContext.getContextVariableTypes();
-
-                    return invokeFunctionTool(
-                        kernel,
-                        invocationContext,
-                        functionToolCall,
-                        contextVariableTypes)
-                        .map(functionResult -> {
-                            // Add chat request tool message to the chat options
-                            ChatRequestMessage requestToolMessage = new ChatRequestToolMessage(
-                                functionResult.getResult(),
-                                functionToolCall.getId());
-
-                            return messages.add(requestToolMessage);
-                        })
-                        .switchIfEmpty(Mono.fromSupplier(
-                            () -> {
-                                ChatRequestMessage requestToolMessage = new ChatRequestToolMessage(
-                                    "Completed successfully with no return value",
-                                    functionToolCall.getId());
-
-                                return messages.add(requestToolMessage);
-                            }))
-                        .onErrorResume(e -> emitError(toolCall, messages, e));
-                } catch (Exception e) {
-                    return emitError(toolCall, messages, e);
+                if (kernel == null) {
+                    return Mono.error(new SKException(
+                        "A tool call was requested, but no kernel was provided to the invocation, this is a unsupported configuration"));
                 }
+
+                return invokeToolCall(kernel, invocationContext, toolCall)
+                    .map(messages::add)
+                    .onErrorResume(e -> emitError(toolCall, messages, e));
             });
     }
 
+    private Mono<ChatRequestMessage> invokeToolCall(
+        Kernel kernel,
+        @Nullable InvocationContext invocationContext,
+        ChatCompletionsToolCall toolCall) {
+        try {
+            ChatCompletionsFunctionToolCall functionToolCall = (ChatCompletionsFunctionToolCall) toolCall;
+
+            ContextVariableTypes contextVariableTypes = invocationContext == null
+                ? new ContextVariableTypes()
+                : invocationContext.getContextVariableTypes();
+
+            return invokeFunctionTool(
+                kernel,
+                invocationContext,
+                functionToolCall,
+                contextVariableTypes)
+                .<ChatRequestMessage>map(functionResult -> {
+                    // Add chat request tool message to the chat options
+                    return new ChatRequestToolMessage(
+                        functionResult.getResult(),
+                        functionToolCall.getId());
+                })
+                .switchIfEmpty(Mono.fromSupplier(
+                    () -> new ChatRequestToolMessage(
+                        "Completed successfully with no return value",
+                        functionToolCall.getId())));
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+    }
+
     private Mono<ChatMessages> emitError(
         ChatCompletionsToolCall toolCall,
         ChatMessages msgs,
@@ -973,6 +1140,17 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
         return options;
     }
 
+    // Estimates the tokens of the request, as serialized, and of its completion
+    private static int estimateTokens(ChatCompletionsOptions options) {
+        int completionTokens = options.getMaxTokens() == null ? 0 : options.getMaxTokens();
+        try {
+            return completionTokens
+                + TokenEstimator.estimateTokens(options.toJsonString());
+        } catch (IOException e) {
+            return completionTokens;
+        }
+    }
+
     @Nullable
     private static OpenAIToolCallConfig getToolCallConfig(
         @Nullable InvocationContext invocationContext,
@@ -1044,11 +1222,7 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
         List<ChatCompletionsToolDefinition> toolDefinitions = functions.stream()
             .filter(function -> functionChoiceBehavior.isFunctionAllowed(function.getPluginName(),
                 function.getName()))
-            .map(OpenAIFunction::getFunctionDefinition)
-            .map(it -> new ChatCompletionsFunctionToolDefinitionFunction(it.getName())
-                .setDescription(it.getDescription())
-                .setParameters(it.getParameters()))
-            .map(ChatCompletionsFunctionToolDefinition::new)
+            .map(OpenAIFunction::getToolDefinition)
             .collect(Collectors.toList());
 
         return new OpenAIToolCallConfig(
@@ -1092,15 +1266,22 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                 return null;
             }
 
-            FunctionDefinition function = OpenAIFunction.toFunctionDefinition(
-                requiredFunction.getMetadata(),
-                requiredFunction.getPluginName());
+            // Reuse the cached definition if the required function is one of the kernel's
+            ChatCompletionsToolDefinition toolDefinition = functions.stream()
+                .filter(function -> function.getFunctionDefinition().getName()
+                    .equals(toolChoiceName))
+                .map(OpenAIFunction::getToolDefinition)
+                .findFirst()
+                .orElseGet(() -> new OpenAIFunction(
+                    requiredFunction.getName(),
+                    requiredFunction.getPluginName(),
+                    OpenAIFunction.toFunctionDefinition(
+                        requiredFunction.getMetadata(),
+                        requiredFunction.getPluginName()))
+                    .getToolDefinition());
 
             toolDefinitions = new ArrayList<>();
-            toolDefinitions.add(new ChatCompletionsFunctionToolDefinition(
-                new ChatCompletionsFunctionToolDefinitionFunction(function.getName())
-                    .setDescription(function.getDescription())
-                    .setParameters(function.getParameters())));
+            toolDefinitions.add(toolDefinition);
 
             try {
                 String json = String.format(
@@ -1132,11 +1313,7 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                     return enabledKernelFunctions.isFunctionAllowed(function.getPluginName(),
                         function.getName());
                 })
-                .map(OpenAIFunction::getFunctionDefinition)
-                .map(it -> new ChatCompletionsFunctionToolDefinitionFunction(it.getName())
-                    .setDescription(it.getDescription())
-                    .setParameters(it.getParameters()))
-                .map(ChatCompletionsFunctionToolDefinition::new)
+                .map(OpenAIFunction::getToolDefinition)
                 .collect(Collectors.toList());
 
             if (toolDefinitions.isEmpty()) {
@@ -1330,7 +1507,8 @@ public class OpenAIChatCompletion extends OpenAiService<OpenAIAsyncClient>
                 deploymentName = modelId;
             }
 
-            return new OpenAIChatCompletion(client, deploymentName, modelId, serviceId);
+            return new OpenAIChatCompletion(client, deploymentName, modelId, serviceId,
+                rateLimiter);
         }
     }
 }
@@ -1,6 +1,9 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.aiservices.openai.chatcompletion;
 
+import com.azure.ai.openai.models.ChatCompletionsFunctionToolDefinition;
+import com.azure.ai.openai.models.ChatCompletionsFunctionToolDefinitionFunction;
+import com.azure.ai.openai.models.ChatCompletionsToolDefinition;
 import com.azure.ai.openai.models.FunctionDefinition;
 import com.azure.core.util.BinaryData;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -24,9 +27,12 @@ import org.apache.commons.lang3.StringUtils;
 
 class OpenAIFunction {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private final String pluginName;
     private final String name;
     private final FunctionDefinition functionDefinition;
+    private final ChatCompletionsToolDefinition toolDefinition;
 
     protected OpenAIFunction(
         @Nonnull String name,
@@ -35,6 +41,10 @@ class OpenAIFunction {
         this.name = name;
         this.pluginName = pluginName;
         this.functionDefinition = functionDefinition;
+        this.toolDefinition = new ChatCompletionsFunctionToolDefinition(
+            new ChatCompletionsFunctionToolDefinitionFunction(functionDefinition.getName())
+                .setDescription(functionDefinition.getDescription())
+                .setParameters(functionDefinition.getParameters()));
     }
 
     public static OpenAIFunction build(KernelFunctionMetadata<?> metadata, String pluginName) {
@@ -55,6 +65,16 @@ class OpenAIFunction {
         return functionDefinition;
     }
 
+    /**
+     * Gets the tool definition advertising the function to the model. The definition is built
+     * once, and shared by the requests advertising the function.
+     *
+     * @return The tool definition.
+     */
+    public ChatCompletionsToolDefinition getToolDefinition() {
+        return toolDefinition;
+    }
+
     /**
      * Gets the separator used between the plugin name and the function name, if a plugin name is
      * present.
@@ -90,20 +110,19 @@ class OpenAIFunction {
         List<String> required = new ArrayList<>();
 
         try {
-            ObjectMapper objectMapper = new ObjectMapper();
             for (InputVariable parameter : metadata.getParameters()) {
                 String parameterJsonSchema = getSchemaForFunctionParameter(parameter);
 
-                properties.put(parameter.getName(), objectMapper.readTree(parameterJsonSchema));
+                properties.put(parameter.getName(), OBJECT_MAPPER.readTree(parameterJsonSchema));
 
                 if (parameter.isRequired()) {
                     required.add(parameter.getName());
                 }
             }
 
-            String json = objectMapper
+            String json = OBJECT_MAPPER
                 .writeValueAsString(new OpenAIFunctionParameter("object", required, properties));
-            resultParameters = BinaryData.fromObject(objectMapper.readTree(json));
+            resultParameters = BinaryData.fromObject(OBJECT_MAPPER.readTree(json));
         } catch (JsonProcessingException e) {
             throw new RuntimeException(e);
         }
@@ -0,0 +1,108 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.aiservices.openai.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.plugin.KernelPlugin;
+import com.microsoft.semantickernel.semanticfunctions.KernelFunction;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * Caches the {@link OpenAIFunction}s of the plugins of a kernel, so that the JSON schemas and the
+ * tool definitions of the functions are not generated again for every request.
+ * <p>
+ * The functions of the last plugin set seen are kept as a snapshot, which is reused as long as
+ * the kernel exposes the same functions under the same plugin names. When the plugins change,
+ * only the functions that were not seen before are converted again.
+ */
+class OpenAIFunctionCache {
+
+    @GuardedBy("this")
+    @Nullable
+    private Snapshot snapshot;
+
+    // Keyed by identity, as functions do not override equals
+    @GuardedBy("this")
+    private final Map<KernelFunction<?>, OpenAIFunction> functions = new WeakHashMap<>();
+
+    /**
+     * Gets the OpenAI functions of the plugins of a kernel.
+     *
+     * @param kernel The kernel, or null.
+     * @return The functions, in the order of the plugins of the kernel.
+     */
+    List<OpenAIFunction> getFunctions(@Nullable Kernel kernel) {
+        if (kernel == null) {
+            return Collections.emptyList();
+        }
+
+        List<String> pluginNames = new ArrayList<>();
+        List<KernelFunction<?>> kernelFunctions = new ArrayList<>();
+        for (KernelPlugin plugin : kernel.getPlugins()) {
+            for (KernelFunction<?> function : plugin.getFunctions().values()) {
+                pluginNames.add(plugin.getName());
+                kernelFunctions.add(function);
+            }
+        }
+
+        synchronized (this) {
+            if (snapshot != null && snapshot.matches(pluginNames, kernelFunctions)) {
+                return snapshot.openAIFunctions;
+            }
+
+            List<OpenAIFunction> openAIFunctions = new ArrayList<>(kernelFunctions.size());
+            for (int i = 0; i < kernelFunctions.size(); i++) {
+                KernelFunction<?> function = kernelFunctions.get(i);
+                OpenAIFunction openAIFunction = functions.get(function);
+                if (openAIFunction == null
+                    || !openAIFunction.getPluginName().equals(pluginNames.get(i))) {
+                    openAIFunction = OpenAIFunction.build(function.getMetadata(),
+                        pluginNames.get(i));
+                    functions.put(function, openAIFunction);
+                }
+                openAIFunctions.add(openAIFunction);
+            }
+
+            snapshot = new Snapshot(pluginNames, kernelFunctions,
+                Collections.unmodifiableList(openAIFunctions));
+            return snapshot.openAIFunctions;
+        }
+    }
+
+    /**
+     * The functions of a plugin set and their OpenAI functions.
+     */
+    private static final class Snapshot {
+
+        private final List<String> pluginNames;
+        private final List<KernelFunction<?>> kernelFunctions;
+        private final List<OpenAIFunction> openAIFunctions;
+
+        private Snapshot(
+            List<String> pluginNames,
+            List<KernelFunction<?>> kernelFunctions,
+            List<OpenAIFunction> openAIFunctions) {
+            this.pluginNames = pluginNames;
+            this.kernelFunctions = kernelFunctions;
+            this.openAIFunctions = openAIFunctions;
+        }
+
+        private boolean matches(List<String> pluginNames, List<KernelFunction<?>> functions) {
+            if (functions.size() != kernelFunctions.size()) {
+                return false;
+            }
+            for (int i = 0; i < functions.size(); i++) {
+                if (functions.get(i) != kernelFunctions.get(i)
+                    || !pluginNames.get(i).equals(this.pluginNames.get(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
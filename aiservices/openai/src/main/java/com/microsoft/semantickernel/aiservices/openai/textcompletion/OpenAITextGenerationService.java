@@ -12,6 +12,8 @@ import com.microsoft.semantickernel.exceptions.AIException.ErrorCodes;
 import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
 import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
 import com.microsoft.semantickernel.services.StreamingTextContent;
+import com.microsoft.semantickernel.services.openai.OpenAIRateLimiter;
+import com.microsoft.semantickernel.services.openai.TokenEstimator;
 import com.microsoft.semantickernel.services.textcompletion.TextContent;
 import com.microsoft.semantickernel.services.textcompletion.TextGenerationService;
 import java.util.Collections;
@@ -45,7 +47,25 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
         String modelId,
         @Nullable String serviceId,
         String deploymentName) {
-        super(client, serviceId, modelId, deploymentName);
+        this(client, modelId, serviceId, deploymentName, null);
+    }
+
+    /**
+     * Creates a new {@link OpenAITextGenerationService}.
+     *
+     * @param client         OpenAI client
+     * @param modelId        OpenAI model id
+     * @param serviceId      Service id
+     * @param deploymentName Deployment name
+     * @param rateLimiter    Rate limiter of the requests
+     */
+    protected OpenAITextGenerationService(
+        OpenAIAsyncClient client,
+        String modelId,
+        @Nullable String serviceId,
+        String deploymentName,
+        @Nullable OpenAIRateLimiter rateLimiter) {
+        super(client, serviceId, modelId, deploymentName, rateLimiter);
     }
 
     /**
@@ -62,7 +82,7 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
         String prompt,
         @Nullable PromptExecutionSettings executionSettings,
         @Nullable Kernel kernel) {
-        return this.internalCompleteTextAsync(prompt, executionSettings);
+        return this.internalCompleteTextAsync(prompt, executionSettings, kernel);
     }
 
     @Override
@@ -71,7 +91,7 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
         @Nullable PromptExecutionSettings executionSettings,
         @Nullable Kernel kernel) {
         return this
-            .internalCompleteTextAsync(prompt, executionSettings)
+            .internalCompleteTextAsync(prompt, executionSettings, kernel)
             .flatMapMany(it -> Flux.fromStream(it.stream())
                 .map(OpenAIStreamingTextContent::new));
     }
@@ -79,12 +99,29 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
     protected Mono<List<TextContent>> internalCompleteTextAsync(
         String text,
         @Nullable PromptExecutionSettings requestSettings) {
+        return internalCompleteTextAsync(text, requestSettings, null);
+    }
+
+    /**
+     * Completes a text, queuing the request with the other requests of the kernel when the
+     * service is rate limited.
+     *
+     * @param text            The text to complete.
+     * @param requestSettings The settings of the request.
+     * @param kernel          The kernel making the request, or null.
+     * @return The completions.
+     */
+    protected Mono<List<TextContent>> internalCompleteTextAsync(
+        String text,
+        @Nullable PromptExecutionSettings requestSettings,
+        @Nullable Kernel kernel) {
 
         CompletionsOptions completionsOptions = getCompletionsOptions(text, requestSettings);
 
-        return getClient()
-            .getCompletionsWithResponse(getDeploymentName(), completionsOptions,
-                OpenAIRequestSettings.getRequestOptions())
+        return this
+            .limitRate(kernel, () -> estimateTokens(text, completionsOptions), () -> getClient()
+                .getCompletionsWithResponse(getDeploymentName(), completionsOptions,
+                    OpenAIRequestSettings.getRequestOptions()))
             .flatMap(completionsResult -> {
                 if (completionsResult.getStatusCode() >= 400) {
                     return Mono.error(new AIException(ErrorCodes.SERVICE_ERROR,
@@ -111,6 +148,14 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
             });
     }
 
+    // Estimates the tokens of the prompt and of its completions
+    private static int estimateTokens(String text, CompletionsOptions options) {
+        int maxTokens = options.getMaxTokens() == null ? 0 : options.getMaxTokens();
+        int completions = options.getN() == null ? 1 : options.getN();
+        return TokenEstimator.estimateTokens(text)
+            + maxTokens * completions;
+    }
+
     private CompletionsOptions getCompletionsOptions(
         String text,
         @Nullable PromptExecutionSettings requestSettings) {
@@ -169,7 +214,8 @@ public class OpenAITextGenerationService extends OpenAiService<OpenAIAsyncClient
                 this.client,
                 this.modelId,
                 this.serviceId,
-                this.deploymentName);
+                this.deploymentName,
+                this.rateLimiter);
         }
     }
 }
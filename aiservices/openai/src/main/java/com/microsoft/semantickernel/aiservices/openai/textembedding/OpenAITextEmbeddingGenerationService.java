@@ -5,21 +5,39 @@ import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.models.EmbeddingItem;
 import com.azure.ai.openai.models.Embeddings;
 import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.azure.core.exception.HttpResponseException;
 import com.microsoft.semantickernel.aiservices.openai.OpenAiService;
 import com.microsoft.semantickernel.exceptions.AIException;
+import com.microsoft.semantickernel.services.openai.OpenAIRateLimiter;
 import com.microsoft.semantickernel.services.openai.OpenAiServiceBuilder;
+import com.microsoft.semantickernel.services.openai.TokenEstimator;
 import com.microsoft.semantickernel.services.textembedding.Embedding;
 import com.microsoft.semantickernel.services.textembedding.TextEmbeddingGenerationService;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
 /**
  * An OpenAI implementation of a {@link TextEmbeddingGenerationService}.
+ * <p>
+ * The texts are split into requests of at most a maximum number of texts and of estimated
+ * tokens, and several requests are sent concurrently. The embeddings are returned in the order of
+ * the texts.
+ * <p>
+ * Requests throttled by the service, with a 429 status, are retried by the retry policy of the
+ * client. For clients built without one, the service can retry them itself, after the delay of
+ * their {@code Retry-After} header or an exponential backoff, when no rate limiter is set. A
+ * request failing once the retries are exhausted fails with the error of its last attempt.
  */
 public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAsyncClient>
     implements TextEmbeddingGenerationService {
@@ -27,6 +45,11 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
     private static final Logger LOGGER = LoggerFactory
         .getLogger(OpenAITextEmbeddingGenerationService.class);
     private final int dimensions;
+    private final int maxBatchSize;
+    private final int maxBatchTokens;
+    private final int maxConcurrency;
+    private final int maxRetries;
+    private final Duration retryBackoff;
 
     /**
      * Dimension of the OpenAI
@@ -39,6 +62,30 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
      */
     public static final int EMBEDDING_DIMENSIONS_LARGE = 3072;
 
+    /**
+     * The default maximum number of texts of a request, the limit of the OpenAI API.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 2048;
+    /**
+     * The default maximum number of estimated tokens of a request, below the limit of the OpenAI
+     * API to leave room for the error of the estimation.
+     */
+    public static final int DEFAULT_MAX_BATCH_TOKENS = 200_000;
+    /**
+     * The default maximum number of concurrent requests.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 4;
+    /**
+     * The default maximum number of retries of a throttled request by the service, none, so that
+     * they don't multiply the retries of the retry policy of the client.
+     */
+    public static final int DEFAULT_MAX_RETRIES = 0;
+    /**
+     * The default minimum backoff before retrying a throttled request without a
+     * {@code Retry-After} header.
+     */
+    public static final Duration DEFAULT_RETRY_BACKOFF = Duration.ofSeconds(1);
+
     /**
      * Creates a new {@link OpenAITextEmbeddingGenerationService}.
      *
@@ -54,8 +101,77 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
         String modelId,
         @Nullable String serviceId,
         int dimensions) {
-        super(client, serviceId, modelId, deploymentName);
+        this(client, deploymentName, modelId, serviceId, dimensions, DEFAULT_MAX_BATCH_SIZE,
+            DEFAULT_MAX_BATCH_TOKENS, DEFAULT_MAX_CONCURRENCY, DEFAULT_MAX_RETRIES,
+            DEFAULT_RETRY_BACKOFF);
+    }
+
+    /**
+     * Creates a new {@link OpenAITextEmbeddingGenerationService}.
+     *
+     * @param client         OpenAI client
+     * @param deploymentName deployment name
+     * @param modelId        OpenAI model id
+     * @param serviceId      Service id
+     * @param dimensions     The dimensions for the embeddings.
+     * @param maxBatchSize   The maximum number of texts of a request.
+     * @param maxBatchTokens The maximum number of estimated tokens of a request.
+     * @param maxConcurrency The maximum number of concurrent requests.
+     * @param maxRetries     The maximum number of retries of a throttled request by the service.
+     * @param retryBackoff   The minimum backoff before retrying a throttled request without a
+     *                       {@code Retry-After} header.
+     */
+    public OpenAITextEmbeddingGenerationService(
+        OpenAIAsyncClient client,
+        String deploymentName,
+        String modelId,
+        @Nullable String serviceId,
+        int dimensions,
+        int maxBatchSize,
+        int maxBatchTokens,
+        int maxConcurrency,
+        int maxRetries,
+        Duration retryBackoff) {
+        this(client, deploymentName, modelId, serviceId, dimensions, maxBatchSize, maxBatchTokens,
+            maxConcurrency, maxRetries, retryBackoff, null);
+    }
+
+    /**
+     * Creates a new {@link OpenAITextEmbeddingGenerationService}.
+     *
+     * @param client         OpenAI client
+     * @param deploymentName deployment name
+     * @param modelId        OpenAI model id
+     * @param serviceId      Service id
+     * @param dimensions     The dimensions for the embeddings.
+     * @param maxBatchSize   The maximum number of texts of a request.
+     * @param maxBatchTokens The maximum number of estimated tokens of a request.
+     * @param maxConcurrency The maximum number of concurrent requests.
+     * @param maxRetries     The maximum number of retries of a throttled request by the service,
+     *                       when the requests are not rate limited.
+     * @param retryBackoff   The minimum backoff before retrying a throttled request without a
+     *                       {@code Retry-After} header, when the requests are not rate limited.
+     * @param rateLimiter    The rate limiter of the requests, or {@code null}.
+     */
+    public OpenAITextEmbeddingGenerationService(
+        OpenAIAsyncClient client,
+        String deploymentName,
+        String modelId,
+        @Nullable String serviceId,
+        int dimensions,
+        int maxBatchSize,
+        int maxBatchTokens,
+        int maxConcurrency,
+        int maxRetries,
+        Duration retryBackoff,
+        @Nullable OpenAIRateLimiter rateLimiter) {
+        super(client, serviceId, modelId, deploymentName, rateLimiter);
         this.dimensions = dimensions;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchTokens = maxBatchTokens;
+        this.maxConcurrency = maxConcurrency;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
     }
 
     /**
@@ -96,7 +212,47 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
         return this.internalGenerateTextEmbeddingsAsync(data);
     }
 
+    /**
+     * Generates embeddings for the given data, emitting the embeddings of each request as soon as
+     * the embeddings of the preceding requests have been emitted.
+     *
+     * @param data The data to generate embeddings for.
+     * @return A Flux of the embeddings, in the order of the data.
+     */
+    @Override
+    public Flux<Embedding> generateEmbeddingsStreamAsync(List<String> data) {
+        return Flux.fromIterable(split(data))
+            .flatMapSequential(this::requestEmbeddingsAsync, maxConcurrency)
+            .flatMapIterable(embeddings -> embeddings);
+    }
+
     protected Mono<List<Embedding>> internalGenerateTextEmbeddingsAsync(List<String> data) {
+        return generateEmbeddingsStreamAsync(data).collectList();
+    }
+
+    // Splits the texts into batches of at most maxBatchSize texts and maxBatchTokens tokens
+    private List<List<String>> split(List<String> data) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        int tokens = 0;
+        for (String text : data) {
+            int textTokens = TokenEstimator.estimateTokens(text);
+            if (!batch.isEmpty()
+                && (batch.size() >= maxBatchSize || tokens + textTokens > maxBatchTokens)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                tokens = 0;
+            }
+            batch.add(text);
+            tokens += textTokens;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private Mono<List<Embedding>> requestEmbeddingsAsync(List<String> data) {
         EmbeddingsOptions options = new EmbeddingsOptions(data)
             .setModel(getModelId())
             .setInputType("string");
@@ -104,13 +260,51 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
             options.setDimensions(dimensions);
         }
 
-        return getClient()
-            .getEmbeddings(getModelId(), options)
-            .flatMapIterable(Embeddings::getData)
-            .mapNotNull(EmbeddingItem::getEmbedding)
-            .map(ArrayList::new)
-            .mapNotNull(Embedding::new)
-            .collectList();
+        Mono<Embeddings> request;
+        if (getRateLimiter() != null) {
+            request = limitRate(null,
+                () -> data.stream()
+                    .mapToInt(TokenEstimator::estimateTokens)
+                    .sum(),
+                () -> getClient().getEmbeddings(getModelId(), options));
+        } else {
+            request = Mono.defer(() -> getClient().getEmbeddings(getModelId(), options))
+                .retryWhen(Retry.max(maxRetries)
+                    .filter(OpenAITextEmbeddingGenerationService::isThrottled)
+                    .doBeforeRetryAsync(signal -> {
+                        Duration delay = getRetryDelay(
+                            (HttpResponseException) signal.failure(), signal.totalRetries());
+                        LOGGER.debug("Embeddings request throttled, retry {} of {} in {}",
+                            signal.totalRetries() + 1, maxRetries, delay);
+                        return Mono.delay(delay).then();
+                    })
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        }
+
+        return request
+            .map(embeddings -> embeddings.getData().stream()
+                // Items are ordered by the index of their text
+                .sorted(Comparator.comparingInt(EmbeddingItem::getPromptIndex))
+                .map(EmbeddingItem::getEmbedding)
+                .filter(Objects::nonNull)
+                // Unboxed once, into the array of the embedding
+                .map(Embedding::new)
+                .collect(Collectors.toList()));
+    }
+
+    // The delay of the Retry-After header, or the backoff doubled on each retry
+    private Duration getRetryDelay(HttpResponseException e, long retries) {
+        Duration retryAfter = OpenAIRateLimiter.getRetryAfter(e.getResponse());
+        if (retryAfter != null) {
+            return retryAfter;
+        }
+        return retryBackoff.multipliedBy(1L << Math.min(retries, 30));
+    }
+
+    private static boolean isThrottled(Throwable e) {
+        return e instanceof HttpResponseException
+            && ((HttpResponseException) e).getResponse() != null
+            && ((HttpResponseException) e).getResponse().getStatusCode() == 429;
     }
 
     /**
@@ -120,6 +314,11 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
         OpenAiServiceBuilder<OpenAIAsyncClient, OpenAITextEmbeddingGenerationService, OpenAITextEmbeddingGenerationService.Builder> {
 
         private int dimensions = -1;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private int maxBatchTokens = DEFAULT_MAX_BATCH_TOKENS;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private int maxRetries = DEFAULT_MAX_RETRIES;
+        private Duration retryBackoff = DEFAULT_RETRY_BACKOFF;
 
         /**
          * Sets the dimensions for the embeddings.
@@ -132,6 +331,69 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
             return this;
         }
 
+        /**
+         * Sets the maximum number of texts of a request. Defaults to
+         * {@link #DEFAULT_MAX_BATCH_SIZE}.
+         *
+         * @param maxBatchSize The maximum number of texts of a request.
+         * @return The builder.
+         */
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tokens of a request, estimated as four characters per
+         * token. A text exceeding the limit on its own is sent alone. Defaults to
+         * {@link #DEFAULT_MAX_BATCH_TOKENS}.
+         *
+         * @param maxBatchTokens The maximum number of tokens of a request.
+         * @return The builder.
+         */
+        public Builder withMaxBatchTokens(int maxBatchTokens) {
+            this.maxBatchTokens = maxBatchTokens;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests. Defaults to
+         * {@link #DEFAULT_MAX_CONCURRENCY}.
+         *
+         * @param maxConcurrency The maximum number of concurrent requests.
+         * @return The builder.
+         */
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of retries of a request throttled by the service, on top of the
+         * retries of the retry policy of the client, for clients built without one. Defaults to
+         * {@link #DEFAULT_MAX_RETRIES}.
+         *
+         * @param maxRetries The maximum number of retries.
+         * @return The builder.
+         */
+        public Builder withMaxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Sets the minimum backoff before retrying a throttled request without a
+         * {@code Retry-After} header, doubled on each retry. Defaults to
+         * {@link #DEFAULT_RETRY_BACKOFF}.
+         *
+         * @param retryBackoff The minimum backoff.
+         * @return The builder.
+         */
+        public Builder withRetryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
         @Override
         public OpenAITextEmbeddingGenerationService build() {
             if (this.client == null) {
@@ -149,8 +411,19 @@ public class OpenAITextEmbeddingGenerationService extends OpenAiService<OpenAIAs
                 deploymentName = modelId;
             }
 
+            if (maxBatchSize < 1 || maxBatchTokens < 1 || maxConcurrency < 1) {
+                throw new AIException(AIException.ErrorCodes.INVALID_REQUEST,
+                    "Batch sizes and concurrency must be positive");
+            }
+
+            if (maxRetries < 0 || retryBackoff == null || retryBackoff.isNegative()) {
+                throw new AIException(AIException.ErrorCodes.INVALID_REQUEST,
+                    "Retries and retry backoff must not be negative");
+            }
+
             return new OpenAITextEmbeddingGenerationService(client, deploymentName, modelId,
-                serviceId, dimensions);
+                serviceId, dimensions, maxBatchSize, maxBatchTokens, maxConcurrency, maxRetries,
+                retryBackoff, rateLimiter);
         }
     }
 }
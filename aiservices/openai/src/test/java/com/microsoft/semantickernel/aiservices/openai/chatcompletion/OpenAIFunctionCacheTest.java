@@ -0,0 +1,43 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.aiservices.openai.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.plugin.KernelPlugin;
+import com.microsoft.semantickernel.plugin.KernelPluginFactory;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OpenAIFunctionCacheTest {
+
+    @Test
+    public void functionsAreReusedUntilThePluginsChange() {
+        OpenAIFunctionCache cache = new OpenAIFunctionCache();
+        KernelPlugin plugin = KernelPluginFactory.createFromObject(
+            new JsonSchemaTest.TestPlugin(), "test");
+        Kernel kernel = Kernel.builder().withPlugin(plugin).build();
+
+        List<OpenAIFunction> functions = cache.getFunctions(kernel);
+        Assertions.assertEquals(3, functions.size());
+        Assertions.assertSame(functions, cache.getFunctions(kernel));
+        Assertions.assertSame(functions, cache.getFunctions(Kernel.builder()
+            .withPlugin(plugin)
+            .build()));
+
+        // Only the added functions are converted
+        Kernel extended = kernel.toBuilder()
+            .withPlugin(KernelPluginFactory.createFromObject(
+                new JsonSchemaTest.TestPlugin(), "other"))
+            .build();
+        List<OpenAIFunction> extendedFunctions = cache.getFunctions(extended);
+        Assertions.assertEquals(6, extendedFunctions.size());
+        for (OpenAIFunction function : functions) {
+            Assertions.assertTrue(extendedFunctions.stream().anyMatch(it -> it == function));
+        }
+        Assertions.assertEquals(3, extendedFunctions.stream()
+            .filter(function -> function.getPluginName().equals("other"))
+            .count());
+
+        Assertions.assertTrue(cache.getFunctions(null).isEmpty());
+    }
+}
@@ -6,20 +6,39 @@ import com.azure.ai.openai.models.ChatCompletions;
 import com.azure.ai.openai.models.ChatCompletionsFunctionToolCall;
 import com.azure.ai.openai.models.ChatCompletionsOptions;
 import com.azure.ai.openai.models.ChatRequestAssistantMessage;
+import com.azure.ai.openai.models.ChatRequestMessage;
+import com.azure.ai.openai.models.ChatRequestToolMessage;
 import com.azure.core.http.HttpHeaders;
 import com.azure.core.http.HttpRequest;
 import com.azure.core.http.rest.Response;
 import com.azure.json.JsonOptions;
 import com.azure.json.implementation.DefaultJsonReader;
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.functionchoice.FunctionChoiceBehavior;
+import com.microsoft.semantickernel.functionchoice.FunctionChoiceBehaviorOptions;
 import com.microsoft.semantickernel.implementation.EmbeddedResourceLoader;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
 import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.plugin.KernelPluginFactory;
 import com.microsoft.semantickernel.semanticfunctions.KernelArguments;
+import com.microsoft.semantickernel.semanticfunctions.annotations.DefineKernelFunction;
+import com.microsoft.semantickernel.semanticfunctions.annotations.KernelFunctionParameter;
 import com.microsoft.semantickernel.services.chatcompletion.AuthorRole;
 import com.microsoft.semantickernel.services.chatcompletion.ChatHistory;
+import java.io.FileNotFoundException;
 import java.nio.charset.Charset;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 public class OpenAiChatCompletionTest {
@@ -79,6 +98,196 @@ public class OpenAiChatCompletionTest {
                 Mockito.any());
     }
 
+    public static class LookupPlugin {
+
+        private final AtomicInteger active = new AtomicInteger();
+        private final AtomicInteger maxActive = new AtomicInteger();
+
+        @DefineKernelFunction(name = "get", returnType = "java.lang.String")
+        public Mono<String> get(@KernelFunctionParameter(name = "id") String id) {
+            // Earlier calls take longer, so that they complete last
+            return Mono.delay(Duration.ofMillis(300 - 100L * Integer.parseInt(id)))
+                .doOnSubscribe(subscription -> maxActive.accumulateAndGet(
+                    active.incrementAndGet(), Math::max))
+                .doOnTerminate(active::decrementAndGet)
+                .map(ignored -> "value " + id);
+        }
+    }
+
+    // Answers the values in order, then the last one again, like thenReturn without its
+    // unchecked generic array
+    @SafeVarargs
+    private static <T> Answer<T> answersInOrder(T... values) {
+        return AdditionalAnswers.returnsElementsOf(Arrays.asList(values));
+    }
+
+    private static String toolCall(int id) {
+        return "{\"id\": \"call_" + id + "\", \"type\": \"function\", \"function\": "
+            + "{\"name\": \"lookup-get\", \"arguments\": \"{\\\"id\\\": \\\"" + id
+            + "\\\"}\"}}";
+    }
+
+    private static List<ChatRequestMessage> invokeThreeToolCalls(LookupPlugin plugin,
+        FunctionChoiceBehaviorOptions options) throws FileNotFoundException {
+        String toolCalls = "{\"choices\": [{\"index\": 0, \"finish_reason\": \"tool_calls\", "
+            + "\"message\": {\"role\": \"assistant\", \"content\": null, \"tool_calls\": ["
+            + toolCall(1) + ", " + toolCall(2) + ", " + toolCall(3) + "]}}], "
+            + "\"usage\": {\"completion_tokens\": 1, \"prompt_tokens\": 1, "
+            + "\"total_tokens\": 2}, \"created\": 1707253039, \"id\": \"chatcmpl-xxx\"}";
+        String answer = String.format(EmbeddedResourceLoader.readFile("chatCompletion.txt",
+            OpenAiChatCompletionTest.class), "done");
+
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        Mockito.when(client.getChatCompletionsWithResponse(Mockito.any(),
+            Mockito.<ChatCompletionsOptions>any(), Mockito.any()))
+            .thenAnswer(answersInOrder(Mono.just(response(toolCalls)),
+                Mono.just(response(answer))));
+        OpenAIChatCompletion chatCompletion = new OpenAIChatCompletion(client, "test", "test",
+            "test");
+
+        Kernel kernel = Kernel.builder()
+            .withPlugin(KernelPluginFactory.createFromObject(plugin, "lookup"))
+            .build();
+        ChatHistory chatHistory = new ChatHistory();
+        chatHistory.addUserMessage("Look up 1, 2 and 3");
+
+        chatCompletion.getChatMessageContentsAsync(chatHistory, kernel,
+            InvocationContext.builder()
+                .withFunctionChoiceBehavior(FunctionChoiceBehavior.auto(true, null, options))
+                .build())
+            .block();
+
+        ArgumentCaptor<ChatCompletionsOptions> requests = ArgumentCaptor
+            .forClass(ChatCompletionsOptions.class);
+        Mockito.verify(client, Mockito.times(2))
+            .getChatCompletionsWithResponse(Mockito.any(), requests.capture(), Mockito.any());
+        return requests.getAllValues().get(1).getMessages();
+    }
+
+    private static void assertToolMessagesInCallOrder(List<ChatRequestMessage> messages,
+        String... toolCallIds) {
+        List<ChatRequestToolMessage> toolMessages = messages.stream()
+            .filter(message -> message instanceof ChatRequestToolMessage)
+            .map(message -> (ChatRequestToolMessage) message)
+            .collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList(toolCallIds), toolMessages
+            .stream()
+            .map(ChatRequestToolMessage::getToolCallId)
+            .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void toolCallsAreInvokedConcurrently() throws FileNotFoundException {
+        LookupPlugin plugin = new LookupPlugin();
+        List<ChatRequestMessage> messages = invokeThreeToolCalls(plugin,
+            FunctionChoiceBehaviorOptions.builder()
+                .withParallelCallsAllowed(true)
+                .withMaxConcurrentInvocations(3)
+                .build());
+
+        Assertions.assertEquals(3, plugin.maxActive.get());
+        assertToolMessagesInCallOrder(messages, "call_1", "call_2", "call_3");
+    }
+
+    @Test
+    public void toolCallsAreInvokedSequentiallyByDefault() throws FileNotFoundException {
+        LookupPlugin plugin = new LookupPlugin();
+        List<ChatRequestMessage> messages = invokeThreeToolCalls(plugin, null);
+
+        Assertions.assertEquals(1, plugin.maxActive.get());
+        assertToolMessagesInCallOrder(messages, "call_1", "call_2", "call_3");
+    }
+
+    private static Response<ChatCompletions> chunk(String delta) {
+        return response("{\"id\": \"chatcmpl-xxx\", \"created\": 1707253039, \"choices\": "
+            + "[{\"index\": 0, \"delta\": " + delta + "}]}");
+    }
+
+    private static String toolCallDelta(String id, String name, String arguments) {
+        return "{\"tool_calls\": [{" + (id == null ? "" : "\"id\": \"" + id + "\", ")
+            + "\"type\": \"function\", \"function\": {"
+            + (name == null ? "" : "\"name\": \"" + name + "\", ")
+            + "\"arguments\": \"" + arguments + "\"}}]}";
+    }
+
+    @Test
+    public void streamedToolCallsAreInvoked() {
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        Mockito.when(client.getChatCompletionsStreamWithResponse(Mockito.any(),
+            Mockito.<ChatCompletionsOptions>any(), Mockito.any()))
+            .thenAnswer(answersInOrder(
+                Flux.just(
+                    chunk("{\"role\": \"assistant\"}"),
+                    chunk(toolCallDelta("call_1", "lookup-get", "{\\\"id\\\": ")),
+                    chunk(toolCallDelta(null, null, "\\\"1\\\"}")),
+                    chunk(toolCallDelta("call_2", "lookup-get", "{\\\"id\\\": \\\"2\\\"}"))),
+                Flux.just(
+                    chunk("{\"role\": \"assistant\", \"content\": \"The \"}"),
+                    chunk("{\"content\": \"values\"}"))));
+        OpenAIChatCompletion chatCompletion = new OpenAIChatCompletion(client, "test", "test",
+            "test");
+
+        LookupPlugin plugin = new LookupPlugin();
+        Kernel kernel = Kernel.builder()
+            .withPlugin(KernelPluginFactory.createFromObject(plugin, "lookup"))
+            .build();
+        ChatHistory chatHistory = new ChatHistory();
+        chatHistory.addUserMessage("Look up 1 and 2");
+
+        List<String> contents = chatCompletion
+            .getStreamingChatMessageContentsAsync(chatHistory, kernel,
+                InvocationContext.builder()
+                    .withFunctionChoiceBehavior(FunctionChoiceBehavior.auto(true))
+                    .build())
+            .map(content -> String.valueOf(content.getContent()))
+            .collectList()
+            .block();
+
+        Assertions.assertEquals(Arrays.asList("null", "The ", "values"), contents);
+
+        ArgumentCaptor<ChatCompletionsOptions> requests = ArgumentCaptor
+            .forClass(ChatCompletionsOptions.class);
+        Mockito.verify(client, Mockito.times(2))
+            .getChatCompletionsStreamWithResponse(Mockito.any(), requests.capture(),
+                Mockito.any());
+        List<ChatRequestMessage> messages = requests.getAllValues().get(1).getMessages();
+        ChatRequestAssistantMessage assistantMessage = (ChatRequestAssistantMessage) messages
+            .get(1);
+        Assertions.assertEquals("{\"id\": \"1\"}",
+            ((ChatCompletionsFunctionToolCall) assistantMessage.getToolCalls().get(0))
+                .getFunction().getArguments());
+        assertToolMessagesInCallOrder(messages.subList(0, 4), "call_1", "call_2");
+    }
+
+    private static Response<ChatCompletions> response(String json) {
+        return new Response<ChatCompletions>() {
+            @Override
+            public int getStatusCode() {
+                return 200;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return new HttpHeaders();
+            }
+
+            @Override
+            public HttpRequest getRequest() {
+                return null;
+            }
+
+            @Override
+            public ChatCompletions getValue() {
+                try {
+                    return ChatCompletions.fromJson(
+                        DefaultJsonReader.fromString(json, new JsonOptions()));
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+    }
+
     private static OpenAIChatCompletion mockClient(OpenAIAsyncClient client) {
         Mockito.when(client.getChatCompletionsWithResponse(Mockito.any(),
             Mockito.<ChatCompletionsOptions>any(), Mockito.any()))
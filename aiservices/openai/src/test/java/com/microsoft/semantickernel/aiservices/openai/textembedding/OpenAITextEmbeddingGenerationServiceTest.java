@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.aiservices.openai.textembedding;
+
+import com.azure.ai.openai.OpenAIAsyncClient;
+import com.azure.ai.openai.models.EmbeddingItem;
+import com.azure.ai.openai.models.Embeddings;
+import com.azure.ai.openai.models.EmbeddingsOptions;
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpResponse;
+import com.microsoft.semantickernel.services.textembedding.Embedding;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+
+public class OpenAITextEmbeddingGenerationServiceTest {
+
+    private static List<String> texts(int count) {
+        List<String> texts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            texts.add("text " + i);
+        }
+        return texts;
+    }
+
+    // Embeds each text as its number, returning the items in reverse order
+    private static Embeddings embed(List<String> input) {
+        List<EmbeddingItem> items = new ArrayList<>();
+        for (int i = 0; i < input.size(); i++) {
+            EmbeddingItem item = Mockito.mock(EmbeddingItem.class);
+            Mockito.when(item.getPromptIndex()).thenReturn(i);
+            Mockito.when(item.getEmbedding()).thenReturn(Collections.singletonList(
+                Float.parseFloat(input.get(i).substring("text ".length()))));
+            items.add(0, item);
+        }
+        Embeddings embeddings = Mockito.mock(Embeddings.class);
+        Mockito.when(embeddings.getData()).thenReturn(items);
+        return embeddings;
+    }
+
+    private static void assertInOrder(int count, List<Embedding> embeddings) {
+        Assertions.assertEquals(count, embeddings.size());
+        for (int i = 0; i < count; i++) {
+            Assertions.assertEquals((float) i, embeddings.get(i).getVector().get(0));
+        }
+    }
+
+    @Test
+    public void requestsAreSplitAndReassembledInOrder() {
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Mockito.when(client.getEmbeddings(Mockito.any(), Mockito.<EmbeddingsOptions>any()))
+            .thenAnswer(invocation -> {
+                List<String> input = invocation.<EmbeddingsOptions>getArgument(1).getInput();
+                batchSizes.add(input.size());
+                // Later batches complete first
+                return Mono.just(embed(input))
+                    .delayElement(Duration.ofMillis(100 - 10L * batchSizes.size()));
+            });
+
+        OpenAITextEmbeddingGenerationService service = OpenAITextEmbeddingGenerationService
+            .builder()
+            .withOpenAIAsyncClient(client)
+            .withModelId("model")
+            .withMaxBatchSize(3)
+            .withMaxConcurrency(4)
+            .build();
+
+        assertInOrder(10, service.generateEmbeddingsAsync(texts(10)).block());
+        Assertions.assertEquals(4, batchSizes.size());
+        Assertions.assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        Assertions.assertTrue(batchSizes.stream().allMatch(size -> size <= 3));
+
+        assertInOrder(10, service.generateEmbeddingsStreamAsync(texts(10)).collectList()
+            .block());
+    }
+
+    @Test
+    public void requestsAreSplitByTokens() {
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        AtomicInteger requests = new AtomicInteger();
+        Mockito.when(client.getEmbeddings(Mockito.any(), Mockito.<EmbeddingsOptions>any()))
+            .thenAnswer(invocation -> {
+                requests.incrementAndGet();
+                return Mono.just(embed(invocation.<EmbeddingsOptions>getArgument(1)
+                    .getInput()));
+            });
+
+        // Each text is estimated to 2 tokens
+        OpenAITextEmbeddingGenerationService service = OpenAITextEmbeddingGenerationService
+            .builder()
+            .withOpenAIAsyncClient(client)
+            .withModelId("model")
+            .withMaxBatchTokens(4)
+            .build();
+
+        assertInOrder(6, service.generateEmbeddingsAsync(texts(6)).block());
+        Assertions.assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void throttledRequestsAreRetriedAfterTheirRetryAfterDelay() {
+        HttpResponse response = Mockito.mock(HttpResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(429);
+        Mockito.when(response.getHeaderValue(HttpHeaderName.RETRY_AFTER_MS)).thenReturn("50");
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        AtomicInteger requests = new AtomicInteger();
+        Mockito.when(client.getEmbeddings(Mockito.any(), Mockito.<EmbeddingsOptions>any()))
+            .thenAnswer(invocation -> {
+                if (requests.incrementAndGet() <= 2) {
+                    return Mono.error(new HttpResponseException("Too many requests", response));
+                }
+                return Mono.just(embed(invocation.<EmbeddingsOptions>getArgument(1)
+                    .getInput()));
+            });
+
+        OpenAITextEmbeddingGenerationService service = OpenAITextEmbeddingGenerationService
+            .builder()
+            .withOpenAIAsyncClient(client)
+            .withModelId("model")
+            .withMaxRetries(2)
+            .withRetryBackoff(Duration.ofMillis(1))
+            .build();
+
+        long start = System.nanoTime();
+        assertInOrder(2, service.generateEmbeddingsAsync(texts(2)).block());
+        Assertions.assertEquals(3, requests.get());
+        Assertions.assertTrue(System.nanoTime() - start >= Duration.ofMillis(100).toNanos());
+    }
+
+    @Test
+    public void requestsFailWithTheErrorOfTheirLastAttempt() {
+        HttpResponse response = Mockito.mock(HttpResponse.class);
+        Mockito.when(response.getStatusCode()).thenReturn(429);
+        OpenAIAsyncClient client = Mockito.mock(OpenAIAsyncClient.class);
+        AtomicInteger requests = new AtomicInteger();
+        Mockito.when(client.getEmbeddings(Mockito.any(), Mockito.<EmbeddingsOptions>any()))
+            .thenAnswer(invocation -> {
+                requests.incrementAndGet();
+                return Mono.error(new HttpResponseException("Too many requests", response));
+            });
+
+        OpenAITextEmbeddingGenerationService service = OpenAITextEmbeddingGenerationService
+            .builder()
+            .withOpenAIAsyncClient(client)
+            .withModelId("model")
+            .withMaxRetries(1)
+            .withRetryBackoff(Duration.ofMillis(1))
+            .build();
+
+        Assertions.assertThrows(HttpResponseException.class,
+            () -> service.generateEmbeddingsAsync(texts(2)).block());
+        Assertions.assertEquals(2, requests.get());
+    }
+}
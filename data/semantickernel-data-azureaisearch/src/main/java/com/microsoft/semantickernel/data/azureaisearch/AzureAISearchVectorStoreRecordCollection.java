@@ -43,6 +43,7 @@ import java.util.List;
 import java.util.Vector;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -302,7 +303,9 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
             .setVectorSearchOptions(new com.azure.search.documents.models.VectorSearchOptions()
                 .setQueries(vectorQueries));
 
-        if (!options.isIncludeVectors()) {
+        if (options.isKeysOnly()) {
+            searchOptions.setSelect(recordDefinition.getKeyField().getEffectiveStorageName());
+        } else if (!options.isIncludeVectors()) {
             searchOptions.setSelect(nonVectorFields.toArray(new String[0]));
         }
 
@@ -311,12 +314,33 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
 
     private Mono<VectorSearchResults<Record>> searchAndMapAsync(String query,
         SearchOptions searchOptions,
-        boolean includeVectors) {
+        boolean includeVectors,
+        boolean keysOnly,
+        @Nullable Double scoreThreshold) {
+        return searchAndMap(query, searchOptions, includeVectors, keysOnly, scoreThreshold)
+            .collectList()
+            .map(VectorSearchResults::new);
+    }
+
+    private Flux<VectorSearchResult<Record>> searchAndMap(String query,
+        SearchOptions searchOptions,
+        boolean includeVectors,
+        boolean keysOnly,
+        @Nullable Double scoreThreshold) {
         VectorStoreRecordMapper<Record, SearchDocument> mapper = this.options
             .getVectorStoreRecordMapper();
 
+        // Results are returned by descending score, so the search stops at the first result
+        // below the threshold, before it is mapped and before further pages are requested
         return this.searchAsyncClient.search(query, searchOptions)
-            .flatMap(response -> {
+            .takeWhile(response -> scoreThreshold == null || response.getScore() >= scoreThreshold)
+            .map(response -> {
+                if (keysOnly) {
+                    Object key = response.getDocument(SearchDocument.class)
+                        .get(recordDefinition.getKeyField().getEffectiveStorageName());
+                    return new VectorSearchResult<Record>(null, key, response.getScore());
+                }
+
                 Record record;
 
                 // Use custom mapper if available
@@ -328,9 +352,8 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
                     record = response.getDocument(this.options.getRecordClass());
                 }
 
-                return Mono.just(new VectorSearchResult<>(record, response.getScore()));
-            }).collectList().flatMap(results -> Mono.just(
-                new VectorSearchResults<>(results)));
+                return new VectorSearchResult<>(record, response.getScore());
+            });
     }
 
     /**
@@ -362,7 +385,7 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
 
         return searchAndMapAsync(null,
             configureVectorSearchOptions(vectorQueries, options),
-            options.isIncludeVectors());
+            options.isIncludeVectors(), options.isKeysOnly(), options.getScoreThreshold());
     }
 
     /**
@@ -378,6 +401,41 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
         return hybridSearchAsync(null, vector, options, null);
     }
 
+    /**
+     * Vectorized search, emitting the results one by one as the pages of results are received
+     * from Azure AI Search. Further pages are only requested while the results are consumed.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A Flux of vector search results.
+     */
+    @Override
+    public Flux<VectorSearchResult<Record>> searchStreamAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        if (firstVectorFieldName == null) {
+            throw new SKException("No vector fields defined. Cannot perform vector search");
+        }
+
+        if (options == null) {
+            options = VectorSearchOptions.createDefault(firstVectorFieldName);
+        }
+
+        return searchAndMap(null,
+            configureVectorSearchOptions(createVectorQueries(vector, options), options),
+            options.isIncludeVectors(), options.isKeysOnly(), options.getScoreThreshold());
+    }
+
+    private List<VectorQuery> createVectorQueries(List<Float> vector,
+        VectorSearchOptions options) {
+        List<VectorQuery> vectorQueries = new ArrayList<>();
+        vectorQueries.add(new VectorizedQuery(vector)
+            .setFields(recordDefinition.getField(options.getVectorFieldName() != null
+                ? options.getVectorFieldName()
+                : firstVectorFieldName).getEffectiveStorageName())
+            .setKNearestNeighborsCount(options.getTop()));
+        return vectorQueries;
+    }
+
     /**
      * Hybrid search. This method searches for records that are similar to the given text and vector.
      *
@@ -404,15 +462,9 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
                 options = VectorSearchOptions.createDefault(firstVectorFieldName);
             }
 
-            List<VectorQuery> vectorQueries = new ArrayList<>();
-            vectorQueries.add(new VectorizedQuery(vector)
-                .setFields(recordDefinition.getField(options.getVectorFieldName() != null
-                    ? options.getVectorFieldName()
-                    : firstVectorFieldName).getEffectiveStorageName())
-                .setKNearestNeighborsCount(options.getTop()));
-
             // Configure default vector search options
-            searchOptions = configureVectorSearchOptions(vectorQueries, options);
+            searchOptions = configureVectorSearchOptions(createVectorQueries(vector, options),
+                options);
         }
 
         // Configure additional search options
@@ -466,6 +518,8 @@ public class AzureAISearchVectorStoreRecordCollection<Record> implements
         }
 
         return searchAndMapAsync(searchText, searchOptions,
-            options != null && options.isIncludeVectors());
+            options != null && options.isIncludeVectors(),
+            options != null && options.isKeysOnly(),
+            options != null ? options.getScoreThreshold() : null);
     }
 }
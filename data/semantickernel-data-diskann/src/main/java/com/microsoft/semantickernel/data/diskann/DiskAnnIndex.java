@@ -0,0 +1,1140 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.semantickernel.data.vectorsearch.ProductQuantizer;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A Vamana graph index stored in a directory, as described by the DiskANN paper.
+ * <p>
+ * The full vectors and the adjacency lists are stored in a memory-mapped node file, the records
+ * in an append-only record file, and the nodes of the keys in a memory-mapped hash table. Only
+ * the product quantized codes of the vectors, once trained, are kept in memory. A search walks
+ * the graph using the quantized distances, and ranks the visited nodes using their full vectors.
+ * <p>
+ * Records are inserted into the graph as they are upserted. Deleted and replaced records are
+ * only marked as deleted: they are still used to navigate the graph, but never returned. Once
+ * the deleted nodes reach the compaction threshold of the options, the index is compacted in the
+ * background, as in FreshDiskANN: the nodes linking to deleted nodes are relinked to the
+ * neighbors of those nodes, then the live nodes are copied, with their adjacency lists, into a
+ * new generation of the files, which replaces the previous one when the metadata is written.
+ * Searches run during a compaction, writes wait for it.
+ */
+final class DiskAnnIndex implements Closeable {
+
+    private static final String META_FILE = "meta.json";
+    private static final String NODE_FILE = "nodes.bin";
+    private static final String RECORD_FILE = "records.bin";
+    private static final String KEY_FILE = "keys.bin";
+    private static final String QUANTIZER_FILE = "pq.bin";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DiskAnnIndex.class);
+
+    // Number of nodes per array of quantized codes
+    private static final int CODE_CHUNK_NODES = 1 << 16;
+    // Number of nodes relinked at a time by a compaction, between which searches can run
+    private static final int CONSOLIDATION_CHUNK_NODES = 1024;
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+    private final int dimensions;
+    private final DistanceFunction distanceFunction;
+    private final DiskAnnVectorStoreRecordCollectionOptions<?> options;
+    // Cosine distances are computed on normalized vectors
+    private final boolean normalized;
+    // Searches rank by inner product rather than Euclidean distance
+    private final boolean innerProduct;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes the writes with the compactions, which only hold the lock while they change the
+    // graph, so that searches run in between
+    private final Object writeMonitor = new Object();
+    private final AtomicBoolean compacting = new AtomicBoolean();
+    private volatile boolean closed;
+
+    @GuardedBy("lock")
+    private int generation;
+    @GuardedBy("lock")
+    private DiskAnnNodeFile nodes;
+    @GuardedBy("lock")
+    private FileChannel records;
+    @GuardedBy("lock")
+    private long recordsSize;
+    @GuardedBy("lock")
+    private int nodeCount;
+    @GuardedBy("lock")
+    private int entryPoint = -1;
+    @GuardedBy("lock")
+    private DiskAnnKeyFile keys;
+    @GuardedBy("lock")
+    @Nullable
+    private ProductQuantizer quantizer;
+    @GuardedBy("lock")
+    private byte[][] codes = new byte[0][];
+
+    private DiskAnnIndex(Path directory, ObjectMapper objectMapper, int dimensions,
+        DistanceFunction distanceFunction, DiskAnnVectorStoreRecordCollectionOptions<?> options,
+        int generation) throws IOException {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+        this.dimensions = dimensions;
+        this.distanceFunction = distanceFunction;
+        this.options = options;
+        this.normalized = distanceFunction == DistanceFunction.COSINE_SIMILARITY
+            || distanceFunction == DistanceFunction.COSINE_DISTANCE;
+        this.innerProduct = distanceFunction == DistanceFunction.DOT_PRODUCT;
+        this.generation = generation;
+        this.nodes = openNodes(generation);
+        this.records = openRecords(generation);
+        this.keys = openKeys(generation);
+    }
+
+    /**
+     * Checks whether an index exists in the directory.
+     *
+     * @param directory The directory of the index.
+     * @return {@code true} if the index exists.
+     */
+    static boolean exists(Path directory) {
+        return Files.exists(directory.resolve(META_FILE));
+    }
+
+    /**
+     * Creates an empty index in the directory, replacing any existing index.
+     *
+     * @param directory        The directory of the index.
+     * @param objectMapper     The object mapper used for the index metadata.
+     * @param dimensions       The number of dimensions of the vectors.
+     * @param distanceFunction The distance function of the vectors.
+     * @param options          The options of the collection.
+     * @return The index.
+     * @throws IOException If the index cannot be written.
+     */
+    static DiskAnnIndex create(Path directory, ObjectMapper objectMapper, int dimensions,
+        DistanceFunction distanceFunction, DiskAnnVectorStoreRecordCollectionOptions<?> options)
+        throws IOException {
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> paths = Files.list(directory)) {
+            files = paths.filter(DiskAnnIndex::isIndexFile).collect(Collectors.toList());
+        }
+        for (Path file : files) {
+            Files.delete(file);
+        }
+
+        DiskAnnIndex index = new DiskAnnIndex(directory, objectMapper, dimensions,
+            distanceFunction, options, 0);
+        index.lock.writeLock().lock();
+        try {
+            index.writeMeta();
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        return index;
+    }
+
+    /**
+     * Opens the index of the directory, rebuilding the quantized codes in memory.
+     *
+     * @param directory        The directory of the index.
+     * @param objectMapper     The object mapper used for the index metadata.
+     * @param dimensions       The number of dimensions of the vectors.
+     * @param distanceFunction The distance function of the vectors.
+     * @param options          The options of the collection.
+     * @return The index.
+     * @throws IOException If the index cannot be read.
+     */
+    static DiskAnnIndex open(Path directory, ObjectMapper objectMapper, int dimensions,
+        DistanceFunction distanceFunction, DiskAnnVectorStoreRecordCollectionOptions<?> options)
+        throws IOException {
+        ObjectNode meta = (ObjectNode) objectMapper.readTree(
+            directory.resolve(META_FILE).toFile());
+        if (meta.get("dimensions").asInt() != dimensions
+            || meta.get("maxDegree").asInt() != options.getMaxDegree()
+            || !meta.get("distanceFunction").asText().equals(distanceFunction.name())) {
+            throw new SKException(String.format(
+                "The index in %s was created with different dimensions, maximum degree or"
+                    + " distance function",
+                directory));
+        }
+
+        int generation = meta.path("generation").asInt(0);
+        boolean keyFileExists = Files.exists(
+            directory.resolve(getFileName(KEY_FILE, generation)));
+        DiskAnnIndex index = new DiskAnnIndex(directory, objectMapper, dimensions,
+            distanceFunction, options, generation);
+        index.lock.writeLock().lock();
+        try {
+            index.nodeCount = meta.get("nodeCount").asInt();
+            index.entryPoint = meta.get("entryPoint").asInt();
+            index.recordsSize = index.records.size();
+            index.nodes.ensureCapacity(index.nodeCount);
+            // Indexes written before the key file existed have their keys read once
+            if (!keyFileExists) {
+                for (int node = 0; node < index.nodeCount; node++) {
+                    if (index.nodes.getState(node) == DiskAnnNodeFile.LIVE) {
+                        index.keys.add(index.readRecord(node).getKey(), node);
+                    }
+                }
+                index.keys.force();
+            }
+
+            Path quantizerFile = directory.resolve(QUANTIZER_FILE);
+            if (Files.exists(quantizerFile)) {
+                try (DataInputStream input = new DataInputStream(
+                    new BufferedInputStream(Files.newInputStream(quantizerFile)))) {
+                    index.quantizer = ProductQuantizer.read(input);
+                }
+                index.encodeAll();
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        return index;
+    }
+
+    /**
+     * Gets the record stored for a key.
+     *
+     * @param key The key of the record.
+     * @return The record, serialized as JSON, or null if the key is not found.
+     * @throws IOException If the record cannot be read.
+     */
+    @Nullable
+    byte[] get(String key) throws IOException {
+        lock.readLock().lock();
+        try {
+            int node = keys.get(key, this::readLiveKey);
+            return node < 0 ? null : readRecord(node).getRecord();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts records, replacing the records stored for the same keys.
+     *
+     * @param entries The records to insert.
+     * @throws IOException If the records cannot be written.
+     */
+    void upsert(List<Entry> entries) throws IOException {
+        synchronized (writeMonitor) {
+            boolean compactionNeeded;
+            lock.writeLock().lock();
+            try {
+                for (Entry entry : entries) {
+                    checkDimensions(entry.getVector());
+                    int previous = keys.remove(entry.getKey(), this::readLiveKey);
+                    if (previous >= 0) {
+                        nodes.setState(previous, DiskAnnNodeFile.DELETED);
+                    }
+                    keys.add(entry.getKey(), insert(entry.getKey(), entry.getRecord(),
+                        normalized ? normalize(entry.getVector()) : entry.getVector()));
+                }
+
+                if (quantizer == null && keys.size() >= options.getPqTrainingSize()) {
+                    trainQuantizer();
+                }
+                writeMeta();
+                compactionNeeded = isCompactionNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (compactionNeeded) {
+                compactInBackground();
+            }
+        }
+    }
+
+    /**
+     * Marks the records of the keys as deleted.
+     *
+     * @param keysToDelete The keys of the records to delete.
+     * @throws IOException If the index cannot be written.
+     */
+    void delete(List<String> keysToDelete) throws IOException {
+        synchronized (writeMonitor) {
+            boolean compactionNeeded;
+            lock.writeLock().lock();
+            try {
+                for (String key : keysToDelete) {
+                    int node = keys.remove(key, this::readLiveKey);
+                    if (node >= 0) {
+                        nodes.setState(node, DiskAnnNodeFile.DELETED);
+                    }
+                }
+                writeMeta();
+                compactionNeeded = isCompactionNeeded();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (compactionNeeded) {
+                compactInBackground();
+            }
+        }
+    }
+
+    /**
+     * Searches the records closest to the query.
+     *
+     * @param query    The query vector.
+     * @param listSize The size of the candidate list of the search, bounding the number of
+     *                 results.
+     * @return The nodes of the records found, closest first.
+     */
+    List<Result> search(float[] query, int listSize) {
+        checkDimensions(query);
+        float[] vector = normalized ? normalize(query) : query;
+
+        lock.readLock().lock();
+        try {
+            if (entryPoint < 0) {
+                return Collections.emptyList();
+            }
+
+            ProductQuantizer currentQuantizer = quantizer;
+            float[] table = currentQuantizer == null ? null
+                : currentQuantizer.getDistanceTable(vector, innerProduct);
+            List<Candidate> visited = greedySearch(vector, listSize, node -> {
+                if (table == null) {
+                    return searchDistance(vector, nodes.getVector(node));
+                }
+                int chunk = node / CODE_CHUNK_NODES;
+                int offset = (node % CODE_CHUNK_NODES) * currentQuantizer.getCodeSize();
+                return currentQuantizer.getDistance(table, codes[chunk], offset);
+            }, innerProduct);
+
+            List<Result> results = new ArrayList<>();
+            for (Candidate candidate : visited) {
+                if (nodes.getState(candidate.node) == DiskAnnNodeFile.LIVE) {
+                    results.add(new Result(generation, candidate.node,
+                        getScore(vector, candidate.vector)));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reads the record of a search result. The record can still be read once deleted, until the
+     * index is compacted.
+     *
+     * @param result The search result.
+     * @return The record, or null if the index was compacted since the search.
+     * @throws IOException If the record cannot be read.
+     */
+    @Nullable
+    StoredRecord read(Result result) throws IOException {
+        lock.readLock().lock();
+        try {
+            return result.generation == generation ? readRecord(nodes, records, result.node)
+                : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Inserts a record into the graph.
+     *
+     * @param key    The key of the record.
+     * @param record The record, serialized as JSON.
+     * @param vector The vector of the record, normalized for cosine distances.
+     * @return The node of the record.
+     */
+    @GuardedBy("lock")
+    private int insert(String key, byte[] record, float[] vector) throws IOException {
+        int node = nodeCount;
+        nodes.ensureCapacity(node + 1);
+        nodes.setVector(node, vector);
+        nodes.setNeighbors(node, new int[0], 0);
+        int length = writeRecord(records, recordsSize, key, record);
+        nodes.setRecord(node, recordsSize, length);
+        recordsSize += length;
+        nodes.setState(node, DiskAnnNodeFile.LIVE);
+        nodeCount++;
+
+        if (quantizer != null) {
+            ensureCodeCapacity(nodeCount);
+            quantizer.encode(vector, codes[node / CODE_CHUNK_NODES],
+                (node % CODE_CHUNK_NODES) * quantizer.getCodeSize());
+        }
+
+        if (entryPoint < 0) {
+            entryPoint = node;
+            return node;
+        }
+
+        // The graph is built on Euclidean distances, which order normalized vectors like cosine
+        List<Candidate> visited = greedySearch(vector, options.getBuildListSize(),
+            other -> squaredDistance(vector, nodes.getVector(other)), false);
+        List<Candidate> live = new ArrayList<>();
+        for (Candidate candidate : visited) {
+            if (nodes.getState(candidate.node) == DiskAnnNodeFile.LIVE) {
+                live.add(candidate);
+            }
+        }
+        int[] neighbors = robustPrune(node, live);
+        nodes.setNeighbors(node, neighbors, neighbors.length);
+
+        // Link the neighbors back, pruning their adjacency lists when full
+        for (int neighbor : neighbors) {
+            int[] adjacency = nodes.getNeighbors(neighbor);
+            if (adjacency.length < options.getMaxDegree()) {
+                int[] extended = Arrays.copyOf(adjacency, adjacency.length + 1);
+                extended[adjacency.length] = node;
+                nodes.setNeighbors(neighbor, extended, extended.length);
+                continue;
+            }
+
+            float[] neighborVector = nodes.getVector(neighbor);
+            List<Candidate> candidates = new ArrayList<>();
+            for (int other : adjacency) {
+                float[] otherVector = nodes.getVector(other);
+                candidates.add(new Candidate(other, otherVector,
+                    squaredDistance(neighborVector, otherVector)));
+            }
+            candidates.add(new Candidate(node, vector, squaredDistance(neighborVector, vector)));
+            int[] pruned = robustPrune(neighbor, candidates);
+            nodes.setNeighbors(neighbor, pruned, pruned.length);
+        }
+        return node;
+    }
+
+    @GuardedBy("lock")
+    private boolean isCompactionNeeded() {
+        double threshold = options.getCompactionThreshold();
+        int deleted = nodeCount - keys.size();
+        return threshold > 0 && deleted > 0 && deleted >= threshold * nodeCount;
+    }
+
+    private void compactInBackground() {
+        if (!compacting.compareAndSet(false, true)) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                compact();
+            } catch (IOException | RuntimeException e) {
+                // The deleted nodes stay in the graph until the next compaction
+                if (!closed) {
+                    LOGGER.warn("Failed to compact the index in {}", directory, e);
+                }
+            } finally {
+                compacting.set(false);
+            }
+        });
+    }
+
+    /**
+     * Removes the deleted nodes from the graph, then copies the live nodes into the files of the
+     * next generation. The metadata then switches to the new files, so an interrupted compaction
+     * leaves the current generation in use. The product quantizer is kept, as deletions do not
+     * change the distribution of the vectors much.
+     */
+    private void compact() throws IOException {
+        synchronized (writeMonitor) {
+            if (closed) {
+                return;
+            }
+            lock.readLock().lock();
+            try {
+                if (!isCompactionNeeded()) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            if (consolidateDeletes()) {
+                copyToNextGeneration();
+            }
+        }
+    }
+
+    /**
+     * Relinks each node linking to deleted nodes to the neighbors of those nodes, pruned as on
+     * insertion, so that the deleted nodes are no longer reachable. The nodes are relinked a
+     * chunk at a time, with searches running in between.
+     *
+     * @return {@code true} unless the index was closed in the meantime.
+     */
+    @GuardedBy("writeMonitor")
+    private boolean consolidateDeletes() throws IOException {
+        BitSet deleted;
+        int count;
+        lock.readLock().lock();
+        try {
+            count = nodeCount;
+            deleted = new BitSet(count);
+            for (int node = 0; node < count; node++) {
+                if (nodes.getState(node) != DiskAnnNodeFile.LIVE) {
+                    deleted.set(node);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        for (int start = 0; start < count; start += CONSOLIDATION_CHUNK_NODES) {
+            if (closed) {
+                return false;
+            }
+            lock.writeLock().lock();
+            try {
+                for (int node = start; node < Math.min(count,
+                    start + CONSOLIDATION_CHUNK_NODES); node++) {
+                    if (!deleted.get(node)) {
+                        relink(node, deleted);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (entryPoint >= 0 && deleted.get(entryPoint)) {
+                entryPoint = getLiveEntryPoint(deleted);
+            }
+            writeMeta();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return true;
+    }
+
+    @GuardedBy("lock")
+    private void relink(int node, BitSet deleted) {
+        int[] adjacency = nodes.getNeighbors(node);
+        if (Arrays.stream(adjacency).noneMatch(deleted::get)) {
+            return;
+        }
+
+        Set<Integer> candidateNodes = new LinkedHashSet<>();
+        for (int neighbor : adjacency) {
+            if (!deleted.get(neighbor)) {
+                candidateNodes.add(neighbor);
+                continue;
+            }
+            for (int next : nodes.getNeighbors(neighbor)) {
+                if (next != node && !deleted.get(next)) {
+                    candidateNodes.add(next);
+                }
+            }
+        }
+
+        float[] vector = nodes.getVector(node);
+        List<Candidate> candidates = new ArrayList<>();
+        for (int candidate : candidateNodes) {
+            float[] candidateVector = nodes.getVector(candidate);
+            candidates.add(new Candidate(candidate, candidateVector,
+                squaredDistance(vector, candidateVector)));
+        }
+        int[] pruned = robustPrune(node, candidates);
+        nodes.setNeighbors(node, pruned, pruned.length);
+    }
+
+    // A live neighbor of the deleted entry point, or else any live node
+    @GuardedBy("lock")
+    private int getLiveEntryPoint(BitSet deleted) {
+        for (int neighbor : nodes.getNeighbors(entryPoint)) {
+            if (!deleted.get(neighbor)) {
+                return neighbor;
+            }
+        }
+        int node = deleted.nextClearBit(0);
+        return node < nodeCount ? node : -1;
+    }
+
+    /**
+     * Copies the live nodes, their records and their codes into the files of the next
+     * generation, renumbering their adjacency lists. The copy runs alongside searches, and the
+     * index switches to the new files once they are written.
+     */
+    @GuardedBy("writeMonitor")
+    private void copyToNextGeneration() throws IOException {
+        int nextGeneration;
+        lock.readLock().lock();
+        try {
+            nextGeneration = generation + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+        Path nextNodesFile = directory.resolve(getFileName(NODE_FILE, nextGeneration));
+        Path nextRecordsFile = directory.resolve(getFileName(RECORD_FILE, nextGeneration));
+        Path nextKeysFile = directory.resolve(getFileName(KEY_FILE, nextGeneration));
+        Files.deleteIfExists(nextNodesFile);
+        Files.deleteIfExists(nextRecordsFile);
+        Files.deleteIfExists(nextKeysFile);
+
+        DiskAnnNodeFile nextNodes = openNodes(nextGeneration);
+        FileChannel nextRecords = openRecords(nextGeneration);
+        DiskAnnKeyFile nextKeys = openKeys(nextGeneration);
+        int nextNodeCount = 0;
+        long nextRecordsSize = 0;
+        int nextEntryPoint;
+        byte[][] nextCodes = new byte[0][];
+        boolean switched = false;
+        try {
+            lock.readLock().lock();
+            try {
+                int[] renumbered = new int[nodeCount];
+                for (int node = 0; node < nodeCount; node++) {
+                    renumbered[node] = nodes.getState(node) == DiskAnnNodeFile.LIVE
+                        ? nextNodeCount++
+                        : -1;
+                }
+                nextNodes.ensureCapacity(nextNodeCount);
+                if (quantizer != null) {
+                    nextCodes = new byte[(nextNodeCount + CODE_CHUNK_NODES - 1)
+                        / CODE_CHUNK_NODES][CODE_CHUNK_NODES * quantizer.getCodeSize()];
+                }
+
+                for (int node = 0; node < nodeCount; node++) {
+                    int target = renumbered[node];
+                    if (target < 0) {
+                        continue;
+                    }
+                    if (target % CONSOLIDATION_CHUNK_NODES == 0 && closed) {
+                        throw new SKException("The index was closed during its compaction");
+                    }
+
+                    nextNodes.setVector(target, nodes.getVector(node));
+                    int[] adjacency = nodes.getNeighbors(node);
+                    int[] neighbors = new int[adjacency.length];
+                    int degree = 0;
+                    for (int neighbor : adjacency) {
+                        if (renumbered[neighbor] >= 0) {
+                            neighbors[degree++] = renumbered[neighbor];
+                        }
+                    }
+                    nextNodes.setNeighbors(target, neighbors, degree);
+
+                    StoredRecord stored = readRecord(nodes, records, node);
+                    int length = writeRecord(nextRecords, nextRecordsSize, stored.getKey(),
+                        stored.getRecord());
+                    nextNodes.setRecord(target, nextRecordsSize, length);
+                    nextRecordsSize += length;
+                    nextNodes.setState(target, DiskAnnNodeFile.LIVE);
+                    nextKeys.add(stored.getKey(), target);
+
+                    if (quantizer != null) {
+                        int codeSize = quantizer.getCodeSize();
+                        System.arraycopy(codes[node / CODE_CHUNK_NODES],
+                            (node % CODE_CHUNK_NODES) * codeSize,
+                            nextCodes[target / CODE_CHUNK_NODES],
+                            (target % CODE_CHUNK_NODES) * codeSize, codeSize);
+                    }
+                }
+                nextEntryPoint = entryPoint < 0 ? -1 : renumbered[entryPoint];
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            lock.writeLock().lock();
+            try {
+                DiskAnnNodeFile previousNodes = nodes;
+                FileChannel previousRecords = records;
+                DiskAnnKeyFile previousKeys = keys;
+                int previousNodeCount = nodeCount;
+                int previousEntryPoint = entryPoint;
+                long previousRecordsSize = recordsSize;
+                byte[][] previousCodes = codes;
+
+                nodes = nextNodes;
+                records = nextRecords;
+                keys = nextKeys;
+                nodeCount = nextNodeCount;
+                entryPoint = nextEntryPoint;
+                recordsSize = nextRecordsSize;
+                codes = nextCodes;
+                generation = nextGeneration;
+                try {
+                    writeMeta();
+                } catch (IOException | RuntimeException e) {
+                    nodes = previousNodes;
+                    records = previousRecords;
+                    keys = previousKeys;
+                    nodeCount = previousNodeCount;
+                    entryPoint = previousEntryPoint;
+                    recordsSize = previousRecordsSize;
+                    codes = previousCodes;
+                    generation = nextGeneration - 1;
+                    throw e;
+                }
+                switched = true;
+
+                previousNodes.close();
+                previousRecords.close();
+                previousKeys.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            if (!switched) {
+                nextNodes.close();
+                nextRecords.close();
+                nextKeys.close();
+                deleteQuietly(nextNodesFile);
+                deleteQuietly(nextRecordsFile);
+                deleteQuietly(nextKeysFile);
+            }
+        }
+
+        // A file still held by a mapping is left until the collection is deleted or recreated
+        deleteQuietly(directory.resolve(getFileName(NODE_FILE, nextGeneration - 1)));
+        deleteQuietly(directory.resolve(getFileName(RECORD_FILE, nextGeneration - 1)));
+        deleteQuietly(directory.resolve(getFileName(KEY_FILE, nextGeneration - 1)));
+    }
+
+    /**
+     * Selects the neighbors of a node among candidates, skipping a candidate when a selected
+     * neighbor is closer to it, by a factor of alpha, than the node is. This keeps long edges
+     * towards distant parts of the graph.
+     */
+    private int[] robustPrune(int node, List<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>(candidates);
+        sorted.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+        double alphaSquared = (double) options.getAlpha() * options.getAlpha();
+
+        int[] selected = new int[options.getMaxDegree()];
+        int count = 0;
+        boolean[] pruned = new boolean[sorted.size()];
+        for (int i = 0; i < sorted.size() && count < selected.length; i++) {
+            Candidate candidate = sorted.get(i);
+            if (pruned[i] || candidate.node == node) {
+                continue;
+            }
+            selected[count++] = candidate.node;
+            for (int j = i + 1; j < sorted.size(); j++) {
+                if (!pruned[j] && alphaSquared
+                    * squaredDistance(candidate.vector, sorted.get(j).vector) <= sorted
+                        .get(j).distance) {
+                    pruned[j] = true;
+                }
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Walks the graph from the entry point towards the query, keeping the closest candidates
+     * in a list of the given size, and expanding the closest candidate not expanded yet until
+     * none is left.
+     *
+     * @return The expanded nodes, with their full vectors and exact distances, closest first.
+     */
+    @GuardedBy("lock")
+    private List<Candidate> greedySearch(float[] query, int listSize, NodeDistance distance,
+        boolean rankByInnerProduct) {
+        List<Candidate> list = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        Set<Integer> expanded = new HashSet<>();
+        List<Candidate> visited = new ArrayList<>();
+
+        list.add(new Candidate(entryPoint, null, distance.get(entryPoint)));
+        seen.add(entryPoint);
+
+        while (true) {
+            Candidate next = null;
+            for (Candidate candidate : list) {
+                if (!expanded.contains(candidate.node)) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            expanded.add(next.node);
+
+            float[] vector = nodes.getVector(next.node);
+            double exact = rankByInnerProduct ? -dot(query, vector)
+                : squaredDistance(query, vector);
+            visited.add(new Candidate(next.node, vector, exact));
+
+            for (int neighbor : nodes.getNeighbors(next.node)) {
+                if (!seen.add(neighbor)) {
+                    continue;
+                }
+                Candidate candidate = new Candidate(neighbor, null, distance.get(neighbor));
+                int position = Collections.binarySearch(list, candidate,
+                    Comparator.comparingDouble(c -> c.distance));
+                list.add(position < 0 ? -position - 1 : position, candidate);
+                if (list.size() > listSize) {
+                    list.remove(list.size() - 1);
+                }
+            }
+        }
+
+        visited.sort(Comparator.comparingDouble(candidate -> candidate.distance));
+        return visited;
+    }
+
+    @GuardedBy("lock")
+    private void trainQuantizer() throws IOException {
+        // Train on a random sample of the live vectors
+        List<Integer> live = new ArrayList<>();
+        for (int node = 0; node < nodeCount; node++) {
+            if (nodes.getState(node) == DiskAnnNodeFile.LIVE) {
+                live.add(node);
+            }
+        }
+        Collections.shuffle(live, new Random(42));
+        float[][] sample = live.stream()
+            .limit(options.getPqTrainingSize())
+            .map(nodes::getVector)
+            .toArray(float[][]::new);
+
+        int subspaces = options.getPqSubspaceCount() > 0
+            ? options.getPqSubspaceCount()
+            : Math.max(1, dimensions / 4);
+        quantizer = ProductQuantizer.train(sample, subspaces);
+
+        Path quantizerFile = directory.resolve(QUANTIZER_FILE);
+        try (DataOutputStream output = new DataOutputStream(
+            new BufferedOutputStream(Files.newOutputStream(quantizerFile)))) {
+            quantizer.write(output);
+        }
+        encodeAll();
+    }
+
+    @GuardedBy("lock")
+    private void encodeAll() {
+        codes = new byte[0][];
+        ensureCodeCapacity(nodeCount);
+        ProductQuantizer currentQuantizer = quantizer;
+        IntStream.range(0, nodeCount).parallel()
+            .forEach(node -> currentQuantizer.encode(nodes.getVector(node),
+                codes[node / CODE_CHUNK_NODES],
+                (node % CODE_CHUNK_NODES) * currentQuantizer.getCodeSize()));
+    }
+
+    @GuardedBy("lock")
+    private void ensureCodeCapacity(int count) {
+        int chunks = (count + CODE_CHUNK_NODES - 1) / CODE_CHUNK_NODES;
+        if (chunks > codes.length) {
+            int previous = codes.length;
+            codes = Arrays.copyOf(codes, chunks);
+            for (int i = previous; i < chunks; i++) {
+                codes[i] = new byte[CODE_CHUNK_NODES * quantizer.getCodeSize()];
+            }
+        }
+    }
+
+    // A record is stored as the length of its key, its key and its JSON
+    private static int writeRecord(FileChannel recordFile, long offset, String key,
+        byte[] record) throws IOException {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + keyBytes.length + record.length);
+        buffer.putInt(keyBytes.length).put(keyBytes).put(record);
+        buffer.flip();
+
+        int length = buffer.remaining();
+        while (buffer.hasRemaining()) {
+            recordFile.write(buffer, offset + buffer.position());
+        }
+        return length;
+    }
+
+    private static StoredRecord readRecord(DiskAnnNodeFile nodeFile, FileChannel recordFile,
+        int node) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(nodeFile.getRecordLength(node));
+        readFully(recordFile, buffer, nodeFile.getRecordOffset(node));
+        buffer.flip();
+
+        byte[] key = new byte[buffer.getInt()];
+        buffer.get(key);
+        byte[] record = new byte[buffer.remaining()];
+        buffer.get(record);
+        return new StoredRecord(new String(key, StandardCharsets.UTF_8), record);
+    }
+
+    @GuardedBy("lock")
+    private StoredRecord readRecord(int node) throws IOException {
+        return readRecord(nodes, records, node);
+    }
+
+    // Reads the key of a live node, without its record. The key file can refer to nodes past the
+    // node count of the metadata, when a write was interrupted before the metadata was written.
+    @GuardedBy("lock")
+    @Nullable
+    private String readLiveKey(int node) throws IOException {
+        if (node >= nodeCount || nodes.getState(node) != DiskAnnNodeFile.LIVE) {
+            return null;
+        }
+        ByteBuffer length = ByteBuffer.allocate(4);
+        long offset = nodes.getRecordOffset(node);
+        readFully(records, length, offset);
+        length.flip();
+        ByteBuffer key = ByteBuffer.allocate(length.getInt());
+        readFully(records, key, offset + 4);
+        return new String(key.array(), StandardCharsets.UTF_8);
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer buffer, long offset)
+        throws IOException {
+        while (buffer.hasRemaining()) {
+            if (file.read(buffer, offset + buffer.position()) < 0) {
+                throw new SKException("Unexpected end of the record file");
+            }
+        }
+    }
+
+    private DiskAnnNodeFile openNodes(int fileGeneration) throws IOException {
+        return new DiskAnnNodeFile(directory.resolve(getFileName(NODE_FILE, fileGeneration)),
+            dimensions, options.getMaxDegree());
+    }
+
+    private FileChannel openRecords(int fileGeneration) throws IOException {
+        return FileChannel.open(directory.resolve(getFileName(RECORD_FILE, fileGeneration)),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private DiskAnnKeyFile openKeys(int fileGeneration) throws IOException {
+        return new DiskAnnKeyFile(directory.resolve(getFileName(KEY_FILE, fileGeneration)));
+    }
+
+    // The files of generation 0 keep the names of the indexes written before compaction
+    private static String getFileName(String file, int fileGeneration) {
+        return fileGeneration == 0 ? file
+            : file.replace(".bin", "." + fileGeneration + ".bin");
+    }
+
+    private static boolean isIndexFile(Path path) {
+        String name = path.getFileName().toString();
+        return name.equals(META_FILE) || name.equals(QUANTIZER_FILE)
+            || name.startsWith("nodes.") || name.startsWith("records.")
+            || name.startsWith("keys.");
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Ignored, the file is no longer used
+        }
+    }
+
+    // The files are forced first, so that the metadata never refers to nodes or records that
+    // were not written
+    @GuardedBy("lock")
+    private void writeMeta() throws IOException {
+        nodes.force();
+        records.force(false);
+        keys.force();
+
+        ObjectNode meta = objectMapper.createObjectNode();
+        meta.put("dimensions", dimensions);
+        meta.put("maxDegree", options.getMaxDegree());
+        meta.put("distanceFunction", distanceFunction.name());
+        meta.put("generation", generation);
+        meta.put("nodeCount", nodeCount);
+        meta.put("entryPoint", entryPoint);
+
+        Path temporary = directory.resolve(META_FILE + ".tmp");
+        objectMapper.writeValue(temporary.toFile(), meta);
+        Files.move(temporary, directory.resolve(META_FILE), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private double getScore(float[] query, float[] vector) {
+        switch (distanceFunction) {
+            case EUCLIDEAN_DISTANCE:
+                return Math.sqrt(squaredDistance(query, vector));
+            case COSINE_SIMILARITY:
+            case DOT_PRODUCT:
+                return dot(query, vector);
+            case COSINE_DISTANCE:
+                return 1.0 - dot(query, vector);
+            default:
+                throw new SKException("Unsupported distance function");
+        }
+    }
+
+    private double searchDistance(float[] query, float[] vector) {
+        return innerProduct ? -dot(query, vector) : squaredDistance(query, vector);
+    }
+
+    private void checkDimensions(float[] vector) {
+        if (vector.length != dimensions) {
+            throw new SKException(String.format(
+                "Expected a vector of %d dimensions, got %d", dimensions, vector.length));
+        }
+    }
+
+    private static float[] normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm == 0) {
+            return vector.clone();
+        }
+        float[] normalizedVector = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalizedVector[i] = (float) (vector[i] / norm);
+        }
+        return normalizedVector;
+    }
+
+    private static float dot(float[] x, float[] y) {
+        float result = 0;
+        for (int i = 0; i < x.length; i++) {
+            result += x[i] * y[i];
+        }
+        return result;
+    }
+
+    private static float squaredDistance(float[] x, float[] y) {
+        float result = 0;
+        for (int i = 0; i < x.length; i++) {
+            float difference = x[i] - y[i];
+            result += difference * difference;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // A running compaction stops at its next chunk of nodes
+        closed = true;
+        synchronized (writeMonitor) {
+            lock.writeLock().lock();
+            try {
+                nodes.force();
+                nodes.close();
+                records.close();
+                keys.close();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface NodeDistance {
+        double get(int node);
+    }
+
+    private static final class Candidate {
+
+        private final int node;
+        @Nullable
+        private final float[] vector;
+        private final double distance;
+
+        private Candidate(int node, @Nullable float[] vector, double distance) {
+            this.node = node;
+            this.vector = vector;
+            this.distance = distance;
+        }
+    }
+
+    /**
+     * A record to insert.
+     */
+    static final class Entry {
+
+        private final String key;
+        private final byte[] record;
+        private final float[] vector;
+
+        Entry(String key, byte[] record, float[] vector) {
+            this.key = key;
+            this.record = record;
+            this.vector = vector;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        byte[] getRecord() {
+            return record;
+        }
+
+        float[] getVector() {
+            return vector;
+        }
+    }
+
+    /**
+     * A record read from the record file.
+     */
+    static final class StoredRecord {
+
+        private final String key;
+        private final byte[] record;
+
+        StoredRecord(String key, byte[] record) {
+            this.key = key;
+            this.record = record;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        byte[] getRecord() {
+            return record;
+        }
+    }
+
+    /**
+     * A node found by a search, with its score.
+     */
+    static final class Result {
+
+        private final int generation;
+        private final int node;
+        private final double score;
+
+        private Result(int generation, int node, double score) {
+            this.generation = generation;
+            this.node = node;
+            this.score = score;
+        }
+
+        double getScore() {
+            return score;
+        }
+    }
+}
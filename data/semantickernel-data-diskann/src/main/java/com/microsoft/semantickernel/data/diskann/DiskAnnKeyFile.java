@@ -0,0 +1,245 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The nodes of the live keys, stored in a memory-mapped hash table.
+ * <p>
+ * A slot holds a 64-bit hash of a key and its node, so the keys themselves stay in the record
+ * file: a lookup reads the key of each node whose hash matches. The table uses linear probing,
+ * and is rewritten with twice the slots when half of them are used. Reads of a slot are not
+ * synchronized: the caller serializes writes with the reads.
+ */
+final class DiskAnnKeyFile implements Closeable {
+
+    private static final int HEADER_SIZE = 8;
+    private static final int SLOT_SIZE = 12;
+    private static final int INITIAL_CAPACITY = 1024;
+    // The table is mapped at once, so it stays below the 2 GiB limit of a single mapping
+    private static final int MAX_CAPACITY = 1 << 27;
+
+    // Nodes are stored plus one, so that the zeros of a new table are empty slots
+    private static final int EMPTY = 0;
+    private static final int REMOVED = -1;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer table;
+    private int capacity;
+    // Number of live keys
+    private int size;
+    // Number of live and removed slots
+    private int used;
+
+    DiskAnnKeyFile(Path path) throws IOException {
+        this.path = path;
+        boolean created = !Files.exists(path);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (created || channel.size() < HEADER_SIZE) {
+            map(INITIAL_CAPACITY);
+        } else {
+            this.capacity = (int) ((channel.size() - HEADER_SIZE) / SLOT_SIZE);
+            this.table = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            this.size = table.getInt(0);
+            this.used = table.getInt(4);
+        }
+    }
+
+    /**
+     * Reads the key of a node.
+     */
+    @FunctionalInterface
+    interface KeyReader {
+        String read(int node) throws IOException;
+    }
+
+    /**
+     * Gets the number of live keys.
+     *
+     * @return The number of keys.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the node of a key.
+     *
+     * @param key    The key.
+     * @param reader Reads the key of a node whose hash matches.
+     * @return The node, or -1 if the key is not found.
+     * @throws IOException If a key cannot be read.
+     */
+    int get(String key, KeyReader reader) throws IOException {
+        int slot = find(key, reader);
+        return slot < 0 ? -1 : table.getInt(offset(slot) + 8) - 1;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key    The key.
+     * @param reader Reads the key of a node whose hash matches.
+     * @return The node of the key, or -1 if the key is not found.
+     * @throws IOException If a key cannot be read.
+     */
+    int remove(String key, KeyReader reader) throws IOException {
+        int slot = find(key, reader);
+        if (slot < 0) {
+            return -1;
+        }
+        int node = table.getInt(offset(slot) + 8) - 1;
+        table.putInt(offset(slot) + 8, REMOVED);
+        size--;
+        writeHeader();
+        return node;
+    }
+
+    /**
+     * Adds a key that is not in the table.
+     *
+     * @param key  The key.
+     * @param node The node of the key.
+     * @throws IOException If the table cannot grow.
+     */
+    void add(String key, int node) throws IOException {
+        if (2 * (used + 1) > capacity) {
+            rehash();
+        }
+        long hash = hash(key);
+        for (int slot = start(hash);; slot = (slot + 1) & (capacity - 1)) {
+            int stored = table.getInt(offset(slot) + 8);
+            if (stored == EMPTY || stored == REMOVED) {
+                table.putLong(offset(slot), hash);
+                table.putInt(offset(slot) + 8, node + 1);
+                size++;
+                if (stored == EMPTY) {
+                    used++;
+                }
+                writeHeader();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the mapped table to the storage device.
+     */
+    void force() {
+        table.force();
+    }
+
+    private int find(String key, KeyReader reader) throws IOException {
+        long hash = hash(key);
+        for (int slot = start(hash);; slot = (slot + 1) & (capacity - 1)) {
+            int stored = table.getInt(offset(slot) + 8);
+            if (stored == EMPTY) {
+                return -1;
+            }
+            if (stored != REMOVED && table.getLong(offset(slot)) == hash
+                && key.equals(reader.read(stored - 1))) {
+                return slot;
+            }
+        }
+    }
+
+    // Rewrites the live slots into a new table, left in place of the current one
+    private void rehash() throws IOException {
+        int newCapacity = capacity;
+        while (4 * (size + 1) > newCapacity) {
+            newCapacity *= 2;
+        }
+        if (newCapacity > MAX_CAPACITY) {
+            throw new SKException("The index holds too many keys");
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.deleteIfExists(temporary);
+        MappedByteBuffer previous = table;
+        int previousCapacity = capacity;
+        FileChannel previousChannel = channel;
+        channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            map(newCapacity);
+            for (int slot = 0; slot < previousCapacity; slot++) {
+                int stored = previous.getInt(offset(slot) + 8);
+                if (stored == EMPTY || stored == REMOVED) {
+                    continue;
+                }
+                long hash = previous.getLong(offset(slot));
+                int target = start(hash);
+                while (table.getInt(offset(target) + 8) != EMPTY) {
+                    target = (target + 1) & (capacity - 1);
+                }
+                table.putLong(offset(target), hash);
+                table.putInt(offset(target) + 8, stored);
+                size++;
+                used++;
+            }
+            writeHeader();
+            table.force();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            channel = previousChannel;
+            table = previous;
+            capacity = previousCapacity;
+            size = previous.getInt(0);
+            used = previous.getInt(4);
+            throw e;
+        }
+        previousChannel.close();
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void map(int newCapacity) throws IOException {
+        capacity = newCapacity;
+        table = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+            HEADER_SIZE + (long) newCapacity * SLOT_SIZE);
+        size = 0;
+        used = 0;
+        writeHeader();
+    }
+
+    private void writeHeader() {
+        table.putInt(0, size);
+        table.putInt(4, used);
+    }
+
+    private int start(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    // 64-bit FNV-1a hash of the UTF-8 bytes of the key
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    @Override
+    public void close() throws IOException {
+        table.force();
+        // The mapping is released when it is garbage collected
+        channel.close();
+    }
+}
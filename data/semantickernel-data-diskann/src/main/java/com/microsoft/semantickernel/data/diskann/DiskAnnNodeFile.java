@@ -0,0 +1,175 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The nodes of the graph, stored in fixed size slots of a memory-mapped file.
+ * <p>
+ * A slot holds the state of the node, the location of its record in the record file, its
+ * adjacency list and its full vector. The file is mapped in segments of at most 1 GiB, so it can
+ * grow beyond the 2 GiB limit of a single mapping. Reads of a slot are not synchronized: the
+ * caller serializes writes with the reads.
+ */
+final class DiskAnnNodeFile implements Closeable {
+
+    static final int LIVE = 0;
+    static final int DELETED = 1;
+
+    private static final int MAX_SEGMENT_SIZE = 1 << 30;
+    private static final int INITIAL_SEGMENT_NODES = 1024;
+
+    private static final int STATE_OFFSET = 0;
+    private static final int RECORD_OFFSET_OFFSET = 4;
+    private static final int RECORD_LENGTH_OFFSET = 12;
+    private static final int DEGREE_OFFSET = 16;
+    private static final int NEIGHBORS_OFFSET = 20;
+
+    private final FileChannel channel;
+    private final int dimensions;
+    private final int maxDegree;
+    private final int slotSize;
+    private final int vectorOffset;
+    private final int nodesPerSegment;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    DiskAnnNodeFile(Path path, int dimensions, int maxDegree) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.dimensions = dimensions;
+        this.maxDegree = maxDegree;
+        this.vectorOffset = NEIGHBORS_OFFSET + 4 * maxDegree;
+        this.slotSize = vectorOffset + 4 * dimensions;
+        this.nodesPerSegment = Math.max(1, MAX_SEGMENT_SIZE / slotSize);
+    }
+
+    /**
+     * Maps the segments holding the given number of nodes, growing the file when needed. The
+     * last segment is remapped with twice its size until it reaches the maximum segment size.
+     *
+     * @param nodeCount The number of nodes.
+     * @throws IOException If the file cannot be mapped.
+     */
+    void ensureCapacity(int nodeCount) throws IOException {
+        while (getCapacity() < nodeCount) {
+            int last = segments.size() - 1;
+            if (last >= 0 && getSegmentNodes(last) < nodesPerSegment) {
+                segments.set(last, map(last,
+                    Math.min(nodesPerSegment, 2 * getSegmentNodes(last))));
+            } else {
+                segments.add(map(segments.size(),
+                    Math.min(nodesPerSegment, INITIAL_SEGMENT_NODES)));
+            }
+        }
+    }
+
+    private long getCapacity() {
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        return (long) (segments.size() - 1) * nodesPerSegment
+            + getSegmentNodes(segments.size() - 1);
+    }
+
+    private int getSegmentNodes(int segment) {
+        return segments.get(segment).capacity() / slotSize;
+    }
+
+    private MappedByteBuffer map(int segment, int nodes) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE,
+            (long) segment * nodesPerSegment * slotSize, (long) nodes * slotSize);
+    }
+
+    int getMaxDegree() {
+        return maxDegree;
+    }
+
+    int getState(int node) {
+        return segment(node).getInt(base(node) + STATE_OFFSET);
+    }
+
+    void setState(int node, int state) {
+        segment(node).putInt(base(node) + STATE_OFFSET, state);
+    }
+
+    long getRecordOffset(int node) {
+        return segment(node).getLong(base(node) + RECORD_OFFSET_OFFSET);
+    }
+
+    int getRecordLength(int node) {
+        return segment(node).getInt(base(node) + RECORD_LENGTH_OFFSET);
+    }
+
+    void setRecord(int node, long offset, int length) {
+        MappedByteBuffer segment = segment(node);
+        int base = base(node);
+        segment.putLong(base + RECORD_OFFSET_OFFSET, offset);
+        segment.putInt(base + RECORD_LENGTH_OFFSET, length);
+    }
+
+    int[] getNeighbors(int node) {
+        MappedByteBuffer segment = segment(node);
+        int base = base(node);
+        int[] neighbors = new int[segment.getInt(base + DEGREE_OFFSET)];
+        for (int i = 0; i < neighbors.length; i++) {
+            neighbors[i] = segment.getInt(base + NEIGHBORS_OFFSET + 4 * i);
+        }
+        return neighbors;
+    }
+
+    void setNeighbors(int node, int[] neighbors, int count) {
+        MappedByteBuffer segment = segment(node);
+        int base = base(node);
+        segment.putInt(base + DEGREE_OFFSET, count);
+        for (int i = 0; i < count; i++) {
+            segment.putInt(base + NEIGHBORS_OFFSET + 4 * i, neighbors[i]);
+        }
+    }
+
+    float[] getVector(int node) {
+        MappedByteBuffer segment = segment(node);
+        int base = base(node) + vectorOffset;
+        float[] vector = new float[dimensions];
+        for (int i = 0; i < dimensions; i++) {
+            vector[i] = segment.getFloat(base + 4 * i);
+        }
+        return vector;
+    }
+
+    void setVector(int node, float[] vector) {
+        MappedByteBuffer segment = segment(node);
+        int base = base(node) + vectorOffset;
+        for (int i = 0; i < dimensions; i++) {
+            segment.putFloat(base + 4 * i, vector[i]);
+        }
+    }
+
+    /**
+     * Writes the mapped segments to the storage device.
+     */
+    void force() {
+        segments.forEach(MappedByteBuffer::force);
+    }
+
+    private MappedByteBuffer segment(int node) {
+        return segments.get(node / nodesPerSegment);
+    }
+
+    private int base(int node) {
+        return (node % nodesPerSegment) * slotSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mappings are released when they are garbage collected
+        segments.clear();
+        channel.close();
+    }
+}
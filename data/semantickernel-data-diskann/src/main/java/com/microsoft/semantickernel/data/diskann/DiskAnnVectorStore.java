@@ -0,0 +1,129 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStore;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Represents a DiskANN vector store, an embedded vector store keeping its collections in a local
+ * directory, one sub directory per collection.
+ */
+public class DiskAnnVectorStore implements VectorStore {
+
+    private final Path directory;
+    // Collections are shared, as a collection directory is opened by one collection instance
+    private final Map<String, DiskAnnVectorStoreRecordCollection<?>> collections;
+
+    /**
+     * Creates a new instance of the DiskANN vector store.
+     *
+     * @param directory The directory of the vector store.
+     */
+    public DiskAnnVectorStore(@Nonnull Path directory) {
+        this.directory = directory;
+        this.collections = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets a collection from the vector store. The same collection instance is returned for a
+     * given collection name.
+     *
+     * @param collectionName The name of the collection.
+     * @param options        The options for the collection.
+     * @param <Key>          The type of key in the collection.
+     * @param <Record>       The type of record in the collection.
+     * @return The collection.
+     */
+    @Override
+    public <Key, Record> VectorStoreRecordCollection<Key, Record> getCollection(
+        @Nonnull String collectionName,
+        @Nonnull VectorStoreRecordCollectionOptions<Key, Record> options) {
+        if (options.getKeyClass() != String.class) {
+            throw new SKException("DiskANN only supports string keys");
+        }
+        if (options.getRecordClass() == null) {
+            throw new SKException("Record class is required");
+        }
+
+        DiskAnnVectorStoreRecordCollection<?> collection = collections.computeIfAbsent(
+            collectionName,
+            name -> new DiskAnnVectorStoreRecordCollection<>(directory, name,
+                (DiskAnnVectorStoreRecordCollectionOptions<Record>) options));
+        return (VectorStoreRecordCollection<Key, Record>) collection;
+    }
+
+    /**
+     * Gets the names of all collections in the vector store.
+     *
+     * @return A list of collection names.
+     */
+    @Override
+    public Mono<List<String>> getCollectionNamesAsync() {
+        return Mono.fromCallable(() -> {
+            if (!Files.isDirectory(directory)) {
+                return new ArrayList<String>();
+            }
+            try (Stream<Path> paths = Files.list(directory)) {
+                return paths
+                    .filter(DiskAnnIndex::exists)
+                    .map(path -> path.getFileName().toString())
+                    .collect(Collectors.toList());
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Create a builder for the DiskANN vector store.
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for the DiskANN vector store.
+     */
+    public static class Builder implements SemanticKernelBuilder<DiskAnnVectorStore> {
+
+        @Nullable
+        private Path directory;
+
+        /**
+         * Sets the directory of the vector store.
+         *
+         * @param directory the directory of the vector store
+         * @return the builder
+         */
+        public Builder withDirectory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        @Override
+        public DiskAnnVectorStore build() {
+            if (directory == null) {
+                throw new SKException("directory is required");
+            }
+
+            return new DiskAnnVectorStore(directory);
+        }
+    }
+}
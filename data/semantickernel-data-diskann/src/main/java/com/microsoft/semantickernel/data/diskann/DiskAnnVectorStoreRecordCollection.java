@@ -0,0 +1,447 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.semantickernel.data.VolatileVectorStoreCollectionSearchMapping;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.UpsertRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A vector store record collection keeping its records on local disk, indexed by a DiskANN
+ * graph.
+ * <p>
+ * The collection is stored in a directory named after the collection. The graph and the full
+ * vectors are stored in a memory-mapped file, and the keys in a memory-mapped hash table, so the
+ * collection can grow far beyond the heap: only the product quantized vectors are kept in
+ * memory. One vector field is indexed, the one named in the options or the first vector field of
+ * the record.
+ * <p>
+ * A collection directory must only be opened by one collection instance at a time.
+ *
+ * @param <Record> The type of record in the collection.
+ */
+public class DiskAnnVectorStoreRecordCollection<Record> implements
+    VectorStoreRecordCollection<String, Record> {
+
+    private static final HashSet<Class<?>> supportedKeyTypes = new HashSet<>(
+        Collections.singletonList(String.class));
+
+    private final Path directory;
+    private final String collectionName;
+    private final DiskAnnVectorStoreRecordCollectionOptions<Record> options;
+    private final VectorStoreRecordDefinition recordDefinition;
+    private final VectorStoreRecordVectorField vectorField;
+    private final DistanceFunction distanceFunction;
+    private final ObjectMapper objectMapper;
+
+    @GuardedBy("this")
+    @Nullable
+    private DiskAnnIndex index;
+
+    /**
+     * Creates a new instance of the DiskANN vector store record collection.
+     *
+     * @param directory      The directory of the vector store, holding one directory per
+     *                       collection.
+     * @param collectionName The name of the collection.
+     * @param options        The options for the collection.
+     */
+    public DiskAnnVectorStoreRecordCollection(
+        @Nonnull Path directory,
+        @Nonnull String collectionName,
+        @Nonnull DiskAnnVectorStoreRecordCollectionOptions<Record> options) {
+        this.directory = directory.resolve(collectionName);
+        this.collectionName = collectionName;
+        this.options = options;
+
+        if (options.getRecordDefinition() != null) {
+            this.recordDefinition = options.getRecordDefinition();
+        } else {
+            this.recordDefinition = VectorStoreRecordDefinition
+                .fromRecordClass(this.options.getRecordClass());
+        }
+
+        if (options.getObjectMapper() == null) {
+            this.objectMapper = new ObjectMapper();
+        } else {
+            this.objectMapper = options.getObjectMapper();
+        }
+
+        // Validate the key type
+        VectorStoreRecordDefinition.validateSupportedTypes(
+            Collections.singletonList(recordDefinition.getKeyField()),
+            supportedKeyTypes);
+
+        if (recordDefinition.getVectorFields().isEmpty()) {
+            throw new SKException("No vector fields defined. Cannot create a DiskANN index");
+        }
+        this.vectorField = options.getVectorFieldName() == null
+            ? recordDefinition.getVectorFields().get(0)
+            : (VectorStoreRecordVectorField) recordDefinition
+                .getField(options.getVectorFieldName());
+        if (vectorField.getDimensions() <= 0) {
+            throw new SKException(String.format(
+                "The dimensions of the vector field %s are required", vectorField.getName()));
+        }
+        this.distanceFunction = vectorField.getDistanceFunction() == DistanceFunction.UNDEFINED
+            ? DistanceFunction.EUCLIDEAN_DISTANCE
+            : vectorField.getDistanceFunction();
+    }
+
+    /**
+     * Gets the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Checks if the collection exists on disk.
+     *
+     * @return A Mono emitting a boolean indicating if the collection exists.
+     */
+    @Override
+    public Mono<Boolean> collectionExistsAsync() {
+        return Mono.fromCallable(() -> DiskAnnIndex.exists(directory))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Creates the collection on disk, replacing any existing collection.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionAsync() {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                closeIndex();
+                index = DiskAnnIndex.create(directory, objectMapper,
+                    vectorField.getDimensions(), distanceFunction, options);
+            }
+            return (VectorStoreRecordCollection<String, Record>) this;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Creates the collection on disk if it does not exist.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionIfNotExistsAsync() {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                if (!DiskAnnIndex.exists(directory)) {
+                    closeIndex();
+                    index = DiskAnnIndex.create(directory, objectMapper,
+                        vectorField.getDimensions(), distanceFunction, options);
+                }
+            }
+            return (VectorStoreRecordCollection<String, Record>) this;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes the collection and its files.
+     *
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteCollectionAsync() {
+        return Mono.<Void>fromCallable(() -> {
+            synchronized (this) {
+                closeIndex();
+                if (Files.exists(directory)) {
+                    try (Stream<Path> paths = Files.walk(directory)) {
+                        List<Path> files = new ArrayList<>();
+                        paths.forEach(files::add);
+                        files.sort(Comparator.reverseOrder());
+                        for (Path file : files) {
+                            Files.delete(file);
+                        }
+                    }
+                }
+            }
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Gets a record from the collection.
+     *
+     * @param key     The key of the record to get.
+     * @param options The options for getting the record.
+     * @return A Mono emitting the record.
+     */
+    @Override
+    public Mono<Record> getAsync(String key, GetRecordOptions options) {
+        return Mono.fromCallable(() -> {
+            byte[] record = getIndex().get(key);
+            return record == null ? null
+                : readRecord(record, options != null && options.isIncludeVectors());
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Gets a batch of records from the collection.
+     *
+     * @param keys    The keys of the records to get.
+     * @param options The options for getting the records.
+     * @return A Mono emitting a list of the records found.
+     */
+    @Override
+    public Mono<List<Record>> getBatchAsync(List<String> keys, GetRecordOptions options) {
+        return Mono.fromCallable(() -> {
+            DiskAnnIndex currentIndex = getIndex();
+            List<Record> records = new ArrayList<>();
+            for (String key : keys) {
+                byte[] record = currentIndex.get(key);
+                if (record != null) {
+                    records.add(readRecord(record,
+                        options != null && options.isIncludeVectors()));
+                }
+            }
+            return records;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Inserts or updates a record in the collection.
+     *
+     * @param data    The record to upsert.
+     * @param options The options for upserting the record.
+     * @return A Mono emitting the key of the upserted record.
+     */
+    @Override
+    public Mono<String> upsertAsync(Record data, UpsertRecordOptions options) {
+        return upsertBatchAsync(Collections.singletonList(data), options)
+            .map(keys -> keys.get(0));
+    }
+
+    /**
+     * Inserts or updates a batch of records in the collection.
+     *
+     * @param data    The records to upsert.
+     * @param options The options for upserting the records.
+     * @return A Mono emitting a list of keys of the upserted records.
+     */
+    @Override
+    public Mono<List<String>> upsertBatchAsync(List<Record> data, UpsertRecordOptions options) {
+        return Mono.fromCallable(() -> {
+            List<DiskAnnIndex.Entry> entries = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (Record record : data) {
+                DiskAnnIndex.Entry entry = toEntry(record);
+                entries.add(entry);
+                keys.add(entry.getKey());
+            }
+
+            getIndex().upsert(entries);
+            return keys;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes a record from the collection.
+     *
+     * @param key     The key of the record to delete.
+     * @param options The options for deleting the record.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteAsync(String key, DeleteRecordOptions options) {
+        return deleteBatchAsync(Collections.singletonList(key), options);
+    }
+
+    /**
+     * Deletes a batch of records from the collection.
+     *
+     * @param keys    The keys of the records to delete.
+     * @param options The options for deleting the records.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteBatchAsync(List<String> keys, DeleteRecordOptions options) {
+        return Mono.<Void>fromCallable(() -> {
+            getIndex().delete(keys);
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Vectorized search. This method searches the graph for records that are similar to the
+     * given vector.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A list of search results.
+     */
+    @Override
+    public Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        return Mono.fromCallable(() -> {
+            VectorSearchOptions effectiveOptions = options == null
+                ? VectorSearchOptions.createDefault(vectorField.getName())
+                : options;
+            if (effectiveOptions.getVectorFieldName() != null
+                && !effectiveOptions.getVectorFieldName().equals(vectorField.getName())) {
+                throw new SKException(String.format(
+                    "Only the vector field %s is indexed", vectorField.getName()));
+            }
+
+            float[] query = new float[vector.size()];
+            for (int i = 0; i < query.length; i++) {
+                query[i] = vector.get(i);
+            }
+
+            // The search is repeated if the index is compacted before its records are read
+            List<VectorSearchResult<Record>> results;
+            do {
+                results = search(getIndex(), query, effectiveOptions);
+            } while (results == null);
+            return new VectorSearchResults<>(results);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Nullable
+    private List<VectorSearchResult<Record>> search(DiskAnnIndex currentIndex, float[] query,
+        VectorSearchOptions options) throws IOException {
+        int limit = options.getSkip() + options.getTop();
+        List<DiskAnnIndex.Result> found = currentIndex.search(query,
+            Math.max(this.options.getSearchListSize(), limit));
+
+        VectorSearchFilter filter = options.getVectorSearchFilter();
+        boolean filtered = filter != null && !filter.getFilterClauses().isEmpty();
+        Double scoreThreshold = options.getScoreThreshold();
+        boolean higherScoreBetter = distanceFunction == DistanceFunction.COSINE_SIMILARITY
+            || distanceFunction == DistanceFunction.DOT_PRODUCT;
+
+        List<VectorSearchResult<Record>> results = new ArrayList<>();
+        int skipped = 0;
+        for (DiskAnnIndex.Result result : found) {
+            if (results.size() == options.getTop()) {
+                break;
+            }
+            // Results are ranked by score, so no further result can match the threshold
+            if (scoreThreshold != null && (higherScoreBetter
+                ? result.getScore() < scoreThreshold
+                : result.getScore() > scoreThreshold)) {
+                break;
+            }
+
+            DiskAnnIndex.StoredRecord stored = currentIndex.read(result);
+            if (stored == null) {
+                return null;
+            }
+            Record record = null;
+            if (filtered || !options.isKeysOnly()) {
+                record = readRecord(stored.getRecord(), options.isIncludeVectors());
+                if (filtered && VolatileVectorStoreCollectionSearchMapping.filterRecords(
+                    Collections.singletonList(record), filter, recordDefinition,
+                    objectMapper).isEmpty()) {
+                    continue;
+                }
+            }
+            if (skipped++ < options.getSkip()) {
+                continue;
+            }
+
+            results.add(options.isKeysOnly()
+                ? new VectorSearchResult<>(null, stored.getKey(), result.getScore())
+                : new VectorSearchResult<>(record, result.getScore()));
+        }
+        return results;
+    }
+
+    private synchronized DiskAnnIndex getIndex() throws IOException {
+        if (index == null) {
+            if (!DiskAnnIndex.exists(directory)) {
+                throw new SKException(
+                    String.format("Collection %s does not exist.", collectionName));
+            }
+            index = DiskAnnIndex.open(directory, objectMapper, vectorField.getDimensions(),
+                distanceFunction, options);
+        }
+        return index;
+    }
+
+    @GuardedBy("this")
+    private void closeIndex() throws IOException {
+        if (index != null) {
+            index.close();
+            index = null;
+        }
+    }
+
+    private DiskAnnIndex.Entry toEntry(Record record) {
+        ObjectNode objectNode;
+        byte[] json;
+        try {
+            objectNode = objectMapper.valueToTree(record);
+            json = objectMapper.writeValueAsBytes(objectNode);
+        } catch (Exception e) {
+            throw new SKException(
+                "Failure to serialize object. Ensure your model object can be serialized by Jackson, i.e the class is visible, has getters, constructor, annotations etc.",
+                e);
+        }
+
+        String key = objectNode.get(recordDefinition.getKeyField().getEffectiveStorageName())
+            .asText();
+        JsonNode vectorNode = objectNode.get(vectorField.getEffectiveStorageName());
+        if (!(vectorNode instanceof ArrayNode)) {
+            throw new SKException(String.format(
+                "Record %s has no vector in the indexed field %s", key, vectorField.getName()));
+        }
+
+        float[] vector = new float[vectorNode.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = vectorNode.get(i).floatValue();
+        }
+        return new DiskAnnIndex.Entry(key, json, vector);
+    }
+
+    private Record readRecord(byte[] json, boolean includeVectors) throws IOException {
+        if (includeVectors) {
+            return objectMapper.readValue(json, options.getRecordClass());
+        }
+
+        ObjectNode objectNode = (ObjectNode) objectMapper.readTree(json);
+        for (VectorStoreRecordVectorField field : recordDefinition.getVectorFields()) {
+            objectNode.remove(field.getEffectiveStorageName());
+        }
+        return objectMapper.treeToValue(objectNode, options.getRecordClass());
+    }
+}
@@ -0,0 +1,419 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents the options for a DiskANN vector store record collection.
+ *
+ * @param <Record> the record type
+ */
+public class DiskAnnVectorStoreRecordCollectionOptions<Record>
+    implements VectorStoreRecordCollectionOptions<String, Record> {
+
+    /**
+     * The default maximum number of neighbors of a node of the graph.
+     */
+    public static final int DEFAULT_MAX_DEGREE = 64;
+
+    /**
+     * The default size of the candidate list used to insert a record in the graph.
+     */
+    public static final int DEFAULT_BUILD_LIST_SIZE = 100;
+
+    /**
+     * The default size of the candidate list of a search.
+     */
+    public static final int DEFAULT_SEARCH_LIST_SIZE = 100;
+
+    /**
+     * The default factor by which a neighbor must be closer to a candidate than the node for the
+     * candidate to be pruned.
+     */
+    public static final double DEFAULT_ALPHA = 1.2;
+
+    /**
+     * The default number of records from which the product quantizer is trained.
+     */
+    public static final int DEFAULT_PQ_TRAINING_SIZE = 10_000;
+
+    /**
+     * The default fraction of deleted nodes of the graph from which the index is compacted.
+     */
+    public static final double DEFAULT_COMPACTION_THRESHOLD = 0.25;
+
+    private final Class<Record> recordClass;
+    @Nullable
+    private final VectorStoreRecordDefinition recordDefinition;
+    @Nullable
+    private final ObjectMapper objectMapper;
+    @Nullable
+    private final String vectorFieldName;
+    private final int maxDegree;
+    private final int buildListSize;
+    private final int searchListSize;
+    private final double alpha;
+    private final int pqSubspaceCount;
+    private final int pqTrainingSize;
+    private final double compactionThreshold;
+
+    /**
+     * Creates a new instance of the DiskANN vector store record collection options.
+     *
+     * @param recordClass      The record class.
+     * @param recordDefinition The record definition.
+     * @param objectMapper     An instance of Jackson ObjectMapper.
+     * @param vectorFieldName  The name of the indexed vector field, or null for the first vector
+     *                         field.
+     * @param maxDegree        The maximum number of neighbors of a node of the graph.
+     * @param buildListSize    The size of the candidate list used to insert a record.
+     * @param searchListSize   The size of the candidate list of a search.
+     * @param alpha            The pruning factor of the graph, at least 1.
+     * @param pqSubspaceCount  The number of bytes of a quantized vector, or 0 for a quarter of
+     *                         the dimensions.
+     * @param pqTrainingSize   The number of records from which the product quantizer is trained.
+     * @param compactionThreshold The fraction of deleted nodes from which the index is
+     *                         compacted, or 0 to never compact it.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public DiskAnnVectorStoreRecordCollectionOptions(
+        @Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition,
+        @Nullable ObjectMapper objectMapper,
+        @Nullable String vectorFieldName,
+        int maxDegree,
+        int buildListSize,
+        int searchListSize,
+        double alpha,
+        int pqSubspaceCount,
+        int pqTrainingSize,
+        double compactionThreshold) {
+        this.recordClass = recordClass;
+        this.recordDefinition = recordDefinition;
+        this.objectMapper = objectMapper;
+        this.vectorFieldName = vectorFieldName;
+        this.maxDegree = maxDegree;
+        this.buildListSize = buildListSize;
+        this.searchListSize = searchListSize;
+        this.alpha = alpha;
+        this.pqSubspaceCount = pqSubspaceCount;
+        this.pqTrainingSize = pqTrainingSize;
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <Record> the record type
+     * @return the builder
+     */
+    public static <Record> Builder<Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the key class.
+     *
+     * @return the key class
+     */
+    @Override
+    public Class<String> getKeyClass() {
+        return String.class;
+    }
+
+    /**
+     * Gets the record class.
+     *
+     * @return the record class
+     */
+    @Override
+    public Class<Record> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Gets the record definition.
+     *
+     * @return the record definition
+     */
+    @Override
+    @Nullable
+    public VectorStoreRecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * Gets the object mapper.
+     *
+     * @return the object mapper
+     */
+    @Nullable
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the name of the indexed vector field.
+     *
+     * @return the name of the indexed vector field, or null for the first vector field
+     */
+    @Nullable
+    public String getVectorFieldName() {
+        return vectorFieldName;
+    }
+
+    /**
+     * Gets the maximum number of neighbors of a node of the graph.
+     *
+     * @return the maximum degree
+     */
+    public int getMaxDegree() {
+        return maxDegree;
+    }
+
+    /**
+     * Gets the size of the candidate list used to insert a record in the graph.
+     *
+     * @return the build list size
+     */
+    public int getBuildListSize() {
+        return buildListSize;
+    }
+
+    /**
+     * Gets the size of the candidate list of a search. A larger list improves recall at the cost
+     * of latency.
+     *
+     * @return the search list size
+     */
+    public int getSearchListSize() {
+        return searchListSize;
+    }
+
+    /**
+     * Gets the pruning factor of the graph. A factor above 1 keeps longer edges, so searches
+     * reach distant parts of the graph in fewer steps.
+     *
+     * @return the pruning factor
+     */
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * Gets the number of subspaces of the product quantizer, which is the number of bytes of a
+     * quantized vector kept in memory.
+     *
+     * @return the number of subspaces, or 0 for a quarter of the dimensions
+     */
+    public int getPqSubspaceCount() {
+        return pqSubspaceCount;
+    }
+
+    /**
+     * Gets the number of records from which the product quantizer is trained. Until then,
+     * searches use the full vectors.
+     *
+     * @return the training size
+     */
+    public int getPqTrainingSize() {
+        return pqTrainingSize;
+    }
+
+    /**
+     * Gets the fraction of deleted nodes of the graph from which the index is compacted. Deleted
+     * and replaced records stay in the graph as tombstones until the index is compacted in the
+     * background, which relinks their neighbors and reclaims their space.
+     *
+     * @return the compaction threshold, or 0 if the index is never compacted
+     */
+    public double getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Builder for DiskANN vector store record collection options.
+     *
+     * @param <Record> the record type
+     */
+    public static class Builder<Record> {
+        @Nullable
+        private Class<Record> recordClass;
+        @Nullable
+        private VectorStoreRecordDefinition recordDefinition;
+        @Nullable
+        private ObjectMapper objectMapper;
+        @Nullable
+        private String vectorFieldName;
+        private int maxDegree = DEFAULT_MAX_DEGREE;
+        private int buildListSize = DEFAULT_BUILD_LIST_SIZE;
+        private int searchListSize = DEFAULT_SEARCH_LIST_SIZE;
+        private double alpha = DEFAULT_ALPHA;
+        private int pqSubspaceCount;
+        private int pqTrainingSize = DEFAULT_PQ_TRAINING_SIZE;
+        private double compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+        /**
+         * Sets the record class.
+         *
+         * @param recordClass the record class
+         * @return the builder
+         */
+        public Builder<Record> withRecordClass(Class<Record> recordClass) {
+            this.recordClass = recordClass;
+            return this;
+        }
+
+        /**
+         * Sets the record definition.
+         *
+         * @param recordDefinition the record definition
+         * @return the builder
+         */
+        public Builder<Record> withRecordDefinition(VectorStoreRecordDefinition recordDefinition) {
+            this.recordDefinition = recordDefinition;
+            return this;
+        }
+
+        /**
+         * Sets the object mapper.
+         *
+         * @param objectMapper the object mapper
+         * @return the builder
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP2")
+        public Builder<Record> withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the name of the indexed vector field. By default, the first vector field is
+         * indexed.
+         *
+         * @param vectorFieldName the name of the indexed vector field
+         * @return the builder
+         */
+        public Builder<Record> withVectorFieldName(String vectorFieldName) {
+            this.vectorFieldName = vectorFieldName;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of neighbors of a node of the graph.
+         *
+         * @param maxDegree the maximum degree
+         * @return the builder
+         */
+        public Builder<Record> withMaxDegree(int maxDegree) {
+            this.maxDegree = maxDegree;
+            return this;
+        }
+
+        /**
+         * Sets the size of the candidate list used to insert a record in the graph.
+         *
+         * @param buildListSize the build list size
+         * @return the builder
+         */
+        public Builder<Record> withBuildListSize(int buildListSize) {
+            this.buildListSize = buildListSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of the candidate list of a search.
+         *
+         * @param searchListSize the search list size
+         * @return the builder
+         */
+        public Builder<Record> withSearchListSize(int searchListSize) {
+            this.searchListSize = searchListSize;
+            return this;
+        }
+
+        /**
+         * Sets the pruning factor of the graph.
+         *
+         * @param alpha the pruning factor, at least 1
+         * @return the builder
+         */
+        public Builder<Record> withAlpha(double alpha) {
+            this.alpha = alpha;
+            return this;
+        }
+
+        /**
+         * Sets the number of subspaces of the product quantizer.
+         *
+         * @param pqSubspaceCount the number of subspaces, or 0 for a quarter of the dimensions
+         * @return the builder
+         */
+        public Builder<Record> withPqSubspaceCount(int pqSubspaceCount) {
+            this.pqSubspaceCount = pqSubspaceCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of records from which the product quantizer is trained.
+         *
+         * @param pqTrainingSize the training size
+         * @return the builder
+         */
+        public Builder<Record> withPqTrainingSize(int pqTrainingSize) {
+            this.pqTrainingSize = pqTrainingSize;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of deleted nodes of the graph from which the index is compacted.
+         *
+         * @param compactionThreshold the compaction threshold, or 0 to never compact the index
+         * @return the builder
+         */
+        public Builder<Record> withCompactionThreshold(double compactionThreshold) {
+            this.compactionThreshold = compactionThreshold;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         */
+        public DiskAnnVectorStoreRecordCollectionOptions<Record> build() {
+            if (recordClass == null) {
+                throw new IllegalArgumentException("recordClass is required");
+            }
+            if (maxDegree < 1) {
+                throw new IllegalArgumentException("maxDegree must be positive");
+            }
+            if (buildListSize < 1 || searchListSize < 1) {
+                throw new IllegalArgumentException("list sizes must be positive");
+            }
+            if (alpha < 1) {
+                throw new IllegalArgumentException("alpha must be at least 1");
+            }
+            if (pqSubspaceCount < 0) {
+                throw new IllegalArgumentException("pqSubspaceCount must not be negative");
+            }
+            if (pqTrainingSize < 1) {
+                throw new IllegalArgumentException("pqTrainingSize must be positive");
+            }
+            if (compactionThreshold < 0 || compactionThreshold >= 1) {
+                throw new IllegalArgumentException(
+                    "compactionThreshold must be at least 0 and less than 1");
+            }
+
+            return new DiskAnnVectorStoreRecordCollectionOptions<>(recordClass, recordDefinition,
+                objectMapper, vectorFieldName, maxDegree, buildListSize, searchListSize, alpha,
+                pqSubspaceCount, pqTrainingSize, compactionThreshold);
+        }
+    }
+}
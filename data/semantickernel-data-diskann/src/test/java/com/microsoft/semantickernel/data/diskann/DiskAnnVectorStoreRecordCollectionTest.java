@@ -0,0 +1,274 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.diskann;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordData;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordVector;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DiskAnnVectorStoreRecordCollectionTest {
+
+    private static final int DIMENSIONS = 16;
+
+    public static class Chunk {
+
+        @VectorStoreRecordKey
+        private final String id;
+
+        @VectorStoreRecordData(isFilterable = true)
+        private final String category;
+
+        @VectorStoreRecordVector(dimensions = DIMENSIONS,
+            distanceFunction = DistanceFunction.EUCLIDEAN_DISTANCE)
+        private final List<Float> embedding;
+
+        @JsonCreator
+        public Chunk(
+            @JsonProperty("id") String id,
+            @JsonProperty("category") String category,
+            @JsonProperty("embedding") List<Float> embedding) {
+            this.id = id;
+            this.category = category;
+            this.embedding = embedding;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public List<Float> getEmbedding() {
+            return embedding;
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    private VectorStoreRecordCollection<String, Chunk> getCollection(DiskAnnVectorStore store) {
+        return store.getCollection("chunks",
+            DiskAnnVectorStoreRecordCollectionOptions.<Chunk>builder()
+                .withRecordClass(Chunk.class)
+                .withMaxDegree(24)
+                .withBuildListSize(48)
+                .withSearchListSize(48)
+                .withPqTrainingSize(500)
+                .build());
+    }
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector.add(random.nextFloat() * 2 - 1);
+        }
+        return vector;
+    }
+
+    private static List<Chunk> getChunks(int count) {
+        Random random = new Random(3);
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chunks.add(new Chunk("id_" + i, i % 2 == 0 ? "even" : "odd", randomVector(random)));
+        }
+        return chunks;
+    }
+
+    private static double distance(List<Float> x, List<Float> y) {
+        double sum = 0;
+        for (int i = 0; i < x.size(); i++) {
+            sum += (x.get(i) - y.get(i)) * (x.get(i) - y.get(i));
+        }
+        return sum;
+    }
+
+    private static List<String> getIds(VectorSearchResults<Chunk> results) {
+        assertNotNull(results);
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Chunk::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void recordsArePersisted() {
+        List<Chunk> chunks = getChunks(50);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection(
+            new DiskAnnVectorStore(directory));
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+        collection.deleteAsync("id_7", null).block();
+        collection.upsertAsync(new Chunk("id_8", "updated", chunks.get(8).getEmbedding()), null)
+            .block();
+
+        DiskAnnVectorStore reopened = new DiskAnnVectorStore(directory);
+        assertEquals(Arrays.asList("chunks"), reopened.getCollectionNamesAsync().block());
+        VectorStoreRecordCollection<String, Chunk> reopenedCollection = getCollection(reopened);
+
+        assertNull(reopenedCollection.getAsync("id_7", null).block());
+        Chunk chunk = reopenedCollection.getAsync("id_8", null).block();
+        assertNotNull(chunk);
+        assertEquals("updated", chunk.getCategory());
+
+        VectorSearchResults<Chunk> results = reopenedCollection.searchAsync(
+            chunks.get(8).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).build()).block();
+        assertEquals(Arrays.asList("id_8"), getIds(results));
+
+        reopenedCollection.deleteCollectionAsync().block();
+        assertTrue(reopened.getCollectionNamesAsync().block().isEmpty());
+    }
+
+    @Test
+    public void searchRecallWithQuantizedVectors() {
+        List<Chunk> chunks = getChunks(2000);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection(
+            new DiskAnnVectorStore(directory));
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        Random random = new Random(5);
+        int found = 0;
+        int queries = 20;
+        for (int q = 0; q < queries; q++) {
+            List<Float> query = randomVector(random);
+            Set<String> expected = chunks.stream()
+                .sorted(Comparator.comparingDouble(chunk -> distance(query,
+                    chunk.getEmbedding())))
+                .limit(10)
+                .map(Chunk::getId)
+                .collect(Collectors.toSet());
+
+            List<String> actual = getIds(collection.searchAsync(query,
+                VectorSearchOptions.builder().withTop(10).build()).block());
+            assertEquals(10, actual.size());
+            Set<String> intersection = new HashSet<>(actual);
+            intersection.retainAll(expected);
+            found += intersection.size();
+        }
+
+        double recall = found / (10.0 * queries);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    public void searchAppliesFilterAndKeysOnly() {
+        List<Chunk> chunks = getChunks(200);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection(
+            new DiskAnnVectorStore(directory));
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        VectorSearchResults<Chunk> results = collection.searchAsync(chunks.get(3).getEmbedding(),
+            VectorSearchOptions.builder()
+                .withTop(5)
+                .withVectorSearchFilter(VectorSearchFilter.builder()
+                    .equalTo("category", "odd")
+                    .build())
+                .withKeysOnly(true)
+                .build())
+            .block();
+        assertNotNull(results);
+        assertEquals(5, results.getResults().size());
+        assertEquals("id_3", results.getResults().get(0).getKey());
+        for (VectorSearchResult<Chunk> result : results.getResults()) {
+            assertNull(result.getRecord());
+            assertEquals(1, Integer.parseInt(((String) result.getKey()).substring(3)) % 2);
+        }
+    }
+
+    @Test
+    public void deletedRecordsAreCompacted() throws InterruptedException {
+        List<Chunk> chunks = getChunks(400);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection(
+            new DiskAnnVectorStore(directory));
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+        collection.deleteBatchAsync(IntStream.range(0, 150)
+            .mapToObj(i -> "id_" + i)
+            .collect(Collectors.toList()), null).block();
+
+        // The live records are moved to the files of the next generation in the background
+        Path collectionDirectory = directory.resolve("chunks");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (Files.exists(collectionDirectory.resolve("nodes.bin"))
+            && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(collectionDirectory.resolve("nodes.bin")));
+        assertTrue(Files.exists(collectionDirectory.resolve("nodes.1.bin")));
+        assertTrue(Files.exists(collectionDirectory.resolve("records.1.bin")));
+        assertTrue(Files.exists(collectionDirectory.resolve("keys.1.bin")));
+
+        VectorStoreRecordCollection<String, Chunk> reopenedCollection = getCollection(
+            new DiskAnnVectorStore(directory));
+        for (VectorStoreRecordCollection<String, Chunk> current : Arrays.asList(collection,
+            reopenedCollection)) {
+            assertNull(current.getAsync("id_0", null).block());
+            assertNotNull(current.getAsync("id_150", null).block());
+            assertEquals(Arrays.asList("id_200"), getIds(current.searchAsync(
+                chunks.get(200).getEmbedding(),
+                VectorSearchOptions.builder().withTop(1).build()).block()));
+            for (String id : getIds(current.searchAsync(chunks.get(5).getEmbedding(),
+                VectorSearchOptions.builder().withTop(10).build()).block())) {
+                assertTrue(Integer.parseInt(id.substring(3)) >= 150, id);
+            }
+        }
+    }
+
+    @Test
+    public void vectorsAreOnlyIncludedWhenRequested() {
+        List<Chunk> chunks = getChunks(20);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection(
+            new DiskAnnVectorStore(directory));
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        Chunk chunk = collection.getAsync("id_4", null).block();
+        assertNotNull(chunk);
+        assertNull(chunk.getEmbedding());
+        chunk = collection.getAsync("id_4", new GetRecordOptions(true)).block();
+        assertNotNull(chunk);
+        assertEquals(chunks.get(4).getEmbedding(), chunk.getEmbedding());
+
+        VectorSearchResults<Chunk> results = collection.searchAsync(chunks.get(4).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).build()).block();
+        assertNotNull(results);
+        assertNull(results.getResults().get(0).getRecord().getEmbedding());
+        results = collection.searchAsync(chunks.get(4).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).withIncludeVectors(true).build()).block();
+        assertNotNull(results);
+        assertEquals(chunks.get(4).getEmbedding(),
+            results.getResults().get(0).getRecord().getEmbedding());
+    }
+}
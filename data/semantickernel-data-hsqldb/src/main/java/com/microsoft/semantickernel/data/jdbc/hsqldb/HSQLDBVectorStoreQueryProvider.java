@@ -52,6 +52,7 @@ public class HSQLDBVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
         supportedVectorTypes.put(String.class, "VARCHAR(" + defaultVarCharLength + ")");
         supportedVectorTypes.put(List.class, "VARCHAR(" + defaultVarCharLength + ")");
         supportedVectorTypes.put(Collection.class, "VARCHAR(" + defaultVarCharLength + ")");
+        supportedVectorTypes.put(float[].class, "VARCHAR(" + defaultVarCharLength + ")");
         return supportedVectorTypes;
     }
 
@@ -80,30 +81,35 @@ public class HSQLDBVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
     }
 
     private void setUpsertStatementValues(PreparedStatement statement, Object record,
-        List<VectorStoreRecordField> fields) {
-        JsonNode jsonNode = objectMapper.valueToTree(record);
+        VectorStoreRecordDefinition recordDefinition) {
+        // Records are only serialized when their fields cannot be read through accessors
+        JsonNode jsonNode = recordDefinition.hasFieldAccessors() ? null
+            : objectMapper.valueToTree(record);
 
+        List<VectorStoreRecordField> fields = recordDefinition.getAllFields();
         for (int i = 0; i < fields.size(); ++i) {
             VectorStoreRecordField field = fields.get(i);
             try {
-                JsonNode valueNode = jsonNode.get(field.getEffectiveStorageName());
+                Object value = normalizeOnIngest(field, jsonNode == null
+                    ? recordDefinition.getFieldAccessor(field.getName()).get(record)
+                    : jsonNode.get(field.getEffectiveStorageName()));
 
                 if (field instanceof VectorStoreRecordVectorField) {
                     // Convert the vector field to a string
                     if (!field.getFieldType().equals(String.class)) {
-                        statement.setObject(i + 1, objectMapper.writeValueAsString(valueNode));
+                        statement.setObject(i + 1, objectMapper.writeValueAsString(value));
                         continue;
                     }
                 } else if (field instanceof VectorStoreRecordDataField) {
                     // Convert List field to a string
                     if (field.getFieldType().equals(List.class)) {
-                        statement.setObject(i + 1, objectMapper.writeValueAsString(valueNode));
+                        statement.setObject(i + 1, objectMapper.writeValueAsString(value));
                         continue;
                     }
                 }
 
-                statement.setObject(i + 1,
-                    objectMapper.convertValue(valueNode, field.getFieldType()));
+                statement.setObject(i + 1, jsonNode == null ? value
+                    : objectMapper.convertValue(value, field.getFieldType()));
             } catch (SQLException | JsonProcessingException e) {
                 throw new RuntimeException(e);
             }
@@ -157,7 +163,7 @@ public class HSQLDBVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
         try (Connection connection = dataSource.getConnection();
             PreparedStatement statement = connection.prepareStatement(query)) {
             for (Object record : records) {
-                setUpsertStatementValues(statement, record, recordDefinition.getAllFields());
+                setUpsertStatementValues(statement, record, recordDefinition);
                 statement.addBatch();
             }
 
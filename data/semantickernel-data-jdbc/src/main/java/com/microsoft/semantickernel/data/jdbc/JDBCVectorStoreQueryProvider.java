@@ -1,10 +1,16 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.jdbc;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.semantickernel.data.filter.AnyTagEqualToFilterClause;
 import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
 import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
@@ -24,6 +30,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -32,6 +39,7 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
@@ -44,6 +52,8 @@ public class JDBCVectorStoreQueryProvider
     implements SQLVectorStoreQueryProvider,
     SQLVectorStoreFilterQueryProvider {
 
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     private static final Logger LOGGER = LoggerFactory
         .getLogger(JDBCVectorStoreQueryProvider.class);
 
@@ -87,6 +97,7 @@ public class JDBCVectorStoreQueryProvider
         supportedVectorTypes.put(String.class, "TEXT");
         supportedVectorTypes.put(List.class, "TEXT");
         supportedVectorTypes.put(Collection.class, "TEXT");
+        supportedVectorTypes.put(float[].class, "TEXT");
     }
 
     /**
@@ -531,6 +542,11 @@ public class JDBCVectorStoreQueryProvider
      * Vector search. Executes a vector search query and returns the results. The results are mapped
      * to the specified record type using the provided mapper. The query is executed against the
      * specified collection.
+     * <p>
+     * Vectors are stored as JSON strings, which generic SQL cannot compute distances on, so the
+     * matching rows are read and scored here. The score threshold is applied while they are
+     * scored, rather than in the query. Providers of databases with vector functions, such as
+     * PostgreSQL, override this method to search and apply the threshold in the query.
      *
      * @param <Record>         the record type
      * @param collectionName   the collection name
@@ -564,19 +580,116 @@ public class JDBCVectorStoreQueryProvider
         String filter = getFilter(options.getVectorSearchFilter(), recordDefinition);
         List<Object> parameters = getFilterParameters(options.getVectorSearchFilter());
 
-        List<Record> records = getRecordsWithFilter(collectionName, recordDefinition, mapper,
-            new GetRecordOptions(true), filter, parameters);
-
         DistanceFunction distanceFunction = vectorField
             .getDistanceFunction() == DistanceFunction.UNDEFINED
                 ? DistanceFunction.EUCLIDEAN_DISTANCE
                 : vectorField.getDistanceFunction();
 
+        if (options.isKeysOnly()) {
+            return searchKeys(collectionName, vector, options, recordDefinition, vectorField,
+                distanceFunction, filter, parameters);
+        }
+
+        List<Record> records = getRecordsWithFilter(collectionName, recordDefinition, mapper,
+            new GetRecordOptions(true), filter, parameters);
+
         return new VectorSearchResults<>(
             VectorOperations.exactSimilaritySearch(records, vector, vectorField,
                 distanceFunction, options));
     }
 
+    /**
+     * Vector search returning keys and scores only. Only the key and the searched vector column
+     * are read, and rows are scored without being mapped to records.
+     */
+    private <Record> VectorSearchResults<Record> searchKeys(String collectionName,
+        List<Float> vector, VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition,
+        VectorStoreRecordVectorField vectorField,
+        DistanceFunction distanceFunction,
+        String filter,
+        List<Object> parameters) {
+        VectorStoreRecordField keyField = recordDefinition.getKeyField();
+        String filterClause = filter == null || filter.isEmpty() ? "" : "WHERE " + filter;
+        String selectQuery = formatQuery("SELECT %s FROM %s %s",
+            getQueryColumnsFromFields(Arrays.asList(keyField, vectorField)),
+            getCollectionTableName(collectionName),
+            filterClause);
+
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(selectQuery)) {
+            for (int i = 0; i < parameters.size(); ++i) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+
+            // Vectors are stored as JSON strings
+            List<ObjectNode> rows = new ArrayList<>();
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                ObjectNode row = OBJECT_MAPPER.createObjectNode();
+                row.put(keyField.getEffectiveStorageName(),
+                    resultSet.getString(keyField.getEffectiveStorageName()));
+                row.set(vectorField.getEffectiveStorageName(), OBJECT_MAPPER.readTree(
+                    resultSet.getString(vectorField.getEffectiveStorageName())));
+                rows.add(row);
+            }
+
+            return new VectorSearchResults<>(
+                VectorOperations.exactSimilaritySearch(rows, vector, vectorField,
+                    distanceFunction, options)
+                    .stream()
+                    .map(result -> new VectorSearchResult<Record>(null,
+                        result.getRecord().get(keyField.getEffectiveStorageName()).asText(),
+                        result.getScore()))
+                    .collect(Collectors.toList()));
+        } catch (SQLException | JsonProcessingException e) {
+            throw new SKException("Failed to search records", e);
+        }
+    }
+
+    /**
+     * Unit-normalizes the value of a vector field normalized on ingest, see
+     * {@link VectorOperations#isNormalizedOnIngest(VectorStoreRecordVectorField)}. Values of other
+     * fields, and vectors stored as strings, are returned unchanged.
+     *
+     * @param field the field
+     * @param value the value of the field, a list or an array of floats, or a JSON array
+     * @return the normalized vector, or the value
+     */
+    @Nullable
+    protected static Object normalizeOnIngest(VectorStoreRecordField field,
+        @Nullable Object value) {
+        if (value == null
+            || (value instanceof JsonNode && ((JsonNode) value).isNull())
+            || !(field instanceof VectorStoreRecordVectorField)
+            || field.getFieldType().equals(String.class)
+            || !VectorOperations.isNormalizedOnIngest((VectorStoreRecordVectorField) field)) {
+            return value;
+        }
+        if (value instanceof float[]) {
+            return VectorOperations.normalizeOnIngest((VectorStoreRecordVectorField) field,
+                (float[]) value);
+        }
+        List<Float> vector = OBJECT_MAPPER.convertValue(value,
+            new TypeReference<List<Float>>() {
+            });
+        return VectorOperations.normalizeOnIngest((VectorStoreRecordVectorField) field, vector);
+    }
+
+    /**
+     * Closes a JDBC resource, logging rather than throwing any failure. Used to release the
+     * connection, statement and result set of a streamed search.
+     *
+     * @param resource the resource to close
+     */
+    protected static void closeQuietly(AutoCloseable resource) {
+        try {
+            resource.close();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to close resource", e);
+        }
+    }
+
     /**
      * Validates an SQL identifier.
      *
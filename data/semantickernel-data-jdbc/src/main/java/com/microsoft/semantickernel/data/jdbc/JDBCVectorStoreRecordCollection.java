@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.data.jdbc;
 
 import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
@@ -20,6 +21,7 @@ import java.util.Objects;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
@@ -299,6 +301,21 @@ public class JDBCVectorStoreRecordCollection<Record>
             .subscribeOn(Schedulers.boundedElastic());
     }
 
+    /**
+     * Vectorized search, emitting the results one by one as they are read from the database.
+     *
+     * @param vector              The vector to search with.
+     * @param vectorSearchOptions The options to use for the search.
+     * @return A Flux of vector search results.
+     */
+    @Override
+    public Flux<VectorSearchResult<Record>> searchStreamAsync(List<Float> vector,
+        VectorSearchOptions vectorSearchOptions) {
+        return queryProvider.searchStream(this.collectionName, vector, vectorSearchOptions,
+            recordDefinition, vectorStoreRecordMapper)
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Builder for a JDBCVectorStoreRecordCollection.
      *
@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.data.jdbc;
 
 import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
@@ -13,6 +14,7 @@ import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptio
 import java.sql.ResultSet;
 import java.util.List;
 import java.util.Map;
+import reactor.core.publisher.Flux;
 
 /**
  * The JDBC vector store query provider.
@@ -151,6 +153,29 @@ public interface SQLVectorStoreQueryProvider {
         VectorStoreRecordDefinition recordDefinition,
         VectorStoreRecordMapper<Record, ResultSet> mapper);
 
+    /**
+     * Vector search, emitting the results one by one.
+     * Providers that rank the results in the database map each row only when it is requested,
+     * while reading the result set. The default implementation emits the results of
+     * {@link #search} once the search completes.
+     *
+     * @param <Record> the record type
+     * @param collectionName the collection name
+     * @param vector the vector to search with
+     * @param options the vector search options
+     * @param recordDefinition the record definition
+     * @param mapper the mapper, responsible for mapping the result set to the record type.
+     * @return the search results
+     */
+    default <Record> Flux<VectorSearchResult<Record>> searchStream(String collectionName,
+        List<Float> vector,
+        VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition,
+        VectorStoreRecordMapper<Record, ResultSet> mapper) {
+        return Flux.defer(() -> Flux.fromIterable(
+            search(collectionName, vector, options, recordDefinition, mapper).getResults()));
+    }
+
     /**
      * Gets the record mapper for the given record class and definition.
      * 
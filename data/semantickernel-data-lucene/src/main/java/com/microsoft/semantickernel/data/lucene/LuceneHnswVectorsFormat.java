@@ -0,0 +1,69 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import java.io.IOException;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.KnnVectorsReader;
+import org.apache.lucene.codecs.KnnVectorsWriter;
+import org.apache.lucene.codecs.lucene99.Lucene99HnswVectorsFormat;
+import org.apache.lucene.index.SegmentReadState;
+import org.apache.lucene.index.SegmentWriteState;
+
+/**
+ * The HNSW vector format of the Lucene vector store. It writes the default Lucene HNSW graph,
+ * but raises the maximum number of dimensions of a vector, as the dimensions of common embedding
+ * models exceed the Lucene default of 1024.
+ * <p>
+ * The format is registered as a Lucene service, so that indexes written with it can be read.
+ */
+public final class LuceneHnswVectorsFormat extends KnnVectorsFormat {
+
+    /**
+     * The maximum number of dimensions of a vector.
+     */
+    public static final int MAX_DIMENSIONS = 4096;
+
+    private static final String NAME = "SemanticKernelHnswVectorsFormat";
+
+    private final Lucene99HnswVectorsFormat delegate;
+
+    /**
+     * Creates a new instance of the format with the default graph parameters. This constructor
+     * is used by Lucene to read an index.
+     */
+    public LuceneHnswVectorsFormat() {
+        this(Lucene99HnswVectorsFormat.DEFAULT_MAX_CONN,
+            Lucene99HnswVectorsFormat.DEFAULT_BEAM_WIDTH);
+    }
+
+    /**
+     * Creates a new instance of the format.
+     *
+     * @param maxConnections The maximum number of connections of a node of the graph.
+     * @param beamWidth      The size of the candidate list used to insert a vector.
+     */
+    public LuceneHnswVectorsFormat(int maxConnections, int beamWidth) {
+        super(NAME);
+        this.delegate = new Lucene99HnswVectorsFormat(maxConnections, beamWidth);
+    }
+
+    @Override
+    public KnnVectorsWriter fieldsWriter(SegmentWriteState state) throws IOException {
+        return delegate.fieldsWriter(state);
+    }
+
+    @Override
+    public KnnVectorsReader fieldsReader(SegmentReadState state) throws IOException {
+        return delegate.fieldsReader(state);
+    }
+
+    @Override
+    public int getMaxDimensions(String fieldName) {
+        return MAX_DIMENSIONS;
+    }
+
+    @Override
+    public String toString() {
+        return NAME + "(" + delegate + ")";
+    }
+}
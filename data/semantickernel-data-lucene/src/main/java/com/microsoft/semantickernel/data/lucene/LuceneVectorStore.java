@@ -0,0 +1,146 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStore;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Represents a Lucene vector store, an embedded vector store keeping its collections in Lucene
+ * indexes in a local directory, one sub directory per collection.
+ */
+public class LuceneVectorStore implements VectorStore, Closeable {
+
+    private final Path directory;
+    // Collections are shared, as a Lucene index is opened by one writer at a time
+    private final Map<String, LuceneVectorStoreRecordCollection<?>> collections;
+
+    /**
+     * Creates a new instance of the Lucene vector store.
+     *
+     * @param directory The directory of the vector store.
+     */
+    public LuceneVectorStore(@Nonnull Path directory) {
+        this.directory = directory;
+        this.collections = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Gets a collection from the vector store. The same collection instance is returned for a
+     * given collection name.
+     *
+     * @param collectionName The name of the collection.
+     * @param options        The options for the collection.
+     * @param <Key>          The type of key in the collection.
+     * @param <Record>       The type of record in the collection.
+     * @return The collection.
+     */
+    @Override
+    public <Key, Record> VectorStoreRecordCollection<Key, Record> getCollection(
+        @Nonnull String collectionName,
+        @Nonnull VectorStoreRecordCollectionOptions<Key, Record> options) {
+        if (options.getKeyClass() != String.class) {
+            throw new SKException("Lucene only supports string keys");
+        }
+        if (options.getRecordClass() == null) {
+            throw new SKException("Record class is required");
+        }
+
+        LuceneVectorStoreRecordCollection<?> collection = collections.computeIfAbsent(
+            collectionName,
+            name -> new LuceneVectorStoreRecordCollection<>(directory, name,
+                (LuceneVectorStoreRecordCollectionOptions<Record>) options));
+        return (VectorStoreRecordCollection<Key, Record>) collection;
+    }
+
+    /**
+     * Gets the names of all collections in the vector store.
+     *
+     * @return A list of collection names.
+     */
+    @Override
+    public Mono<List<String>> getCollectionNamesAsync() {
+        return Mono.fromCallable(() -> {
+            List<String> names = new ArrayList<>();
+            if (!Files.isDirectory(directory)) {
+                return names;
+            }
+            try (Stream<Path> paths = Files.list(directory)) {
+                for (Path path : (Iterable<Path>) paths::iterator) {
+                    if (LuceneVectorStoreRecordCollection.exists(path)) {
+                        names.add(path.getFileName().toString());
+                    }
+                }
+            }
+            return names;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Closes the collections of the vector store, committing pending writes and releasing their
+     * directories.
+     *
+     * @throws IOException if a collection cannot be committed
+     */
+    @Override
+    public void close() throws IOException {
+        for (LuceneVectorStoreRecordCollection<?> collection : collections.values()) {
+            collection.close();
+        }
+    }
+
+    /**
+     * Create a builder for the Lucene vector store.
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builder for the Lucene vector store.
+     */
+    public static class Builder implements SemanticKernelBuilder<LuceneVectorStore> {
+
+        @Nullable
+        private Path directory;
+
+        /**
+         * Sets the directory of the vector store.
+         *
+         * @param directory the directory of the vector store
+         * @return the builder
+         */
+        public Builder withDirectory(Path directory) {
+            this.directory = directory;
+            return this;
+        }
+
+        @Override
+        public LuceneVectorStore build() {
+            if (directory == null) {
+                throw new SKException("directory is required");
+            }
+
+            return new LuceneVectorStore(directory);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.semantickernel.data.filter.AnyTagEqualToFilterClause;
+import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
+import com.microsoft.semantickernel.data.filter.FilterClause;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordKeyField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.DoublePoint;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.KnnFloatVectorField;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.VectorSimilarityFunction;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.TermQuery;
+
+/**
+ * Maps records to Lucene documents, and vector search filters to Lucene queries.
+ * <p>
+ * Filterable data fields are indexed under their storage name: numbers as points, and other
+ * values, including each element of a list, as exact terms. Full text searchable data fields are
+ * analyzed under their storage name prefixed by {@link #FULL_TEXT_FIELD_PREFIX}.
+ */
+final class LuceneVectorStoreCollectionSearchMapping {
+
+    /**
+     * The field storing the JSON of a record.
+     */
+    static final String SOURCE_FIELD = "_source";
+
+    /**
+     * The prefix of the analyzed fields of full text searchable data fields.
+     */
+    static final String FULL_TEXT_FIELD_PREFIX = "_text.";
+
+    private static final Set<Class<?>> integralTypes = new HashSet<>(Arrays.asList(
+        Integer.class, int.class, Long.class, long.class, Short.class, short.class,
+        Byte.class, byte.class));
+
+    private static final Set<Class<?>> decimalTypes = new HashSet<>(Arrays.asList(
+        Float.class, float.class, Double.class, double.class));
+
+    private LuceneVectorStoreCollectionSearchMapping() {
+    }
+
+    /**
+     * Gets the effective distance function of a vector field.
+     *
+     * @param field The vector field.
+     * @return The distance function, Euclidean distance when the field does not define one.
+     */
+    static DistanceFunction getDistanceFunction(VectorStoreRecordVectorField field) {
+        return field.getDistanceFunction() == DistanceFunction.UNDEFINED
+            ? DistanceFunction.EUCLIDEAN_DISTANCE
+            : field.getDistanceFunction();
+    }
+
+    /**
+     * Gets the Lucene similarity function of a distance function. The dot product is mapped to
+     * the maximum inner product, as Lucene requires unit vectors for its dot product.
+     *
+     * @param distanceFunction The distance function.
+     * @return The Lucene similarity function.
+     */
+    static VectorSimilarityFunction getSimilarityFunction(DistanceFunction distanceFunction) {
+        switch (distanceFunction) {
+            case COSINE_SIMILARITY:
+            case COSINE_DISTANCE:
+                return VectorSimilarityFunction.COSINE;
+            case DOT_PRODUCT:
+                return VectorSimilarityFunction.MAXIMUM_INNER_PRODUCT;
+            case EUCLIDEAN_DISTANCE:
+                return VectorSimilarityFunction.EUCLIDEAN;
+            default:
+                throw new SKException("Unsupported distance function: " + distanceFunction);
+        }
+    }
+
+    /**
+     * Converts a Lucene vector score, where higher is always better, to the score of the
+     * distance function, as computed by the other vector stores.
+     *
+     * @param distanceFunction The distance function.
+     * @param score            The Lucene score.
+     * @return The score of the distance function.
+     */
+    static double toScore(DistanceFunction distanceFunction, float score) {
+        switch (distanceFunction) {
+            case COSINE_SIMILARITY:
+                return 2 * score - 1;
+            case COSINE_DISTANCE:
+                return 2 - 2 * score;
+            case DOT_PRODUCT:
+                return score < 1 ? 1 - 1 / score : score - 1;
+            case EUCLIDEAN_DISTANCE:
+                return Math.sqrt(Math.max(0, 1 / score - 1));
+            default:
+                throw new SKException("Unsupported distance function: " + distanceFunction);
+        }
+    }
+
+    /**
+     * Builds the Lucene document of a record.
+     *
+     * @param key              The key of the record.
+     * @param json             The JSON of the record.
+     * @param recordNode       The JSON tree of the record.
+     * @param recordDefinition The record definition.
+     * @return The document.
+     */
+    static Document toDocument(
+        String key,
+        byte[] json,
+        ObjectNode recordNode,
+        VectorStoreRecordDefinition recordDefinition) {
+        Document document = new Document();
+        document.add(new StringField(
+            recordDefinition.getKeyField().getEffectiveStorageName(), key, Field.Store.YES));
+        document.add(new StoredField(SOURCE_FIELD, json));
+
+        for (VectorStoreRecordDataField field : recordDefinition.getDataFields()) {
+            JsonNode node = recordNode.get(field.getEffectiveStorageName());
+            if (node == null || node.isNull()) {
+                continue;
+            }
+            if (field.isFilterable()) {
+                addFilterFields(document, field, node);
+            }
+            if (field.isFullTextSearchable() && node.isTextual()) {
+                document.add(new TextField(
+                    FULL_TEXT_FIELD_PREFIX + field.getEffectiveStorageName(), node.asText(),
+                    Field.Store.NO));
+            }
+        }
+
+        for (VectorStoreRecordVectorField field : recordDefinition.getVectorFields()) {
+            JsonNode node = recordNode.get(field.getEffectiveStorageName());
+            if (node == null || !node.isArray()) {
+                continue;
+            }
+            if (field.getDimensions() > 0 && node.size() != field.getDimensions()) {
+                throw new SKException(String.format(
+                    "Record %s has a vector of %d dimensions in the field %s, expected %d", key,
+                    node.size(), field.getName(), field.getDimensions()));
+            }
+
+            float[] vector = new float[node.size()];
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] = node.get(i).floatValue();
+            }
+            document.add(new KnnFloatVectorField(field.getEffectiveStorageName(), vector,
+                getSimilarityFunction(getDistanceFunction(field))));
+        }
+        return document;
+    }
+
+    private static void addFilterFields(Document document, VectorStoreRecordField field,
+        JsonNode node) {
+        String name = field.getEffectiveStorageName();
+        if (node.isArray()) {
+            for (JsonNode element : node) {
+                document.add(new StringField(name, element.asText(), Field.Store.NO));
+            }
+        } else if (integralTypes.contains(field.getFieldType())) {
+            document.add(new LongPoint(name, node.asLong()));
+        } else if (decimalTypes.contains(field.getFieldType())) {
+            document.add(new DoublePoint(name, node.asDouble()));
+        } else {
+            document.add(new StringField(name, node.asText(), Field.Store.NO));
+        }
+    }
+
+    /**
+     * Builds the Lucene query matching the records that pass a vector search filter. The query
+     * is used to pre-filter the vector search, so every clause of the filter must target the key
+     * or a filterable data field.
+     *
+     * @param filter           The vector search filter.
+     * @param recordDefinition The record definition.
+     * @return The query, or null if the filter has no clauses.
+     */
+    @Nullable
+    static Query buildFilterQuery(
+        @Nullable VectorSearchFilter filter,
+        VectorStoreRecordDefinition recordDefinition) {
+        if (filter == null || filter.getFilterClauses().isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        for (FilterClause filterClause : filter.getFilterClauses()) {
+            if (filterClause instanceof EqualToFilterClause) {
+                EqualToFilterClause equalToFilterClause = (EqualToFilterClause) filterClause;
+                VectorStoreRecordField field = getFilterableField(recordDefinition,
+                    equalToFilterClause.getFieldName());
+                builder.add(buildEqualToQuery(field, equalToFilterClause.getValue()),
+                    BooleanClause.Occur.FILTER);
+            } else if (filterClause instanceof AnyTagEqualToFilterClause) {
+                AnyTagEqualToFilterClause anyTagClause = (AnyTagEqualToFilterClause) filterClause;
+                VectorStoreRecordField field = getFilterableField(recordDefinition,
+                    anyTagClause.getFieldName());
+                builder.add(new TermQuery(new Term(field.getEffectiveStorageName(),
+                    String.valueOf(anyTagClause.getValue()))),
+                    BooleanClause.Occur.FILTER);
+            } else {
+                throw new SKException("Unsupported filter clause type '"
+                    + filterClause.getClass().getSimpleName() + "'.");
+            }
+        }
+        return builder.build();
+    }
+
+    private static VectorStoreRecordField getFilterableField(
+        VectorStoreRecordDefinition recordDefinition, String fieldName) {
+        VectorStoreRecordField field = recordDefinition.getField(fieldName);
+        if (!(field instanceof VectorStoreRecordKeyField)
+            && !(field instanceof VectorStoreRecordDataField
+                && ((VectorStoreRecordDataField) field).isFilterable())) {
+            throw new SKException(String.format(
+                "Field %s is not filterable. Set isFilterable on the field to filter on it.",
+                fieldName));
+        }
+        return field;
+    }
+
+    private static Query buildEqualToQuery(VectorStoreRecordField field, Object value) {
+        String name = field.getEffectiveStorageName();
+        if (field instanceof VectorStoreRecordKeyField) {
+            return new TermQuery(new Term(name, String.valueOf(value)));
+        }
+        if (integralTypes.contains(field.getFieldType()) && value instanceof Number) {
+            return LongPoint.newExactQuery(name, ((Number) value).longValue());
+        }
+        if (decimalTypes.contains(field.getFieldType()) && value instanceof Number) {
+            return DoublePoint.newExactQuery(name, ((Number) value).doubleValue());
+        }
+        return new TermQuery(new Term(name, String.valueOf(value)));
+    }
+}
@@ -0,0 +1,671 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.UpsertRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleUnaryOperator;
+import java.util.stream.Stream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.codecs.Codec;
+import org.apache.lucene.codecs.KnnVectorsFormat;
+import org.apache.lucene.codecs.lucene912.Lucene912Codec;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.KnnFloatVectorQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherFactory;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.apache.lucene.util.QueryBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A vector store record collection keeping its records in a Lucene index on local disk.
+ * <p>
+ * The collection is stored in a directory named after the collection, opened as a memory-mapped
+ * directory on 64-bit platforms. Vector fields are indexed in Lucene HNSW graphs, filterable data
+ * fields are indexed to pre-filter vector searches, and full text searchable data fields are
+ * analyzed for {@link #hybridSearchAsync(List, String, VectorSearchOptions) hybrid searches}.
+ * Writes are visible to searches as soon as they complete, through near-real-time searchers.
+ * <p>
+ * A collection directory must only be opened by one collection instance at a time. Close the
+ * collection to release the directory.
+ *
+ * @param <Record> The type of record in the collection.
+ */
+public class LuceneVectorStoreRecordCollection<Record> implements
+    VectorStoreRecordCollection<String, Record>, Closeable {
+
+    private static final HashSet<Class<?>> supportedKeyTypes = new HashSet<>(
+        Collections.singletonList(String.class));
+
+    private static final Set<String> sourceFields = Collections.singleton(
+        LuceneVectorStoreCollectionSearchMapping.SOURCE_FIELD);
+
+    private final Path directory;
+    private final String collectionName;
+    private final LuceneVectorStoreRecordCollectionOptions<Record> options;
+    private final VectorStoreRecordDefinition recordDefinition;
+    private final ObjectMapper objectMapper;
+    private final String keyFieldName;
+    private final Set<String> keyFields;
+    private final Analyzer analyzer;
+
+    @GuardedBy("this")
+    @Nullable
+    private LuceneIndex index;
+
+    /**
+     * Creates a new instance of the Lucene vector store record collection.
+     *
+     * @param directory      The directory of the vector store, holding one directory per
+     *                       collection.
+     * @param collectionName The name of the collection.
+     * @param options        The options for the collection.
+     */
+    public LuceneVectorStoreRecordCollection(
+        @Nonnull Path directory,
+        @Nonnull String collectionName,
+        @Nonnull LuceneVectorStoreRecordCollectionOptions<Record> options) {
+        this.directory = directory.resolve(collectionName);
+        this.collectionName = collectionName;
+        this.options = options;
+
+        if (options.getRecordDefinition() != null) {
+            this.recordDefinition = options.getRecordDefinition();
+        } else {
+            this.recordDefinition = VectorStoreRecordDefinition
+                .fromRecordClass(this.options.getRecordClass());
+        }
+
+        if (options.getObjectMapper() == null) {
+            this.objectMapper = new ObjectMapper();
+        } else {
+            this.objectMapper = options.getObjectMapper();
+        }
+
+        // Validate the key type
+        VectorStoreRecordDefinition.validateSupportedTypes(
+            Collections.singletonList(recordDefinition.getKeyField()),
+            supportedKeyTypes);
+
+        this.keyFieldName = recordDefinition.getKeyField().getEffectiveStorageName();
+        this.keyFields = Collections.singleton(keyFieldName);
+        this.analyzer = new StandardAnalyzer();
+    }
+
+    /**
+     * Checks if a directory holds a Lucene index.
+     *
+     * @param directory The directory.
+     * @return true if the directory holds a Lucene index
+     * @throws IOException if the directory cannot be read
+     */
+    static boolean exists(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return false;
+        }
+        try (Directory luceneDirectory = FSDirectory.open(directory)) {
+            return DirectoryReader.indexExists(luceneDirectory);
+        }
+    }
+
+    /**
+     * Gets the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Checks if the collection exists on disk.
+     *
+     * @return A Mono emitting a boolean indicating if the collection exists.
+     */
+    @Override
+    public Mono<Boolean> collectionExistsAsync() {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                return index != null || exists(directory);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Creates the collection on disk, replacing any existing collection.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionAsync() {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                closeIndex();
+                index = openIndex(IndexWriterConfig.OpenMode.CREATE);
+            }
+            return (VectorStoreRecordCollection<String, Record>) this;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Creates the collection on disk if it does not exist.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionIfNotExistsAsync() {
+        return Mono.fromCallable(() -> {
+            synchronized (this) {
+                if (index == null) {
+                    index = openIndex(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+                }
+            }
+            return (VectorStoreRecordCollection<String, Record>) this;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes the collection and its files.
+     *
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteCollectionAsync() {
+        return Mono.<Void>fromCallable(() -> {
+            synchronized (this) {
+                closeIndex();
+                if (Files.exists(directory)) {
+                    try (Stream<Path> paths = Files.walk(directory)) {
+                        List<Path> files = new ArrayList<>();
+                        paths.forEach(files::add);
+                        files.sort(Comparator.reverseOrder());
+                        for (Path file : files) {
+                            Files.delete(file);
+                        }
+                    }
+                }
+            }
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Gets a record from the collection.
+     *
+     * @param key     The key of the record to get.
+     * @param options The options for getting the record.
+     * @return A Mono emitting the record.
+     */
+    @Override
+    public Mono<Record> getAsync(String key, GetRecordOptions options) {
+        return getBatchAsync(Collections.singletonList(key), options)
+            .flatMap(records -> records.isEmpty() ? Mono.empty() : Mono.just(records.get(0)));
+    }
+
+    /**
+     * Gets a batch of records from the collection.
+     *
+     * @param keys    The keys of the records to get.
+     * @param options The options for getting the records.
+     * @return A Mono emitting a list of the records found.
+     */
+    @Override
+    public Mono<List<Record>> getBatchAsync(List<String> keys, GetRecordOptions options) {
+        return Mono.fromCallable(() -> {
+            SearcherManager searcherManager = getIndex().searcherManager;
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                boolean includeVectors = options != null && options.isIncludeVectors();
+                List<Record> records = new ArrayList<>();
+                for (String key : keys) {
+                    TopDocs topDocs = searcher.search(
+                        new TermQuery(new Term(keyFieldName, key)), 1);
+                    if (topDocs.scoreDocs.length > 0) {
+                        records.add(readRecord(storedFields, topDocs.scoreDocs[0].doc,
+                            includeVectors));
+                    }
+                }
+                return records;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Inserts or updates a record in the collection.
+     *
+     * @param data    The record to upsert.
+     * @param options The options for upserting the record.
+     * @return A Mono emitting the key of the upserted record.
+     */
+    @Override
+    public Mono<String> upsertAsync(Record data, UpsertRecordOptions options) {
+        return upsertBatchAsync(Collections.singletonList(data), options)
+            .map(keys -> keys.get(0));
+    }
+
+    /**
+     * Inserts or updates a batch of records in the collection.
+     *
+     * @param data    The records to upsert.
+     * @param options The options for upserting the records.
+     * @return A Mono emitting a list of keys of the upserted records.
+     */
+    @Override
+    public Mono<List<String>> upsertBatchAsync(List<Record> data, UpsertRecordOptions options) {
+        return Mono.fromCallable(() -> {
+            List<String> keys = new ArrayList<>();
+            List<Document> documents = new ArrayList<>();
+            for (Record record : data) {
+                ObjectNode objectNode;
+                byte[] json;
+                try {
+                    objectNode = objectMapper.valueToTree(record);
+                    json = objectMapper.writeValueAsBytes(objectNode);
+                } catch (Exception e) {
+                    throw new SKException(
+                        "Failure to serialize object. Ensure your model object can be serialized by Jackson, i.e the class is visible, has getters, constructor, annotations etc.",
+                        e);
+                }
+
+                String key = objectNode.get(keyFieldName).asText();
+                keys.add(key);
+                documents.add(LuceneVectorStoreCollectionSearchMapping.toDocument(key, json,
+                    objectNode, recordDefinition));
+            }
+
+            LuceneIndex currentIndex = getIndex();
+            for (int i = 0; i < keys.size(); i++) {
+                currentIndex.writer.updateDocument(new Term(keyFieldName, keys.get(i)),
+                    documents.get(i));
+            }
+            afterWrite(currentIndex);
+            return keys;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Deletes a record from the collection.
+     *
+     * @param key     The key of the record to delete.
+     * @param options The options for deleting the record.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteAsync(String key, DeleteRecordOptions options) {
+        return deleteBatchAsync(Collections.singletonList(key), options);
+    }
+
+    /**
+     * Deletes a batch of records from the collection.
+     *
+     * @param keys    The keys of the records to delete.
+     * @param options The options for deleting the records.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteBatchAsync(List<String> keys, DeleteRecordOptions options) {
+        return Mono.<Void>fromCallable(() -> {
+            Term[] terms = new Term[keys.size()];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = new Term(keyFieldName, keys.get(i));
+            }
+
+            LuceneIndex currentIndex = getIndex();
+            currentIndex.writer.deleteDocuments(terms);
+            afterWrite(currentIndex);
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Vectorized search. This method searches the HNSW graph of the vector field for records
+     * that are similar to the given vector. The vector search filter pre-filters the graph
+     * search, so the filter can only target the key and filterable data fields.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A list of search results.
+     */
+    @Override
+    public Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        return Mono.fromCallable(() -> {
+            VectorSearchOptions effectiveOptions = getEffectiveOptions(options);
+            VectorStoreRecordVectorField vectorField = getVectorField(effectiveOptions);
+            DistanceFunction distanceFunction = LuceneVectorStoreCollectionSearchMapping
+                .getDistanceFunction(vectorField);
+
+            if (effectiveOptions.getTop() <= 0) {
+                return new VectorSearchResults<Record>(Collections.emptyList());
+            }
+            int limit = effectiveOptions.getSkip() + effectiveOptions.getTop();
+            Query query = new KnnFloatVectorQuery(vectorField.getEffectiveStorageName(),
+                toArray(vector), limit, LuceneVectorStoreCollectionSearchMapping
+                    .buildFilterQuery(effectiveOptions.getVectorSearchFilter(),
+                        recordDefinition));
+
+            boolean higherScoreBetter = distanceFunction == DistanceFunction.COSINE_SIMILARITY
+                || distanceFunction == DistanceFunction.DOT_PRODUCT;
+            return search(query, effectiveOptions,
+                score -> LuceneVectorStoreCollectionSearchMapping.toScore(distanceFunction,
+                    (float) score),
+                higherScoreBetter);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Hybrid search. This method combines a vector search with a keyword search of the full text
+     * searchable data fields, so records that are similar to the given vector or that match the
+     * keywords are returned, and records doing both rank first.
+     * <p>
+     * The scores of the results are Lucene relevance scores, the sum of the vector similarity
+     * score and of the BM25 keyword score, so they are not comparable to the scores of a vector
+     * search. The score threshold of the options applies to those relevance scores.
+     *
+     * @param vector   The vector to search with.
+     * @param keywords The keywords to search for.
+     * @param options  The options to use for the search.
+     * @return A list of search results.
+     */
+    public Mono<VectorSearchResults<Record>> hybridSearchAsync(List<Float> vector,
+        String keywords, VectorSearchOptions options) {
+        return Mono.fromCallable(() -> {
+            VectorSearchOptions effectiveOptions = getEffectiveOptions(options);
+            VectorStoreRecordVectorField vectorField = getVectorField(effectiveOptions);
+
+            if (effectiveOptions.getTop() <= 0) {
+                return new VectorSearchResults<Record>(Collections.emptyList());
+            }
+            int limit = effectiveOptions.getSkip() + effectiveOptions.getTop();
+            Query filterQuery = LuceneVectorStoreCollectionSearchMapping
+                .buildFilterQuery(effectiveOptions.getVectorSearchFilter(), recordDefinition);
+
+            BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(new KnnFloatVectorQuery(vectorField.getEffectiveStorageName(),
+                    toArray(vector), limit, filterQuery), BooleanClause.Occur.SHOULD);
+            Query keywordQuery = buildKeywordQuery(keywords);
+            if (keywordQuery != null) {
+                query.add(keywordQuery, BooleanClause.Occur.SHOULD);
+            }
+            if (filterQuery != null) {
+                query.add(filterQuery, BooleanClause.Occur.FILTER);
+            }
+
+            return search(query.build(), effectiveOptions, score -> score, true);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Closes the collection, committing pending writes and releasing its directory. The
+     * collection is reopened by the next operation.
+     *
+     * @throws IOException if the index cannot be committed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closeIndex();
+    }
+
+    @Nullable
+    private Query buildKeywordQuery(String keywords) {
+        QueryBuilder queryBuilder = new QueryBuilder(analyzer);
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean fullTextSearchable = false;
+        for (VectorStoreRecordDataField field : recordDefinition.getDataFields()) {
+            if (!field.isFullTextSearchable()) {
+                continue;
+            }
+            fullTextSearchable = true;
+            Query fieldQuery = queryBuilder.createBooleanQuery(
+                LuceneVectorStoreCollectionSearchMapping.FULL_TEXT_FIELD_PREFIX
+                    + field.getEffectiveStorageName(),
+                keywords);
+            if (fieldQuery != null) {
+                builder.add(fieldQuery, BooleanClause.Occur.SHOULD);
+            }
+        }
+        if (!fullTextSearchable) {
+            throw new SKException(
+                "No full text searchable fields defined. Cannot search for keywords");
+        }
+
+        BooleanQuery query = builder.build();
+        return query.clauses().isEmpty() ? null : query;
+    }
+
+    private VectorSearchResults<Record> search(Query query, VectorSearchOptions options,
+        DoubleUnaryOperator toScore, boolean higherScoreBetter) throws IOException {
+        SearcherManager searcherManager = getIndex().searcherManager;
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, options.getSkip() + options.getTop());
+            StoredFields storedFields = searcher.storedFields();
+            Double scoreThreshold = options.getScoreThreshold();
+
+            List<VectorSearchResult<Record>> results = new ArrayList<>();
+            for (int i = options.getSkip(); i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                double score = toScore.applyAsDouble(scoreDoc.score);
+                // Results are ranked by score, so no further result can match the threshold
+                if (scoreThreshold != null && (higherScoreBetter
+                    ? score < scoreThreshold
+                    : score > scoreThreshold)) {
+                    break;
+                }
+
+                if (options.isKeysOnly()) {
+                    String key = storedFields.document(scoreDoc.doc, keyFields)
+                        .get(keyFieldName);
+                    results.add(new VectorSearchResult<>(null, key, score));
+                } else {
+                    results.add(new VectorSearchResult<>(
+                        readRecord(storedFields, scoreDoc.doc, options.isIncludeVectors()),
+                        score));
+                }
+            }
+            return new VectorSearchResults<>(results);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private VectorSearchOptions getEffectiveOptions(@Nullable VectorSearchOptions options) {
+        if (options != null) {
+            return options;
+        }
+        if (recordDefinition.getVectorFields().isEmpty()) {
+            throw new SKException("No vector fields defined. Cannot perform vector search");
+        }
+        return VectorSearchOptions.createDefault(
+            recordDefinition.getVectorFields().get(0).getName());
+    }
+
+    private VectorStoreRecordVectorField getVectorField(VectorSearchOptions options) {
+        if (options.getVectorFieldName() == null) {
+            if (recordDefinition.getVectorFields().isEmpty()) {
+                throw new SKException("No vector fields defined. Cannot perform vector search");
+            }
+            return recordDefinition.getVectorFields().get(0);
+        }
+
+        VectorStoreRecordField field = recordDefinition.getField(options.getVectorFieldName());
+        if (!(field instanceof VectorStoreRecordVectorField)) {
+            throw new SKException(String.format(
+                "Field %s is not a vector field", options.getVectorFieldName()));
+        }
+        return (VectorStoreRecordVectorField) field;
+    }
+
+    private static float[] toArray(List<Float> vector) {
+        float[] array = new float[vector.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vector.get(i);
+        }
+        return array;
+    }
+
+    private Record readRecord(StoredFields storedFields, int doc, boolean includeVectors)
+        throws IOException {
+        BytesRef json = storedFields.document(doc, sourceFields)
+            .getBinaryValue(LuceneVectorStoreCollectionSearchMapping.SOURCE_FIELD);
+        if (includeVectors) {
+            return objectMapper.readValue(json.bytes, json.offset, json.length,
+                options.getRecordClass());
+        }
+
+        ObjectNode objectNode = (ObjectNode) objectMapper.readTree(json.bytes, json.offset,
+            json.length);
+        for (VectorStoreRecordVectorField field : recordDefinition.getVectorFields()) {
+            objectNode.remove(field.getEffectiveStorageName());
+        }
+        return objectMapper.treeToValue(objectNode, options.getRecordClass());
+    }
+
+    private void afterWrite(LuceneIndex currentIndex) throws IOException {
+        if (options.isCommitOnWrite()) {
+            currentIndex.writer.commit();
+        }
+        currentIndex.searcherManager.maybeRefreshBlocking();
+    }
+
+    private synchronized LuceneIndex getIndex() throws IOException {
+        if (index == null) {
+            if (!exists(directory)) {
+                throw new SKException(
+                    String.format("Collection %s does not exist.", collectionName));
+            }
+            index = openIndex(IndexWriterConfig.OpenMode.APPEND);
+        }
+        return index;
+    }
+
+    @GuardedBy("this")
+    private void closeIndex() throws IOException {
+        if (index != null) {
+            LuceneIndex closing = index;
+            index = null;
+            closing.close();
+        }
+    }
+
+    private LuceneIndex openIndex(IndexWriterConfig.OpenMode openMode) throws IOException {
+        Files.createDirectories(directory);
+        FSDirectory luceneDirectory = FSDirectory.open(directory);
+        try {
+            KnnVectorsFormat vectorsFormat = new LuceneHnswVectorsFormat(
+                options.getHnswMaxConnections(), options.getHnswBeamWidth());
+            Codec codec = new Lucene912Codec() {
+                @Override
+                public KnnVectorsFormat getKnnVectorsFormatForField(String field) {
+                    return vectorsFormat;
+                }
+            };
+
+            IndexWriter writer = new IndexWriter(luceneDirectory,
+                new IndexWriterConfig(analyzer)
+                    .setOpenMode(openMode)
+                    .setCodec(codec));
+            try {
+                if (openMode != IndexWriterConfig.OpenMode.APPEND) {
+                    // Commit, so the collection exists on disk
+                    writer.commit();
+                }
+                Executor searchExecutor = options.getSearchExecutor();
+                SearcherManager searcherManager = new SearcherManager(writer,
+                    new SearcherFactory() {
+                        @Override
+                        public IndexSearcher newSearcher(IndexReader reader,
+                            IndexReader previousReader) {
+                            return searchExecutor == null
+                                ? new IndexSearcher(reader)
+                                : new IndexSearcher(reader, searchExecutor);
+                        }
+                    });
+                return new LuceneIndex(luceneDirectory, writer, searcherManager);
+            } catch (IOException | RuntimeException e) {
+                writer.close();
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            luceneDirectory.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The open Lucene index of the collection.
+     */
+    private static final class LuceneIndex implements Closeable {
+
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+
+        private LuceneIndex(Directory directory, IndexWriter writer,
+            SearcherManager searcherManager) {
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = searcherManager;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                searcherManager.close();
+                // Closing the writer commits pending writes
+                writer.close();
+            } finally {
+                directory.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.util.concurrent.Executor;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents the options for a Lucene vector store record collection.
+ *
+ * @param <Record> the record type
+ */
+public class LuceneVectorStoreRecordCollectionOptions<Record>
+    implements VectorStoreRecordCollectionOptions<String, Record> {
+
+    /**
+     * The default maximum number of connections of a node of the HNSW graph.
+     */
+    public static final int DEFAULT_HNSW_MAX_CONNECTIONS = 16;
+
+    /**
+     * The default size of the candidate list used to insert a vector in the HNSW graph.
+     */
+    public static final int DEFAULT_HNSW_BEAM_WIDTH = 100;
+
+    private static final int MAXIMUM_HNSW_MAX_CONNECTIONS = 512;
+    private static final int MAXIMUM_HNSW_BEAM_WIDTH = 3200;
+
+    private final Class<Record> recordClass;
+    @Nullable
+    private final VectorStoreRecordDefinition recordDefinition;
+    @Nullable
+    private final ObjectMapper objectMapper;
+    private final int hnswMaxConnections;
+    private final int hnswBeamWidth;
+    private final boolean commitOnWrite;
+    @Nullable
+    private final Executor searchExecutor;
+
+    /**
+     * Creates a new instance of the Lucene vector store record collection options.
+     *
+     * @param recordClass        The record class.
+     * @param recordDefinition   The record definition.
+     * @param objectMapper       An instance of Jackson ObjectMapper.
+     * @param hnswMaxConnections The maximum number of connections of a node of the HNSW graph.
+     * @param hnswBeamWidth      The size of the candidate list used to insert a vector.
+     * @param commitOnWrite      Whether every write is committed to disk.
+     * @param searchExecutor     The executor searching the index segments concurrently, or null
+     *                           to search them on the calling thread.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public LuceneVectorStoreRecordCollectionOptions(
+        @Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition,
+        @Nullable ObjectMapper objectMapper,
+        int hnswMaxConnections,
+        int hnswBeamWidth,
+        boolean commitOnWrite,
+        @Nullable Executor searchExecutor) {
+        this.recordClass = recordClass;
+        this.recordDefinition = recordDefinition;
+        this.objectMapper = objectMapper;
+        this.hnswMaxConnections = hnswMaxConnections;
+        this.hnswBeamWidth = hnswBeamWidth;
+        this.commitOnWrite = commitOnWrite;
+        this.searchExecutor = searchExecutor;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <Record> the record type
+     * @return the builder
+     */
+    public static <Record> Builder<Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the key class.
+     *
+     * @return the key class
+     */
+    @Override
+    public Class<String> getKeyClass() {
+        return String.class;
+    }
+
+    /**
+     * Gets the record class.
+     *
+     * @return the record class
+     */
+    @Override
+    public Class<Record> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Gets the record definition.
+     *
+     * @return the record definition
+     */
+    @Override
+    @Nullable
+    public VectorStoreRecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * Gets the object mapper.
+     *
+     * @return the object mapper
+     */
+    @Nullable
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the maximum number of connections of a node of the HNSW graph.
+     *
+     * @return the maximum number of connections
+     */
+    public int getHnswMaxConnections() {
+        return hnswMaxConnections;
+    }
+
+    /**
+     * Gets the size of the candidate list used to insert a vector in the HNSW graph. A larger
+     * list builds a better graph at the cost of indexing time.
+     *
+     * @return the beam width
+     */
+    public int getHnswBeamWidth() {
+        return hnswBeamWidth;
+    }
+
+    /**
+     * Gets whether every write is committed to disk. Otherwise, writes are visible to searches
+     * right away but only committed when the collection is closed.
+     *
+     * @return whether every write is committed
+     */
+    public boolean isCommitOnWrite() {
+        return commitOnWrite;
+    }
+
+    /**
+     * Gets the executor searching the index segments concurrently.
+     *
+     * @return the executor, or null to search the segments on the calling thread
+     */
+    @Nullable
+    Executor getSearchExecutor() {
+        return searchExecutor;
+    }
+
+    /**
+     * Builder for Lucene vector store record collection options.
+     *
+     * @param <Record> the record type
+     */
+    public static class Builder<Record> {
+        @Nullable
+        private Class<Record> recordClass;
+        @Nullable
+        private VectorStoreRecordDefinition recordDefinition;
+        @Nullable
+        private ObjectMapper objectMapper;
+        private int hnswMaxConnections = DEFAULT_HNSW_MAX_CONNECTIONS;
+        private int hnswBeamWidth = DEFAULT_HNSW_BEAM_WIDTH;
+        private boolean commitOnWrite = true;
+        @Nullable
+        private Executor searchExecutor;
+
+        /**
+         * Sets the record class.
+         *
+         * @param recordClass the record class
+         * @return the builder
+         */
+        public Builder<Record> withRecordClass(Class<Record> recordClass) {
+            this.recordClass = recordClass;
+            return this;
+        }
+
+        /**
+         * Sets the record definition.
+         *
+         * @param recordDefinition the record definition
+         * @return the builder
+         */
+        public Builder<Record> withRecordDefinition(VectorStoreRecordDefinition recordDefinition) {
+            this.recordDefinition = recordDefinition;
+            return this;
+        }
+
+        /**
+         * Sets the object mapper.
+         *
+         * @param objectMapper the object mapper
+         * @return the builder
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP2")
+        public Builder<Record> withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of connections of a node of the HNSW graph.
+         *
+         * @param hnswMaxConnections the maximum number of connections
+         * @return the builder
+         */
+        public Builder<Record> withHnswMaxConnections(int hnswMaxConnections) {
+            this.hnswMaxConnections = hnswMaxConnections;
+            return this;
+        }
+
+        /**
+         * Sets the size of the candidate list used to insert a vector in the HNSW graph.
+         *
+         * @param hnswBeamWidth the beam width
+         * @return the builder
+         */
+        public Builder<Record> withHnswBeamWidth(int hnswBeamWidth) {
+            this.hnswBeamWidth = hnswBeamWidth;
+            return this;
+        }
+
+        /**
+         * Sets whether every write is committed to disk. Defaults to true.
+         *
+         * @param commitOnWrite whether every write is committed
+         * @return the builder
+         */
+        public Builder<Record> withCommitOnWrite(boolean commitOnWrite) {
+            this.commitOnWrite = commitOnWrite;
+            return this;
+        }
+
+        /**
+         * Sets the executor searching the index segments concurrently.
+         *
+         * @param searchExecutor the executor
+         * @return the builder
+         */
+        public Builder<Record> withSearchExecutor(Executor searchExecutor) {
+            this.searchExecutor = searchExecutor;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         */
+        public LuceneVectorStoreRecordCollectionOptions<Record> build() {
+            if (recordClass == null) {
+                throw new IllegalArgumentException("recordClass is required");
+            }
+            if (hnswMaxConnections < 1 || hnswMaxConnections > MAXIMUM_HNSW_MAX_CONNECTIONS) {
+                throw new IllegalArgumentException(
+                    "hnswMaxConnections must be between 1 and " + MAXIMUM_HNSW_MAX_CONNECTIONS);
+            }
+            if (hnswBeamWidth < 1 || hnswBeamWidth > MAXIMUM_HNSW_BEAM_WIDTH) {
+                throw new IllegalArgumentException(
+                    "hnswBeamWidth must be between 1 and " + MAXIMUM_HNSW_BEAM_WIDTH);
+            }
+
+            return new LuceneVectorStoreRecordCollectionOptions<>(recordClass, recordDefinition,
+                objectMapper, hnswMaxConnections, hnswBeamWidth, commitOnWrite, searchExecutor);
+        }
+    }
+}
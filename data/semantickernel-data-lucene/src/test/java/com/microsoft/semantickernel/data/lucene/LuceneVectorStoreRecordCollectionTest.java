@@ -0,0 +1,347 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.lucene;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordData;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordVector;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordKeyField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class LuceneVectorStoreRecordCollectionTest {
+
+    private static final int DIMENSIONS = 16;
+
+    public static class Chunk {
+
+        @VectorStoreRecordKey
+        private final String id;
+
+        @VectorStoreRecordData(isFilterable = true)
+        private final String category;
+
+        @VectorStoreRecordData(isFilterable = true)
+        private final List<String> tags;
+
+        @VectorStoreRecordData(isFullTextSearchable = true)
+        private final String text;
+
+        @VectorStoreRecordVector(dimensions = DIMENSIONS,
+            distanceFunction = DistanceFunction.EUCLIDEAN_DISTANCE)
+        private final List<Float> embedding;
+
+        @JsonCreator
+        public Chunk(
+            @JsonProperty("id") String id,
+            @JsonProperty("category") String category,
+            @JsonProperty("tags") List<String> tags,
+            @JsonProperty("text") String text,
+            @JsonProperty("embedding") List<Float> embedding) {
+            this.id = id;
+            this.category = category;
+            this.tags = tags;
+            this.text = text;
+            this.embedding = embedding;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public List<String> getTags() {
+            return tags;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public List<Float> getEmbedding() {
+            return embedding;
+        }
+    }
+
+    @TempDir
+    Path directory;
+
+    private LuceneVectorStore store;
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private LuceneVectorStoreRecordCollection<Chunk> getCollection() {
+        store = new LuceneVectorStore(directory);
+        return (LuceneVectorStoreRecordCollection<Chunk>) store.getCollection("chunks",
+            LuceneVectorStoreRecordCollectionOptions.<Chunk>builder()
+                .withRecordClass(Chunk.class)
+                .build());
+    }
+
+    private static List<Float> randomVector(Random random, int dimensions) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < dimensions; i++) {
+            vector.add(random.nextFloat() * 2 - 1);
+        }
+        return vector;
+    }
+
+    private static List<Chunk> getChunks(int count) {
+        Random random = new Random(3);
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            chunks.add(new Chunk("id_" + i, i % 2 == 0 ? "even" : "odd",
+                Arrays.asList("tag_" + (i % 3), "all"),
+                i % 10 == 0 ? "a chunk about lucene" : "a chunk about something else",
+                randomVector(random, DIMENSIONS)));
+        }
+        return chunks;
+    }
+
+    private static double distance(List<Float> x, List<Float> y) {
+        double sum = 0;
+        for (int i = 0; i < x.size(); i++) {
+            sum += (x.get(i) - y.get(i)) * (x.get(i) - y.get(i));
+        }
+        return Math.sqrt(sum);
+    }
+
+    private static List<String> getIds(VectorSearchResults<Chunk> results) {
+        assertNotNull(results);
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Chunk::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void recordsArePersisted() throws IOException {
+        List<Chunk> chunks = getChunks(50);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection();
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+        collection.deleteAsync("id_7", null).block();
+        Chunk original = chunks.get(8);
+        collection.upsertAsync(new Chunk("id_8", "updated", original.getTags(),
+            original.getText(), original.getEmbedding()), null).block();
+        store.close();
+
+        VectorStoreRecordCollection<String, Chunk> reopenedCollection = getCollection();
+        assertEquals(Arrays.asList("chunks"), store.getCollectionNamesAsync().block());
+
+        assertNull(reopenedCollection.getAsync("id_7", null).block());
+        Chunk chunk = reopenedCollection.getAsync("id_8", null).block();
+        assertNotNull(chunk);
+        assertEquals("updated", chunk.getCategory());
+        assertEquals(49, reopenedCollection.getBatchAsync(
+            chunks.stream().map(Chunk::getId).collect(Collectors.toList()), null).block().size());
+
+        VectorSearchResults<Chunk> results = reopenedCollection.searchAsync(
+            original.getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).build()).block();
+        assertEquals(Arrays.asList("id_8"), getIds(results));
+        assertEquals(0.0, results.getResults().get(0).getScore(), 1e-3);
+
+        reopenedCollection.deleteCollectionAsync().block();
+        assertTrue(store.getCollectionNamesAsync().block().isEmpty());
+        assertTrue(!reopenedCollection.collectionExistsAsync().block());
+    }
+
+    @Test
+    public void searchRecallAndScores() {
+        List<Chunk> chunks = getChunks(2000);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection();
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        Random random = new Random(5);
+        int found = 0;
+        int queries = 20;
+        for (int q = 0; q < queries; q++) {
+            List<Float> query = randomVector(random, DIMENSIONS);
+            Set<String> expected = chunks.stream()
+                .sorted(Comparator.comparingDouble(chunk -> distance(query,
+                    chunk.getEmbedding())))
+                .limit(10)
+                .map(Chunk::getId)
+                .collect(Collectors.toSet());
+
+            VectorSearchResults<Chunk> results = collection.searchAsync(query,
+                VectorSearchOptions.builder().withTop(10).withIncludeVectors(true).build())
+                .block();
+            List<String> actual = getIds(results);
+            assertEquals(10, actual.size());
+            for (VectorSearchResult<Chunk> result : results.getResults()) {
+                assertEquals(distance(query, result.getRecord().getEmbedding()),
+                    result.getScore(), 1e-3);
+            }
+            Set<String> intersection = new HashSet<>(actual);
+            intersection.retainAll(expected);
+            found += intersection.size();
+        }
+
+        double recall = found / (10.0 * queries);
+        assertTrue(recall >= 0.9, "recall@10 was " + recall);
+    }
+
+    @Test
+    public void searchPreFiltersAndReturnsKeysOnly() {
+        List<Chunk> chunks = getChunks(200);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection();
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        VectorSearchResults<Chunk> results = collection.searchAsync(chunks.get(3).getEmbedding(),
+            VectorSearchOptions.builder()
+                .withTop(5)
+                .withVectorSearchFilter(VectorSearchFilter.builder()
+                    .equalTo("category", "odd")
+                    .anyTagEqualTo("tags", "tag_0")
+                    .build())
+                .withKeysOnly(true)
+                .build())
+            .block();
+        assertNotNull(results);
+        assertEquals(5, results.getResults().size());
+        assertEquals("id_3", results.getResults().get(0).getKey());
+        for (VectorSearchResult<Chunk> result : results.getResults()) {
+            assertNull(result.getRecord());
+            int id = Integer.parseInt(((String) result.getKey()).substring(3));
+            assertEquals(1, id % 2);
+            assertEquals(0, id % 3);
+        }
+    }
+
+    @Test
+    public void hybridSearchRanksKeywordMatchesFirst() {
+        List<Chunk> chunks = getChunks(200);
+        LuceneVectorStoreRecordCollection<Chunk> collection = getCollection();
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        VectorSearchResults<Chunk> results = collection.hybridSearchAsync(
+            chunks.get(10).getEmbedding(), "lucene",
+            VectorSearchOptions.builder()
+                .withTop(3)
+                .withVectorSearchFilter(VectorSearchFilter.builder()
+                    .equalTo("category", "even")
+                    .build())
+                .build())
+            .block();
+        List<String> ids = getIds(results);
+        assertEquals(3, ids.size());
+        assertEquals("id_10", ids.get(0));
+        for (VectorSearchResult<Chunk> result : results.getResults()) {
+            assertEquals("a chunk about lucene", result.getRecord().getText());
+        }
+    }
+
+    @Test
+    public void vectorsAboveTheLuceneDimensionLimitAreIndexed() {
+        int dimensions = 1536;
+        List<VectorStoreRecordField> fields = Arrays.asList(
+            VectorStoreRecordKeyField.builder()
+                .withName("id")
+                .withFieldType(String.class)
+                .build(),
+            VectorStoreRecordDataField.builder()
+                .withName("category")
+                .withFieldType(String.class)
+                .build(),
+            VectorStoreRecordDataField.builder()
+                .withName("tags")
+                .withFieldType(List.class)
+                .build(),
+            VectorStoreRecordDataField.builder()
+                .withName("text")
+                .withFieldType(String.class)
+                .build(),
+            VectorStoreRecordVectorField.builder()
+                .withName("embedding")
+                .withFieldType(List.class)
+                .withDimensions(dimensions)
+                .withDistanceFunction(DistanceFunction.COSINE_SIMILARITY)
+                .build());
+        store = new LuceneVectorStore(directory);
+        VectorStoreRecordCollection<String, Chunk> collection = store.getCollection("large",
+            LuceneVectorStoreRecordCollectionOptions.<Chunk>builder()
+                .withRecordClass(Chunk.class)
+                .withRecordDefinition(VectorStoreRecordDefinition.fromFields(fields))
+                .build());
+        collection.createCollectionAsync().block();
+
+        Random random = new Random(7);
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            chunks.add(new Chunk("id_" + i, "category", Arrays.asList("all"), "text",
+                randomVector(random, dimensions)));
+        }
+        collection.upsertBatchAsync(chunks, null).block();
+
+        VectorSearchResults<Chunk> results = collection.searchAsync(chunks.get(4).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).build()).block();
+        assertEquals(Arrays.asList("id_4"), getIds(results));
+        assertEquals(1.0, results.getResults().get(0).getScore(), 1e-3);
+    }
+
+    @Test
+    public void vectorsAreOnlyIncludedWhenRequested() {
+        List<Chunk> chunks = getChunks(20);
+        VectorStoreRecordCollection<String, Chunk> collection = getCollection();
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(chunks, null).block();
+
+        Chunk chunk = collection.getAsync("id_4", null).block();
+        assertNotNull(chunk);
+        assertNull(chunk.getEmbedding());
+        chunk = collection.getAsync("id_4", new GetRecordOptions(true)).block();
+        assertNotNull(chunk);
+        assertEquals(chunks.get(4).getEmbedding(), chunk.getEmbedding());
+
+        VectorSearchResults<Chunk> results = collection.searchAsync(chunks.get(4).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).build()).block();
+        assertNotNull(results);
+        assertNull(results.getResults().get(0).getRecord().getEmbedding());
+        results = collection.searchAsync(chunks.get(4).getEmbedding(),
+            VectorSearchOptions.builder().withTop(1).withIncludeVectors(true).build()).block();
+        assertNotNull(results);
+        assertEquals(chunks.get(4).getEmbedding(),
+            results.getResults().get(0).getRecord().getEmbedding());
+    }
+}
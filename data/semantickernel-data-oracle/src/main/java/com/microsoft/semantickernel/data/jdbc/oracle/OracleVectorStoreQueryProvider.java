@@ -31,6 +31,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.microsoft.semantickernel.data.filter.AnyTagEqualToFilterClause;
 import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
@@ -66,6 +67,7 @@ import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.sql.DataSource;
 import oracle.jdbc.OraclePreparedStatement;
@@ -296,7 +298,7 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
             PreparedStatement statement = connection.prepareStatement(upsertStatement)) {
             // Loop through records, set values and add values to batch
             for (Object record : records) {
-                setUpsertStatementValues(statement, record, recordDefinition.getAllFields());
+                setUpsertStatementValues(statement, record, recordDefinition);
                 statement.addBatch();
             }
 
@@ -330,21 +332,26 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
      *
      * @param upsertStatement the MERGE statement
      * @param record the record containing the values
-     * @param fields the list of fields.
+     * @param recordDefinition the record definition, holding the list of fields.
      */
     private void setUpsertStatementValues(PreparedStatement upsertStatement, Object record,
-        List<VectorStoreRecordField> fields) {
+        VectorStoreRecordDefinition recordDefinition) {
 
-        // use the object mapper to convert the record to an equivalent tree mode JsonNode value,
-        // this allows to retrieve the values using the effective storage name of the fields and
-        // avoids the use of introspection.
-        JsonNode jsonNode = objectMapper.valueToTree(record);
+        // when the record definition has field accessors, the values of the fields are read
+        // directly from the record and only they are converted to JsonNode values. Otherwise use
+        // the object mapper to convert the record to an equivalent tree mode JsonNode value,
+        // this allows to retrieve the values using the effective storage name of the fields.
+        JsonNode jsonNode = recordDefinition.hasFieldAccessors() ? null
+            : objectMapper.valueToTree(record);
 
+        List<VectorStoreRecordField> fields = recordDefinition.getAllFields();
         for (int i = 0; i < fields.size(); ++i) {
             VectorStoreRecordField field = fields.get(i);
             try {
 
-                JsonNode valueNode = jsonNode.get(field.getEffectiveStorageName());
+                JsonNode valueNode = toJsonNode(normalizeOnIngest(field, jsonNode != null
+                    ? jsonNode.get(field.getEffectiveStorageName())
+                    : recordDefinition.getFieldAccessor(field.getName()).get(record)));
 
                 // Some field types require special treatment to convert the java type to the
                 // DB type
@@ -405,6 +412,13 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
         }
     }
 
+    private JsonNode toJsonNode(@Nullable Object value) {
+        if (value == null) {
+            return NullNode.getInstance();
+        }
+        return value instanceof JsonNode ? (JsonNode) value : objectMapper.valueToTree(value);
+    }
+
     /**
      * <p>
      * Executes a vector search query, using the search options and returns the results. The results
@@ -444,23 +458,40 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
 
 
         // get list of fields that should be returned by the query
-        List<VectorStoreRecordField> fields = (options.isIncludeVectors())
-            ? recordDefinition.getAllFields()
-            : recordDefinition.getNonVectorFields();
+        List<VectorStoreRecordField> fields;
+        if (options.isKeysOnly()) {
+            fields = Collections.singletonList(recordDefinition.getKeyField());
+        } else if (options.isIncludeVectors()) {
+            fields = recordDefinition.getAllFields();
+        } else {
+            fields = recordDefinition.getNonVectorFields();
+        }
 
         // get search filters and get the list of parameters for the filters
         String filter = getFilter(options.getVectorSearchFilter(), recordDefinition);
         List<Object> parameters = getFilterParameters(options.getVectorSearchFilter());
 
+        // get the distance expression and, if a score threshold was provided, the maximum distance
+        String distance = vector == null ? null :
+            formatQuery("VECTOR_DISTANCE(%s, ?, %s)",
+                OracleVectorStoreFieldHelper.validateObjectNaming(vectorField.getEffectiveStorageName()),
+                toOracleDistanceFunction(vectorField.getDistanceFunction()));
+        Double maxDistance = vector == null || options.getScoreThreshold() == null ? null :
+            toOracleMaxDistance(vectorField.getDistanceFunction(), options.getScoreThreshold());
+        List<String> conditions = new ArrayList<>();
+        if (filter != null && !filter.isEmpty()) {
+            conditions.add(filter);
+        }
+        if (maxDistance != null) {
+            conditions.add(distance + " <= ?");
+        }
+
         // generate SQL statement
         String selectQuery = "SELECT "
-            + (vector == null ? "0 as distance, " :
-                formatQuery("VECTOR_DISTANCE(%s, ?, %s) distance, ",
-                    OracleVectorStoreFieldHelper.validateObjectNaming(vectorField.getEffectiveStorageName()),
-                    toOracleDistanceFunction(vectorField.getDistanceFunction())))
+            + (vector == null ? "0 as distance, " : distance + " distance, ")
             + getQueryColumnsFromFields(fields)
             + " FROM " + getCollectionTableName(collectionName)
-            + (filter != null && !filter.isEmpty() ? " WHERE " + filter : "")
+            + (!conditions.isEmpty() ? " WHERE " + String.join(" AND ", conditions) : "")
             + " ORDER BY distance"
             + (options.getSkip() > 0 ? " OFFSET " + options.getSkip() + " ROWS" : "")
             + (options.getTop() > 0 ? " FETCH " + (options.getSkip() > 0 ? "NEXT " : "FIRST ") + options.getTop() + " ROWS ONLY" : "");
@@ -486,6 +517,15 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
                     setSearchParameter(statement, parameterIndex++, parameter.getClass(), parameter);
                 }
             }
+            // set the vector and maximum distance of the score threshold
+            if (maxDistance != null) {
+                float[] arrayVector = new float[vector.size()];
+                for (int i = 0; i < vector.size(); i++){
+                    arrayVector[i] = vector.get(i).floatValue();
+                }
+                statement.setObject(parameterIndex++, arrayVector, OracleTypes.VECTOR_FLOAT32);
+                statement.setDouble(parameterIndex++, maxDistance);
+            }
 
             // Calls to defineColumnType reduce the number of network requests. When Oracle JDBC knows that it is
             // fetching VECTOR, CLOB, and/or JSON columns, the first request it sends to the database can include a LOB
@@ -515,6 +555,12 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
                     if (vector != null && vectorField.getDistanceFunction() == DistanceFunction.COSINE_SIMILARITY) {
                         score = 1d - score;
                     }
+                    // Only return the key if requested, without mapping the record
+                    if (options.isKeysOnly()) {
+                        records.add(new VectorSearchResult<>(null,
+                            rs.getString(recordDefinition.getKeyField().getEffectiveStorageName()), score));
+                        continue;
+                    }
                     // Use the mapper to convert to result set to records
                     records.add(new VectorSearchResult<>(mapper.mapStorageModelToRecord(rs, getRecordOptions), score));
                 }
@@ -649,6 +695,26 @@ public class OracleVectorStoreQueryProvider extends JDBCVectorStoreQueryProvider
         }
     }
 
+    /**
+     * Converts a score threshold to the maximum value of the Oracle VECTOR_DISTANCE function,
+     * undoing the conversion of the distance to a score done when reading the search results.
+     *
+     * @param distanceFunction the distance function of the vector field
+     * @param scoreThreshold the score threshold
+     * @return the maximum distance
+     */
+    static double toOracleMaxDistance(DistanceFunction distanceFunction, double scoreThreshold) {
+        switch (distanceFunction) {
+            case DOT_PRODUCT:
+                // DOT returns the negated dot product
+                return -scoreThreshold;
+            case COSINE_SIMILARITY:
+                return 1d - scoreThreshold;
+            default:
+                return scoreThreshold;
+        }
+    }
+
     /**
      * Converts a {@link DistanceFunction} to the equivalent Oracle distance function.
      * @param distanceFunction the distance function
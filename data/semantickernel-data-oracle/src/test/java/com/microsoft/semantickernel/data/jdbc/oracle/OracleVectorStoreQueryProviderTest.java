@@ -0,0 +1,28 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.jdbc.oracle;
+
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OracleVectorStoreQueryProviderTest {
+
+    @Test
+    void scoreThresholdOfSimilaritiesIsConvertedToAMaximumDistance() {
+        // COSINE returns 1 - cosine similarity
+        assertEquals(0.2d, OracleVectorStoreQueryProvider
+            .toOracleMaxDistance(DistanceFunction.COSINE_SIMILARITY, 0.8d), 1e-9);
+        // DOT returns the negated dot product
+        assertEquals(-5d, OracleVectorStoreQueryProvider
+            .toOracleMaxDistance(DistanceFunction.DOT_PRODUCT, 5d), 1e-9);
+    }
+
+    @Test
+    void scoreThresholdOfDistancesIsAMaximumDistance() {
+        assertEquals(0.3d, OracleVectorStoreQueryProvider
+            .toOracleMaxDistance(DistanceFunction.COSINE_DISTANCE, 0.3d), 1e-9);
+        assertEquals(1.5d, OracleVectorStoreQueryProvider
+            .toOracleMaxDistance(DistanceFunction.EUCLIDEAN_DISTANCE, 1.5d), 1e-9);
+    }
+}
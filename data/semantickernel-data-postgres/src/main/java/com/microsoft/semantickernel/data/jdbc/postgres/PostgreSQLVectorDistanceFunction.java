@@ -1,7 +1,9 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.jdbc.postgres;
 
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
 
 /**
  * Represents a PostgreSQL vector distance function.
@@ -67,4 +69,18 @@ public enum PostgreSQLVectorDistanceFunction {
                 throw new IllegalArgumentException("Unsupported distance function: " + function);
         }
     }
+
+    /**
+     * Converts the distance function of a vector field to a PostgreSQL vector distance function.
+     * Cosine fields normalized on ingest hold unit vectors, so they use the inner product.
+     * @param vectorField the vector field
+     * @return the PostgreSQL vector distance function
+     */
+    public static PostgreSQLVectorDistanceFunction fromVectorField(
+        VectorStoreRecordVectorField vectorField) {
+        if (VectorOperations.isNormalizedOnIngest(vectorField)) {
+            return INNER_PRODUCT;
+        }
+        return fromDistanceFunction(vectorField.getDistanceFunction());
+    }
 }
@@ -8,10 +8,12 @@ import com.microsoft.semantickernel.data.filter.AnyTagEqualToFilterClause;
 import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
 import com.microsoft.semantickernel.data.jdbc.JDBCVectorStoreQueryProvider;
 import com.microsoft.semantickernel.data.jdbc.SQLVectorStoreQueryProvider;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
@@ -37,6 +39,9 @@ import java.util.Map;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 
 /**
  * The MySQL vector store query provider.
@@ -45,6 +50,11 @@ import javax.sql.DataSource;
  */
 public class PostgreSQLVectorStoreQueryProvider extends
     JDBCVectorStoreQueryProvider implements SQLVectorStoreQueryProvider {
+    private static final Logger LOGGER = LoggerFactory
+        .getLogger(PostgreSQLVectorStoreQueryProvider.class);
+    // Number of rows fetched at a time by the cursor of a streamed search
+    private static final int SEARCH_FETCH_SIZE = 100;
+
     private final String collectionsTable;
     private final String prefixForCollectionTables;
     private final ObjectMapper objectMapper;
@@ -71,6 +81,7 @@ public class PostgreSQLVectorStoreQueryProvider extends
         supportedVectorTypes.put(String.class, "TEXT");
         supportedVectorTypes.put(List.class, "VECTOR(%d)");
         supportedVectorTypes.put(Collection.class, "VECTOR(%d)");
+        supportedVectorTypes.put(float[].class, "VECTOR(%d)");
         return supportedVectorTypes;
     }
 
@@ -149,7 +160,7 @@ public class PostgreSQLVectorStoreQueryProvider extends
         PostgreSQLVectorIndexKind indexKind = PostgreSQLVectorIndexKind
             .fromIndexKind(vectorField.getIndexKind());
         PostgreSQLVectorDistanceFunction distanceFunction = PostgreSQLVectorDistanceFunction
-            .fromDistanceFunction(vectorField.getDistanceFunction());
+            .fromVectorField(vectorField);
 
         // If there is no approximate search index associated to the vector field,
         // there is no need to create an index and pgvector performs exact nearest neighbor search.
@@ -226,30 +237,35 @@ public class PostgreSQLVectorStoreQueryProvider extends
     }
 
     private void setUpsertStatementValues(PreparedStatement statement, Object record,
-        List<VectorStoreRecordField> fields) {
-        JsonNode jsonNode = objectMapper.valueToTree(record);
+        VectorStoreRecordDefinition recordDefinition) {
+        // Records are only serialized when their fields cannot be read through accessors
+        JsonNode jsonNode = recordDefinition.hasFieldAccessors() ? null
+            : objectMapper.valueToTree(record);
 
+        List<VectorStoreRecordField> fields = recordDefinition.getAllFields();
         for (int i = 0; i < fields.size(); ++i) {
             VectorStoreRecordField field = fields.get(i);
             try {
-                JsonNode valueNode = jsonNode.get(field.getEffectiveStorageName());
+                Object value = normalizeOnIngest(field, jsonNode == null
+                    ? recordDefinition.getFieldAccessor(field.getName()).get(record)
+                    : jsonNode.get(field.getEffectiveStorageName()));
 
                 if (field instanceof VectorStoreRecordVectorField) {
                     // Convert the vector field to a string
                     if (!field.getFieldType().equals(String.class)) {
-                        statement.setObject(i + 1, objectMapper.writeValueAsString(valueNode));
+                        statement.setObject(i + 1, objectMapper.writeValueAsString(value));
                         continue;
                     }
                 } else if (field instanceof VectorStoreRecordDataField) {
                     // Convert List field to a string
                     if (field.getFieldType().equals(List.class)) {
-                        statement.setObject(i + 1, objectMapper.writeValueAsString(valueNode));
+                        statement.setObject(i + 1, objectMapper.writeValueAsString(value));
                         continue;
                     }
                 }
 
-                statement.setObject(i + 1,
-                    objectMapper.convertValue(valueNode, field.getFieldType()));
+                statement.setObject(i + 1, jsonNode == null ? value
+                    : objectMapper.convertValue(value, field.getFieldType()));
             } catch (SQLException | JsonProcessingException e) {
                 throw new RuntimeException(e);
             }
@@ -308,7 +324,7 @@ public class PostgreSQLVectorStoreQueryProvider extends
         try (Connection connection = dataSource.getConnection();
             PreparedStatement statement = connection.prepareStatement(query)) {
             for (Object record : records) {
-                setUpsertStatementValues(statement, record, recordDefinition.getAllFields());
+                setUpsertStatementValues(statement, record, recordDefinition);
                 statement.addBatch();
             }
 
@@ -337,25 +353,162 @@ public class PostgreSQLVectorStoreQueryProvider extends
         List<Float> vector, VectorSearchOptions options,
         VectorStoreRecordDefinition recordDefinition,
         VectorStoreRecordMapper<Record, ResultSet> mapper) {
+        VectorSearchOptions searchOptions = getSearchOptions(options, recordDefinition);
+
+        try (Connection connection = dataSource.getConnection();
+            PreparedStatement statement = prepareSearchStatement(connection, collectionName,
+                vector, searchOptions, recordDefinition)) {
+            List<VectorSearchResult<Record>> records = new ArrayList<>();
+            ResultSet resultSet = statement.executeQuery();
+
+            while (resultSet.next()) {
+                records.add(
+                    mapSearchResult(resultSet, searchOptions, recordDefinition, mapper));
+            }
+
+            return new VectorSearchResults<>(records);
+        } catch (SQLException | JsonProcessingException e) {
+            throw new SKException("Failed to search records", e);
+        }
+    }
+
+    /**
+     * Vector search, emitting the results one by one.
+     * Each row is mapped to a record only when it is requested, while reading the result set,
+     * and the connection is released when the search completes or is cancelled. The rows are
+     * fetched from a cursor in batches, rather than all loaded at once by the driver.
+     *
+     * @param <Record> the record type
+     * @param collectionName the collection name
+     * @param vector the vector to search with
+     * @param options the search options
+     * @param recordDefinition the record definition
+     * @param mapper the mapper, responsible for mapping the result set to the record type.
+     * @return the search results
+     */
+    @Override
+    public <Record> Flux<VectorSearchResult<Record>> searchStream(String collectionName,
+        List<Float> vector, VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition,
+        VectorStoreRecordMapper<Record, ResultSet> mapper) {
+        return Flux.defer(() -> {
+            VectorSearchOptions searchOptions = getSearchOptions(options, recordDefinition);
+
+            return Flux.using(
+                dataSource::getConnection,
+                // The driver only uses a cursor outside of auto-commit mode
+                connection -> Flux.using(
+                    () -> beginCursor(connection),
+                    autoCommit -> Flux.using(
+                        () -> {
+                            PreparedStatement statement = prepareSearchStatement(connection,
+                                collectionName, vector, searchOptions, recordDefinition);
+                            statement.setFetchSize(SEARCH_FETCH_SIZE);
+                            return statement;
+                        },
+                        statement -> Flux.using(
+                            statement::executeQuery,
+                            resultSet -> Flux.<VectorSearchResult<Record>>generate(sink -> {
+                                try {
+                                    if (resultSet.next()) {
+                                        sink.next(mapSearchResult(resultSet, searchOptions,
+                                            recordDefinition, mapper));
+                                    } else {
+                                        sink.complete();
+                                    }
+                                } catch (SQLException e) {
+                                    sink.error(new SKException("Failed to search records", e));
+                                }
+                            }),
+                            JDBCVectorStoreQueryProvider::closeQuietly),
+                        JDBCVectorStoreQueryProvider::closeQuietly),
+                    autoCommit -> endCursor(connection, autoCommit)),
+                JDBCVectorStoreQueryProvider::closeQuietly)
+                .onErrorMap(e -> !(e instanceof SKException),
+                    e -> new SKException("Failed to search records", e));
+        });
+    }
+
+    // Leaves auto-commit mode, returning whether the connection was in auto-commit mode
+    private static boolean beginCursor(Connection connection) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        return autoCommit;
+    }
+
+    // Ends the read-only transaction of the cursor and restores the auto-commit mode
+    private static void endCursor(Connection connection, boolean autoCommit) {
+        try {
+            connection.rollback();
+            connection.setAutoCommit(autoCommit);
+        } catch (SQLException e) {
+            LOGGER.warn("Failed to restore the auto-commit mode of the connection", e);
+        }
+    }
+
+    private VectorSearchOptions getSearchOptions(VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition) {
         if (recordDefinition.getVectorFields().isEmpty()) {
             throw new SKException("No vector fields defined. Cannot perform vector search");
         }
 
-        VectorStoreRecordVectorField firstVectorField = recordDefinition.getVectorFields()
-            .get(0);
         if (options == null) {
-            options = VectorSearchOptions.createDefault(firstVectorField.getName());
+            return VectorSearchOptions
+                .createDefault(recordDefinition.getVectorFields().get(0).getName());
         }
+        return options;
+    }
 
-        VectorStoreRecordVectorField vectorField = options.getVectorFieldName() == null
-            ? firstVectorField
-            : (VectorStoreRecordVectorField) recordDefinition
-                .getField(options.getVectorFieldName());
+    private PreparedStatement prepareSearchStatement(Connection connection,
+        String collectionName, List<Float> vector, VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition)
+        throws SQLException, JsonProcessingException {
+        String searchQuery = getSearchQuery(collectionName, options, recordDefinition);
+        VectorStoreRecordVectorField vectorField = getVectorField(options, recordDefinition);
+        List<Object> parameters = getFilterParameters(options.getVectorSearchFilter());
+
+        PreparedStatement statement = connection.prepareStatement(searchQuery);
+        try {
+            int parameterIndex = 1;
+
+            String vectorValue = objectMapper.writeValueAsString(
+                VectorOperations.normalizeOnIngest(vectorField, vector));
+            statement.setString(parameterIndex++, vectorValue);
+            for (Object parameter : parameters) {
+                statement.setObject(parameterIndex++, parameter);
+            }
+            if (options.getScoreThreshold() != null) {
+                statement.setString(parameterIndex++, vectorValue);
+                statement.setDouble(parameterIndex++,
+                    toDistance(vectorField, options.getScoreThreshold()));
+            }
+            statement.setInt(parameterIndex++, options.getTop());
+            statement.setInt(parameterIndex, options.getSkip());
+            return statement;
+        } catch (SQLException | JsonProcessingException e) {
+            statement.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Gets the query of a vector search, whose parameters are the search vector, the filter
+     * parameters, the search vector and maximum distance of the score threshold when there is
+     * one, the limit and the offset.
+     *
+     * @param collectionName   the collection name
+     * @param options          the search options
+     * @param recordDefinition the record definition
+     * @return the query
+     */
+    String getSearchQuery(String collectionName, VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition) {
+        VectorStoreRecordVectorField vectorField = getVectorField(options, recordDefinition);
 
         PostgreSQLVectorIndexKind indexKind = PostgreSQLVectorIndexKind
             .fromIndexKind(vectorField.getIndexKind());
         PostgreSQLVectorDistanceFunction distanceFunction = PostgreSQLVectorDistanceFunction
-            .fromDistanceFunction(vectorField.getDistanceFunction());
+            .fromVectorField(vectorField);
 
         // If there is no approximate search index associated to the vector field,
         // there is no index defined in the database and pgvector performs exact nearest neighbor search.
@@ -367,46 +520,83 @@ public class PostgreSQLVectorStoreQueryProvider extends
         }
 
         String filter = getFilter(options.getVectorSearchFilter(), recordDefinition);
-        List<Object> parameters = getFilterParameters(options.getVectorSearchFilter());
 
-        String filterClause = filter.isEmpty() ? "" : "WHERE " + filter;
-        String searchQuery = formatQuery(
-            "SELECT %s, %s %s ?::vector AS score FROM %s %s ORDER BY score LIMIT ? OFFSET ?",
-            getQueryColumnsFromFields(
-                options.isIncludeVectors() ? recordDefinition.getAllFields()
-                    : recordDefinition.getNonVectorFields()),
+        String distance = formatQuery("%s %s ?::vector",
             validateSQLidentifier(vectorField.getEffectiveStorageName()),
             distanceFunction == null ? PostgreSQLVectorDistanceFunction.L2.getOperator()
-                : distanceFunction.getOperator(),
+                : distanceFunction.getOperator());
+
+        // pgvector operators always return a distance, so the threshold is a maximum distance
+        List<String> conditions = new ArrayList<>();
+        if (!filter.isEmpty()) {
+            conditions.add(filter);
+        }
+        if (options.getScoreThreshold() != null) {
+            conditions.add(distance + " <= ?");
+        }
+
+        String filterClause = conditions.isEmpty() ? ""
+            : "WHERE " + String.join(" AND ", conditions);
+        List<VectorStoreRecordField> fields;
+        if (options.isKeysOnly()) {
+            fields = Collections.singletonList(recordDefinition.getKeyField());
+        } else if (options.isIncludeVectors()) {
+            fields = recordDefinition.getAllFields();
+        } else {
+            fields = recordDefinition.getNonVectorFields();
+        }
+
+        return formatQuery(
+            "SELECT %s, %s AS score FROM %s %s ORDER BY score LIMIT ? OFFSET ?",
+            getQueryColumnsFromFields(fields),
+            distance,
             getCollectionTableName(collectionName),
             filterClause);
+    }
 
-        try (Connection connection = dataSource.getConnection();
-            PreparedStatement statement = connection.prepareStatement(searchQuery)) {
-            int parameterIndex = 1;
+    private <Record> VectorSearchResult<Record> mapSearchResult(ResultSet resultSet,
+        VectorSearchOptions options, VectorStoreRecordDefinition recordDefinition,
+        VectorStoreRecordMapper<Record, ResultSet> mapper) throws SQLException {
+        double score = toScore(getVectorField(options, recordDefinition),
+            resultSet.getDouble("score"));
+        if (options.isKeysOnly()) {
+            return new VectorSearchResult<>(null,
+                resultSet.getString(recordDefinition.getKeyField().getEffectiveStorageName()),
+                score);
+        }
 
-            statement.setString(parameterIndex++,
-                objectMapper.writeValueAsString(vector));
-            for (Object parameter : parameters) {
-                statement.setObject(parameterIndex++, parameter);
-            }
-            statement.setInt(parameterIndex++, options.getTop());
-            statement.setInt(parameterIndex, options.getSkip());
+        return new VectorSearchResult<>(
+            mapper.mapStorageModelToRecord(resultSet,
+                new GetRecordOptions(options.isIncludeVectors())),
+            score);
+    }
 
-            List<VectorSearchResult<Record>> records = new ArrayList<>();
-            ResultSet resultSet = statement.executeQuery();
+    private static VectorStoreRecordVectorField getVectorField(VectorSearchOptions options,
+        VectorStoreRecordDefinition recordDefinition) {
+        return options.getVectorFieldName() == null
+            ? recordDefinition.getVectorFields().get(0)
+            : (VectorStoreRecordVectorField) recordDefinition
+                .getField(options.getVectorFieldName());
+    }
 
-            while (resultSet.next()) {
-                records.add(new VectorSearchResult<>(
-                    mapper.mapStorageModelToRecord(resultSet,
-                        new GetRecordOptions(options.isIncludeVectors())),
-                    resultSet.getDouble("score")));
-            }
+    // Cosine fields normalized on ingest are searched with the negative inner product, which is
+    // converted to their cosine similarity or distance
+    private static double toScore(VectorStoreRecordVectorField vectorField, double distance) {
+        if (!VectorOperations.isNormalizedOnIngest(vectorField)) {
+            return distance;
+        }
+        return vectorField.getDistanceFunction() == DistanceFunction.COSINE_SIMILARITY
+            ? -distance
+            : 1 + distance;
+    }
 
-            return new VectorSearchResults<>(records);
-        } catch (SQLException | JsonProcessingException e) {
-            throw new SKException("Failed to search records", e);
+    private static double toDistance(VectorStoreRecordVectorField vectorField, double score) {
+        if (!VectorOperations.isNormalizedOnIngest(vectorField)) {
+            return score;
         }
+        return vectorField.getDistanceFunction() == DistanceFunction.COSINE_SIMILARITY
+            ? -score
+            : score - 1;
     }
 
     /**
@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.jdbc.postgres;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordKeyField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+
+public class PostgreSQLVectorStoreQueryProviderTest {
+
+    private static final PostgreSQLVectorStoreQueryProvider QUERY_PROVIDER = PostgreSQLVectorStoreQueryProvider
+        .builder()
+        .withDataSource(new PGSimpleDataSource())
+        .build();
+
+    private static final VectorStoreRecordDefinition RECORD_DEFINITION = VectorStoreRecordDefinition
+        .fromFields(Arrays.asList(
+            VectorStoreRecordKeyField.builder()
+                .withName("id")
+                .withStorageName("id")
+                .withFieldType(String.class)
+                .build(),
+            VectorStoreRecordDataField.builder()
+                .withName("name")
+                .withStorageName("name")
+                .withFieldType(String.class)
+                .isFilterable(true)
+                .build(),
+            VectorStoreRecordVectorField.builder()
+                .withName("vec")
+                .withStorageName("vec")
+                .withFieldType(List.class)
+                .withDimensions(2)
+                .withDistanceFunction(DistanceFunction.EUCLIDEAN_DISTANCE)
+                .withIndexKind(IndexKind.UNDEFINED)
+                .build()));
+
+    @Test
+    public void searchWithoutScoreThresholdHasNoDistanceCondition() {
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withTop(3)
+            .build();
+
+        assertEquals(
+            "SELECT id, name, vec <-> ?::vector AS score FROM SKCollection_hotels "
+                + " ORDER BY score LIMIT ? OFFSET ?",
+            QUERY_PROVIDER.getSearchQuery("hotels", options, RECORD_DEFINITION));
+    }
+
+    @Test
+    public void scoreThresholdIsAMaximumDistanceAfterTheFilter() {
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withTop(3)
+            .withScoreThreshold(0.5)
+            .withVectorSearchFilter(VectorSearchFilter.builder()
+                .equalTo("name", "Hotel")
+                .build())
+            .build();
+
+        assertEquals(
+            "SELECT id, name, vec <-> ?::vector AS score FROM SKCollection_hotels "
+                + "WHERE name = ? AND vec <-> ?::vector <= ? ORDER BY score LIMIT ? OFFSET ?",
+            QUERY_PROVIDER.getSearchQuery("hotels", options, RECORD_DEFINITION));
+    }
+}
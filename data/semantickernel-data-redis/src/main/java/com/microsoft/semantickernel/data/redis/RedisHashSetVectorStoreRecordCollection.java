@@ -56,7 +56,8 @@ public class RedisHashSetVectorStoreRecordCollection<Record>
     private static final HashSet<Class<?>> supportedVectorTypes = new HashSet<>(
         Arrays.asList(
             List.class,
-            Collection.class));
+            Collection.class,
+            float[].class));
 
     private final JedisPooled client;
     private final String collectionName;
@@ -83,12 +84,12 @@ public class RedisHashSetVectorStoreRecordCollection<Record>
         this.options = options;
 
         // If record definition is not provided, create one from the record class
-        if (options.getRecordDefinition() == null) {
-            this.recordDefinition = VectorStoreRecordDefinition.fromRecordClass(
-                options.getRecordClass());
-        } else {
-            this.recordDefinition = options.getRecordDefinition();
-        }
+        VectorStoreRecordDefinition recordDefinition = options.getRecordDefinition() == null
+            ? VectorStoreRecordDefinition.fromRecordClass(options.getRecordClass())
+            : options.getRecordDefinition();
+        // The records are read as a custom object mapper serializes them
+        this.recordDefinition = options.getObjectMapper() == null ? recordDefinition
+            : recordDefinition.withoutFieldAccessors();
 
         // Validate supported types
         VectorStoreRecordDefinition.validateSupportedTypes(
@@ -428,6 +429,10 @@ public class RedisHashSetVectorStoreRecordCollection<Record>
                         }
                     }
 
+                    if (options != null && options.isKeysOnly()) {
+                        return new VectorSearchResult<Record>(null, key, score);
+                    }
+
                     Record record = this.vectorStoreRecordMapper
                         .mapStorageModelToRecord(
                             new AbstractMap.SimpleEntry<>(key, storage),
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
@@ -116,6 +117,10 @@ public class RedisHashSetVectorStoreRecordMapper<Record>
 
             return new RedisHashSetVectorStoreRecordMapper<>(record -> {
                 try {
+                    if (recordDefinition.hasFieldAccessors()) {
+                        return toStorageModel(record, recordDefinition, objectMapper);
+                    }
+
                     ObjectNode jsonNode = objectMapper.valueToTree(record);
 
                     String key = jsonNode
@@ -133,12 +138,12 @@ public class RedisHashSetVectorStoreRecordMapper<Record>
                     }
                     for (VectorStoreRecordVectorField field : recordDefinition.getVectorFields()) {
                         ArrayNode value = (ArrayNode) jsonNode.get(field.getEffectiveStorageName());
-                        List<Float> vector = objectMapper.convertValue(value, List.class);
                         if (value != null) {
                             storage.put(
                                 stringToBytes(field.getEffectiveStorageName()),
                                 RedisVectorStoreCollectionSearchMapping
-                                    .convertListToByteArray(vector));
+                                    .convertArrayToByteArray(VectorOperations.normalizeOnIngest(
+                                        field, toFloatArray(value, objectMapper))));
                         }
                     }
 
@@ -195,4 +200,46 @@ public class RedisHashSetVectorStoreRecordMapper<Record>
             });
         }
     }
+
+    // Reads the fields of the record through the accessors of the definition, without
+    // serializing the whole record
+    private static <Record> Entry<String, Map<byte[], byte[]>> toStorageModel(Record record,
+        VectorStoreRecordDefinition recordDefinition, ObjectMapper objectMapper)
+        throws JsonProcessingException {
+        String key = String.valueOf(recordDefinition
+            .getFieldAccessor(recordDefinition.getKeyField().getName()).get(record));
+
+        Map<byte[], byte[]> storage = new HashMap<>();
+        for (VectorStoreRecordDataField field : recordDefinition.getDataFields()) {
+            Object value = recordDefinition.getFieldAccessor(field.getName()).get(record);
+            storage.put(stringToBytes(field.getEffectiveStorageName()),
+                objectMapper.writeValueAsBytes(value));
+        }
+        for (VectorStoreRecordVectorField field : recordDefinition.getVectorFields()) {
+            Object value = recordDefinition.getFieldAccessor(field.getName()).get(record);
+            if (value != null) {
+                storage.put(stringToBytes(field.getEffectiveStorageName()),
+                    RedisVectorStoreCollectionSearchMapping
+                        .convertArrayToByteArray(VectorOperations.normalizeOnIngest(field,
+                            toFloatArray(value, objectMapper))));
+            }
+        }
+        return new AbstractMap.SimpleEntry<>(key, storage);
+    }
+
+    // Converts a vector to an array of floats, without boxing its values
+    private static float[] toFloatArray(Object vector, ObjectMapper objectMapper) {
+        if (vector instanceof float[]) {
+            return (float[]) vector;
+        }
+        if (vector instanceof List) {
+            List<?> list = (List<?>) vector;
+            float[] array = new float[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ((Number) list.get(i)).floatValue();
+            }
+            return array;
+        }
+        return objectMapper.convertValue(vector, float[].class);
+    }
 }
@@ -63,7 +63,8 @@ public class RedisJsonVectorStoreRecordCollection<Record>
     private static final HashSet<Class<?>> supportedVectorTypes = new HashSet<>(
         Arrays.asList(
             List.class,
-            Collection.class));
+            Collection.class,
+            float[].class));
 
     private final JedisPooled client;
     private final String collectionName;
@@ -430,9 +431,13 @@ public class RedisJsonVectorStoreRecordCollection<Record>
                     }
 
                     String key = removeKeyPrefixIfNeeded(doc.getId(), collectionName);
-                    String value = (String) properties.get("$");
                     double score = Double.parseDouble((String) properties
                         .get(RedisVectorStoreCollectionSearchMapping.VECTOR_SCORE_FIELD));
+                    if (options != null && options.isKeysOnly()) {
+                        return new VectorSearchResult<Record>(null, key, score);
+                    }
+
+                    String value = (String) properties.get("$");
 
                     try {
                         JsonNode jsonNode = objectMapper.readTree(value);
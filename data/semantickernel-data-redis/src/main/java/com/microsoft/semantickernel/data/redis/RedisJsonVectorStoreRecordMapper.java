@@ -1,9 +1,12 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.redis;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordMapper;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
@@ -12,6 +15,7 @@ import com.microsoft.semantickernel.exceptions.SKException;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import java.util.AbstractMap;
+import java.util.List;
 import java.util.Map.Entry;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -108,6 +112,19 @@ public class RedisJsonVectorStoreRecordMapper<Record>
                     ObjectNode jsonNode = objectMapper.valueToTree(record);
                     String key = jsonNode.get(keyFieldName).asText();
                     jsonNode.remove(keyFieldName);
+                    for (VectorStoreRecordVectorField vectorField : recordDefinition
+                        .getVectorFields()) {
+                        JsonNode vector = jsonNode.get(vectorField.getEffectiveStorageName());
+                        if (VectorOperations.isNormalizedOnIngest(vectorField)
+                            && vector != null && vector.isArray()) {
+                            List<Float> values = objectMapper.convertValue(vector,
+                                new TypeReference<List<Float>>() {
+                                });
+                            jsonNode.set(vectorField.getEffectiveStorageName(),
+                                objectMapper.valueToTree(
+                                    VectorOperations.normalizeOnIngest(vectorField, values)));
+                        }
+                    }
 
                     return new AbstractMap.SimpleEntry<>(key, jsonNode);
                 } catch (Exception e) {
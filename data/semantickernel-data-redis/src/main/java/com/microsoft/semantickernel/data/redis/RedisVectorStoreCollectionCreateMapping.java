@@ -1,6 +1,7 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.redis;
 
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
 import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
@@ -43,7 +44,10 @@ public class RedisVectorStoreCollectionCreateMapping {
 
         switch (vectorField.getDistanceFunction()) {
             case COSINE_DISTANCE:
-                return RedisVectorDistanceMetric.COSINE;
+                // Unit vectors have the same inner product distance, without normalization
+                return VectorOperations.isNormalizedOnIngest(vectorField)
+                    ? RedisVectorDistanceMetric.DOT_PRODUCT
+                    : RedisVectorDistanceMetric.COSINE;
             case DOT_PRODUCT:
                 return RedisVectorDistanceMetric.DOT_PRODUCT;
             case EUCLIDEAN_DISTANCE:
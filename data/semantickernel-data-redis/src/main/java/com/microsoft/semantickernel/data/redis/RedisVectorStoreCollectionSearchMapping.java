@@ -3,6 +3,7 @@ package com.microsoft.semantickernel.data.redis;
 
 import com.microsoft.semantickernel.data.filter.AnyTagEqualToFilterClause;
 import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
 import com.microsoft.semantickernel.data.filter.FilterMapping;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
@@ -60,18 +61,35 @@ public class RedisVectorStoreCollectionSearchMapping implements FilterMapping {
 
         String filter = getFilter(options.getVectorSearchFilter(), recordDefinition);
 
-        String knn = String.format("%s=>[KNN $K @%s $BLOB AS %s]", filter,
-            vectorField.getEffectiveStorageName(), VECTOR_SCORE_FIELD);
+        FTSearchParams searchParams = new FTSearchParams();
+        String query;
+        if (options.getScoreThreshold() == null) {
+            query = String.format("%s=>[KNN $K @%s $BLOB AS %s]", filter,
+                vectorField.getEffectiveStorageName(), VECTOR_SCORE_FIELD);
+            searchParams.addParam("K", options.getTop() + options.getSkip());
+        } else {
+            // Redis scores are distances, so a range query only matches records within the
+            // threshold distance, instead of the nearest neighbors being filtered afterwards
+            query = String.format(
+                "%s@%s:[VECTOR_RANGE $RADIUS $BLOB]=>{$YIELD_DISTANCE_AS: %s}",
+                "*".equals(filter) ? "" : filter + " ",
+                vectorField.getEffectiveStorageName(), VECTOR_SCORE_FIELD);
+            searchParams.addParam("RADIUS", options.getScoreThreshold());
+        }
 
-        FTSearchParams searchParams = new FTSearchParams()
-            .addParam("K", options.getTop() + options.getSkip())
-            .addParam("BLOB", convertListToByteArray(vector))
+        searchParams
+            .addParam("BLOB", convertListToByteArray(
+                VectorOperations.normalizeOnIngest(vectorField, vector)))
             .limit(options.getSkip(), options.getTop())
             .sortBy(VECTOR_SCORE_FIELD, SortingOrder.ASC)
             .dialect(2);
 
+        // Only return the score when keys only are requested, the key is the document id
+        if (options.isKeysOnly()) {
+            searchParams.returnField(VECTOR_SCORE_FIELD, true);
+        }
         // For hash set storage is possible to select what fields to return without them being filterable
-        if (storageType == RedisStorageType.HASH_SET) {
+        else if (storageType == RedisStorageType.HASH_SET) {
             // We also need to tell Redis to return the fields without decoding them
             // Vector fields specially need to be returned as raw bytes
             for (VectorStoreRecordDataField dataField : recordDefinition.getDataFields()) {
@@ -87,7 +105,7 @@ public class RedisVectorStoreCollectionSearchMapping implements FilterMapping {
             searchParams.returnField(VECTOR_SCORE_FIELD, true);
         }
 
-        return Pair.of(knn, searchParams);
+        return Pair.of(query, searchParams);
     }
 
     /**
@@ -102,6 +120,18 @@ public class RedisVectorStoreCollectionSearchMapping implements FilterMapping {
         return bytes.array();
     }
 
+    /**
+     * Converts an array of floats to a byte array.
+     * @param embeddings the embeddings
+     * @return the byte array
+     */
+    public static byte[] convertArrayToByteArray(float[] embeddings) {
+        ByteBuffer bytes = ByteBuffer.allocate(Float.BYTES * embeddings.length);
+        bytes.order(ByteOrder.LITTLE_ENDIAN);
+        bytes.asFloatBuffer().put(embeddings);
+        return bytes.array();
+    }
+
     /**
      * Converts a byte array to a list of floats.
      * @param bytes the byte array
@@ -0,0 +1,75 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.redis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordKeyField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.Test;
+import redis.clients.jedis.CommandArguments;
+import redis.clients.jedis.search.FTSearchParams;
+import redis.clients.jedis.search.SearchProtocol.SearchCommand;
+
+public class RedisVectorStoreCollectionSearchMappingTest {
+
+    private static final VectorStoreRecordDefinition RECORD_DEFINITION = VectorStoreRecordDefinition
+        .fromFields(Arrays.asList(
+            VectorStoreRecordKeyField.builder()
+                .withName("id")
+                .withStorageName("id")
+                .withFieldType(String.class)
+                .build(),
+            VectorStoreRecordVectorField.builder()
+                .withName("vec")
+                .withStorageName("vec")
+                .withFieldType(List.class)
+                .withDimensions(2)
+                .withDistanceFunction(DistanceFunction.EUCLIDEAN_DISTANCE)
+                .withIndexKind(IndexKind.HNSW)
+                .build()));
+
+    private static List<String> getArguments(FTSearchParams searchParams) {
+        CommandArguments arguments = new CommandArguments(SearchCommand.SEARCH);
+        searchParams.addParams(arguments);
+        return StreamSupport.stream(arguments.spliterator(), false)
+            .map(argument -> new String(argument.getRaw(), StandardCharsets.UTF_8))
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void searchWithoutScoreThresholdIsANearestNeighborQuery() {
+        Pair<String, FTSearchParams> query = RedisVectorStoreCollectionSearchMapping.getInstance()
+            .buildQuery(Arrays.asList(1f, 2f),
+                VectorSearchOptions.builder().withTop(3).withSkip(1).build(),
+                RECORD_DEFINITION, RedisStorageType.JSON);
+
+        assertEquals("*=>[KNN $K @vec $BLOB AS vector_score]", query.getLeft());
+        List<String> arguments = getArguments(query.getRight());
+        assertEquals("4", arguments.get(arguments.indexOf("K") + 1));
+    }
+
+    @Test
+    public void scoreThresholdIsARangeQueryRadius() {
+        Pair<String, FTSearchParams> query = RedisVectorStoreCollectionSearchMapping.getInstance()
+            .buildQuery(Arrays.asList(1f, 2f),
+                VectorSearchOptions.builder().withTop(3).withScoreThreshold(0.5).build(),
+                RECORD_DEFINITION, RedisStorageType.JSON);
+
+        assertEquals("@vec:[VECTOR_RANGE $RADIUS $BLOB]=>{$YIELD_DISTANCE_AS: vector_score}",
+            query.getLeft());
+        List<String> arguments = getArguments(query.getRight());
+        assertEquals("0.5", arguments.get(arguments.indexOf("RADIUS") + 1));
+        assertFalse(arguments.contains("K"));
+    }
+}
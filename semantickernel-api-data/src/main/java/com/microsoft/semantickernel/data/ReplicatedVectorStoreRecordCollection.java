@@ -0,0 +1,353 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.UpsertRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * A vector store record collection that reads from several replicas of the same collection.
+ * <p>
+ * Reads are sent to the replica with the lowest exponentially weighted moving average latency,
+ * the primary. When the primary has not answered after the configured percentile of its recent
+ * latencies, the read is hedged: it is also sent to the next fastest replica, the first answer
+ * wins and the other request is cancelled. An empty answer, for a record that is not found, wins
+ * like any other. A read failing on the primary is sent to the next fastest replica at once, and
+ * fails with the error of the primary if both replicas fail.
+ * <p>
+ * Writes and collection operations are sent to the first replica, or to all replicas when
+ * {@link ReplicatedVectorStoreRecordCollectionOptions#isWriteToAllReplicas()} is set.
+ *
+ * @param <Key>    The type of the key of the records in the collection.
+ * @param <Record> The type of record in the collection.
+ */
+public class ReplicatedVectorStoreRecordCollection<Key, Record> implements
+    VectorStoreRecordCollection<Key, Record> {
+
+    // Number of recent latencies kept per replica to compute the hedge delay
+    private static final int LATENCY_SAMPLES = 128;
+    // Number of latencies a replica needs before the hedge delay is derived from them
+    private static final int MIN_LATENCY_SAMPLES = 16;
+
+    private final String collectionName;
+    private final List<VectorStoreRecordCollection<Key, Record>> replicas;
+    private final List<ReplicaLatency> latencies;
+    private final ReplicatedVectorStoreRecordCollectionOptions<Key, Record> options;
+
+    /**
+     * Creates a new instance of the replicated vector store record collection.
+     *
+     * @param collectionName The name of the collection.
+     * @param replicas       The replicas of the collection, starting with the one receiving
+     *                       writes.
+     * @param options        The options for the collection.
+     */
+    public ReplicatedVectorStoreRecordCollection(
+        @Nonnull String collectionName,
+        @Nonnull List<VectorStoreRecordCollection<Key, Record>> replicas,
+        @Nonnull ReplicatedVectorStoreRecordCollectionOptions<Key, Record> options) {
+        if (replicas.isEmpty()) {
+            throw new SKException("At least one replica is required");
+        }
+
+        this.collectionName = collectionName;
+        this.replicas = Collections.unmodifiableList(new ArrayList<>(replicas));
+        this.options = options;
+
+        List<ReplicaLatency> latencies = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            latencies.add(new ReplicaLatency(options.getLatencySmoothing()));
+        }
+        this.latencies = Collections.unmodifiableList(latencies);
+    }
+
+    /**
+     * Gets the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Gets the replicas of the collection.
+     *
+     * @return The replicas, starting with the one receiving writes.
+     */
+    public List<VectorStoreRecordCollection<Key, Record>> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Checks if the collection exists in the first replica.
+     *
+     * @return A Mono emitting a boolean indicating if the collection exists.
+     */
+    @Override
+    public Mono<Boolean> collectionExistsAsync() {
+        return replicas.get(0).collectionExistsAsync();
+    }
+
+    /**
+     * Creates the collection in the replicas receiving writes.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<Key, Record>> createCollectionAsync() {
+        return getWriteReplicas()
+            .flatMap(VectorStoreRecordCollection::createCollectionAsync)
+            .then(Mono.just(this));
+    }
+
+    /**
+     * Creates the collection in the replicas receiving writes, where it does not exist.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<Key, Record>> createCollectionIfNotExistsAsync() {
+        return getWriteReplicas()
+            .flatMap(VectorStoreRecordCollection::createCollectionIfNotExistsAsync)
+            .then(Mono.just(this));
+    }
+
+    /**
+     * Deletes the collection from the replicas receiving writes.
+     *
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteCollectionAsync() {
+        return getWriteReplicas()
+            .flatMap(VectorStoreRecordCollection::deleteCollectionAsync)
+            .then();
+    }
+
+    /**
+     * Gets a record, hedging the read across replicas.
+     *
+     * @param key     The key of the record to get.
+     * @param options The options for getting the record.
+     * @return A Mono emitting the record.
+     */
+    @Override
+    public Mono<Record> getAsync(Key key, GetRecordOptions options) {
+        return hedge(replica -> replica.getAsync(key, options));
+    }
+
+    /**
+     * Gets a batch of records, hedging the read across replicas.
+     *
+     * @param keys    The keys of the records to get.
+     * @param options The options for getting the records.
+     * @return A Mono emitting a list of the records found.
+     */
+    @Override
+    public Mono<List<Record>> getBatchAsync(List<Key> keys, GetRecordOptions options) {
+        return hedge(replica -> replica.getBatchAsync(keys, options));
+    }
+
+    /**
+     * Inserts or updates a record in the replicas receiving writes.
+     *
+     * @param data    The record to upsert.
+     * @param options The options for upserting the record.
+     * @return A Mono emitting the key of the upserted record.
+     */
+    @Override
+    public Mono<Key> upsertAsync(Record data, UpsertRecordOptions options) {
+        return getWriteReplicas()
+            .flatMapSequential(replica -> replica.upsertAsync(data, options))
+            .collectList()
+            .map(keys -> keys.get(0));
+    }
+
+    /**
+     * Inserts or updates a batch of records in the replicas receiving writes.
+     *
+     * @param data    The records to upsert.
+     * @param options The options for upserting the records.
+     * @return A Mono emitting a list of keys of the upserted records.
+     */
+    @Override
+    public Mono<List<Key>> upsertBatchAsync(List<Record> data, UpsertRecordOptions options) {
+        return getWriteReplicas()
+            .flatMapSequential(replica -> replica.upsertBatchAsync(data, options))
+            .collectList()
+            .map(keys -> keys.get(0));
+    }
+
+    /**
+     * Deletes a record from the replicas receiving writes.
+     *
+     * @param key     The key of the record to delete.
+     * @param options The options for deleting the record.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteAsync(Key key, DeleteRecordOptions options) {
+        return getWriteReplicas()
+            .flatMap(replica -> replica.deleteAsync(key, options))
+            .then();
+    }
+
+    /**
+     * Deletes a batch of records from the replicas receiving writes.
+     *
+     * @param keys    The keys of the records to delete.
+     * @param options The options for deleting the records.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteBatchAsync(List<Key> keys, DeleteRecordOptions options) {
+        return getWriteReplicas()
+            .flatMap(replica -> replica.deleteBatchAsync(keys, options))
+            .then();
+    }
+
+    /**
+     * Vectorized search, hedging the search across replicas.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A list of search results.
+     */
+    @Override
+    public Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        return hedge(replica -> replica.searchAsync(vector, options));
+    }
+
+    private Flux<VectorStoreRecordCollection<Key, Record>> getWriteReplicas() {
+        if (options.isWriteToAllReplicas()) {
+            return Flux.fromIterable(replicas);
+        }
+        return Flux.just(replicas.get(0));
+    }
+
+    private <T> Mono<T> hedge(Function<VectorStoreRecordCollection<Key, Record>, Mono<T>> read) {
+        return Mono.defer(() -> {
+            int[] ranking = rankReplicas();
+            int primary = ranking[0];
+            if (ranking.length == 1) {
+                return timed(primary, read);
+            }
+
+            Duration hedgeDelay = latencies.get(primary).getPercentile(
+                options.getHedgePercentile(), options.getInitialHedgeDelay());
+
+            // The first replica to answer wins, with a value or without one, and the other
+            // request is cancelled. A failed request leaves the race to the other replica, and
+            // the read fails with the error of the primary replica once both have failed.
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            AtomicInteger failures = new AtomicInteger();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Function<Throwable, Mono<T>> onFailure = e -> failures.incrementAndGet() < 2
+                ? Mono.never()
+                : Mono.error(primaryError.get() != null ? primaryError.get() : e);
+
+            Mono<T> primaryRead = timed(primary, read)
+                .onErrorResume(e -> {
+                    primaryError.set(e);
+                    primaryFailed.tryEmitEmpty();
+                    return onFailure.apply(e);
+                });
+            // Sent after the hedge delay, or as soon as the primary replica fails
+            Mono<T> hedgedRead = Mono.firstWithSignal(
+                Mono.delay(hedgeDelay).then(), primaryFailed.asMono())
+                .then(timed(ranking[1], read))
+                .onErrorResume(onFailure);
+            return Mono.firstWithSignal(primaryRead, hedgedRead);
+        });
+    }
+
+    private <T> Mono<T> timed(int replica,
+        Function<VectorStoreRecordCollection<Key, Record>, Mono<T>> read) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            // Requests cancelled by a faster replica took at least the time they were given
+            return read.apply(replicas.get(replica))
+                .doFinally(signal -> latencies.get(replica).record(System.nanoTime() - start));
+        });
+    }
+
+    // Replica indexes, fastest first
+    private int[] rankReplicas() {
+        double[] averages = new double[replicas.size()];
+        Integer[] ranking = new Integer[replicas.size()];
+        for (int i = 0; i < replicas.size(); i++) {
+            averages[i] = latencies.get(i).getAverage();
+            ranking[i] = i;
+        }
+        Arrays.sort(ranking, (a, b) -> Double.compare(averages[a], averages[b]));
+        return Arrays.stream(ranking).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Latency observed for a replica: a moving average to rank replicas and a window of recent
+     * latencies to compute the hedge delay.
+     */
+    private static final class ReplicaLatency {
+
+        private final double smoothing;
+
+        @GuardedBy("this")
+        private final long[] samples = new long[LATENCY_SAMPLES];
+        @GuardedBy("this")
+        private int count;
+        @GuardedBy("this")
+        private double average;
+
+        private ReplicaLatency(double smoothing) {
+            this.smoothing = smoothing;
+        }
+
+        private synchronized void record(long nanos) {
+            if (count == 0) {
+                average = nanos;
+            } else {
+                average = smoothing * nanos + (1 - smoothing) * average;
+            }
+            samples[count % LATENCY_SAMPLES] = nanos;
+            count++;
+        }
+
+        // Replicas without observed latencies rank first, so every replica gets measured
+        private synchronized double getAverage() {
+            return average;
+        }
+
+        private synchronized Duration getPercentile(double percentile, Duration defaultValue) {
+            if (count < MIN_LATENCY_SAMPLES) {
+                return defaultValue;
+            }
+
+            long[] window = Arrays.copyOf(samples, Math.min(count, LATENCY_SAMPLES));
+            Arrays.sort(window);
+            int index = (int) Math.ceil(percentile * window.length) - 1;
+            return Duration.ofNanos(window[Math.max(0, index)]);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+
+import java.time.Duration;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents the options for a replicated vector store record collection.
+ *
+ * @param <Key>    the key type
+ * @param <Record> the record type
+ */
+public class ReplicatedVectorStoreRecordCollectionOptions<Key, Record>
+    implements VectorStoreRecordCollectionOptions<Key, Record> {
+
+    /**
+     * The default percentile of the primary replica latency after which a read is hedged.
+     */
+    public static final double DEFAULT_HEDGE_PERCENTILE = 0.95;
+
+    /**
+     * The default delay after which a read is hedged, until enough latencies are observed.
+     */
+    public static final Duration DEFAULT_INITIAL_HEDGE_DELAY = Duration.ofMillis(100);
+
+    /**
+     * The default weight of the latest latency in the moving average of a replica latency.
+     */
+    public static final double DEFAULT_LATENCY_SMOOTHING = 0.2;
+
+    private final Class<Key> keyClass;
+    private final Class<Record> recordClass;
+    @Nullable
+    private final VectorStoreRecordDefinition recordDefinition;
+    private final double hedgePercentile;
+    private final Duration initialHedgeDelay;
+    private final double latencySmoothing;
+    private final boolean writeToAllReplicas;
+
+    /**
+     * Creates a new instance of the replicated vector store record collection options.
+     *
+     * @param keyClass           The key class.
+     * @param recordClass        The record class.
+     * @param recordDefinition   The record definition.
+     * @param hedgePercentile    The percentile of the primary replica latency after which a read
+     *                           is hedged.
+     * @param initialHedgeDelay  The delay after which a read is hedged, until enough latencies
+     *                           are observed.
+     * @param latencySmoothing   The weight of the latest latency in the moving average of a
+     *                           replica latency.
+     * @param writeToAllReplicas Whether writes are sent to all replicas, or only to the first.
+     */
+    public ReplicatedVectorStoreRecordCollectionOptions(
+        @Nonnull Class<Key> keyClass,
+        @Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition,
+        double hedgePercentile,
+        @Nonnull Duration initialHedgeDelay,
+        double latencySmoothing,
+        boolean writeToAllReplicas) {
+        this.keyClass = keyClass;
+        this.recordClass = recordClass;
+        this.recordDefinition = recordDefinition;
+        this.hedgePercentile = hedgePercentile;
+        this.initialHedgeDelay = initialHedgeDelay;
+        this.latencySmoothing = latencySmoothing;
+        this.writeToAllReplicas = writeToAllReplicas;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <Key>    the key type
+     * @param <Record> the record type
+     * @return the builder
+     */
+    public static <Key, Record> Builder<Key, Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the key class.
+     *
+     * @return the key class
+     */
+    @Override
+    public Class<Key> getKeyClass() {
+        return keyClass;
+    }
+
+    /**
+     * Gets the record class.
+     *
+     * @return the record class
+     */
+    @Override
+    public Class<Record> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Gets the record definition.
+     *
+     * @return the record definition
+     */
+    @Override
+    @Nullable
+    public VectorStoreRecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * Gets the percentile of the primary replica latency after which a read is hedged.
+     *
+     * @return the hedge percentile, between 0 and 1
+     */
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    /**
+     * Gets the delay after which a read is hedged, until enough latencies of the primary replica
+     * are observed.
+     *
+     * @return the initial hedge delay
+     */
+    public Duration getInitialHedgeDelay() {
+        return initialHedgeDelay;
+    }
+
+    /**
+     * Gets the weight of the latest latency in the exponentially weighted moving average of a
+     * replica latency.
+     *
+     * @return the latency smoothing factor, between 0 and 1
+     */
+    public double getLatencySmoothing() {
+        return latencySmoothing;
+    }
+
+    /**
+     * Gets whether writes are sent to all replicas, or only to the first replica.
+     *
+     * @return whether writes are sent to all replicas
+     */
+    public boolean isWriteToAllReplicas() {
+        return writeToAllReplicas;
+    }
+
+    /**
+     * Builder for replicated vector store record collection options.
+     *
+     * @param <Key>    the key type
+     * @param <Record> the record type
+     */
+    public static class Builder<Key, Record> {
+        @Nullable
+        private Class<Key> keyClass;
+        @Nullable
+        private Class<Record> recordClass;
+        @Nullable
+        private VectorStoreRecordDefinition recordDefinition;
+        private double hedgePercentile = DEFAULT_HEDGE_PERCENTILE;
+        private Duration initialHedgeDelay = DEFAULT_INITIAL_HEDGE_DELAY;
+        private double latencySmoothing = DEFAULT_LATENCY_SMOOTHING;
+        private boolean writeToAllReplicas;
+
+        /**
+         * Sets the key class.
+         *
+         * @param keyClass the key class
+         * @return the builder
+         */
+        public Builder<Key, Record> withKeyClass(Class<Key> keyClass) {
+            this.keyClass = keyClass;
+            return this;
+        }
+
+        /**
+         * Sets the record class.
+         *
+         * @param recordClass the record class
+         * @return the builder
+         */
+        public Builder<Key, Record> withRecordClass(Class<Record> recordClass) {
+            this.recordClass = recordClass;
+            return this;
+        }
+
+        /**
+         * Sets the record definition.
+         *
+         * @param recordDefinition the record definition
+         * @return the builder
+         */
+        public Builder<Key, Record> withRecordDefinition(
+            VectorStoreRecordDefinition recordDefinition) {
+            this.recordDefinition = recordDefinition;
+            return this;
+        }
+
+        /**
+         * Sets the percentile of the primary replica latency after which a read is hedged,
+         * that is also sent to a second replica.
+         *
+         * @param hedgePercentile the hedge percentile, between 0 and 1
+         * @return the builder
+         */
+        public Builder<Key, Record> withHedgePercentile(double hedgePercentile) {
+            this.hedgePercentile = hedgePercentile;
+            return this;
+        }
+
+        /**
+         * Sets the delay after which a read is hedged, until enough latencies of the primary
+         * replica are observed to compute the hedge percentile.
+         *
+         * @param initialHedgeDelay the initial hedge delay
+         * @return the builder
+         */
+        public Builder<Key, Record> withInitialHedgeDelay(Duration initialHedgeDelay) {
+            this.initialHedgeDelay = initialHedgeDelay;
+            return this;
+        }
+
+        /**
+         * Sets the weight of the latest latency in the exponentially weighted moving average
+         * used to pick the primary replica.
+         *
+         * @param latencySmoothing the latency smoothing factor, between 0 and 1
+         * @return the builder
+         */
+        public Builder<Key, Record> withLatencySmoothing(double latencySmoothing) {
+            this.latencySmoothing = latencySmoothing;
+            return this;
+        }
+
+        /**
+         * Sets whether writes are sent to all replicas. By default, writes are only sent to the
+         * first replica, which suits stores that replicate writes themselves.
+         *
+         * @param writeToAllReplicas whether writes are sent to all replicas
+         * @return the builder
+         */
+        public Builder<Key, Record> withWriteToAllReplicas(boolean writeToAllReplicas) {
+            this.writeToAllReplicas = writeToAllReplicas;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         */
+        public ReplicatedVectorStoreRecordCollectionOptions<Key, Record> build() {
+            if (keyClass == null) {
+                throw new IllegalArgumentException("keyClass is required");
+            }
+            if (recordClass == null) {
+                throw new IllegalArgumentException("recordClass is required");
+            }
+            if (hedgePercentile <= 0 || hedgePercentile > 1) {
+                throw new IllegalArgumentException("hedgePercentile must be in (0, 1]");
+            }
+            if (latencySmoothing <= 0 || latencySmoothing > 1) {
+                throw new IllegalArgumentException("latencySmoothing must be in (0, 1]");
+            }
+            if (initialHedgeDelay == null || initialHedgeDelay.isNegative()) {
+                throw new IllegalArgumentException("initialHedgeDelay must not be negative");
+            }
+
+            return new ReplicatedVectorStoreRecordCollectionOptions<>(keyClass, recordClass,
+                recordDefinition, hedgePercentile, initialHedgeDelay, latencySmoothing,
+                writeToAllReplicas);
+        }
+    }
+}
@@ -0,0 +1,427 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.UpsertRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A vector store record collection that hash-partitions its records across several underlying
+ * collections, the shards.
+ * <p>
+ * Gets, upserts and deletes are routed to the shard owning each key. Searches are sent to all
+ * shards concurrently, each asked for the first {@code skip + top} results, and the shard results
+ * are merged into the global top results. When a shard timeout is configured, shards that do not
+ * answer in time are left out and the number of such shards is reported in the search results
+ * metadata under {@link #SHARDS_TIMED_OUT}.
+ * <p>
+ * The number and order of shards must not change once records are stored, as it determines where
+ * each key is routed.
+ *
+ * @param <Key>    The type of the key of the records in the collection.
+ * @param <Record> The type of record in the collection.
+ */
+public class ShardedVectorStoreRecordCollection<Key, Record> implements
+    VectorStoreRecordCollection<Key, Record> {
+
+    /**
+     * The search results metadata key holding the number of shards that timed out.
+     */
+    public static final String SHARDS_TIMED_OUT = "shardsTimedOut";
+
+    private final String collectionName;
+    private final List<VectorStoreRecordCollection<Key, Record>> shards;
+    private final ShardedVectorStoreRecordCollectionOptions<Key, Record> options;
+    private final VectorStoreRecordDefinition recordDefinition;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Creates a new instance of the sharded vector store record collection.
+     *
+     * @param collectionName The name of the collection.
+     * @param shards         The underlying collections, in a stable order.
+     * @param options        The options for the collection.
+     */
+    public ShardedVectorStoreRecordCollection(
+        @Nonnull String collectionName,
+        @Nonnull List<VectorStoreRecordCollection<Key, Record>> shards,
+        @Nonnull ShardedVectorStoreRecordCollectionOptions<Key, Record> options) {
+        if (shards.isEmpty()) {
+            throw new SKException("At least one shard is required");
+        }
+
+        this.collectionName = collectionName;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.options = options;
+
+        VectorStoreRecordDefinition recordDefinition = options.getRecordDefinition() != null
+            ? options.getRecordDefinition()
+            : VectorStoreRecordDefinition.fromRecordClass(options.getRecordClass());
+
+        if (options.getObjectMapper() == null) {
+            this.objectMapper = new ObjectMapper();
+            this.recordDefinition = recordDefinition;
+        } else {
+            // The records are read as the custom object mapper serializes them
+            this.objectMapper = options.getObjectMapper();
+            this.recordDefinition = recordDefinition.withoutFieldAccessors();
+        }
+    }
+
+    /**
+     * Gets the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    @Override
+    public String getCollectionName() {
+        return collectionName;
+    }
+
+    /**
+     * Gets the shards of the collection.
+     *
+     * @return The shards, in routing order.
+     */
+    public List<VectorStoreRecordCollection<Key, Record>> getShards() {
+        return shards;
+    }
+
+    /**
+     * Checks if the collection exists in every shard.
+     *
+     * @return A Mono emitting a boolean indicating if the collection exists.
+     */
+    @Override
+    public Mono<Boolean> collectionExistsAsync() {
+        return Flux.fromIterable(shards)
+            .flatMap(VectorStoreRecordCollection::collectionExistsAsync)
+            .all(exists -> exists);
+    }
+
+    /**
+     * Creates the collection in every shard.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<Key, Record>> createCollectionAsync() {
+        return Flux.fromIterable(shards)
+            .flatMap(VectorStoreRecordCollection::createCollectionAsync)
+            .then(Mono.just(this));
+    }
+
+    /**
+     * Creates the collection in every shard where it does not exist.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<Key, Record>> createCollectionIfNotExistsAsync() {
+        return Flux.fromIterable(shards)
+            .flatMap(VectorStoreRecordCollection::createCollectionIfNotExistsAsync)
+            .then(Mono.just(this));
+    }
+
+    /**
+     * Deletes the collection from every shard.
+     *
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteCollectionAsync() {
+        return Flux.fromIterable(shards)
+            .flatMap(VectorStoreRecordCollection::deleteCollectionAsync)
+            .then();
+    }
+
+    /**
+     * Gets a record from the shard owning its key.
+     *
+     * @param key     The key of the record to get.
+     * @param options The options for getting the record.
+     * @return A Mono emitting the record.
+     */
+    @Override
+    public Mono<Record> getAsync(Key key, GetRecordOptions options) {
+        if (options != null && options.isWildcardKeyMatching()) {
+            return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.getAsync(key, options))
+                .next();
+        }
+        return getShard(key.toString()).getAsync(key, options);
+    }
+
+    /**
+     * Gets a batch of records, querying each shard once for the keys it owns.
+     *
+     * @param keys    The keys of the records to get.
+     * @param options The options for getting the records.
+     * @return A Mono emitting a list of the records found, in the order of the keys.
+     */
+    @Override
+    public Mono<List<Record>> getBatchAsync(List<Key> keys, GetRecordOptions options) {
+        Map<Integer, List<Key>> keysByShard = keys.stream()
+            .collect(Collectors.groupingBy(key -> getShardIndex(key.toString())));
+
+        return Flux.fromIterable(keysByShard.entrySet())
+            .flatMap(entry -> shards.get(entry.getKey()).getBatchAsync(entry.getValue(), options))
+            .collectList()
+            .map(shardRecords -> {
+                Map<String, Record> found = new HashMap<>();
+                shardRecords.forEach(records -> records.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(record -> found.put(getKey(record), record)));
+
+                return keys.stream()
+                    .map(key -> found.get(key.toString()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            });
+    }
+
+    /**
+     * Inserts or updates a record in the shard owning its key.
+     *
+     * @param data    The record to upsert.
+     * @param options The options for upserting the record.
+     * @return A Mono emitting the key of the upserted record.
+     */
+    @Override
+    public Mono<Key> upsertAsync(Record data, UpsertRecordOptions options) {
+        return Mono.defer(() -> getShard(getKey(data)).upsertAsync(data, options));
+    }
+
+    /**
+     * Inserts or updates a batch of records, sending each shard one batch with the records it
+     * owns.
+     *
+     * @param data    The records to upsert.
+     * @param options The options for upserting the records.
+     * @return A Mono emitting a list of keys of the upserted records, in the order of the records.
+     */
+    @Override
+    public Mono<List<Key>> upsertBatchAsync(List<Record> data, UpsertRecordOptions options) {
+        return Mono.defer(() -> {
+            // Positions of the records sent to each shard, to restore the order of the keys
+            Map<Integer, List<Integer>> positionsByShard = new HashMap<>();
+            for (int i = 0; i < data.size(); i++) {
+                positionsByShard
+                    .computeIfAbsent(getShardIndex(getKey(data.get(i))), k -> new ArrayList<>())
+                    .add(i);
+            }
+
+            List<Key> keys = new ArrayList<>(Collections.nCopies(data.size(), null));
+            return Flux.fromIterable(positionsByShard.entrySet())
+                .flatMap(entry -> {
+                    List<Integer> positions = entry.getValue();
+                    List<Record> records = positions.stream()
+                        .map(data::get)
+                        .collect(Collectors.toList());
+
+                    return shards.get(entry.getKey()).upsertBatchAsync(records, options)
+                        .doOnNext(shardKeys -> {
+                            synchronized (keys) {
+                                for (int i = 0; i < shardKeys.size(); i++) {
+                                    keys.set(positions.get(i), shardKeys.get(i));
+                                }
+                            }
+                        });
+                })
+                .then(Mono.fromCallable(() -> {
+                    synchronized (keys) {
+                        return Collections.unmodifiableList(new ArrayList<>(keys));
+                    }
+                }));
+        });
+    }
+
+    /**
+     * Deletes a record from the shard owning its key.
+     *
+     * @param key     The key of the record to delete.
+     * @param options The options for deleting the record.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteAsync(Key key, DeleteRecordOptions options) {
+        return getShard(key.toString()).deleteAsync(key, options);
+    }
+
+    /**
+     * Deletes a batch of records, sending each shard one batch with the keys it owns.
+     *
+     * @param keys    The keys of the records to delete.
+     * @param options The options for deleting the records.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteBatchAsync(List<Key> keys, DeleteRecordOptions options) {
+        Map<Integer, List<Key>> keysByShard = keys.stream()
+            .collect(Collectors.groupingBy(key -> getShardIndex(key.toString())));
+
+        return Flux.fromIterable(keysByShard.entrySet())
+            .flatMap(entry -> shards.get(entry.getKey())
+                .deleteBatchAsync(entry.getValue(), options))
+            .then();
+    }
+
+    /**
+     * Vectorized search. The search is sent to all shards concurrently and their results are
+     * merged into the global top results.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A list of search results.
+     */
+    @Override
+    public Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        if (recordDefinition.getVectorFields().isEmpty()) {
+            return Mono
+                .error(new SKException("No vector fields defined. Cannot perform vector search"));
+        }
+
+        VectorStoreRecordVectorField firstVectorField = recordDefinition.getVectorFields().get(0);
+        VectorSearchOptions effectiveOptions = options == null
+            ? VectorSearchOptions.createDefault(firstVectorField.getName())
+            : options;
+
+        // Every shard may hold any of the global top results, so each one is asked for a full
+        // page, starting from its first result
+        VectorSearchOptions shardOptions = VectorSearchOptions.builder()
+            .withVectorSearchFilter(effectiveOptions.getVectorSearchFilter())
+            .withVectorFieldName(effectiveOptions.getVectorFieldName())
+            .withTop(effectiveOptions.getSkip() + effectiveOptions.getTop())
+            .withSkip(0)
+            .withIncludeVectors(effectiveOptions.isIncludeVectors())
+            .withIncludeTotalCount(effectiveOptions.isIncludeTotalCount())
+            .withScoreThreshold(effectiveOptions.getScoreThreshold())
+            .withKeysOnly(effectiveOptions.isKeysOnly())
+            .withNprobe(effectiveOptions.getNprobe())
+            .build();
+
+        AtomicInteger timedOut = new AtomicInteger();
+        return Flux.fromIterable(shards)
+            .flatMap(shard -> {
+                Mono<VectorSearchResults<Record>> search = shard.searchAsync(vector,
+                    shardOptions);
+                if (this.options.getShardTimeout() == null) {
+                    return search;
+                }
+                return search
+                    .timeout(this.options.getShardTimeout())
+                    .onErrorResume(TimeoutException.class, e -> {
+                        timedOut.incrementAndGet();
+                        return Mono.empty();
+                    });
+            }, shards.size())
+            .collectList()
+            .map(shardResults -> merge(shardResults, effectiveOptions, timedOut.get()));
+    }
+
+    private VectorSearchResults<Record> merge(List<VectorSearchResults<Record>> shardResults,
+        VectorSearchOptions options, int timedOut) {
+        Comparator<VectorSearchResult<Record>> bestFirst = Comparator
+            .comparingDouble(VectorSearchResult::getScore);
+        if (isHigherScoreBetter(options)) {
+            bestFirst = bestFirst.reversed();
+        }
+
+        // Bounded heap holding the best skip + top results, with the worst one at its head
+        int limit = options.getSkip() + options.getTop();
+        PriorityQueue<VectorSearchResult<Record>> heap = new PriorityQueue<>(limit + 1,
+            bestFirst.reversed());
+        long totalCount = 0;
+        for (VectorSearchResults<Record> results : shardResults) {
+            totalCount += results.getTotalCount();
+            for (VectorSearchResult<Record> result : results.getResults()) {
+                heap.add(result);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        }
+
+        List<VectorSearchResult<Record>> merged = new ArrayList<>(heap);
+        merged.sort(bestFirst);
+
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put(SHARDS_TIMED_OUT, timedOut);
+
+        return new VectorSearchResults<>(
+            merged.stream()
+                .skip(options.getSkip())
+                .limit(options.getTop())
+                .collect(Collectors.toList()),
+            totalCount,
+            metadata);
+    }
+
+    private boolean isHigherScoreBetter(VectorSearchOptions options) {
+        if (this.options.getHigherScoreBetter() != null) {
+            return this.options.getHigherScoreBetter();
+        }
+
+        VectorStoreRecordVectorField vectorField = options.getVectorFieldName() == null
+            ? recordDefinition.getVectorFields().get(0)
+            : (VectorStoreRecordVectorField) recordDefinition
+                .getField(options.getVectorFieldName());
+
+        return VectorOperations.isHigherScoreBetter(
+            vectorField.getDistanceFunction() == DistanceFunction.UNDEFINED
+                ? DistanceFunction.EUCLIDEAN_DISTANCE
+                : vectorField.getDistanceFunction());
+    }
+
+    private VectorStoreRecordCollection<Key, Record> getShard(String key) {
+        return shards.get(getShardIndex(key));
+    }
+
+    private int getShardIndex(String key) {
+        // String.hashCode is specified, so routing is stable across processes
+        return Math.floorMod(key.hashCode(), shards.size());
+    }
+
+    private String getKey(Record record) {
+        if (recordDefinition.hasFieldAccessors()) {
+            return String.valueOf(recordDefinition
+                .getFieldAccessor(recordDefinition.getKeyField().getName()).get(record));
+        }
+        try {
+            JsonNode node = objectMapper.valueToTree(record);
+            return node.get(recordDefinition.getKeyField().getEffectiveStorageName()).asText();
+        } catch (Exception e) {
+            throw new SKException(
+                "Failure to serialize object. Ensure your model object can be serialized by Jackson, i.e the class is visible, has getters, constructor, annotations etc.",
+                e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import java.time.Duration;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents the options for a sharded vector store record collection.
+ *
+ * @param <Key>    the key type
+ * @param <Record> the record type
+ */
+public class ShardedVectorStoreRecordCollectionOptions<Key, Record>
+    implements VectorStoreRecordCollectionOptions<Key, Record> {
+    private final Class<Key> keyClass;
+    private final Class<Record> recordClass;
+    @Nullable
+    private final VectorStoreRecordDefinition recordDefinition;
+    @Nullable
+    private final ObjectMapper objectMapper;
+    @Nullable
+    private final Duration shardTimeout;
+    @Nullable
+    private final Boolean higherScoreBetter;
+
+    /**
+     * Creates a new instance of the sharded vector store record collection options.
+     *
+     * @param keyClass          The key class.
+     * @param recordClass       The record class.
+     * @param recordDefinition  The record definition.
+     * @param objectMapper      An instance of Jackson ObjectMapper.
+     * @param shardTimeout      The time a search waits for each shard, or null to wait for all.
+     * @param higherScoreBetter Whether the shards score closer matches higher, or null to derive
+     *                          it from the distance function of the searched vector field.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public ShardedVectorStoreRecordCollectionOptions(
+        @Nonnull Class<Key> keyClass,
+        @Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition,
+        @Nullable ObjectMapper objectMapper,
+        @Nullable Duration shardTimeout,
+        @Nullable Boolean higherScoreBetter) {
+        this.keyClass = keyClass;
+        this.recordClass = recordClass;
+        this.recordDefinition = recordDefinition;
+        this.objectMapper = objectMapper;
+        this.shardTimeout = shardTimeout;
+        this.higherScoreBetter = higherScoreBetter;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <Key>    the key type
+     * @param <Record> the record type
+     * @return the builder
+     */
+    public static <Key, Record> Builder<Key, Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the key class.
+     *
+     * @return the key class
+     */
+    @Override
+    public Class<Key> getKeyClass() {
+        return keyClass;
+    }
+
+    /**
+     * Gets the record class.
+     *
+     * @return the record class
+     */
+    @Override
+    public Class<Record> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Gets the record definition.
+     *
+     * @return the record definition
+     */
+    @Override
+    @Nullable
+    public VectorStoreRecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * Gets the object mapper.
+     *
+     * @return the object mapper
+     */
+    @Nullable
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the time a search waits for each shard. Shards that do not answer in time are left
+     * out of the results, which are then partial.
+     *
+     * @return the shard timeout, or null if searches wait for all shards
+     */
+    @Nullable
+    public Duration getShardTimeout() {
+        return shardTimeout;
+    }
+
+    /**
+     * Gets whether the shards score closer matches higher.
+     *
+     * @return whether a higher score is better, or null to derive it from the distance function
+     */
+    @Nullable
+    public Boolean getHigherScoreBetter() {
+        return higherScoreBetter;
+    }
+
+    /**
+     * Builder for sharded vector store record collection options.
+     *
+     * @param <Key>    the key type
+     * @param <Record> the record type
+     */
+    public static class Builder<Key, Record> {
+        @Nullable
+        private Class<Key> keyClass;
+        @Nullable
+        private Class<Record> recordClass;
+        @Nullable
+        private VectorStoreRecordDefinition recordDefinition;
+        @Nullable
+        private ObjectMapper objectMapper;
+        @Nullable
+        private Duration shardTimeout;
+        @Nullable
+        private Boolean higherScoreBetter;
+
+        /**
+         * Sets the key class.
+         *
+         * @param keyClass the key class
+         * @return the builder
+         */
+        public Builder<Key, Record> withKeyClass(Class<Key> keyClass) {
+            this.keyClass = keyClass;
+            return this;
+        }
+
+        /**
+         * Sets the record class.
+         *
+         * @param recordClass the record class
+         * @return the builder
+         */
+        public Builder<Key, Record> withRecordClass(Class<Record> recordClass) {
+            this.recordClass = recordClass;
+            return this;
+        }
+
+        /**
+         * Sets the record definition.
+         *
+         * @param recordDefinition the record definition
+         * @return the builder
+         */
+        public Builder<Key, Record> withRecordDefinition(
+            VectorStoreRecordDefinition recordDefinition) {
+            this.recordDefinition = recordDefinition;
+            return this;
+        }
+
+        /**
+         * Sets the object mapper.
+         *
+         * @param objectMapper the object mapper
+         * @return the builder
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP2")
+        public Builder<Key, Record> withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the time a search waits for each shard. Shards that do not answer in time are
+         * left out, and the search returns the partial results of the other shards.
+         *
+         * @param shardTimeout the shard timeout
+         * @return the builder
+         */
+        public Builder<Key, Record> withShardTimeout(Duration shardTimeout) {
+            this.shardTimeout = shardTimeout;
+            return this;
+        }
+
+        /**
+         * Sets whether the shards score closer matches higher. By default, this is derived from
+         * the distance function of the searched vector field, which matches the in-memory and
+         * JDBC stores. Stores that always return a distance, such as PostgreSQL and Redis, or
+         * always a relevance score, such as Azure AI Search, should set it explicitly.
+         *
+         * @param higherScoreBetter whether a higher score is better
+         * @return the builder
+         */
+        public Builder<Key, Record> withHigherScoreBetter(boolean higherScoreBetter) {
+            this.higherScoreBetter = higherScoreBetter;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         */
+        public ShardedVectorStoreRecordCollectionOptions<Key, Record> build() {
+            if (keyClass == null) {
+                throw new IllegalArgumentException("keyClass is required");
+            }
+            if (recordClass == null) {
+                throw new IllegalArgumentException("recordClass is required");
+            }
+
+            return new ShardedVectorStoreRecordCollectionOptions<>(keyClass, recordClass,
+                recordDefinition, objectMapper, shardTimeout, higherScoreBetter);
+        }
+    }
+}
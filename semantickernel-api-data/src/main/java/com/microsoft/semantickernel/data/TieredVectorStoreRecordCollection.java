@@ -0,0 +1,572 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.filter.EqualToFilterClause;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.UpsertRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A vector store record collection that keeps a recently used or pinned subset of the records of
+ * a persistent collection in a {@link VolatileVectorStoreRecordCollection} in front of it.
+ * <p>
+ * The persistent (cold) collection is always the source of truth: writes go through to it before
+ * the hot tier is refreshed. Reads are served from the hot tier when possible and fall through to
+ * the cold tier otherwise, promoting the records that were read. Searches are served from the
+ * hot tier when it returns a full page of results that all reach the configured
+ * {@link TieredVectorStoreRecordCollectionOptions#getHotTierScoreThreshold() score threshold}.
+ * Otherwise the hot tier results reaching the threshold are followed by the results of the cold
+ * tier, which are promoted in the background. The results of the two tiers are not merged by
+ * score, because stores compute scores differently.
+ *
+ * @param <Record> The type of record in the collection.
+ */
+public class TieredVectorStoreRecordCollection<Record> implements
+    VectorStoreRecordCollection<String, Record> {
+
+    private static final GetRecordOptions INCLUDE_VECTORS = new GetRecordOptions(true);
+
+    private final VectorStoreRecordCollection<String, Record> coldCollection;
+    private final VolatileVectorStoreRecordCollection<Record> hotCollection;
+    private final Map<String, Map<String, ?>> hotCollections;
+    private final TieredVectorStoreRecordCollectionOptions<Record> options;
+    private final VectorStoreRecordDefinition recordDefinition;
+    private final ObjectMapper objectMapper;
+
+    // Unpinned keys resident in the hot tier, in access order
+    @GuardedBy("recentKeys")
+    private final LinkedHashMap<String, Boolean> recentKeys;
+    private final Set<String> pinnedKeys;
+
+    /**
+     * Creates a new instance of the tiered vector store record collection.
+     *
+     * @param coldCollection The persistent collection backing the hot tier.
+     * @param options        The options for the collection.
+     */
+    public TieredVectorStoreRecordCollection(
+        @Nonnull VectorStoreRecordCollection<String, Record> coldCollection,
+        @Nonnull TieredVectorStoreRecordCollectionOptions<Record> options) {
+        this.coldCollection = Objects.requireNonNull(coldCollection, "coldCollection is required");
+        this.options = Objects.requireNonNull(options, "options is required");
+
+        VectorStoreRecordDefinition recordDefinition = options.getRecordDefinition() != null
+            ? options.getRecordDefinition()
+            : VectorStoreRecordDefinition.fromRecordClass(options.getRecordClass());
+
+        if (options.getObjectMapper() == null) {
+            this.objectMapper = new ObjectMapper();
+            this.recordDefinition = recordDefinition;
+        } else {
+            // The records are read as the custom object mapper serializes them
+            this.objectMapper = options.getObjectMapper();
+            this.recordDefinition = recordDefinition.withoutFieldAccessors();
+        }
+
+        // The hot tier is private to this collection and always exists
+        this.hotCollections = new ConcurrentHashMap<>();
+        this.hotCollections.put(coldCollection.getCollectionName(), new ConcurrentHashMap<>());
+        this.hotCollection = new VolatileVectorStoreRecordCollection<>(
+            coldCollection.getCollectionName(),
+            hotCollections,
+            new ConcurrentHashMap<>(),
+            VolatileVectorStoreRecordCollectionOptions.<Record>builder()
+                .withRecordClass(options.getRecordClass())
+                .withRecordDefinition(recordDefinition)
+                .withObjectMapper(options.getObjectMapper())
+                .build());
+
+        this.recentKeys = new LinkedHashMap<>(16, 0.75f, true);
+        this.pinnedKeys = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Gets the name of the collection.
+     *
+     * @return The name of the collection.
+     */
+    @Override
+    public String getCollectionName() {
+        return coldCollection.getCollectionName();
+    }
+
+    /**
+     * Checks if the collection exists in the cold tier.
+     *
+     * @return A Mono emitting a boolean indicating if the collection exists.
+     */
+    @Override
+    public Mono<Boolean> collectionExistsAsync() {
+        return coldCollection.collectionExistsAsync();
+    }
+
+    /**
+     * Creates the collection in the cold tier.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionAsync() {
+        return coldCollection.createCollectionAsync().thenReturn(this);
+    }
+
+    /**
+     * Creates the collection in the cold tier if it does not exist.
+     *
+     * @return A Mono representing the completion of the creation operation.
+     */
+    @Override
+    public Mono<VectorStoreRecordCollection<String, Record>> createCollectionIfNotExistsAsync() {
+        return coldCollection.createCollectionIfNotExistsAsync().thenReturn(this);
+    }
+
+    /**
+     * Deletes the collection from the cold tier and clears the hot tier.
+     *
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteCollectionAsync() {
+        return coldCollection.deleteCollectionAsync()
+            .then(Mono.fromRunnable(this::clearHotTier));
+    }
+
+    /**
+     * Gets a record, from the hot tier if it is resident and from the cold tier otherwise.
+     * Records read from the cold tier are promoted to the hot tier and include their vectors.
+     *
+     * @param key     The key of the record to get.
+     * @param options The options for getting the record.
+     * @return A Mono emitting the record.
+     */
+    @Override
+    public Mono<Record> getAsync(String key, GetRecordOptions options) {
+        if (options != null && options.isWildcardKeyMatching()) {
+            return coldCollection.getAsync(key, options);
+        }
+
+        return hotCollection.getAsync(key, options)
+            .doOnNext(record -> touch(Collections.singletonList(key)))
+            .switchIfEmpty(Mono.defer(() -> coldCollection.getAsync(key, INCLUDE_VECTORS)
+                .flatMap(record -> promoteAsync(Collections.singletonList(record))
+                    .thenReturn(record))));
+    }
+
+    /**
+     * Gets a batch of records. Only the records that are not resident in the hot tier are read
+     * from the cold tier; these are promoted to the hot tier and include their vectors.
+     *
+     * @param keys    The keys of the records to get.
+     * @param options The options for getting the records.
+     * @return A Mono emitting a list of the records found, in the order of the keys.
+     */
+    @Override
+    public Mono<List<Record>> getBatchAsync(List<String> keys, GetRecordOptions options) {
+        if (options != null && options.isWildcardKeyMatching()) {
+            return coldCollection.getBatchAsync(keys, options);
+        }
+
+        return hotCollection.getBatchAsync(keys, options).flatMap(hotRecords -> {
+            Map<String, Record> found = new HashMap<>();
+            List<String> misses = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (hotRecords.get(i) == null) {
+                    misses.add(keys.get(i));
+                } else {
+                    found.put(keys.get(i), hotRecords.get(i));
+                }
+            }
+            touch(found.keySet());
+
+            Mono<List<Record>> coldRecords = misses.isEmpty()
+                ? Mono.just(Collections.emptyList())
+                : coldCollection.getBatchAsync(misses, INCLUDE_VECTORS)
+                    .flatMap(records -> promoteAsync(records).thenReturn(records));
+
+            return coldRecords.map(records -> {
+                records.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(record -> found.put(getKey(record), record));
+                return keys.stream()
+                    .map(found::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            });
+        });
+    }
+
+    /**
+     * Inserts or updates a record in the cold tier, then refreshes it in the hot tier if it is
+     * resident.
+     *
+     * @param data    The record to upsert.
+     * @param options The options for upserting the record.
+     * @return A Mono emitting the key of the upserted record.
+     */
+    @Override
+    public Mono<String> upsertAsync(Record data, UpsertRecordOptions options) {
+        return coldCollection.upsertAsync(data, options)
+            .flatMap(key -> refreshAsync(Collections.singletonList(data)).thenReturn(key));
+    }
+
+    /**
+     * Inserts or updates a batch of records in the cold tier, then refreshes the resident ones in
+     * the hot tier. Writes do not admit new records to the hot tier, so bulk loads do not evict
+     * the working set.
+     *
+     * @param data    The records to upsert.
+     * @param options The options for upserting the records.
+     * @return A Mono emitting a list of keys of the upserted records.
+     */
+    @Override
+    public Mono<List<String>> upsertBatchAsync(List<Record> data, UpsertRecordOptions options) {
+        return coldCollection.upsertBatchAsync(data, options)
+            .flatMap(keys -> refreshAsync(data).thenReturn(keys));
+    }
+
+    /**
+     * Deletes a record from both tiers.
+     *
+     * @param key     The key of the record to delete.
+     * @param options The options for deleting the record.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteAsync(String key, DeleteRecordOptions options) {
+        return deleteBatchAsync(Collections.singletonList(key), options);
+    }
+
+    /**
+     * Deletes a batch of records from both tiers.
+     *
+     * @param keys    The keys of the records to delete.
+     * @param options The options for deleting the records.
+     * @return A Mono representing the completion of the deletion operation.
+     */
+    @Override
+    public Mono<Void> deleteBatchAsync(List<String> keys, DeleteRecordOptions options) {
+        return coldCollection.deleteBatchAsync(keys, options)
+            .then(Mono.defer(() -> {
+                synchronized (recentKeys) {
+                    keys.forEach(recentKeys::remove);
+                }
+                keys.forEach(pinnedKeys::remove);
+                return hotCollection.deleteBatchAsync(keys, options);
+            }));
+    }
+
+    /**
+     * Pins records to the hot tier. Pinned records are loaded from the cold tier if they are not
+     * resident, and are never evicted until they are unpinned or deleted.
+     *
+     * @param keys The keys of the records to pin.
+     * @return A Mono representing the completion of the pin operation.
+     */
+    public Mono<Void> pinAsync(List<String> keys) {
+        return coldCollection.getBatchAsync(keys, INCLUDE_VECTORS)
+            .flatMap(records -> {
+                List<Record> found = records.stream()
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+                List<String> foundKeys = found.stream()
+                    .map(this::getKey)
+                    .collect(Collectors.toList());
+
+                synchronized (recentKeys) {
+                    foundKeys.forEach(recentKeys::remove);
+                }
+                pinnedKeys.addAll(foundKeys);
+                return hotCollection.upsertBatchAsync(found, null);
+            })
+            .then();
+    }
+
+    /**
+     * Unpins records. Unpinned records that are still resident become subject to eviction.
+     *
+     * @param keys The keys of the records to unpin.
+     * @return A Mono representing the completion of the unpin operation.
+     */
+    public Mono<Void> unpinAsync(List<String> keys) {
+        return Mono.defer(() -> {
+            List<String> unpinned = keys.stream()
+                .filter(pinnedKeys::remove)
+                .collect(Collectors.toList());
+            return evictAsync(admit(unpinned));
+        });
+    }
+
+    /**
+     * Vectorized search. The hot tier results reaching the configured score threshold come
+     * first. When they fill the requested page, the search is served from the hot tier alone;
+     * otherwise the page is completed with the results of the cold tier, in their own order.
+     *
+     * @param vector  The vector to search with.
+     * @param options The options to use for the search.
+     * @return A list of search results.
+     */
+    @Override
+    public Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        if (!canSearchHotTier(options)) {
+            return searchColdTierAsync(vector, options);
+        }
+
+        VectorSearchOptions firstPageOptions = getFirstPageOptions(options);
+        int skip = options == null ? 0 : options.getSkip();
+        int top = options == null ? VectorSearchOptions.DEFAULT_TOP : options.getTop();
+        return hotCollection.searchAsync(vector, firstPageOptions)
+            .flatMap(hotResults -> {
+                List<VectorSearchResult<Record>> qualifying = getQualifyingResults(
+                    hotResults, options);
+                List<String> hotKeys = qualifying.stream()
+                    .map(this::getResultKey)
+                    .collect(Collectors.toList());
+                touch(hotKeys);
+                if (qualifying.size() >= skip + top) {
+                    return Mono.just(getPage(qualifying, skip, top));
+                }
+
+                // Scores of different stores are not comparable, so the results of the cold
+                // tier follow the hot tier results instead of being merged with them
+                return searchColdTierAsync(vector, firstPageOptions)
+                    .map(coldResults -> {
+                        Set<String> seen = new HashSet<>(hotKeys);
+                        List<VectorSearchResult<Record>> results = new ArrayList<>(qualifying);
+                        for (VectorSearchResult<Record> result : coldResults.getResults()) {
+                            if (seen.add(getResultKey(result))) {
+                                results.add(result);
+                            }
+                        }
+                        return getPage(results, skip, top);
+                    });
+            });
+    }
+
+    private static <Record> VectorSearchResults<Record> getPage(
+        List<VectorSearchResult<Record>> results, int skip, int top) {
+        return new VectorSearchResults<>(results.stream()
+            .skip(skip)
+            .limit(top)
+            .collect(Collectors.toList()));
+    }
+
+    // The options of a search returning the results up to the requested page
+    @Nullable
+    private static VectorSearchOptions getFirstPageOptions(@Nullable VectorSearchOptions options) {
+        if (options == null || options.getSkip() == 0) {
+            return options;
+        }
+        return VectorSearchOptions.builder()
+            .withVectorSearchFilter(options.getVectorSearchFilter())
+            .withVectorFieldName(options.getVectorFieldName())
+            .withTop(options.getSkip() + options.getTop())
+            .withIncludeVectors(options.isIncludeVectors())
+            .withIncludeTotalCount(options.isIncludeTotalCount())
+            .withScoreThreshold(options.getScoreThreshold())
+            .withKeysOnly(options.isKeysOnly())
+            .withNprobe(options.getNprobe())
+            .build();
+    }
+
+    private Mono<VectorSearchResults<Record>> searchColdTierAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        return coldCollection.searchAsync(vector, options)
+            .doOnNext(results -> promoteInBackground(results, options));
+    }
+
+    // Promotes the results of a cold tier search without delaying the search. Promotion is best
+    // effort: a failure only leaves the records out of the hot tier.
+    private void promoteInBackground(VectorSearchResults<Record> results,
+        @Nullable VectorSearchOptions options) {
+        if (results.getResults().isEmpty() || this.options.getHotTierCapacity() == 0) {
+            return;
+        }
+
+        // Search results only carry the vectors needed by the hot tier when requested
+        Mono<List<Record>> promotable = options != null && options.isIncludeVectors()
+            && !options.isKeysOnly()
+                ? Mono.just(results.getResults().stream()
+                    .map(VectorSearchResult::getRecord)
+                    .collect(Collectors.toList()))
+                : coldCollection.getBatchAsync(
+                    results.getResults().stream()
+                        .map(this::getResultKey)
+                        .collect(Collectors.toList()),
+                    INCLUDE_VECTORS);
+
+        promotable
+            .flatMap(this::promoteAsync)
+            .onErrorResume(e -> Mono.empty())
+            .subscribe();
+    }
+
+    private boolean canSearchHotTier(VectorSearchOptions options) {
+        if (options == null) {
+            return true;
+        }
+        // The hot tier does not know the total count of the collection
+        if (options.isIncludeTotalCount()) {
+            return false;
+        }
+        // The volatile collection only supports equality filters
+        return options.getVectorSearchFilter() == null
+            || options.getVectorSearchFilter().getFilterClauses().stream()
+                .allMatch(clause -> clause instanceof EqualToFilterClause);
+    }
+
+    // The leading hot tier results reaching the score threshold
+    private List<VectorSearchResult<Record>> getQualifyingResults(
+        VectorSearchResults<Record> hotResults, @Nullable VectorSearchOptions options) {
+        double threshold = this.options.getHotTierScoreThreshold();
+        boolean higherIsBetter = VectorOperations
+            .isHigherScoreBetter(getDistanceFunction(options));
+        List<VectorSearchResult<Record>> qualifying = new ArrayList<>();
+        for (VectorSearchResult<Record> result : hotResults.getResults()) {
+            if (higherIsBetter ? result.getScore() < threshold : result.getScore() > threshold) {
+                break;
+            }
+            qualifying.add(result);
+        }
+        return qualifying;
+    }
+
+    private DistanceFunction getDistanceFunction(VectorSearchOptions options) {
+        if (recordDefinition.getVectorFields().isEmpty()) {
+            throw new SKException("No vector fields defined. Cannot perform vector search");
+        }
+
+        VectorStoreRecordVectorField vectorField = options == null
+            || options.getVectorFieldName() == null
+                ? recordDefinition.getVectorFields().get(0)
+                : (VectorStoreRecordVectorField) recordDefinition
+                    .getField(options.getVectorFieldName());
+
+        return vectorField.getDistanceFunction() == DistanceFunction.UNDEFINED
+            ? DistanceFunction.EUCLIDEAN_DISTANCE
+            : vectorField.getDistanceFunction();
+    }
+
+    private Mono<Void> promoteAsync(List<Record> records) {
+        if (records.isEmpty() || options.getHotTierCapacity() == 0) {
+            return Mono.empty();
+        }
+
+        return hotCollection.upsertBatchAsync(records, null)
+            .flatMap(keys -> evictAsync(admit(keys.stream()
+                .filter(key -> !pinnedKeys.contains(key))
+                .collect(Collectors.toList()))));
+    }
+
+    private Mono<Void> refreshAsync(List<Record> records) {
+        return Mono.defer(() -> {
+            List<Record> resident = records.stream()
+                .filter(record -> isResident(getKey(record)))
+                .collect(Collectors.toList());
+            if (resident.isEmpty()) {
+                return Mono.empty();
+            }
+            return hotCollection.upsertBatchAsync(resident, null).then();
+        });
+    }
+
+    private boolean isResident(String key) {
+        if (pinnedKeys.contains(key)) {
+            return true;
+        }
+        synchronized (recentKeys) {
+            return recentKeys.containsKey(key);
+        }
+    }
+
+    private void touch(Collection<String> keys) {
+        synchronized (recentKeys) {
+            keys.forEach(recentKeys::get);
+        }
+    }
+
+    /**
+     * Marks the keys as most recently used and returns the keys evicted to stay within capacity.
+     */
+    private List<String> admit(Collection<String> keys) {
+        List<String> evicted = new ArrayList<>();
+        synchronized (recentKeys) {
+            keys.forEach(key -> recentKeys.put(key, Boolean.TRUE));
+
+            Iterator<String> iterator = recentKeys.keySet().iterator();
+            while (recentKeys.size() > options.getHotTierCapacity() && iterator.hasNext()) {
+                evicted.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        return evicted;
+    }
+
+    private Mono<Void> evictAsync(List<String> keys) {
+        if (keys.isEmpty()) {
+            return Mono.empty();
+        }
+        return hotCollection.deleteBatchAsync(keys, null);
+    }
+
+    private void clearHotTier() {
+        synchronized (recentKeys) {
+            recentKeys.clear();
+        }
+        pinnedKeys.clear();
+        hotCollections.put(coldCollection.getCollectionName(), new ConcurrentHashMap<>());
+    }
+
+    private String getResultKey(VectorSearchResult<Record> result) {
+        // Searches returning keys only do not carry the records
+        if (result.getKey() != null) {
+            return result.getKey().toString();
+        }
+        return getKey(result.getRecord());
+    }
+
+    private String getKey(Record record) {
+        if (recordDefinition.hasFieldAccessors()) {
+            return String.valueOf(recordDefinition
+                .getFieldAccessor(recordDefinition.getKeyField().getName()).get(record));
+        }
+        try {
+            JsonNode node = objectMapper.valueToTree(record);
+            return node.get(recordDefinition.getKeyField().getEffectiveStorageName()).asText();
+        } catch (Exception e) {
+            throw new SKException(
+                "Failure to serialize object. Ensure your model object can be serialized by Jackson, i.e the class is visible, has getters, constructor, annotations etc.",
+                e);
+        }
+    }
+}
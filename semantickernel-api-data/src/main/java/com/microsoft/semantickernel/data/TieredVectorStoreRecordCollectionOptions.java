@@ -0,0 +1,224 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Represents the options for a tiered vector store record collection.
+ *
+ * @param <Record> the record type
+ */
+public class TieredVectorStoreRecordCollectionOptions<Record>
+    implements VectorStoreRecordCollectionOptions<String, Record> {
+
+    /**
+     * The default maximum number of unpinned records kept in the hot tier.
+     */
+    public static final int DEFAULT_HOT_TIER_CAPACITY = 10_000;
+
+    private final Class<Record> recordClass;
+    @Nullable
+    private final VectorStoreRecordDefinition recordDefinition;
+    @Nullable
+    private final ObjectMapper objectMapper;
+    private final int hotTierCapacity;
+    private final double hotTierScoreThreshold;
+
+    /**
+     * Creates a new instance of the tiered vector store record collection options.
+     *
+     * @param recordClass           The record class.
+     * @param recordDefinition      The record definition.
+     * @param objectMapper          An instance of Jackson ObjectMapper.
+     * @param hotTierCapacity       The maximum number of unpinned records kept in the hot tier.
+     * @param hotTierScoreThreshold The score a hot tier result must reach to be returned without
+     *                              searching the cold tier.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public TieredVectorStoreRecordCollectionOptions(@Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition,
+        @Nullable ObjectMapper objectMapper,
+        int hotTierCapacity,
+        double hotTierScoreThreshold) {
+        this.recordClass = recordClass;
+        this.recordDefinition = recordDefinition;
+        this.objectMapper = objectMapper;
+        this.hotTierCapacity = hotTierCapacity;
+        this.hotTierScoreThreshold = hotTierScoreThreshold;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <Record> the record type
+     * @return the builder
+     */
+    public static <Record> Builder<Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the key class.
+     *
+     * @return the key class
+     */
+    @Override
+    public Class<String> getKeyClass() {
+        return String.class;
+    }
+
+    /**
+     * Gets the record class.
+     *
+     * @return the record class
+     */
+    @Override
+    public Class<Record> getRecordClass() {
+        return recordClass;
+    }
+
+    /**
+     * Gets the record definition.
+     *
+     * @return the record definition
+     */
+    @Override
+    @Nullable
+    public VectorStoreRecordDefinition getRecordDefinition() {
+        return recordDefinition;
+    }
+
+    /**
+     * Gets the object mapper.
+     *
+     * @return the object mapper
+     */
+    @Nullable
+    ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    /**
+     * Gets the maximum number of unpinned records kept in the hot tier.
+     *
+     * @return the hot tier capacity
+     */
+    public int getHotTierCapacity() {
+        return hotTierCapacity;
+    }
+
+    /**
+     * Gets the score a hot tier result must reach to be returned without searching the cold
+     * tier. Whether a higher or lower score is better depends on the distance function of the
+     * searched vector field.
+     *
+     * @return the hot tier score threshold
+     */
+    public double getHotTierScoreThreshold() {
+        return hotTierScoreThreshold;
+    }
+
+    /**
+     * Builder for tiered vector store record collection options.
+     *
+     * @param <Record> the record type
+     */
+    public static class Builder<Record> {
+        @Nullable
+        private Class<Record> recordClass;
+        @Nullable
+        private VectorStoreRecordDefinition recordDefinition;
+        @Nullable
+        private ObjectMapper objectMapper;
+        private int hotTierCapacity = DEFAULT_HOT_TIER_CAPACITY;
+        @Nullable
+        private Double hotTierScoreThreshold;
+
+        /**
+         * Sets the record class.
+         *
+         * @param recordClass the record class
+         * @return the builder
+         */
+        public Builder<Record> withRecordClass(Class<Record> recordClass) {
+            this.recordClass = recordClass;
+            return this;
+        }
+
+        /**
+         * Sets the record definition.
+         *
+         * @param recordDefinition the record definition
+         * @return the builder
+         */
+        public Builder<Record> withRecordDefinition(VectorStoreRecordDefinition recordDefinition) {
+            this.recordDefinition = recordDefinition;
+            return this;
+        }
+
+        /**
+         * Sets the object mapper.
+         *
+         * @param objectMapper the object mapper
+         * @return the builder
+         */
+        @SuppressFBWarnings("EI_EXPOSE_REP2")
+        public Builder<Record> withObjectMapper(ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of unpinned records kept in the hot tier.
+         * The least recently used records are evicted once the capacity is exceeded.
+         *
+         * @param hotTierCapacity the hot tier capacity
+         * @return the builder
+         */
+        public Builder<Record> withHotTierCapacity(int hotTierCapacity) {
+            this.hotTierCapacity = hotTierCapacity;
+            return this;
+        }
+
+        /**
+         * Sets the score a hot tier result must reach to be returned without searching the cold
+         * tier. A search is served from the hot tier alone when its whole page reaches the
+         * threshold; otherwise the hot tier results reaching it are followed by the results of
+         * the cold tier. Required, because the scores of the hot tier only tell whether its
+         * results are good enough against an absolute threshold.
+         *
+         * @param hotTierScoreThreshold the hot tier score threshold
+         * @return the builder
+         */
+        public Builder<Record> withHotTierScoreThreshold(double hotTierScoreThreshold) {
+            this.hotTierScoreThreshold = hotTierScoreThreshold;
+            return this;
+        }
+
+        /**
+         * Builds the options.
+         *
+         * @return the options
+         */
+        public TieredVectorStoreRecordCollectionOptions<Record> build() {
+            if (recordClass == null) {
+                throw new IllegalArgumentException("recordClass is required");
+            }
+            if (hotTierCapacity < 0) {
+                throw new IllegalArgumentException("hotTierCapacity must not be negative");
+            }
+            if (hotTierScoreThreshold == null) {
+                throw new IllegalArgumentException("hotTierScoreThreshold is required");
+            }
+
+            return new TieredVectorStoreRecordCollectionOptions<>(recordClass, recordDefinition,
+                objectMapper, hotTierCapacity, hotTierScoreThreshold);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The indexes of a collection of a volatile vector store.
+ * <p>
+ * The indexes are kept next to the records of the collection, so that every collection instance
+ * of the same name reads and updates the same indexes. They are created from the record
+ * definition and options of the first instance using them.
+ */
+final class VolatileCollectionIndexes {
+
+    // IVFFLAT indexes, by vector field name
+    private final Map<String, VolatileIvfFlatIndex> ivfFlatIndexes;
+    // Product quantized indexes, by vector field name
+    private final Map<String, VolatilePqIndex> pqIndexes;
+    // Unit vectors of the cosine fields normalized on ingest, by vector field name
+    private final Map<String, VolatileNormalizedIndex> normalizedIndexes;
+
+    /**
+     * Creates the empty indexes of a collection.
+     *
+     * @param recordDefinition The record definition of the collection.
+     * @param options          The options of the collection.
+     */
+    VolatileCollectionIndexes(VectorStoreRecordDefinition recordDefinition,
+        VolatileVectorStoreRecordCollectionOptions<?> options) {
+        Map<String, VolatileIvfFlatIndex> ivfFlatIndexes = new HashMap<>();
+        Map<String, VolatilePqIndex> pqIndexes = new HashMap<>();
+        Map<String, VolatileNormalizedIndex> normalizedIndexes = new HashMap<>();
+        for (VectorStoreRecordVectorField vectorField : recordDefinition.getVectorFields()) {
+            if (vectorField.getIndexKind() == IndexKind.IVFFLAT) {
+                ivfFlatIndexes.put(vectorField.getName(),
+                    new VolatileIvfFlatIndex(getDistanceFunction(vectorField)));
+            } else if (VectorOperations.isNormalizedOnIngest(vectorField)) {
+                normalizedIndexes.put(vectorField.getName(),
+                    new VolatileNormalizedIndex(vectorField));
+            } else if (options.getPqSubspaceCount() > 0) {
+                pqIndexes.put(vectorField.getName(),
+                    new VolatilePqIndex(getDistanceFunction(vectorField),
+                        options.getPqSubspaceCount()));
+            }
+        }
+        this.ivfFlatIndexes = Collections.unmodifiableMap(ivfFlatIndexes);
+        this.pqIndexes = Collections.unmodifiableMap(pqIndexes);
+        this.normalizedIndexes = Collections.unmodifiableMap(normalizedIndexes);
+    }
+
+    /**
+     * Gets the distance function of a vector field, which defaults to the euclidean distance.
+     *
+     * @param vectorField The vector field.
+     * @return The distance function.
+     */
+    static DistanceFunction getDistanceFunction(VectorStoreRecordVectorField vectorField) {
+        return vectorField.getDistanceFunction() == DistanceFunction.UNDEFINED
+            ? DistanceFunction.EUCLIDEAN_DISTANCE
+            : vectorField.getDistanceFunction();
+    }
+
+    /**
+     * Gets the {@link IndexKind#IVFFLAT} indexes.
+     *
+     * @return The indexes, by vector field name.
+     */
+    Map<String, VolatileIvfFlatIndex> getIvfFlatIndexes() {
+        return ivfFlatIndexes;
+    }
+
+    /**
+     * Gets the product quantized indexes.
+     *
+     * @return The indexes, by vector field name.
+     */
+    Map<String, VolatilePqIndex> getPqIndexes() {
+        return pqIndexes;
+    }
+
+    /**
+     * Gets the unit vectors of the cosine fields normalized on ingest.
+     *
+     * @return The indexes, by vector field name.
+     */
+    Map<String, VolatileNormalizedIndex> getNormalizedIndexes() {
+        return normalizedIndexes;
+    }
+}
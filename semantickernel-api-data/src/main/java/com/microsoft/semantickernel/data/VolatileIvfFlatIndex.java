@@ -0,0 +1,517 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * An inverted file (IVF-flat) index over the vectors of a volatile collection.
+ * <p>
+ * The vectors are partitioned into lists by k-means clustering. Each list keeps the keys and the
+ * full vectors of its records in primitive arrays. A search only scores the vectors of the
+ * {@code nprobe} lists whose centroids are closest to the query, trading recall for speed.
+ * <p>
+ * Training runs the k-means iterations on all available cores. Records added after training
+ * are assigned to the list of their closest centroid, without moving the centroids.
+ */
+final class VolatileIvfFlatIndex {
+
+    // Number of k-means iterations of a training
+    private static final int TRAINING_ITERATIONS = 10;
+    // Number of vectors per list sampled to train the centroids
+    private static final int TRAINING_SAMPLES_PER_LIST = 256;
+    private static final long TRAINING_SEED = 42;
+
+    private final DistanceFunction distanceFunction;
+    private final boolean higherScoreBetter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object trainingLock = new Object();
+
+    @GuardedBy("lock")
+    @Nullable
+    private float[][] centroids;
+    @GuardedBy("lock")
+    private InvertedList[] lists = new InvertedList[0];
+    // The list holding each key
+    @GuardedBy("lock")
+    private final Map<String, Integer> keyLists = new HashMap<>();
+    // Updates received while a training is running, replayed on the new lists
+    @GuardedBy("lock")
+    @Nullable
+    private List<Update> pendingUpdates;
+
+    /**
+     * Creates a new, untrained index.
+     *
+     * @param distanceFunction The distance function of the vector field.
+     */
+    VolatileIvfFlatIndex(DistanceFunction distanceFunction) {
+        this.distanceFunction = distanceFunction;
+        this.higherScoreBetter = VectorOperations.isHigherScoreBetter(distanceFunction);
+    }
+
+    /**
+     * Checks whether the index is trained, that is whether it can be searched.
+     *
+     * @return {@code true} if the index is trained.
+     */
+    boolean isTrained() {
+        lock.readLock().lock();
+        try {
+            return centroids != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Trains the centroids on the given vectors and rebuilds all the lists. The index can be
+     * searched during the training, with its previous lists.
+     *
+     * @param keys      The keys of the records.
+     * @param vectors   The vectors of the records, in the order of the keys.
+     * @param listCount The number of lists, or 0 to use the square root of the number of vectors.
+     */
+    void train(List<String> keys, List<float[]> vectors, int listCount) {
+        synchronized (trainingLock) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            float[][] newCentroids = null;
+            InvertedList[] newLists = new InvertedList[0];
+            Map<String, Integer> newKeyLists = new HashMap<>();
+            boolean built = false;
+            try {
+                if (!vectors.isEmpty()) {
+                    int dimensions = vectors.get(0).length;
+                    float[][] data = vectors.toArray(new float[0][]);
+                    for (float[] vector : data) {
+                        checkDimensions(vector, dimensions);
+                    }
+
+                    int k = listCount > 0 ? listCount : (int) Math.round(Math.sqrt(data.length));
+                    newCentroids = trainCentroids(data, Math.max(1, Math.min(k, data.length)));
+
+                    float[][] centroidsForAssignment = newCentroids;
+                    int[] assignments = IntStream.range(0, data.length).parallel()
+                        .map(i -> closestCentroid(centroidsForAssignment, data[i]))
+                        .toArray();
+
+                    int[] sizes = new int[newCentroids.length];
+                    for (int assignment : assignments) {
+                        sizes[assignment]++;
+                    }
+                    newLists = new InvertedList[newCentroids.length];
+                    for (int i = 0; i < newLists.length; i++) {
+                        newLists[i] = new InvertedList(dimensions, sizes[i]);
+                    }
+                    for (int i = 0; i < data.length; i++) {
+                        String key = keys.get(i);
+                        Integer previous = newKeyLists.put(key, assignments[i]);
+                        if (previous != null) {
+                            newLists[previous].remove(key);
+                        }
+                        newLists[assignments[i]].add(key, data[i]);
+                    }
+                }
+                built = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    List<Update> updates = pendingUpdates;
+                    pendingUpdates = null;
+                    // Without vectors to train on, the index is left untrained
+                    if (built) {
+                        centroids = newCentroids;
+                        lists = newLists;
+                        keyLists.clear();
+                        keyLists.putAll(newKeyLists);
+                        if (newCentroids != null) {
+                            for (Update update : updates) {
+                                if (update.vector == null) {
+                                    removeLocked(update.key);
+                                } else {
+                                    addLocked(update.key, update.vector);
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the vector of a record, in the list of its closest centroid. Until the
+     * index is trained, the vector is ignored.
+     *
+     * @param key    The key of the record.
+     * @param vector The vector of the record.
+     */
+    void add(String key, float[] vector) {
+        lock.writeLock().lock();
+        try {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(new Update(key, vector));
+            }
+            if (centroids != null) {
+                addLocked(key, vector);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the vector of a record.
+     *
+     * @param key The key of the record.
+     */
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(new Update(key, null));
+            }
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all the vectors and the centroids, leaving the index untrained.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            centroids = null;
+            lists = new InvertedList[0];
+            keyLists.clear();
+            if (pendingUpdates != null) {
+                pendingUpdates.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches the lists of the {@code nprobe} centroids closest to the query.
+     *
+     * @param query          The query vector.
+     * @param nprobe         The number of lists to search.
+     * @param limit          The maximum number of results.
+     * @param scoreThreshold The worst score a result may have, or null.
+     * @param filter         The filter the keys of the results must match.
+     * @return The keys and scores of the best results, best first.
+     */
+    List<ScoredKey> search(float[] query, int nprobe, int limit, @Nullable Double scoreThreshold,
+        Predicate<String> filter) {
+        Comparator<ScoredKey> comparator = Comparator.comparingDouble(ScoredKey::getScore);
+        if (higherScoreBetter) {
+            comparator = comparator.reversed();
+        }
+
+        // Bounded heap holding the best results, with the worst one at its head
+        PriorityQueue<ScoredKey> heap = new PriorityQueue<>(limit + 1, comparator.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (centroids == null || centroids.length == 0) {
+                return new ArrayList<>();
+            }
+            checkDimensions(query, centroids[0].length);
+
+            for (int list : closestCentroids(query, Math.min(nprobe, centroids.length))) {
+                InvertedList invertedList = lists[list];
+                for (int i = 0; i < invertedList.size; i++) {
+                    double score = score(query, invertedList.vectors, i * query.length);
+                    if (scoreThreshold != null && !isAtLeast(score, scoreThreshold)) {
+                        continue;
+                    }
+                    // The filter is only evaluated for results that would enter the heap
+                    if (heap.size() == limit && !isBetter(score, heap.peek().getScore())) {
+                        continue;
+                    }
+                    String key = invertedList.keys[i];
+                    if (!filter.test(key)) {
+                        continue;
+                    }
+
+                    heap.add(new ScoredKey(key, score));
+                    if (heap.size() > limit) {
+                        heap.poll();
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return heap.stream().sorted(comparator).collect(Collectors.toList());
+    }
+
+    @GuardedBy("lock")
+    private void addLocked(String key, float[] vector) {
+        checkDimensions(vector, centroids[0].length);
+        removeLocked(key);
+
+        int list = closestCentroid(centroids, vector);
+        lists[list].add(key, vector);
+        keyLists.put(key, list);
+    }
+
+    @GuardedBy("lock")
+    private void removeLocked(String key) {
+        Integer list = keyLists.remove(key);
+        if (list != null) {
+            lists[list].remove(key);
+        }
+    }
+
+    private float[][] trainCentroids(float[][] data, int k) {
+        int dimensions = data[0].length;
+        Random random = new Random(TRAINING_SEED);
+
+        // Train on a sample of the vectors, starting from k distinct sampled vectors
+        int[] indexes = IntStream.range(0, data.length).toArray();
+        int sampleSize = (int) Math.min(data.length, (long) k * TRAINING_SAMPLES_PER_LIST);
+        for (int i = 0; i < sampleSize; i++) {
+            int j = i + random.nextInt(data.length - i);
+            int swap = indexes[i];
+            indexes[i] = indexes[j];
+            indexes[j] = swap;
+        }
+        float[][] sample = new float[sampleSize][];
+        for (int i = 0; i < sampleSize; i++) {
+            sample[i] = data[indexes[i]];
+        }
+
+        float[][] trained = new float[k][];
+        for (int i = 0; i < k; i++) {
+            trained[i] = sample[i].clone();
+        }
+
+        int[] assignments = new int[sampleSize];
+        Arrays.fill(assignments, -1);
+        for (int iteration = 0; iteration < TRAINING_ITERATIONS; iteration++) {
+            float[][] current = trained;
+            int[] next = IntStream.range(0, sampleSize).parallel()
+                .map(i -> closestCentroid(current, sample[i]))
+                .toArray();
+            if (Arrays.equals(next, assignments)) {
+                break;
+            }
+            assignments = next;
+
+            double[][] sums = new double[k][dimensions];
+            int[] counts = new int[k];
+            for (int i = 0; i < sampleSize; i++) {
+                counts[assignments[i]]++;
+                for (int d = 0; d < dimensions; d++) {
+                    sums[assignments[i]][d] += sample[i][d];
+                }
+            }
+
+            float[][] updated = new float[k][];
+            for (int c = 0; c < k; c++) {
+                if (counts[c] == 0) {
+                    // An empty list keeps its centroid
+                    updated[c] = trained[c];
+                    continue;
+                }
+                updated[c] = new float[dimensions];
+                for (int d = 0; d < dimensions; d++) {
+                    updated[c][d] = (float) (sums[c][d] / counts[c]);
+                }
+            }
+            trained = updated;
+        }
+        return trained;
+    }
+
+    private int closestCentroid(float[][] centroids, float[] vector) {
+        int best = 0;
+        double bestScore = score(vector, centroids[0], 0);
+        for (int c = 1; c < centroids.length; c++) {
+            double score = score(vector, centroids[c], 0);
+            if (isBetter(score, bestScore)) {
+                best = c;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    @GuardedBy("lock")
+    private int[] closestCentroids(float[] query, int count) {
+        double[] scores = new double[centroids.length];
+        Integer[] order = new Integer[centroids.length];
+        for (int c = 0; c < centroids.length; c++) {
+            scores[c] = score(query, centroids[c], 0);
+            order[c] = c;
+        }
+        Arrays.sort(order, (a, b) -> higherScoreBetter
+            ? Double.compare(scores[b], scores[a])
+            : Double.compare(scores[a], scores[b]));
+        return Arrays.stream(order).limit(count).mapToInt(Integer::intValue).toArray();
+    }
+
+    private boolean isBetter(double score, double other) {
+        return higherScoreBetter ? score > other : score < other;
+    }
+
+    private boolean isAtLeast(double score, double threshold) {
+        return higherScoreBetter ? score >= threshold : score <= threshold;
+    }
+
+    // Scores the query against the vector starting at the offset, as VectorOperations does
+    private double score(float[] query, float[] vectors, int offset) {
+        switch (distanceFunction) {
+            case EUCLIDEAN_DISTANCE: {
+                float sum = 0;
+                for (int i = 0; i < query.length; i++) {
+                    float difference = query[i] - vectors[offset + i];
+                    sum += difference * difference;
+                }
+                return Math.sqrt(sum);
+            }
+            case DOT_PRODUCT: {
+                float dot = 0;
+                for (int i = 0; i < query.length; i++) {
+                    dot += query[i] * vectors[offset + i];
+                }
+                return dot;
+            }
+            case COSINE_SIMILARITY:
+            case COSINE_DISTANCE: {
+                float dot = 0;
+                float normQuery = 0;
+                float normVector = 0;
+                for (int i = 0; i < query.length; i++) {
+                    dot += query[i] * vectors[offset + i];
+                    normQuery += query[i] * query[i];
+                    normVector += vectors[offset + i] * vectors[offset + i];
+                }
+                // A zero vector, such as the mean of opposite vectors, is not similar to anything
+                double similarity = normQuery == 0 || normVector == 0
+                    ? 0
+                    : dot / (float) (Math.sqrt(normQuery) * Math.sqrt(normVector));
+                return distanceFunction == DistanceFunction.COSINE_SIMILARITY
+                    ? similarity
+                    : 1.0 - similarity;
+            }
+            default:
+                throw new SKException("Unsupported distance function");
+        }
+    }
+
+    private static void checkDimensions(float[] vector, int dimensions) {
+        if (vector.length != dimensions) {
+            throw new SKException("Vectors lengths must be equal");
+        }
+    }
+
+    /**
+     * The key of a record found by a search, with its score.
+     */
+    static final class ScoredKey {
+
+        private final String key;
+        private final double score;
+
+        ScoredKey(String key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        double getScore() {
+            return score;
+        }
+    }
+
+    /**
+     * An update received during a training, a removal when the vector is null.
+     */
+    private static final class Update {
+
+        private final String key;
+        @Nullable
+        private final float[] vector;
+
+        private Update(String key, @Nullable float[] vector) {
+            this.key = key;
+            this.vector = vector;
+        }
+    }
+
+    /**
+     * The keys and vectors of the records assigned to a centroid. The vectors are stored one
+     * after the other in a single array.
+     */
+    private static final class InvertedList {
+
+        private final int dimensions;
+        private String[] keys;
+        private float[] vectors;
+        private int size;
+
+        private InvertedList(int dimensions, int capacity) {
+            this.dimensions = dimensions;
+            this.keys = new String[Math.max(1, capacity)];
+            this.vectors = new float[Math.max(1, capacity) * dimensions];
+        }
+
+        private void add(String key, float[] vector) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, keys.length * 2);
+                vectors = Arrays.copyOf(vectors, keys.length * dimensions);
+            }
+            keys[size] = key;
+            System.arraycopy(vector, 0, vectors, size * dimensions, dimensions);
+            size++;
+        }
+
+        // Moves the last entry into the place of the removed one
+        private void remove(String key) {
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    size--;
+                    keys[i] = keys[size];
+                    keys[size] = null;
+                    System.arraycopy(vectors, size * dimensions, vectors, i * dimensions,
+                        dimensions);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,153 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+
+/**
+ * The unit vectors of a cosine vector field of a volatile collection normalized on ingest.
+ * <p>
+ * Vectors are normalized once when records are added, and the query once per search, so that a
+ * search scores each record with a single dot product instead of computing both norms.
+ */
+final class VolatileNormalizedIndex {
+
+    private final VectorStoreRecordVectorField vectorField;
+    private final boolean similarity;
+    private final Map<String, float[]> vectors = new ConcurrentHashMap<>();
+    private volatile boolean trained;
+
+    /**
+     * Creates a new, empty index.
+     *
+     * @param vectorField The vector field, normalized on ingest.
+     */
+    VolatileNormalizedIndex(VectorStoreRecordVectorField vectorField) {
+        this.vectorField = vectorField;
+        this.similarity = vectorField.getDistanceFunction() == DistanceFunction.COSINE_SIMILARITY;
+    }
+
+    /**
+     * Checks whether the index holds the records written before it was created, that is whether
+     * it can be searched.
+     *
+     * @return {@code true} if the index is trained.
+     */
+    boolean isTrained() {
+        return trained;
+    }
+
+    /**
+     * Adds the vectors of the records of the collection. Vectors added since the index was
+     * created are kept.
+     *
+     * @param keys    The keys of the records.
+     * @param vectors The vectors of the records, in the order of the keys.
+     */
+    void train(List<String> keys, List<float[]> vectors) {
+        for (int i = 0; i < keys.size(); i++) {
+            this.vectors.putIfAbsent(keys.get(i),
+                VectorOperations.normalizeOnIngest(vectorField, vectors.get(i)));
+        }
+        trained = true;
+    }
+
+    /**
+     * Adds or replaces the vector of a record.
+     *
+     * @param key    The key of the record.
+     * @param vector The vector of the record.
+     */
+    void add(String key, float[] vector) {
+        vectors.put(key, VectorOperations.normalizeOnIngest(vectorField, vector));
+    }
+
+    /**
+     * Removes the vector of a record.
+     *
+     * @param key The key of the record.
+     */
+    void remove(String key) {
+        vectors.remove(key);
+    }
+
+    /**
+     * Removes all the vectors, leaving the index untrained.
+     */
+    void clear() {
+        trained = false;
+        vectors.clear();
+    }
+
+    /**
+     * Scores all the vectors for the records closest to the query.
+     *
+     * @param query          The query vector.
+     * @param limit          The maximum number of results.
+     * @param scoreThreshold The worst score a result may have, or null.
+     * @param filter         The filter the keys of the results must match.
+     * @return The keys and scores of the best results, best first.
+     */
+    List<VolatileIvfFlatIndex.ScoredKey> search(float[] query, int limit,
+        @Nullable Double scoreThreshold, Predicate<String> filter) {
+        float[] normalizedQuery = VectorOperations.normalizeOnIngest(vectorField, query);
+
+        Comparator<VolatileIvfFlatIndex.ScoredKey> comparator = Comparator
+            .comparingDouble(VolatileIvfFlatIndex.ScoredKey::getScore);
+        if (similarity) {
+            comparator = comparator.reversed();
+        }
+
+        // Bounded heap holding the best results, with the worst one at its head
+        PriorityQueue<VolatileIvfFlatIndex.ScoredKey> heap = new PriorityQueue<>(limit + 1,
+            comparator.reversed());
+
+        for (Map.Entry<String, float[]> entry : vectors.entrySet()) {
+            float[] vector = entry.getValue();
+            if (vector.length != normalizedQuery.length) {
+                throw new SKException("Vectors lengths must be equal");
+            }
+            float dot = 0;
+            for (int i = 0; i < vector.length; i++) {
+                dot += normalizedQuery[i] * vector[i];
+            }
+            double score = similarity ? dot : 1.0 - dot;
+            if (scoreThreshold != null && !isAtLeast(score, scoreThreshold)) {
+                continue;
+            }
+            // The filter is only evaluated for results that would enter the heap
+            if (heap.size() == limit && !isBetter(score, heap.peek().getScore())) {
+                continue;
+            }
+            if (!filter.test(entry.getKey())) {
+                continue;
+            }
+
+            heap.add(new VolatileIvfFlatIndex.ScoredKey(entry.getKey(), score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+
+        return heap.stream().sorted(comparator).collect(Collectors.toList());
+    }
+
+    private boolean isBetter(double score, double other) {
+        return similarity ? score > other : score < other;
+    }
+
+    private boolean isAtLeast(double score, double threshold) {
+        return similarity ? score >= threshold : score <= threshold;
+    }
+}
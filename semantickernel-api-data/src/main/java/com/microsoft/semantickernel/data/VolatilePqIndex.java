@@ -0,0 +1,379 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import com.microsoft.semantickernel.data.vectorsearch.ProductQuantizer;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A product quantized index over the vectors of a volatile collection.
+ * <p>
+ * The vectors are compressed by a {@link ProductQuantizer} to one byte per subspace, kept in a
+ * single array. A search scans all the codes, scoring each one with the lookup table of the
+ * query, so it reads a fraction of the memory of an exact search. The index only holds the codes:
+ * the scores are approximate, and the collection rescores the best candidates exactly from the
+ * vectors of its records, which is also where a score threshold is applied.
+ * <p>
+ * Cosine vectors are normalized before they are quantized, so that cosine similarity is an inner
+ * product. Records added after training are encoded with the trained quantizer.
+ */
+final class VolatilePqIndex {
+
+    // Maximum number of vectors sampled to train the quantizer
+    private static final int TRAINING_SAMPLE_SIZE = 10_000;
+    private static final long TRAINING_SEED = 42;
+
+    private final DistanceFunction distanceFunction;
+    private final boolean higherScoreBetter;
+    private final boolean innerProduct;
+    private final int subspaceCount;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object trainingLock = new Object();
+
+    @GuardedBy("lock")
+    @Nullable
+    private ProductQuantizer quantizer;
+    @GuardedBy("lock")
+    private String[] keys = new String[0];
+    // Codes of the records, one after the other, in the order of the keys
+    @GuardedBy("lock")
+    private byte[] codes = new byte[0];
+    @GuardedBy("lock")
+    private int size;
+    // The position of each key
+    @GuardedBy("lock")
+    private final Map<String, Integer> positions = new HashMap<>();
+    // Updates received while a training is running, replayed after the training
+    @GuardedBy("lock")
+    @Nullable
+    private List<Update> pendingUpdates;
+
+    /**
+     * Creates a new, untrained index.
+     *
+     * @param distanceFunction The distance function of the vector field.
+     * @param subspaceCount    The number of subspaces of the quantizer.
+     */
+    VolatilePqIndex(DistanceFunction distanceFunction, int subspaceCount) {
+        this.distanceFunction = distanceFunction;
+        this.higherScoreBetter = VectorOperations.isHigherScoreBetter(distanceFunction);
+        this.innerProduct = distanceFunction != DistanceFunction.EUCLIDEAN_DISTANCE;
+        this.subspaceCount = subspaceCount;
+    }
+
+    /**
+     * Checks whether the index is trained, that is whether it can be searched.
+     *
+     * @return {@code true} if the index is trained.
+     */
+    boolean isTrained() {
+        lock.readLock().lock();
+        try {
+            return quantizer != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Trains the quantizer on a sample of the given vectors and encodes all of them. The index can
+     * be searched during the training, with its previous codes.
+     *
+     * @param keys    The keys of the records.
+     * @param vectors The vectors of the records, in the order of the keys.
+     */
+    void train(List<String> keys, List<float[]> vectors) {
+        synchronized (trainingLock) {
+            lock.writeLock().lock();
+            try {
+                pendingUpdates = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            ProductQuantizer newQuantizer = null;
+            String[] newKeys = new String[0];
+            byte[] newCodes = new byte[0];
+            Map<String, Integer> newPositions = new HashMap<>();
+            boolean built = false;
+            try {
+                if (!vectors.isEmpty()) {
+                    float[][] data = new float[vectors.size()][];
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = prepare(vectors.get(i));
+                    }
+                    newQuantizer = ProductQuantizer.train(sample(data), subspaceCount);
+
+                    int codeSize = newQuantizer.getCodeSize();
+                    newKeys = new String[data.length];
+                    newCodes = new byte[data.length * codeSize];
+                    int count = 0;
+                    for (int i = 0; i < data.length; i++) {
+                        Integer position = newPositions.get(keys.get(i));
+                        if (position == null) {
+                            position = count++;
+                            newPositions.put(keys.get(i), position);
+                            newKeys[position] = keys.get(i);
+                        }
+                        newQuantizer.encode(data[i], newCodes, position * codeSize);
+                    }
+                }
+                built = true;
+            } finally {
+                lock.writeLock().lock();
+                try {
+                    List<Update> updates = pendingUpdates;
+                    pendingUpdates = null;
+                    // Without vectors to train on, the index is left untrained
+                    if (built) {
+                        quantizer = newQuantizer;
+                        this.keys = newKeys;
+                        codes = newCodes;
+                        size = newPositions.size();
+                        positions.clear();
+                        positions.putAll(newPositions);
+                        if (newQuantizer != null) {
+                            for (Update update : updates) {
+                                if (update.vector == null) {
+                                    removeLocked(update.key);
+                                } else {
+                                    addLocked(update.key, update.vector);
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds or replaces the vector of a record. Until the index is trained, the vector is
+     * ignored.
+     *
+     * @param key    The key of the record.
+     * @param vector The vector of the record.
+     */
+    void add(String key, float[] vector) {
+        float[] prepared = prepare(vector);
+        lock.writeLock().lock();
+        try {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(new Update(key, prepared));
+            }
+            if (quantizer != null) {
+                addLocked(key, prepared);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the vector of a record.
+     *
+     * @param key The key of the record.
+     */
+    void remove(String key) {
+        lock.writeLock().lock();
+        try {
+            if (pendingUpdates != null) {
+                pendingUpdates.add(new Update(key, null));
+            }
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all the vectors and the quantizer, leaving the index untrained.
+     */
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            quantizer = null;
+            keys = new String[0];
+            codes = new byte[0];
+            size = 0;
+            positions.clear();
+            if (pendingUpdates != null) {
+                pendingUpdates.clear();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Scans all the codes for the records closest to the query, by approximate score.
+     *
+     * @param query  The query vector.
+     * @param limit  The maximum number of results.
+     * @param filter The filter the keys of the results must match.
+     * @return The keys and approximate scores of the best results, best first.
+     */
+    List<VolatileIvfFlatIndex.ScoredKey> search(float[] query, int limit,
+        Predicate<String> filter) {
+        Comparator<VolatileIvfFlatIndex.ScoredKey> comparator = Comparator
+            .comparingDouble(VolatileIvfFlatIndex.ScoredKey::getScore);
+        if (higherScoreBetter) {
+            comparator = comparator.reversed();
+        }
+
+        // Bounded heap holding the best results, with the worst one at its head
+        PriorityQueue<VolatileIvfFlatIndex.ScoredKey> heap = new PriorityQueue<>(limit + 1,
+            comparator.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (quantizer == null) {
+                return new ArrayList<>();
+            }
+            float[] table = quantizer.getDistanceTable(prepare(query), innerProduct);
+            int codeSize = quantizer.getCodeSize();
+
+            for (int i = 0; i < size; i++) {
+                double score = toScore(quantizer.getDistance(table, codes, i * codeSize));
+                // The filter is only evaluated for results that would enter the heap
+                if (heap.size() == limit && !isBetter(score, heap.peek().getScore())) {
+                    continue;
+                }
+                if (!filter.test(keys[i])) {
+                    continue;
+                }
+
+                heap.add(new VolatileIvfFlatIndex.ScoredKey(keys[i], score));
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return heap.stream().sorted(comparator).collect(Collectors.toList());
+    }
+
+    @GuardedBy("lock")
+    private void addLocked(String key, float[] vector) {
+        int codeSize = quantizer.getCodeSize();
+        Integer position = positions.get(key);
+        if (position == null) {
+            if (size == keys.length) {
+                int capacity = Math.max(16, keys.length * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                codes = Arrays.copyOf(codes, capacity * codeSize);
+            }
+            position = size++;
+            keys[position] = key;
+            positions.put(key, position);
+        }
+        quantizer.encode(vector, codes, position * codeSize);
+    }
+
+    // Moves the last entry into the place of the removed one
+    @GuardedBy("lock")
+    private void removeLocked(String key) {
+        Integer position = positions.remove(key);
+        if (position == null) {
+            return;
+        }
+        size--;
+        if (position != size) {
+            int codeSize = quantizer.getCodeSize();
+            keys[position] = keys[size];
+            positions.put(keys[position], position);
+            System.arraycopy(codes, size * codeSize, codes, position * codeSize, codeSize);
+        }
+        keys[size] = null;
+    }
+
+    private static float[][] sample(float[][] data) {
+        if (data.length <= TRAINING_SAMPLE_SIZE) {
+            return data;
+        }
+        Random random = new Random(TRAINING_SEED);
+        float[][] shuffled = data.clone();
+        for (int i = 0; i < TRAINING_SAMPLE_SIZE; i++) {
+            int j = i + random.nextInt(shuffled.length - i);
+            float[] swap = shuffled[i];
+            shuffled[i] = shuffled[j];
+            shuffled[j] = swap;
+        }
+        return Arrays.copyOf(shuffled, TRAINING_SAMPLE_SIZE);
+    }
+
+    // Normalizes cosine vectors, so that cosine similarity is an inner product
+    private float[] prepare(float[] vector) {
+        if (distanceFunction != DistanceFunction.COSINE_SIMILARITY
+            && distanceFunction != DistanceFunction.COSINE_DISTANCE) {
+            return vector;
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        // A zero vector is not similar to anything
+        if (norm == 0) {
+            return vector;
+        }
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = (float) (vector[i] / Math.sqrt(norm));
+        }
+        return normalized;
+    }
+
+    // Converts a distance of the quantizer to the score of the distance function
+    private double toScore(float distance) {
+        switch (distanceFunction) {
+            case EUCLIDEAN_DISTANCE:
+                return Math.sqrt(Math.max(0, distance));
+            case DOT_PRODUCT:
+            case COSINE_SIMILARITY:
+                return -distance;
+            case COSINE_DISTANCE:
+                return 1.0 + distance;
+            default:
+                throw new SKException("Unsupported distance function");
+        }
+    }
+
+    private boolean isBetter(double score, double other) {
+        return higherScoreBetter ? score > other : score < other;
+    }
+
+    /**
+     * An update received during a training, a removal when the vector is null.
+     */
+    private static final class Update {
+
+        private final String key;
+        @Nullable
+        private final float[] vector;
+
+        private Update(String key, @Nullable float[] vector) {
+            this.key = key;
+            this.vector = vector;
+        }
+    }
+}
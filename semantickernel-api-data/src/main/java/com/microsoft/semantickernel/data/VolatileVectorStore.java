@@ -21,12 +21,14 @@ import reactor.core.publisher.Mono;
 public class VolatileVectorStore implements VectorStore {
 
     private final Map<String, Map<String, ?>> collections;
+    private final Map<String, VolatileCollectionIndexes> collectionIndexes;
 
     /**
      * Creates a new instance of the volatile vector store.
      */
     public VolatileVectorStore() {
         this.collections = new ConcurrentHashMap<>();
+        this.collectionIndexes = new ConcurrentHashMap<>();
     }
 
     /**
@@ -50,6 +52,7 @@ public class VolatileVectorStore implements VectorStore {
         return (VectorStoreRecordCollection<Key, Record>) new VolatileVectorStoreRecordCollection<>(
             collectionName,
             collections,
+            collectionIndexes,
             (VolatileVectorStoreRecordCollectionOptions<Record>) options);
     }
 
@@ -12,6 +12,7 @@ import com.microsoft.semantickernel.exceptions.SKException;
 
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 
 /**
  * Provides methods to filter records based on a {@link VectorSearchFilter}.
@@ -19,7 +20,9 @@ import java.util.stream.Collectors;
 public class VolatileVectorStoreCollectionSearchMapping {
 
     /**
-     * Filters the records based on the given {@link VectorSearchFilter}.
+     * Filters the records based on the given {@link VectorSearchFilter}. When the record
+     * definition has field accessors, the values are read directly from the records, else the
+     * records are serialized.
      *
      * @param records The records to filter.
      * @param filter The filter to apply.
@@ -35,27 +38,49 @@ public class VolatileVectorStoreCollectionSearchMapping {
             return records;
         }
 
-        return records.stream().filter(
-            record -> {
-                JsonNode recordNode = objectMapper.valueToTree(record);
-
-                for (FilterClause filterClause : filter.getFilterClauses()) {
-                    if (filterClause instanceof EqualToFilterClause) {
-                        EqualToFilterClause equalToFilterClause = (EqualToFilterClause) filterClause;
-                        VectorStoreRecordField field = recordDefinition
-                            .getField(equalToFilterClause.getFieldName());
-
-                        Object value = objectMapper.convertValue(
-                            recordNode.get(field.getEffectiveStorageName()), field.getFieldType());
-                        if (!equalToFilterClause.getValue().equals(value)) {
-                            return false;
-                        }
-                    } else {
-                        throw new SKException(String.format("Unsupported filter clause type '%s'.",
-                            filterClause.getClass().getSimpleName()));
-                    }
+        return records.stream()
+            .filter(record -> matches(record, filter, recordDefinition, objectMapper))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a record matches the given {@link VectorSearchFilter}.
+     *
+     * @param record The record.
+     * @param filter The filter to apply, or null.
+     * @param recordDefinition The record definition.
+     * @param objectMapper The object mapper.
+     * @param <Record> The record type.
+     * @return {@code true} if the record matches the filter.
+     */
+    static <Record> boolean matches(Record record, @Nullable VectorSearchFilter filter,
+        VectorStoreRecordDefinition recordDefinition, ObjectMapper objectMapper) {
+        if (filter == null || filter.getFilterClauses().isEmpty()) {
+            return true;
+        }
+
+        JsonNode recordNode = recordDefinition.hasFieldAccessors() ? null
+            : objectMapper.valueToTree(record);
+
+        for (FilterClause filterClause : filter.getFilterClauses()) {
+            if (filterClause instanceof EqualToFilterClause) {
+                EqualToFilterClause equalToFilterClause = (EqualToFilterClause) filterClause;
+                VectorStoreRecordField field = recordDefinition
+                    .getField(equalToFilterClause.getFieldName());
+
+                Object value = recordNode == null
+                    ? recordDefinition.getFieldAccessor(field.getName()).get(record)
+                    : objectMapper.convertValue(
+                        recordNode.get(field.getEffectiveStorageName()),
+                        field.getFieldType());
+                if (!equalToFilterClause.getValue().equals(value)) {
+                    return false;
                 }
-                return true;
-            }).collect(Collectors.toList());
+            } else {
+                throw new SKException(String.format("Unsupported filter clause type '%s'.",
+                    filterClause.getClass().getSimpleName()));
+            }
+        }
+        return true;
     }
 }
@@ -1,13 +1,17 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
 import com.microsoft.semantickernel.data.vectorstorage.options.DeleteRecordOptions;
@@ -17,19 +21,40 @@ import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptio
 import com.microsoft.semantickernel.exceptions.SKException;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
 
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 /**
  * Represents a volatile vector store record collection.
+ * <p>
+ * Vector fields with an {@link IndexKind#IVFFLAT} index kind are searched through an inverted
+ * file index, trained on the records of the collection at the first search or when
+ * {@link #rebuildIndexesAsync()} is called. Records upserted afterwards are added to the trained
+ * index. Like the records, the indexes are shared by the instances of a collection of a
+ * {@link VolatileVectorStore}, so that records written through one instance are found through
+ * the others.
+ * <p>
+ * When {@link VolatileVectorStoreRecordCollectionOptions#getPqSubspaceCount()} is set, the other
+ * vector fields are searched through product quantized vectors, scored with the lookup table of
+ * the query, and the best candidates are optionally rescored exactly. The product quantizers are
+ * trained like the inverted file indexes. As the records keep their vectors, the codes are held
+ * in addition to them: product quantization speeds up the search at the cost of exactness, and
+ * does not reduce the memory used by the collection.
+ * <p>
+ * Other cosine vector fields normalized on ingest keep unit copies of their vectors, so that an
+ * exact search scores each record with a single dot product. Product quantization does not apply
+ * to them.
  *
  * @param <Record> The type of record in the collection.
  */
@@ -38,7 +63,11 @@ public class VolatileVectorStoreRecordCollection<Record> implements
 
     private static final HashSet<Class<?>> supportedKeyTypes = new HashSet<>(
         Collections.singletonList(String.class));
+    // Shared by the collections without a custom object mapper
+    private static final ObjectMapper DEFAULT_OBJECT_MAPPER = new ObjectMapper();
     private Map<String, Map<String, ?>> collections;
+    // Indexes of the collections, by collection name
+    private Map<String, VolatileCollectionIndexes> collectionIndexes;
     private final String collectionName;
     private final VolatileVectorStoreRecordCollectionOptions<Record> options;
     private final VectorStoreRecordDefinition recordDefinition;
@@ -55,18 +84,19 @@ public class VolatileVectorStoreRecordCollection<Record> implements
         this.collectionName = collectionName;
         this.options = options;
         this.collections = new ConcurrentHashMap<>();
+        this.collectionIndexes = new ConcurrentHashMap<>();
 
-        if (options.getRecordDefinition() != null) {
-            this.recordDefinition = options.getRecordDefinition();
-        } else {
-            this.recordDefinition = VectorStoreRecordDefinition
-                .fromRecordClass(this.options.getRecordClass());
-        }
+        VectorStoreRecordDefinition recordDefinition = options.getRecordDefinition() != null
+            ? options.getRecordDefinition()
+            : VectorStoreRecordDefinition.fromRecordClass(this.options.getRecordClass());
 
         if (options.getObjectMapper() == null) {
-            this.objectMapper = new ObjectMapper();
+            this.objectMapper = DEFAULT_OBJECT_MAPPER;
+            this.recordDefinition = recordDefinition;
         } else {
+            // The records are read as the custom object mapper serializes them
             this.objectMapper = options.getObjectMapper();
+            this.recordDefinition = recordDefinition.withoutFieldAccessors();
         }
 
         // Validate the key type
@@ -77,9 +107,11 @@ public class VolatileVectorStoreRecordCollection<Record> implements
 
     VolatileVectorStoreRecordCollection(String collectionName,
         Map<String, Map<String, ?>> collections,
+        Map<String, VolatileCollectionIndexes> collectionIndexes,
         VolatileVectorStoreRecordCollectionOptions<Record> options) {
         this(collectionName, options);
         this.collections = collections;
+        this.collectionIndexes = collectionIndexes;
     }
 
     /**
@@ -109,8 +141,10 @@ public class VolatileVectorStoreRecordCollection<Record> implements
      */
     @Override
     public Mono<VectorStoreRecordCollection<String, Record>> createCollectionAsync() {
-        return Mono.fromRunnable(() -> collections.put(collectionName, new ConcurrentHashMap<>()))
-            .then(Mono.just(this));
+        return Mono.fromRunnable(() -> {
+            collections.put(collectionName, new ConcurrentHashMap<>());
+            collectionIndexes.remove(collectionName);
+        }).then(Mono.just(this));
     }
 
     /**
@@ -132,7 +166,10 @@ public class VolatileVectorStoreRecordCollection<Record> implements
      */
     @Override
     public Mono<Void> deleteCollectionAsync() {
-        return Mono.fromRunnable(() -> collections.remove(collectionName));
+        return Mono.fromRunnable(() -> {
+            collections.remove(collectionName);
+            collectionIndexes.remove(collectionName);
+        });
     }
 
     /**
@@ -173,11 +210,11 @@ public class VolatileVectorStoreRecordCollection<Record> implements
     public Mono<String> upsertAsync(Record data, UpsertRecordOptions options) {
         return Mono.fromCallable(() -> {
             try {
-                ObjectNode objectNode = objectMapper.valueToTree(data);
-                String key = objectNode
-                    .get(recordDefinition.getKeyField().getEffectiveStorageName()).asText();
+                ObjectNode objectNode = toObjectNode(data);
+                String key = getKey(data, objectNode);
 
                 getCollection().put(key, data);
+                indexRecord(key, data, objectNode);
                 return key;
             } catch (Exception e) {
                 throw new SKException(
@@ -200,11 +237,11 @@ public class VolatileVectorStoreRecordCollection<Record> implements
             Map<String, Record> collection = getCollection();
             return data.stream().map(record -> {
                 try {
-                    ObjectNode objectNode = objectMapper.valueToTree(record);
-                    String key = objectNode
-                        .get(recordDefinition.getKeyField().getEffectiveStorageName()).asText();
+                    ObjectNode objectNode = toObjectNode(record);
+                    String key = getKey(record, objectNode);
 
                     collection.put(key, record);
+                    indexRecord(key, record, objectNode);
                     return key;
                 } catch (Exception e) {
                     throw new SKException(
@@ -224,7 +261,10 @@ public class VolatileVectorStoreRecordCollection<Record> implements
      */
     @Override
     public Mono<Void> deleteAsync(String key, DeleteRecordOptions options) {
-        return Mono.fromRunnable(() -> getCollection().remove(key));
+        return Mono.fromRunnable(() -> {
+            getCollection().remove(key);
+            removeFromIndexes(key);
+        });
     }
 
     /**
@@ -238,10 +278,29 @@ public class VolatileVectorStoreRecordCollection<Record> implements
     public Mono<Void> deleteBatchAsync(List<String> strings, DeleteRecordOptions options) {
         return Mono.fromRunnable(() -> {
             Map<String, Record> collection = getCollection();
-            strings.forEach(collection::remove);
+            strings.forEach(key -> {
+                collection.remove(key);
+                removeFromIndexes(key);
+            });
         });
     }
 
+    /**
+     * Trains the {@link IndexKind#IVFFLAT} indexes and the product quantizers of the collection
+     * on its current records and rebuilds their lists and codes, for example after a bulk load.
+     * The indexes can still be searched during the rebuild.
+     *
+     * @return A Mono representing the completion of the rebuild.
+     */
+    public Mono<Void> rebuildIndexesAsync() {
+        return Mono.<Void>fromRunnable(() -> {
+            Set<String> fieldNames = new HashSet<>(getIndexes().getIvfFlatIndexes().keySet());
+            fieldNames.addAll(getIndexes().getPqIndexes().keySet());
+            fieldNames.addAll(getIndexes().getNormalizedIndexes().keySet());
+            trainIndexes(fieldNames);
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
     private Map<String, Record> getCollection() {
         if (!collections.containsKey(collectionName)) {
             throw new IllegalStateException(
@@ -250,6 +309,265 @@ public class VolatileVectorStoreRecordCollection<Record> implements
         return (Map<String, Record>) collections.get(collectionName);
     }
 
+    // The indexes are created by the first instance using them, once the collection is created
+    private VolatileCollectionIndexes getIndexes() {
+        return collectionIndexes.computeIfAbsent(collectionName,
+            name -> new VolatileCollectionIndexes(recordDefinition, options));
+    }
+
+    private static DistanceFunction getDistanceFunction(VectorStoreRecordVectorField vectorField) {
+        return VolatileCollectionIndexes.getDistanceFunction(vectorField);
+    }
+
+    // Serializes a record, unless its fields can be read through the field accessors
+    @Nullable
+    private ObjectNode toObjectNode(Record record) {
+        return recordDefinition.hasFieldAccessors() ? null : objectMapper.valueToTree(record);
+    }
+
+    private String getKey(Record record, @Nullable ObjectNode objectNode) {
+        if (objectNode == null) {
+            return String.valueOf(recordDefinition
+                .getFieldAccessor(recordDefinition.getKeyField().getName()).get(record));
+        }
+        return objectNode.get(recordDefinition.getKeyField().getEffectiveStorageName()).asText();
+    }
+
+    private void indexRecord(String key, Record record, @Nullable ObjectNode objectNode) {
+        getIndexes().getIvfFlatIndexes().forEach((fieldName, index) -> {
+            float[] vector = getVector(record, objectNode, fieldName);
+            if (vector != null) {
+                index.add(key, vector);
+            } else {
+                index.remove(key);
+            }
+        });
+        getIndexes().getPqIndexes().forEach((fieldName, index) -> {
+            float[] vector = getVector(record, objectNode, fieldName);
+            if (vector != null) {
+                index.add(key, vector);
+            } else {
+                index.remove(key);
+            }
+        });
+        getIndexes().getNormalizedIndexes().forEach((fieldName, index) -> {
+            float[] vector = getVector(record, objectNode, fieldName);
+            if (vector != null) {
+                index.add(key, vector);
+            } else {
+                index.remove(key);
+            }
+        });
+    }
+
+    @Nullable
+    private float[] getVector(Record record, @Nullable ObjectNode objectNode, String fieldName) {
+        if (objectNode != null) {
+            JsonNode vector = objectNode
+                .get(recordDefinition.getField(fieldName).getEffectiveStorageName());
+            return vector instanceof ArrayNode && vector.size() > 0
+                ? arrayNodeToFloatArray((ArrayNode) vector)
+                : null;
+        }
+
+        Object vector = recordDefinition.getFieldAccessor(fieldName).get(record);
+        if (vector instanceof float[]) {
+            // Copied, as the indexes keep the vectors
+            return ((float[]) vector).length > 0 ? ((float[]) vector).clone() : null;
+        }
+        if (vector instanceof List) {
+            List<?> list = (List<?>) vector;
+            if (list.isEmpty()) {
+                return null;
+            }
+            float[] array = new float[list.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = ((Number) list.get(i)).floatValue();
+            }
+            return array;
+        }
+        if (vector == null) {
+            return null;
+        }
+        // Other representations are converted as they would be serialized
+        JsonNode node = objectMapper.valueToTree(vector);
+        return node instanceof ArrayNode && node.size() > 0
+            ? arrayNodeToFloatArray((ArrayNode) node)
+            : null;
+    }
+
+    private void removeFromIndexes(String key) {
+        getIndexes().getIvfFlatIndexes().values().forEach(index -> index.remove(key));
+        getIndexes().getPqIndexes().values().forEach(index -> index.remove(key));
+        getIndexes().getNormalizedIndexes().values().forEach(index -> index.remove(key));
+    }
+
+    private void trainIndexes(Collection<String> fieldNames) {
+        List<Map.Entry<String, Record>> entries = new ArrayList<>(getCollection().entrySet());
+        // Records without field accessors are serialized once for all the indexes
+        List<ObjectNode> objectNodes = entries.parallelStream()
+            .map(entry -> toObjectNode(entry.getValue()))
+            .collect(Collectors.toList());
+
+        for (String fieldName : fieldNames) {
+            List<String> keys = new ArrayList<>();
+            List<float[]> vectors = new ArrayList<>();
+            for (int i = 0; i < entries.size(); i++) {
+                float[] vector = getVector(entries.get(i).getValue(), objectNodes.get(i),
+                    fieldName);
+                if (vector != null) {
+                    keys.add(entries.get(i).getKey());
+                    vectors.add(vector);
+                }
+            }
+
+            VolatileIvfFlatIndex index = getIndexes().getIvfFlatIndexes().get(fieldName);
+            if (index != null) {
+                index.train(keys, vectors, options.getIvfListCount());
+            }
+            VolatilePqIndex pqIndex = getIndexes().getPqIndexes().get(fieldName);
+            if (pqIndex != null) {
+                pqIndex.train(keys, vectors);
+            }
+            VolatileNormalizedIndex normalizedIndex = getIndexes().getNormalizedIndexes()
+                .get(fieldName);
+            if (normalizedIndex != null) {
+                normalizedIndex.train(keys, vectors);
+            }
+        }
+    }
+
+    private List<VectorSearchResult<Record>> indexSearch(VolatileIvfFlatIndex index,
+        String fieldName, Map<String, Record> collection, List<Float> vector,
+        VectorSearchOptions options) {
+        if (!index.isTrained()) {
+            synchronized (index) {
+                if (!index.isTrained()) {
+                    trainIndexes(Collections.singletonList(fieldName));
+                }
+            }
+        }
+
+        float[] query = new float[vector.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = vector.get(i);
+        }
+        int nprobe = options.getNprobe() > 0 ? options.getNprobe() : this.options.getIvfNprobe();
+        VectorSearchFilter filter = options.getVectorSearchFilter();
+
+        List<VolatileIvfFlatIndex.ScoredKey> found = index.search(query, nprobe,
+            options.getSkip() + options.getTop(), options.getScoreThreshold(), key -> {
+                Record record = collection.get(key);
+                return record != null && VolatileVectorStoreCollectionSearchMapping
+                    .matches(record, filter, recordDefinition, objectMapper);
+            });
+
+        return toResults(found, collection, options);
+    }
+
+    private List<VectorSearchResult<Record>> pqSearch(VolatilePqIndex index,
+        VectorStoreRecordVectorField vectorField, Map<String, Record> collection,
+        List<Float> vector, VectorSearchOptions options) {
+        if (!index.isTrained()) {
+            synchronized (index) {
+                if (!index.isTrained()) {
+                    trainIndexes(Collections.singletonList(vectorField.getName()));
+                }
+            }
+        }
+
+        float[] query = new float[vector.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = vector.get(i);
+        }
+        VectorSearchFilter filter = options.getVectorSearchFilter();
+        int limit = options.getSkip() + options.getTop();
+        int rescoreFactor = this.options.getPqRescoreFactor();
+        // Approximate scores are not compared to a score threshold: the candidates are then
+        // rescored exactly, and the threshold applied to the exact scores
+        if (rescoreFactor == 0 && options.getScoreThreshold() != null) {
+            rescoreFactor = 1;
+        }
+
+        List<VolatileIvfFlatIndex.ScoredKey> found = index.search(query,
+            rescoreFactor > 0 ? limit * rescoreFactor : limit, key -> {
+                Record record = collection.get(key);
+                return record != null && VolatileVectorStoreCollectionSearchMapping
+                    .matches(record, filter, recordDefinition, objectMapper);
+            });
+        if (rescoreFactor == 0) {
+            return toResults(found, collection, options);
+        }
+
+        // The candidates are rescored from the vectors of the records, the index only holding
+        // their codes. The keys are carried with the candidates, for the searches only
+        // returning keys
+        List<String> keys = new ArrayList<>(found.size());
+        List<Record> candidates = new ArrayList<>(found.size());
+        for (VolatileIvfFlatIndex.ScoredKey scoredKey : found) {
+            Record record = collection.get(scoredKey.getKey());
+            if (record != null) {
+                keys.add(scoredKey.getKey());
+                candidates.add(record);
+            }
+        }
+        return VectorOperations.exactSimilaritySearch(candidates, keys, vector, vectorField,
+            getDistanceFunction(vectorField), options, recordDefinition);
+    }
+
+    private List<VectorSearchResult<Record>> normalizedSearch(VolatileNormalizedIndex index,
+        String fieldName, Map<String, Record> collection, List<Float> vector,
+        VectorSearchOptions options) {
+        if (!index.isTrained()) {
+            synchronized (index) {
+                if (!index.isTrained()) {
+                    trainIndexes(Collections.singletonList(fieldName));
+                }
+            }
+        }
+
+        float[] query = new float[vector.size()];
+        for (int i = 0; i < query.length; i++) {
+            query[i] = vector.get(i);
+        }
+        VectorSearchFilter filter = options.getVectorSearchFilter();
+
+        List<VolatileIvfFlatIndex.ScoredKey> found = index.search(query,
+            options.getSkip() + options.getTop(), options.getScoreThreshold(), key -> {
+                Record record = collection.get(key);
+                return record != null && VolatileVectorStoreCollectionSearchMapping
+                    .matches(record, filter, recordDefinition, objectMapper);
+            });
+
+        return toResults(found, collection, options);
+    }
+
+    private List<VectorSearchResult<Record>> toResults(
+        List<VolatileIvfFlatIndex.ScoredKey> found, Map<String, Record> collection,
+        VectorSearchOptions options) {
+        List<VectorSearchResult<Record>> results = new ArrayList<>();
+        for (VolatileIvfFlatIndex.ScoredKey scoredKey : found.subList(
+            Math.min(options.getSkip(), found.size()), found.size())) {
+            Record record = collection.get(scoredKey.getKey());
+            if (record == null) {
+                // Deleted since it was found
+                continue;
+            }
+            results.add(options.isKeysOnly()
+                ? new VectorSearchResult<>(null, scoredKey.getKey(), scoredKey.getScore())
+                : new VectorSearchResult<>(record, scoredKey.getScore()));
+        }
+        return results;
+    }
+
+    private static float[] arrayNodeToFloatArray(ArrayNode arrayNode) {
+        float[] vector = new float[arrayNode.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = arrayNode.get(i).floatValue();
+        }
+        return vector;
+    }
+
     private List<Float> arrayNodeToFloatList(ArrayNode arrayNode) {
         return Stream.iterate(0, i -> i + 1)
             .limit(arrayNode.size())
@@ -283,18 +601,42 @@ public class VolatileVectorStoreRecordCollection<Record> implements
                 : (VectorStoreRecordVectorField) recordDefinition
                     .getField(effectiveOptions.getVectorFieldName());
 
-            DistanceFunction distanceFunction = vectorField
-                .getDistanceFunction() == DistanceFunction.UNDEFINED
-                    ? DistanceFunction.EUCLIDEAN_DISTANCE
-                    : vectorField.getDistanceFunction();
+            DistanceFunction distanceFunction = getDistanceFunction(vectorField);
 
-            List<Record> records = VolatileVectorStoreCollectionSearchMapping.filterRecords(
-                new ArrayList<>(getCollection().values()), effectiveOptions.getVectorSearchFilter(),
-                recordDefinition, objectMapper);
+            Map<String, Record> collection = getCollection();
+            VolatileIvfFlatIndex index = getIndexes().getIvfFlatIndexes()
+                .get(vectorField.getName());
+            if (index != null) {
+                return new VectorSearchResults<>(indexSearch(index, vectorField.getName(),
+                    collection, vector, effectiveOptions));
+            }
+            VolatilePqIndex pqIndex = getIndexes().getPqIndexes().get(vectorField.getName());
+            if (pqIndex != null) {
+                return new VectorSearchResults<>(pqSearch(pqIndex, vectorField, collection,
+                    vector, effectiveOptions));
+            }
+            VolatileNormalizedIndex normalizedIndex = getIndexes().getNormalizedIndexes()
+                .get(vectorField.getName());
+            if (normalizedIndex != null) {
+                return new VectorSearchResults<>(normalizedSearch(normalizedIndex,
+                    vectorField.getName(), collection, vector, effectiveOptions));
+            }
+
+            // Records are stored by key, so the keys are carried without serializing the records
+            VectorSearchFilter filter = effectiveOptions.getVectorSearchFilter();
+            List<String> keys = new ArrayList<>();
+            List<Record> records = new ArrayList<>();
+            collection.forEach((key, record) -> {
+                if (VolatileVectorStoreCollectionSearchMapping.matches(record, filter,
+                    recordDefinition, objectMapper)) {
+                    keys.add(key);
+                    records.add(record);
+                }
+            });
 
-            return new VectorSearchResults<>(
-                VectorOperations.exactSimilaritySearch(records, vector, vectorField,
-                    distanceFunction, effectiveOptions));
+            return new VectorSearchResults<>(VectorOperations.exactSimilaritySearch(records,
+                keys, vector, vectorField, distanceFunction, effectiveOptions,
+                recordDefinition));
         }).subscribeOn(Schedulers.boundedElastic());
     }
 }
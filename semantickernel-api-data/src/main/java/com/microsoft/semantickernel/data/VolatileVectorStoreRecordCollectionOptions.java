@@ -4,6 +4,7 @@ package com.microsoft.semantickernel.data;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollectionOptions;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 import javax.annotation.Nonnull;
@@ -16,11 +17,21 @@ import javax.annotation.Nullable;
  */
 public class VolatileVectorStoreRecordCollectionOptions<Record>
     implements VectorStoreRecordCollectionOptions<String, Record> {
+
+    /**
+     * The default number of lists searched in an {@code IVFFLAT} index.
+     */
+    public static final int DEFAULT_IVF_NPROBE = 8;
+
     private final Class<Record> recordClass;
     @Nullable
     private final VectorStoreRecordDefinition recordDefinition;
     @Nullable
     private final ObjectMapper objectMapper;
+    private final int ivfListCount;
+    private final int ivfNprobe;
+    private final int pqSubspaceCount;
+    private final int pqRescoreFactor;
 
     /**
      * Creates a new instance of the Volatile vector store record collection options.
@@ -32,9 +43,53 @@ public class VolatileVectorStoreRecordCollectionOptions<Record>
     @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
     public VolatileVectorStoreRecordCollectionOptions(@Nonnull Class<Record> recordClass,
         @Nullable VectorStoreRecordDefinition recordDefinition, ObjectMapper objectMapper) {
+        this(recordClass, recordDefinition, objectMapper, 0, DEFAULT_IVF_NPROBE);
+    }
+
+    /**
+     * Creates a new instance of the Volatile vector store record collection options.
+     *
+     * @param recordClass The record class.
+     * @param recordDefinition The record definition.
+     * @param objectMapper An instanc of Jackson ObjectMapper.
+     * @param ivfListCount The number of lists of {@code IVFFLAT} indexes, or 0 to use the square
+     *                     root of the number of records.
+     * @param ivfNprobe The number of lists searched in {@code IVFFLAT} indexes, unless set in the
+     *                  search options.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public VolatileVectorStoreRecordCollectionOptions(@Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition, ObjectMapper objectMapper,
+        int ivfListCount, int ivfNprobe) {
+        this(recordClass, recordDefinition, objectMapper, ivfListCount, ivfNprobe, 0, 0);
+    }
+
+    /**
+     * Creates a new instance of the Volatile vector store record collection options.
+     *
+     * @param recordClass The record class.
+     * @param recordDefinition The record definition.
+     * @param objectMapper An instanc of Jackson ObjectMapper.
+     * @param ivfListCount The number of lists of {@code IVFFLAT} indexes, or 0 to use the square
+     *                     root of the number of records.
+     * @param ivfNprobe The number of lists searched in {@code IVFFLAT} indexes, unless set in the
+     *                  search options.
+     * @param pqSubspaceCount The number of bytes of a product quantized vector, or 0 to search
+     *                        the vector fields without an index exactly.
+     * @param pqRescoreFactor The number of candidates per result rescored exactly after a product
+     *                        quantized search, or 0 to keep the approximate scores.
+     */
+    @SuppressFBWarnings("EI_EXPOSE_REP2") // ObjectMapper only has package visibility
+    public VolatileVectorStoreRecordCollectionOptions(@Nonnull Class<Record> recordClass,
+        @Nullable VectorStoreRecordDefinition recordDefinition, ObjectMapper objectMapper,
+        int ivfListCount, int ivfNprobe, int pqSubspaceCount, int pqRescoreFactor) {
         this.recordClass = recordClass;
         this.recordDefinition = recordDefinition;
         this.objectMapper = objectMapper;
+        this.ivfListCount = ivfListCount;
+        this.ivfNprobe = ivfNprobe;
+        this.pqSubspaceCount = pqSubspaceCount;
+        this.pqRescoreFactor = pqRescoreFactor;
     }
 
     /**
@@ -84,6 +139,50 @@ public class VolatileVectorStoreRecordCollectionOptions<Record>
         return recordDefinition;
     }
 
+    /**
+     * Gets the number of lists of the {@code IVFFLAT} indexes of the collection.
+     *
+     * @return the number of lists, or 0 to use the square root of the number of records
+     */
+    public int getIvfListCount() {
+        return ivfListCount;
+    }
+
+    /**
+     * Gets the number of lists searched in the {@code IVFFLAT} indexes of the collection, unless
+     * set by {@link VectorSearchOptions#getNprobe()}.
+     *
+     * @return the number of lists searched
+     */
+    public int getIvfNprobe() {
+        return ivfNprobe;
+    }
+
+    /**
+     * Gets the number of subspaces of the product quantizers of the collection, which is the
+     * number of bytes of a quantized vector. When set, the vector fields without an
+     * {@code IVFFLAT} index are searched through their product quantized vectors. The codes are
+     * held in addition to the vectors of the records, so quantization speeds up the search but
+     * does not reduce memory.
+     *
+     * @return the number of subspaces, or 0 if the vectors are not quantized
+     */
+    public int getPqSubspaceCount() {
+        return pqSubspaceCount;
+    }
+
+    /**
+     * Gets the number of candidates per result found by a product quantized search and rescored
+     * with the exact distance, so that the results are ranked and scored exactly. A search with
+     * a score threshold rescores at least one candidate per result, as the threshold is only
+     * compared to exact scores.
+     *
+     * @return the rescore factor, or 0 to keep the approximate scores
+     */
+    public int getPqRescoreFactor() {
+        return pqRescoreFactor;
+    }
+
     /**
      * Builder for Volatile vector store record collection options.
      *
@@ -96,6 +195,10 @@ public class VolatileVectorStoreRecordCollectionOptions<Record>
         private VectorStoreRecordDefinition recordDefinition;
         @Nullable
         private ObjectMapper objectMapper;
+        private int ivfListCount;
+        private int ivfNprobe = DEFAULT_IVF_NPROBE;
+        private int pqSubspaceCount;
+        private int pqRescoreFactor;
 
         /**
          * Sets the record class.
@@ -131,6 +234,58 @@ public class VolatileVectorStoreRecordCollectionOptions<Record>
             return this;
         }
 
+        /**
+         * Sets the number of lists of the {@code IVFFLAT} indexes. By default, the number of lists
+         * is the square root of the number of records when the index is trained.
+         *
+         * @param ivfListCount the number of lists, or 0 to use the square root of the number of
+         *                     records
+         * @return the builder
+         */
+        public Builder<Record> withIvfListCount(int ivfListCount) {
+            this.ivfListCount = ivfListCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of lists searched in the {@code IVFFLAT} indexes, when the search
+         * options do not set it.
+         *
+         * @param ivfNprobe the number of lists searched
+         * @return the builder
+         */
+        public Builder<Record> withIvfNprobe(int ivfNprobe) {
+            this.ivfNprobe = ivfNprobe;
+            return this;
+        }
+
+        /**
+         * Sets the number of subspaces of the product quantizers, which is the number of bytes of
+         * a quantized vector. Vector fields without an {@code IVFFLAT} index are then searched
+         * through their product quantized vectors, trained at the first search. This trades
+         * exactness for search speed only, as the records keep their full vectors.
+         *
+         * @param pqSubspaceCount the number of subspaces, or 0 to disable product quantization
+         * @return the builder
+         */
+        public Builder<Record> withPqSubspaceCount(int pqSubspaceCount) {
+            this.pqSubspaceCount = pqSubspaceCount;
+            return this;
+        }
+
+        /**
+         * Sets the number of candidates per result rescored with the exact distance after a
+         * product quantized search. A search with a score threshold rescores at least one
+         * candidate per result, as the threshold is only compared to exact scores.
+         *
+         * @param pqRescoreFactor the rescore factor, or 0 to keep the approximate scores
+         * @return the builder
+         */
+        public Builder<Record> withPqRescoreFactor(int pqRescoreFactor) {
+            this.pqRescoreFactor = pqRescoreFactor;
+            return this;
+        }
+
         /**
          * Builds the options.
          *
@@ -140,9 +295,21 @@ public class VolatileVectorStoreRecordCollectionOptions<Record>
             if (recordClass == null) {
                 throw new IllegalArgumentException("recordClass is required");
             }
+            if (ivfListCount < 0) {
+                throw new IllegalArgumentException("ivfListCount must not be negative");
+            }
+            if (ivfNprobe < 1) {
+                throw new IllegalArgumentException("ivfNprobe must be positive");
+            }
+            if (pqSubspaceCount < 0) {
+                throw new IllegalArgumentException("pqSubspaceCount must not be negative");
+            }
+            if (pqRescoreFactor < 0) {
+                throw new IllegalArgumentException("pqRescoreFactor must not be negative");
+            }
 
             return new VolatileVectorStoreRecordCollectionOptions<>(recordClass, recordDefinition,
-                objectMapper);
+                objectMapper, ivfListCount, ivfNprobe, pqSubspaceCount, pqRescoreFactor);
         }
     }
 }
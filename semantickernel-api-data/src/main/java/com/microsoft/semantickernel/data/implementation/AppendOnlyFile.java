@@ -0,0 +1,191 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.implementation;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * An append-only file of entries, backing the local file stores.
+ * <p>
+ * The entries are scanned when the file is opened, so that the store can index them. An entry
+ * left incomplete by a crash is truncated. Entries are then appended at the end of the file and
+ * read with positional reads, which can run concurrently.
+ */
+public final class AppendOnlyFile implements Closeable {
+
+    private final FileChannel channel;
+
+    private AppendOnlyFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Opens a file, creating it if needed, and scans its entries.
+     *
+     * @param path   The path of the file.
+     * @param reader The reader of the entries.
+     * @return The file.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static AppendOnlyFile open(Path path, EntryReader reader) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            AppendOnlyFile file = new AppendOnlyFile(channel);
+            file.scan(reader);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void scan(EntryReader reader) throws IOException {
+        long size = channel.size();
+        CountingInputStream counter = new CountingInputStream(
+            new BufferedInputStream(Channels.newInputStream(channel.position(0))));
+        DataInputStream input = new DataInputStream(counter);
+        long position = 0;
+        try {
+            while (position < size) {
+                reader.read(input, position);
+                position = counter.count;
+            }
+        } catch (EOFException e) {
+            // The last entry is incomplete
+        }
+        if (position < size) {
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Appends an entry at the end of the file.
+     *
+     * @param entry The entry, from its position to its limit.
+     * @return The position of the entry in the file.
+     * @throws IOException If the entry cannot be written.
+     */
+    public synchronized long append(ByteBuffer entry) throws IOException {
+        long position = channel.size();
+        long start = entry.position();
+        while (entry.hasRemaining()) {
+            channel.write(entry, position + entry.position() - start);
+        }
+        return position;
+    }
+
+    /**
+     * Writes the appended entries to the storage device, so that they survive a crash of the
+     * operating system.
+     *
+     * @throws IOException If the entries cannot be written.
+     */
+    public void force() throws IOException {
+        // The size of the file is needed to read the entries back
+        channel.force(true);
+    }
+
+    /**
+     * Reads bytes of the file until the buffer is full.
+     *
+     * @param buffer   The buffer.
+     * @param position The position of the first byte to read.
+     * @throws IOException If the bytes cannot be read.
+     */
+    public void readFully(ByteBuffer buffer, long position) throws IOException {
+        long start = buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position() - start) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Skips bytes of an entry being scanned.
+     *
+     * @param input The input of the entries.
+     * @param count The number of bytes to skip.
+     * @throws IOException If the entry ends before, with an {@link EOFException}.
+     */
+    public static void skipFully(DataInput input, long count) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            int skipped = input.skipBytes((int) Math.min(remaining, Integer.MAX_VALUE));
+            if (skipped == 0) {
+                // Throws at the end of the file
+                input.readByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads the entries of a file when it is opened.
+     */
+    @FunctionalInterface
+    public interface EntryReader {
+
+        /**
+         * Reads the entry at the current position of the input, and only then indexes it.
+         *
+         * @param input    The input, positioned at the start of the entry.
+         * @param position The position of the entry in the file.
+         * @throws IOException If the entry cannot be read, with an {@link EOFException} if it
+         *                     is incomplete.
+         */
+        void read(DataInputStream input, long position) throws IOException;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+import com.microsoft.semantickernel.data.implementation.AppendOnlyFile;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link IngestionCheckpointStore} keeping the completed documents in a local, append-only
+ * file, to resume an ingestion after a restart.
+ * <p>
+ * The file holds one document id per line. Each checkpoint is written to the storage device before
+ * it is recorded, so that a completed document is not ingested again after a crash. A line left
+ * incomplete by a crash is truncated when the file is opened, so that its document is ingested
+ * again.
+ */
+public class FileIngestionCheckpointStore implements IngestionCheckpointStore, Closeable {
+
+    private final AppendOnlyFile file;
+    private final Set<String> completed;
+
+    private FileIngestionCheckpointStore(AppendOnlyFile file, Set<String> completed) {
+        this.file = file;
+        this.completed = completed;
+    }
+
+    /**
+     * Opens a store, creating its file if needed.
+     *
+     * @param path The path of the file.
+     * @return The store.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static FileIngestionCheckpointStore open(Path path) throws IOException {
+        Set<String> completed = ConcurrentHashMap.newKeySet();
+        AppendOnlyFile file = AppendOnlyFile.open(path, (input, position) -> {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            for (byte b = input.readByte(); b != '\n'; b = input.readByte()) {
+                line.write(b);
+            }
+            completed.add(new String(line.toByteArray(), StandardCharsets.UTF_8));
+        });
+        return new FileIngestionCheckpointStore(file, completed);
+    }
+
+    @Override
+    public boolean isCompleted(String documentId) {
+        return completed.contains(documentId);
+    }
+
+    @Override
+    public synchronized void markCompleted(String documentId) {
+        if (documentId.indexOf('\n') >= 0) {
+            throw new SKException("The document id must not contain a line break");
+        }
+        if (completed.contains(documentId)) {
+            return;
+        }
+        ByteBuffer line = ByteBuffer.wrap((documentId + "\n").getBytes(StandardCharsets.UTF_8));
+        try {
+            file.append(line);
+            file.force();
+        } catch (IOException e) {
+            throw new SKException("Failed to write the ingestion checkpoint", e);
+        }
+        completed.add(documentId);
+    }
+
+    /**
+     * Gets the number of completed documents.
+     *
+     * @return The number of completed documents.
+     */
+    public int size() {
+        return completed.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
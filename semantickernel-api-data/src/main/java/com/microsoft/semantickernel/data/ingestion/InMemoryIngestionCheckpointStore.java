@@ -0,0 +1,33 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An {@link IngestionCheckpointStore} keeping the completed documents in memory, to resume an
+ * ingestion within the same process.
+ */
+public class InMemoryIngestionCheckpointStore implements IngestionCheckpointStore {
+
+    private final Set<String> completed = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public boolean isCompleted(String documentId) {
+        return completed.contains(documentId);
+    }
+
+    @Override
+    public void markCompleted(String documentId) {
+        completed.add(documentId);
+    }
+
+    /**
+     * Gets the number of completed documents.
+     *
+     * @return The number of completed documents.
+     */
+    public int size() {
+        return completed.size();
+    }
+}
@@ -0,0 +1,24 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+/**
+ * Records the documents fully ingested by an {@link IngestionPipeline}, so that a restarted
+ * pipeline skips them.
+ */
+public interface IngestionCheckpointStore {
+
+    /**
+     * Checks whether a document was fully ingested.
+     *
+     * @param documentId The id of the document.
+     * @return {@code true} if every chunk of the document was upserted.
+     */
+    boolean isCompleted(String documentId);
+
+    /**
+     * Records that every chunk of a document was upserted.
+     *
+     * @param documentId The id of the document.
+     */
+    void markCompleted(String documentId);
+}
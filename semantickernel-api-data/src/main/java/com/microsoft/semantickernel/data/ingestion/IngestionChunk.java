@@ -0,0 +1,67 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+/**
+ * A chunk of a document flowing through an {@link IngestionPipeline}.
+ *
+ * @param <Document> The type of the ingested documents.
+ */
+public final class IngestionChunk<Document> {
+
+    private final Document document;
+    private final String documentId;
+    private final int index;
+    private final String text;
+
+    /**
+     * Creates a new chunk.
+     *
+     * @param document   The document the chunk was split from.
+     * @param documentId The id of the document.
+     * @param index      The position of the chunk in the document, starting at 0.
+     * @param text       The text of the chunk.
+     */
+    public IngestionChunk(Document document, String documentId, int index, String text) {
+        this.document = document;
+        this.documentId = documentId;
+        this.index = index;
+        this.text = text;
+    }
+
+    /**
+     * Gets the document the chunk was split from.
+     *
+     * @return The document.
+     */
+    public Document getDocument() {
+        return document;
+    }
+
+    /**
+     * Gets the id of the document the chunk was split from.
+     *
+     * @return The document id.
+     */
+    public String getDocumentId() {
+        return documentId;
+    }
+
+    /**
+     * Gets the position of the chunk in its document, starting at 0. Together with the document
+     * id, it makes a stable record key, so that re-ingesting a document overwrites its records.
+     *
+     * @return The position of the chunk.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the text of the chunk.
+     *
+     * @return The text.
+     */
+    public String getText() {
+        return text;
+    }
+}
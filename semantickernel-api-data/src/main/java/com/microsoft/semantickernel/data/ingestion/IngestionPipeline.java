@@ -0,0 +1,579 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.services.textembedding.Embedding;
+import com.microsoft.semantickernel.services.textembedding.EmbeddingGenerationService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A streaming pipeline splitting documents into chunks, generating the embeddings of the chunks
+ * and upserting them as records into a vector store record collection.
+ * <p>
+ * The stages are connected by bounded queues, so that a slow stage applies backpressure to the
+ * previous ones instead of buffering the whole input. Documents are split concurrently, chunks are
+ * batched before being sent to the embedding generation service, and records are batched again
+ * before being upserted. Each stage runs up to its configured number of concurrent calls.
+ * <p>
+ * A document is recorded in the {@link IngestionCheckpointStore} once all its chunks have been
+ * upserted, and documents already recorded are skipped, so that an interrupted ingestion can be
+ * restarted with the same input. Records should be keyed by the document id and the
+ * {@link IngestionChunk#getIndex() chunk index}, so that the chunks of a partially ingested
+ * document are overwritten when it is ingested again.
+ * <p>
+ * For example, with the text splitter sample plugin:
+ * <pre>{@code
+ * IngestionPipeline<Document, ChunkRecord> pipeline = IngestionPipeline
+ *     .<Document, ChunkRecord>builder()
+ *     .withDocumentIdFunction(document -> document.getId())
+ *     .withSplitter(document -> splitter.splitDocument(document).map(Chunk::getContents))
+ *     .withEmbeddingGenerationService(embeddingService)
+ *     .withRecordMapper((chunk, embedding) -> new ChunkRecord(
+ *         chunk.getDocumentId() + "-" + chunk.getIndex(), chunk.getText(),
+ *         embedding.getVector()))
+ *     .withCollection(collection)
+ *     .build();
+ * }</pre>
+ *
+ * @param <Document> The type of the ingested documents.
+ * @param <Record>   The type of the records upserted into the collection.
+ */
+public class IngestionPipeline<Document, Record> {
+
+    /**
+     * The default maximum number of documents split concurrently.
+     */
+    public static final int DEFAULT_SPLIT_CONCURRENCY = 4;
+
+    /**
+     * The default maximum number of chunks per embedding generation request.
+     */
+    public static final int DEFAULT_EMBEDDING_BATCH_SIZE = 64;
+
+    /**
+     * The default maximum number of concurrent embedding generation requests.
+     */
+    public static final int DEFAULT_EMBEDDING_CONCURRENCY = 4;
+
+    /**
+     * The default maximum number of records per upsert.
+     */
+    public static final int DEFAULT_UPSERT_BATCH_SIZE = 100;
+
+    /**
+     * The default maximum number of concurrent upserts.
+     */
+    public static final int DEFAULT_UPSERT_CONCURRENCY = 2;
+
+    /**
+     * The default maximum time a partial batch waits for more items.
+     */
+    public static final Duration DEFAULT_MAX_BATCH_DELAY = Duration.ofMillis(100);
+
+    /**
+     * The default capacity of the queues between stages.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private final Function<Document, String> documentIdFunction;
+    private final Function<Document, Flux<String>> splitter;
+    private final EmbeddingGenerationService<String> embeddingGenerationService;
+    private final BiFunction<IngestionChunk<Document>, Embedding, Record> recordMapper;
+    private final VectorStoreRecordCollection<?, Record> collection;
+    private final IngestionCheckpointStore checkpointStore;
+    private final int splitConcurrency;
+    private final int embeddingBatchSize;
+    private final int embeddingConcurrency;
+    private final int upsertBatchSize;
+    private final int upsertConcurrency;
+    private final Duration maxBatchDelay;
+    private final int queueCapacity;
+
+    private final IngestionStageMetrics splitMetrics = new IngestionStageMetrics();
+    private final IngestionStageMetrics embeddingMetrics = new IngestionStageMetrics();
+    private final IngestionStageMetrics upsertMetrics = new IngestionStageMetrics();
+    private final AtomicLong skippedDocuments = new AtomicLong();
+
+    /**
+     * Creates a new ingestion pipeline.
+     *
+     * @param documentIdFunction         Gets the id of a document.
+     * @param splitter                   Splits a document into the texts of its chunks.
+     * @param embeddingGenerationService The service generating the embeddings of the chunks.
+     * @param recordMapper               Creates the record of a chunk and its embedding.
+     * @param collection                 The collection the records are upserted into.
+     * @param checkpointStore            Records the fully ingested documents.
+     * @param splitConcurrency           The maximum number of documents split concurrently.
+     * @param embeddingBatchSize         The maximum number of chunks per embedding request.
+     * @param embeddingConcurrency       The maximum number of concurrent embedding requests.
+     * @param upsertBatchSize            The maximum number of records per upsert.
+     * @param upsertConcurrency          The maximum number of concurrent upserts.
+     * @param maxBatchDelay              The maximum time a partial batch waits for more items.
+     * @param queueCapacity              The capacity of the queues between stages.
+     */
+    public IngestionPipeline(
+        Function<Document, String> documentIdFunction,
+        Function<Document, Flux<String>> splitter,
+        EmbeddingGenerationService<String> embeddingGenerationService,
+        BiFunction<IngestionChunk<Document>, Embedding, Record> recordMapper,
+        VectorStoreRecordCollection<?, Record> collection,
+        IngestionCheckpointStore checkpointStore,
+        int splitConcurrency,
+        int embeddingBatchSize,
+        int embeddingConcurrency,
+        int upsertBatchSize,
+        int upsertConcurrency,
+        Duration maxBatchDelay,
+        int queueCapacity) {
+        this.documentIdFunction = documentIdFunction;
+        this.splitter = splitter;
+        this.embeddingGenerationService = embeddingGenerationService;
+        this.recordMapper = recordMapper;
+        this.collection = collection;
+        this.checkpointStore = checkpointStore;
+        this.splitConcurrency = splitConcurrency;
+        this.embeddingBatchSize = embeddingBatchSize;
+        this.embeddingConcurrency = embeddingConcurrency;
+        this.upsertBatchSize = upsertBatchSize;
+        this.upsertConcurrency = upsertConcurrency;
+        this.maxBatchDelay = maxBatchDelay;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Creates a builder for an {@link IngestionPipeline}.
+     *
+     * @param <Document> The type of the ingested documents.
+     * @param <Record>   The type of the records upserted into the collection.
+     * @return A new builder.
+     */
+    public static <Document, Record> Builder<Document, Record> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Ingests documents, skipping those already recorded in the checkpoint store.
+     *
+     * @param documents The documents.
+     * @return The ids of the documents as they are fully ingested and checkpointed.
+     */
+    public Flux<String> ingestAsync(Flux<Document> documents) {
+        return documents
+            .filter(this::isPending)
+            .doOnNext(document -> splitMetrics.received(1))
+            .flatMap(this::split, splitConcurrency, queueCapacity)
+            .bufferTimeout(embeddingBatchSize, maxBatchDelay, true)
+            .flatMap(this::embed, embeddingConcurrency, queueCapacity)
+            .bufferTimeout(upsertBatchSize, maxBatchDelay, true)
+            .flatMap(this::upsert, upsertConcurrency, queueCapacity);
+    }
+
+    /**
+     * Gets the metrics of the split stage, counting documents.
+     *
+     * @return The metrics of the split stage.
+     */
+    public IngestionStageMetrics getSplitMetrics() {
+        return splitMetrics;
+    }
+
+    /**
+     * Gets the metrics of the embedding stage, counting chunks.
+     *
+     * @return The metrics of the embedding stage.
+     */
+    public IngestionStageMetrics getEmbeddingMetrics() {
+        return embeddingMetrics;
+    }
+
+    /**
+     * Gets the metrics of the upsert stage, counting chunks.
+     *
+     * @return The metrics of the upsert stage.
+     */
+    public IngestionStageMetrics getUpsertMetrics() {
+        return upsertMetrics;
+    }
+
+    /**
+     * Gets the number of documents skipped because they were already ingested.
+     *
+     * @return The number of skipped documents.
+     */
+    public long getSkippedDocuments() {
+        return skippedDocuments.get();
+    }
+
+    private boolean isPending(Document document) {
+        if (checkpointStore.isCompleted(documentIdFunction.apply(document))) {
+            skippedDocuments.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private Flux<PendingChunk<Document>> split(Document document) {
+        String documentId = documentIdFunction.apply(document);
+        DocumentProgress progress = new DocumentProgress(documentId);
+        AtomicInteger index = new AtomicInteger();
+        long start = System.nanoTime();
+
+        // The end marker completes the document once every chunk before it has been upserted
+        return Flux.defer(() -> splitter.apply(document))
+            .map(text -> {
+                progress.remaining.incrementAndGet();
+                embeddingMetrics.received(1);
+                return new PendingChunk<>(progress,
+                    new IngestionChunk<>(document, documentId, index.getAndIncrement(), text));
+            })
+            .concatWith(Mono.fromCallable(() -> {
+                splitMetrics.completed(1, System.nanoTime() - start);
+                return new PendingChunk<Document>(progress, null);
+            }));
+    }
+
+    private Flux<PendingRecord<Record>> embed(List<PendingChunk<Document>> batch) {
+        List<String> texts = batch.stream()
+            .filter(pending -> pending.chunk != null)
+            .map(pending -> pending.chunk.getText())
+            .collect(Collectors.toList());
+        if (texts.isEmpty()) {
+            return Flux.fromIterable(toRecords(batch, Collections.emptyList()));
+        }
+
+        long start = System.nanoTime();
+        return Mono.defer(() -> embeddingGenerationService.generateEmbeddingsAsync(texts))
+            .flatMapIterable(embeddings -> {
+                if (embeddings.size() != texts.size()) {
+                    throw new SKException(String.format(
+                        "The service generated %d embeddings for %d chunks", embeddings.size(),
+                        texts.size()));
+                }
+                embeddingMetrics.completed(texts.size(), System.nanoTime() - start);
+                return toRecords(batch, embeddings);
+            });
+    }
+
+    private List<PendingRecord<Record>> toRecords(List<PendingChunk<Document>> batch,
+        List<Embedding> embeddings) {
+        List<PendingRecord<Record>> records = new ArrayList<>(batch.size());
+        int next = 0;
+        for (PendingChunk<Document> pending : batch) {
+            Record record = null;
+            if (pending.chunk != null) {
+                record = recordMapper.apply(pending.chunk, embeddings.get(next++));
+                upsertMetrics.received(1);
+            }
+            records.add(new PendingRecord<>(pending.progress, record));
+        }
+        return records;
+    }
+
+    private Flux<String> upsert(List<PendingRecord<Record>> batch) {
+        List<Record> records = batch.stream()
+            .filter(pending -> pending.record != null)
+            .map(pending -> pending.record)
+            .collect(Collectors.toList());
+        if (records.isEmpty()) {
+            return Flux.fromIterable(checkpoint(batch));
+        }
+
+        long start = System.nanoTime();
+        return Mono.defer(() -> collection.upsertBatchAsync(records, null))
+            .then(Mono.fromCallable(() -> {
+                upsertMetrics.completed(records.size(), System.nanoTime() - start);
+                return checkpoint(batch);
+            }))
+            .flatMapIterable(documentIds -> documentIds);
+    }
+
+    private List<String> checkpoint(List<PendingRecord<Record>> batch) {
+        List<String> completed = new ArrayList<>();
+        for (PendingRecord<Record> pending : batch) {
+            if (pending.progress.remaining.decrementAndGet() == 0) {
+                checkpointStore.markCompleted(pending.progress.documentId);
+                completed.add(pending.progress.documentId);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * The number of chunks of a document, plus its end marker, not yet upserted.
+     */
+    private static final class DocumentProgress {
+
+        private final String documentId;
+        private final AtomicInteger remaining = new AtomicInteger(1);
+
+        private DocumentProgress(String documentId) {
+            this.documentId = documentId;
+        }
+    }
+
+    /**
+     * A chunk waiting for its embedding, or the end marker of a document if the chunk is null.
+     */
+    private static final class PendingChunk<Document> {
+
+        private final DocumentProgress progress;
+        @Nullable
+        private final IngestionChunk<Document> chunk;
+
+        private PendingChunk(DocumentProgress progress, @Nullable IngestionChunk<Document> chunk) {
+            this.progress = progress;
+            this.chunk = chunk;
+        }
+    }
+
+    /**
+     * A record waiting to be upserted, or the end marker of a document if the record is null.
+     */
+    private static final class PendingRecord<Record> {
+
+        private final DocumentProgress progress;
+        @Nullable
+        private final Record record;
+
+        private PendingRecord(DocumentProgress progress, @Nullable Record record) {
+            this.progress = progress;
+            this.record = record;
+        }
+    }
+
+    /**
+     * A builder for an {@link IngestionPipeline}.
+     *
+     * @param <Document> The type of the ingested documents.
+     * @param <Record>   The type of the records upserted into the collection.
+     */
+    public static class Builder<Document, Record>
+        implements SemanticKernelBuilder<IngestionPipeline<Document, Record>> {
+
+        @Nullable
+        private Function<Document, String> documentIdFunction;
+        @Nullable
+        private Function<Document, Flux<String>> splitter;
+        @Nullable
+        private EmbeddingGenerationService<String> embeddingGenerationService;
+        @Nullable
+        private BiFunction<IngestionChunk<Document>, Embedding, Record> recordMapper;
+        @Nullable
+        private VectorStoreRecordCollection<?, Record> collection;
+        @Nullable
+        private IngestionCheckpointStore checkpointStore;
+        private int splitConcurrency = DEFAULT_SPLIT_CONCURRENCY;
+        private int embeddingBatchSize = DEFAULT_EMBEDDING_BATCH_SIZE;
+        private int embeddingConcurrency = DEFAULT_EMBEDDING_CONCURRENCY;
+        private int upsertBatchSize = DEFAULT_UPSERT_BATCH_SIZE;
+        private int upsertConcurrency = DEFAULT_UPSERT_CONCURRENCY;
+        private Duration maxBatchDelay = DEFAULT_MAX_BATCH_DELAY;
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        /**
+         * Sets the function getting the id of a document, used to checkpoint it.
+         *
+         * @param documentIdFunction The document id function.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withDocumentIdFunction(
+            Function<Document, String> documentIdFunction) {
+            this.documentIdFunction = documentIdFunction;
+            return this;
+        }
+
+        /**
+         * Sets the function splitting a document into the texts of its chunks.
+         *
+         * @param splitter The splitter.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withSplitter(
+            Function<Document, Flux<String>> splitter) {
+            this.splitter = splitter;
+            return this;
+        }
+
+        /**
+         * Sets the service generating the embeddings of the chunks.
+         *
+         * @param embeddingGenerationService The embedding generation service.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withEmbeddingGenerationService(
+            EmbeddingGenerationService<String> embeddingGenerationService) {
+            this.embeddingGenerationService = embeddingGenerationService;
+            return this;
+        }
+
+        /**
+         * Sets the function creating the record of a chunk and its embedding.
+         *
+         * @param recordMapper The record mapper.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withRecordMapper(
+            BiFunction<IngestionChunk<Document>, Embedding, Record> recordMapper) {
+            this.recordMapper = recordMapper;
+            return this;
+        }
+
+        /**
+         * Sets the collection the records are upserted into.
+         *
+         * @param collection The collection.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withCollection(
+            VectorStoreRecordCollection<?, Record> collection) {
+            this.collection = collection;
+            return this;
+        }
+
+        /**
+         * Sets the store recording the fully ingested documents. Defaults to a new
+         * {@link InMemoryIngestionCheckpointStore}.
+         *
+         * @param checkpointStore The checkpoint store.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withCheckpointStore(
+            IngestionCheckpointStore checkpointStore) {
+            this.checkpointStore = checkpointStore;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of documents split concurrently. Defaults to
+         * {@link #DEFAULT_SPLIT_CONCURRENCY}.
+         *
+         * @param splitConcurrency The split concurrency.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withSplitConcurrency(int splitConcurrency) {
+            this.splitConcurrency = splitConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of chunks per embedding generation request. Defaults to
+         * {@link #DEFAULT_EMBEDDING_BATCH_SIZE}.
+         *
+         * @param embeddingBatchSize The embedding batch size.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withEmbeddingBatchSize(int embeddingBatchSize) {
+            this.embeddingBatchSize = embeddingBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent embedding generation requests. Defaults to
+         * {@link #DEFAULT_EMBEDDING_CONCURRENCY}.
+         *
+         * @param embeddingConcurrency The embedding concurrency.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withEmbeddingConcurrency(int embeddingConcurrency) {
+            this.embeddingConcurrency = embeddingConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of records per upsert. Defaults to
+         * {@link #DEFAULT_UPSERT_BATCH_SIZE}.
+         *
+         * @param upsertBatchSize The upsert batch size.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withUpsertBatchSize(int upsertBatchSize) {
+            this.upsertBatchSize = upsertBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent upserts. Defaults to
+         * {@link #DEFAULT_UPSERT_CONCURRENCY}.
+         *
+         * @param upsertConcurrency The upsert concurrency.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withUpsertConcurrency(int upsertConcurrency) {
+            this.upsertConcurrency = upsertConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a partial embedding or upsert batch waits for more items.
+         * Defaults to {@link #DEFAULT_MAX_BATCH_DELAY}.
+         *
+         * @param maxBatchDelay The maximum batch delay.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withMaxBatchDelay(Duration maxBatchDelay) {
+            this.maxBatchDelay = maxBatchDelay;
+            return this;
+        }
+
+        /**
+         * Sets the capacity of the queues between stages. Defaults to
+         * {@link #DEFAULT_QUEUE_CAPACITY}.
+         *
+         * @param queueCapacity The queue capacity.
+         * @return The builder.
+         */
+        public Builder<Document, Record> withQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        @Override
+        public IngestionPipeline<Document, Record> build() {
+            if (documentIdFunction == null) {
+                throw new SKException("documentIdFunction is required");
+            }
+            if (splitter == null) {
+                throw new SKException("splitter is required");
+            }
+            if (embeddingGenerationService == null) {
+                throw new SKException("embeddingGenerationService is required");
+            }
+            if (recordMapper == null) {
+                throw new SKException("recordMapper is required");
+            }
+            if (collection == null) {
+                throw new SKException("collection is required");
+            }
+            if (splitConcurrency < 1 || embeddingConcurrency < 1 || upsertConcurrency < 1) {
+                throw new SKException("concurrency must be positive");
+            }
+            if (embeddingBatchSize < 1 || upsertBatchSize < 1) {
+                throw new SKException("batch size must be positive");
+            }
+            if (maxBatchDelay == null || maxBatchDelay.isNegative() || maxBatchDelay.isZero()) {
+                throw new SKException("maxBatchDelay must be positive");
+            }
+            if (queueCapacity < 1) {
+                throw new SKException("queueCapacity must be positive");
+            }
+            return new IngestionPipeline<>(documentIdFunction, splitter,
+                embeddingGenerationService, recordMapper, collection,
+                checkpointStore != null ? checkpointStore : new InMemoryIngestionCheckpointStore(),
+                splitConcurrency, embeddingBatchSize, embeddingConcurrency, upsertBatchSize,
+                upsertConcurrency, maxBatchDelay, queueCapacity);
+        }
+    }
+}
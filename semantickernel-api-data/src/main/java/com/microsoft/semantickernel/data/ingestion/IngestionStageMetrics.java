@@ -0,0 +1,97 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The throughput and lag of a stage of an {@link IngestionPipeline}.
+ * <p>
+ * Items are documents for the split stage and chunks for the embedding and upsert stages. An item
+ * is received when it enters the queue of the stage, and completed when the stage has processed
+ * it, so that the lag of a stage is the number of items queued or in flight in it.
+ */
+public final class IngestionStageMetrics {
+
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong startNanos = new AtomicLong(NOT_STARTED);
+
+    IngestionStageMetrics() {
+    }
+
+    void received(int count) {
+        startNanos.compareAndSet(NOT_STARTED, System.nanoTime());
+        received.addAndGet(count);
+    }
+
+    void completed(int count, long latencyNanos) {
+        completed.addAndGet(count);
+        totalLatencyNanos.addAndGet(count * latencyNanos);
+    }
+
+    /**
+     * Gets the number of items received by the stage.
+     *
+     * @return The number of received items.
+     */
+    public long getReceived() {
+        return received.get();
+    }
+
+    /**
+     * Gets the number of items processed by the stage.
+     *
+     * @return The number of completed items.
+     */
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Gets the number of items received but not yet processed by the stage.
+     *
+     * @return The number of queued or in flight items.
+     */
+    public long getLag() {
+        return Math.max(0, received.get() - completed.get());
+    }
+
+    /**
+     * Gets the average time the stage took to process an item, from the start of the call
+     * processing it to its completion.
+     *
+     * @return The average latency, or zero if no item was processed.
+     */
+    public Duration getAverageLatency() {
+        long count = completed.get();
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        return Duration.ofNanos(totalLatencyNanos.get() / count);
+    }
+
+    /**
+     * Gets the number of items processed per second since the stage received its first item.
+     *
+     * @return The throughput, or zero if the stage has not started.
+     */
+    public double getThroughput() {
+        long start = startNanos.get();
+        if (start == NOT_STARTED) {
+            return 0;
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        return completed.get() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("received=%d, completed=%d, lag=%d, throughput=%.1f/s, latency=%s",
+            getReceived(), getCompleted(), getLag(), getThroughput(), getAverageLatency());
+    }
+}
@@ -0,0 +1,267 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.vectorsearch;
+
+import com.microsoft.semantickernel.exceptions.SKException;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * A product quantizer, compressing vectors to one byte per subspace.
+ * <p>
+ * Vectors are split into subspaces of consecutive dimensions, and each subspace is quantized to
+ * the closest of {@value #CENTROID_COUNT} centroids trained by k-means. Distances between a
+ * query and quantized vectors are computed asymmetrically: the query is not quantized, and a
+ * lookup table of the distances between the query and every centroid is computed once per query,
+ * so scoring a quantized vector takes one table lookup per subspace.
+ * <p>
+ * A trained quantizer is immutable and can be shared between threads.
+ */
+public final class ProductQuantizer {
+
+    /**
+     * The number of centroids of each subspace, so that a centroid is encoded in a byte.
+     */
+    public static final int CENTROID_COUNT = 256;
+
+    private static final int TRAINING_ITERATIONS = 10;
+    private static final long TRAINING_SEED = 42;
+
+    private final int dimensions;
+    // Start dimension of each subspace, followed by the number of dimensions
+    private final int[] offsets;
+    // Centroids of each subspace, one after the other
+    private final float[][] codebooks;
+
+    private ProductQuantizer(int dimensions, int[] offsets, float[][] codebooks) {
+        this.dimensions = dimensions;
+        this.offsets = offsets;
+        this.codebooks = codebooks;
+    }
+
+    /**
+     * Trains a quantizer on a sample of vectors, training the subspaces in parallel.
+     *
+     * @param sample        The vectors to train on, all of the same dimensions.
+     * @param subspaceCount The number of subspaces, which is the number of bytes of a code. It is
+     *                      capped to the number of dimensions.
+     * @return The trained quantizer.
+     */
+    public static ProductQuantizer train(float[][] sample, int subspaceCount) {
+        if (sample.length == 0) {
+            throw new SKException("Cannot train a product quantizer without vectors");
+        }
+        if (subspaceCount < 1) {
+            throw new SKException("The number of subspaces must be positive");
+        }
+        int dimensions = sample[0].length;
+        for (float[] vector : sample) {
+            checkDimensions(vector, dimensions);
+        }
+
+        int count = Math.min(subspaceCount, dimensions);
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i <= count; i++) {
+            offsets[i] = i * dimensions / count;
+        }
+
+        float[][] codebooks = new float[count][];
+        IntStream.range(0, count).parallel()
+            .forEach(s -> codebooks[s] = trainSubspace(sample, offsets[s],
+                offsets[s + 1] - offsets[s]));
+        return new ProductQuantizer(dimensions, offsets, codebooks);
+    }
+
+    private static float[] trainSubspace(float[][] sample, int offset, int width) {
+        Random random = new Random(TRAINING_SEED + offset);
+        float[] centroids = new float[CENTROID_COUNT * width];
+        // Start from randomly sampled vectors
+        for (int c = 0; c < CENTROID_COUNT; c++) {
+            float[] vector = sample[random.nextInt(sample.length)];
+            System.arraycopy(vector, offset, centroids, c * width, width);
+        }
+
+        int[] assignments = new int[sample.length];
+        for (int iteration = 0; iteration < TRAINING_ITERATIONS; iteration++) {
+            double[] sums = new double[CENTROID_COUNT * width];
+            int[] counts = new int[CENTROID_COUNT];
+            for (int i = 0; i < sample.length; i++) {
+                assignments[i] = closest(centroids, width, sample[i], offset);
+                counts[assignments[i]]++;
+                for (int d = 0; d < width; d++) {
+                    sums[assignments[i] * width + d] += sample[i][offset + d];
+                }
+            }
+            for (int c = 0; c < CENTROID_COUNT; c++) {
+                // An empty centroid keeps its position
+                if (counts[c] > 0) {
+                    for (int d = 0; d < width; d++) {
+                        centroids[c * width + d] = (float) (sums[c * width + d] / counts[c]);
+                    }
+                }
+            }
+        }
+        return centroids;
+    }
+
+    private static int closest(float[] centroids, int width, float[] vector, int offset) {
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int c = 0; c < CENTROID_COUNT; c++) {
+            float distance = 0;
+            for (int d = 0; d < width; d++) {
+                float difference = vector[offset + d] - centroids[c * width + d];
+                distance += difference * difference;
+            }
+            if (distance < bestDistance) {
+                best = c;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private static void checkDimensions(float[] vector, int dimensions) {
+        if (vector.length != dimensions) {
+            throw new SKException("Vectors lengths must be equal");
+        }
+    }
+
+    /**
+     * Gets the number of dimensions of the vectors.
+     *
+     * @return The number of dimensions.
+     */
+    public int getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Gets the number of bytes of a code, which is the number of subspaces.
+     *
+     * @return The code size.
+     */
+    public int getCodeSize() {
+        return codebooks.length;
+    }
+
+    /**
+     * Encodes a vector.
+     *
+     * @param vector The vector to encode.
+     * @return The code.
+     */
+    public byte[] encode(float[] vector) {
+        byte[] codes = new byte[codebooks.length];
+        encode(vector, codes, 0);
+        return codes;
+    }
+
+    /**
+     * Encodes a vector into an array holding several codes.
+     *
+     * @param vector The vector to encode.
+     * @param codes  The array receiving the code.
+     * @param offset The offset of the code in the array.
+     */
+    public void encode(float[] vector, byte[] codes, int offset) {
+        checkDimensions(vector, dimensions);
+        for (int s = 0; s < codebooks.length; s++) {
+            int width = offsets[s + 1] - offsets[s];
+            codes[offset + s] = (byte) closest(codebooks[s], width, vector, offsets[s]);
+        }
+    }
+
+    /**
+     * Computes the lookup table of the distances between a query and every centroid.
+     *
+     * @param query        The query vector.
+     * @param innerProduct Whether distances are negated inner products, rather than squared
+     *                     Euclidean distances.
+     * @return The lookup table.
+     */
+    public float[] getDistanceTable(float[] query, boolean innerProduct) {
+        checkDimensions(query, dimensions);
+        float[] table = new float[codebooks.length * CENTROID_COUNT];
+        for (int s = 0; s < codebooks.length; s++) {
+            int width = offsets[s + 1] - offsets[s];
+            for (int c = 0; c < CENTROID_COUNT; c++) {
+                float distance = 0;
+                for (int d = 0; d < width; d++) {
+                    float centroid = codebooks[s][c * width + d];
+                    if (innerProduct) {
+                        distance -= query[offsets[s] + d] * centroid;
+                    } else {
+                        float difference = query[offsets[s] + d] - centroid;
+                        distance += difference * difference;
+                    }
+                }
+                table[s * CENTROID_COUNT + c] = distance;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Computes the approximate distance between a query and a code, the sum of the distances of
+     * the lookup table of the query: a squared Euclidean distance or a negated inner product.
+     *
+     * @param table  The lookup table of the query.
+     * @param codes  The array holding the code.
+     * @param offset The offset of the code in the array.
+     * @return The approximate distance.
+     */
+    public float getDistance(float[] table, byte[] codes, int offset) {
+        float distance = 0;
+        for (int s = 0; s < codebooks.length; s++) {
+            distance += table[s * CENTROID_COUNT + (codes[offset + s] & 0xFF)];
+        }
+        return distance;
+    }
+
+    /**
+     * Writes the quantizer.
+     *
+     * @param output The output to write to.
+     * @throws IOException if the quantizer cannot be written.
+     */
+    public void write(DataOutput output) throws IOException {
+        output.writeInt(dimensions);
+        output.writeInt(codebooks.length);
+        for (int offset : offsets) {
+            output.writeInt(offset);
+        }
+        for (float[] codebook : codebooks) {
+            for (float value : codebook) {
+                output.writeFloat(value);
+            }
+        }
+    }
+
+    /**
+     * Reads a quantizer written by {@link #write(DataOutput)}.
+     *
+     * @param input The input to read from.
+     * @return The quantizer.
+     * @throws IOException if the quantizer cannot be read.
+     */
+    public static ProductQuantizer read(DataInput input) throws IOException {
+        int dimensions = input.readInt();
+        int count = input.readInt();
+        int[] offsets = new int[count + 1];
+        for (int i = 0; i <= count; i++) {
+            offsets[i] = input.readInt();
+        }
+        float[][] codebooks = new float[count][];
+        for (int s = 0; s < count; s++) {
+            codebooks[s] = new float[CENTROID_COUNT * (offsets[s + 1] - offsets[s])];
+            for (int i = 0; i < codebooks[s].length; i++) {
+                codebooks[s][i] = input.readFloat();
+            }
+        }
+        return new ProductQuantizer(dimensions, offsets, codebooks);
+    }
+}
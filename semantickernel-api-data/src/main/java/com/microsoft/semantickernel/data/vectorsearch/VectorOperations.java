@@ -1,27 +1,33 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.vectorsearch;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordFieldAccessor;
 import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
 import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
 import com.microsoft.semantickernel.exceptions.SKException;
 
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
+import javax.annotation.Nullable;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * Operations for working with vectors.
  */
 public final class VectorOperations {
 
+    // Reads the vectors of records without field accessors
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
     /**
      * Calculates the cosine similarity of two vectors. The vectors must be equal in length and have
      * non-zero norm.
@@ -55,6 +61,38 @@ public final class VectorOperations {
         return (dotProduct / (float) (Math.sqrt(normX) * Math.sqrt(normY)));
     }
 
+    /**
+     * Calculates the cosine similarity of two vectors. The vectors must be equal in length and have
+     * non-zero norm.
+     *
+     * @param x First vector, which is not modified
+     * @param y Second vector, which is not modified
+     * @return The cosine similarity of the two vectors
+     */
+    public static float cosineSimilarity(@Nonnull float[] x, @Nonnull float[] y) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+
+        if (x.length != y.length) {
+            throw new SKException("Vectors lengths must be equal");
+        }
+
+        float dotProduct = 0.0F;
+        float normX = 0.0F;
+        float normY = 0.0F;
+
+        for (int i = 0; i < x.length; i++) {
+            dotProduct += x[i] * y[i];
+            normX += x[i] * x[i];
+            normY += y[i] * y[i];
+        }
+
+        if (normX == 0 || normY == 0) {
+            throw new SKException("Vectors cannot have zero norm");
+        }
+
+        return (dotProduct / (float) (Math.sqrt(normX) * Math.sqrt(normY)));
+    }
     /**
      * Calculates the cosine distance of two vectors. The vectors must be equal in length and have
      * non-zero norm.
@@ -67,6 +105,18 @@ public final class VectorOperations {
         return 1.0 - cosineSimilarity(x, y);
     }
 
+    /**
+     * Calculates the cosine distance of two vectors. The vectors must be equal in length and have
+     * non-zero norm.
+     *
+     * @param x First vector, which is not modified
+     * @param y Second vector, which is not modified
+     * @return The cosine distance of the two vectors
+     */
+    public static double cosineDistance(@Nonnull float[] x, @Nonnull float[] y) {
+        return 1.0 - cosineSimilarity(x, y);
+    }
+
     /**
      * Calculates the Euclidean distance between two vectors.
      *
@@ -92,6 +142,31 @@ public final class VectorOperations {
         return (float) Math.sqrt(sumOfSquaredDifferences);
     }
 
+    /**
+     * Calculates the Euclidean distance between two vectors.
+     *
+     * @param x First vector, which is not modified
+     * @param y Second vector, which is not modified
+     * @return The Euclidean distance between the two vectors
+     */
+    public static float euclideanDistance(@Nonnull float[] x, @Nonnull float[] y) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+
+        if (x.length != y.length) {
+            throw new SKException("Vectors lengths must be equal");
+        }
+
+        float sumOfSquaredDifferences = 0.0f;
+
+        for (int i = 0; i < x.length; ++i) {
+            float difference = x[i] - y[i];
+            sumOfSquaredDifferences += difference * difference;
+        }
+
+        return (float) Math.sqrt(sumOfSquaredDifferences);
+    }
+
     /**
      * Divides the elements of the vector by the divisor.
      *
@@ -134,6 +209,29 @@ public final class VectorOperations {
         return result;
     }
 
+    /**
+     * Calculates the dot product of two vectors.
+     *
+     * @param x First vector, which is not modified
+     * @param y Second vector, which is not modified
+     * @return The dot product of the two vectors
+     */
+    public static float dot(@Nonnull float[] x, @Nonnull float[] y) {
+        Objects.requireNonNull(x);
+        Objects.requireNonNull(y);
+
+        if (x.length != y.length) {
+            throw new SKException("Vectors lengths must be equal");
+        }
+
+        float result = 0;
+        for (int i = 0; i < x.length; ++i) {
+            result += x[i] * y[i];
+        }
+
+        return result;
+    }
+
     /**
      * Calculates the Euclidean length of a vector.
      *
@@ -175,6 +273,79 @@ public final class VectorOperations {
         return divide(vector, euclideanLength(vector));
     }
 
+    /**
+     * Checks whether the vectors of a field are unit-normalized when they are stored, see
+     * {@link VectorStoreRecordVectorField#isNormalizeOnIngest()}. Their cosine scores are dot
+     * products.
+     *
+     * @param vectorField The vector field.
+     * @return {@code true} if the field normalizes its cosine vectors on ingest.
+     */
+    public static boolean isNormalizedOnIngest(VectorStoreRecordVectorField vectorField) {
+        return vectorField.isNormalizeOnIngest()
+            && (vectorField.getDistanceFunction() == DistanceFunction.COSINE_SIMILARITY
+                || vectorField.getDistanceFunction() == DistanceFunction.COSINE_DISTANCE);
+    }
+
+    /**
+     * Unit-normalizes a vector of a field normalized on ingest. Vectors of other fields, and
+     * vectors with zero norm, are returned unchanged.
+     *
+     * @param vectorField The vector field.
+     * @param vector Vector to normalize, which is not modified
+     * @return A new, normalized vector, or the vector
+     */
+    public static List<Float> normalizeOnIngest(VectorStoreRecordVectorField vectorField,
+        @Nonnull List<Float> vector) {
+        Objects.requireNonNull(vector);
+        if (!isNormalizedOnIngest(vectorField)) {
+            return vector;
+        }
+        float length = euclideanLength(vector);
+        return length == 0 ? vector : divide(vector, length);
+    }
+
+    /**
+     * Unit-normalizes a vector of a field normalized on ingest. Vectors of other fields, and
+     * vectors with zero norm, are returned unchanged.
+     *
+     * @param vectorField The vector field.
+     * @param vector Vector to normalize, which is not modified
+     * @return A new, normalized vector, or the vector
+     */
+    public static float[] normalizeOnIngest(VectorStoreRecordVectorField vectorField,
+        @Nonnull float[] vector) {
+        Objects.requireNonNull(vector);
+        if (!isNormalizedOnIngest(vectorField)) {
+            return vector;
+        }
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float length = (float) Math.sqrt(norm);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] / length;
+        }
+        return normalized;
+    }
+
+    /**
+     * Checks whether a higher score means a closer match for the given distance function, as
+     * computed by the in-memory search of this class.
+     *
+     * @param distanceFunction The distance function.
+     * @return {@code true} for similarity functions, {@code false} for distance functions.
+     */
+    public static boolean isHigherScoreBetter(DistanceFunction distanceFunction) {
+        return distanceFunction == DistanceFunction.COSINE_SIMILARITY
+            || distanceFunction == DistanceFunction.DOT_PRODUCT;
+    }
+
     /**
      * Performs an exact similarity search on a list of records using a vector field.
      *
@@ -192,56 +363,178 @@ public final class VectorOperations {
         VectorStoreRecordVectorField vectorField,
         DistanceFunction distanceFunction,
         VectorSearchOptions options) {
-        List<VectorSearchResult<Record>> results = new ArrayList<>();
+        return exactSimilaritySearch(records, vector, vectorField, distanceFunction, options,
+            null);
+    }
 
-        for (Record record : records) {
-            List<Float> recordVector;
-            try {
-                String json = new ObjectMapper().writeValueAsString(record);
-                ArrayNode arrayNode = (ArrayNode) new ObjectMapper().readTree(json)
-                    .get(vectorField.getEffectiveStorageName());
+    /**
+     * Performs an exact similarity search on a list of records using a vector field. When the
+     * record definition has field accessors, the vectors are read directly from the records,
+     * else the records are serialized.
+     * <p>
+     * The vectors of a field normalized on ingest are expected to be unit vectors: the query is
+     * normalized once and cosine scores are computed as dot products.
+     *
+     * @param records The records to search.
+     * @param vector The vector to search for.
+     * @param vectorField The vector field to use for the search.
+     * @param distanceFunction The distance function to use for the search.
+     * @param options The search options.
+     * @param recordDefinition The definition of the records, or null.
+     * @param <Record> The type of the records.
+     * @return The search results.
+     */
+    public static <Record> List<VectorSearchResult<Record>> exactSimilaritySearch(
+        List<Record> records,
+        List<Float> vector,
+        VectorStoreRecordVectorField vectorField,
+        DistanceFunction distanceFunction,
+        VectorSearchOptions options,
+        @Nullable VectorStoreRecordDefinition recordDefinition) {
+        return exactSimilaritySearch(records, null, vector, vectorField, distanceFunction, options,
+            recordDefinition);
+    }
 
-                recordVector = Stream.iterate(0, i -> i + 1)
-                    .limit(arrayNode.size())
-                    .map(i -> arrayNode.get(i).floatValue())
-                    .collect(Collectors.toList());
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException(e);
-            }
+    /**
+     * Performs an exact similarity search on a list of records using a vector field, returning
+     * the keys of the records with the results. When the search only returns keys, the results
+     * hold the keys instead of the records.
+     *
+     * @param records The records to search.
+     * @param keys The keys of the records, in the order of the records, or null.
+     * @param vector The vector to search for.
+     * @param vectorField The vector field to use for the search.
+     * @param distanceFunction The distance function to use for the search.
+     * @param options The search options.
+     * @param recordDefinition The definition of the records, or null.
+     * @param <Record> The type of the records.
+     * @return The search results.
+     */
+    public static <Record> List<VectorSearchResult<Record>> exactSimilaritySearch(
+        List<Record> records,
+        @Nullable List<?> keys,
+        List<Float> vector,
+        VectorStoreRecordVectorField vectorField,
+        DistanceFunction distanceFunction,
+        VectorSearchOptions options,
+        @Nullable VectorStoreRecordDefinition recordDefinition) {
+        VectorStoreRecordFieldAccessor vectorAccessor = recordDefinition != null
+            && recordDefinition.hasFieldAccessors()
+                ? recordDefinition.getFieldAccessor(vectorField.getName())
+                : null;
+        boolean normalized = isNormalizedOnIngest(vectorField);
+        // Unchanged unless the field is normalized on ingest
+        List<Float> query = normalizeOnIngest(vectorField, vector);
+        float[] queryArray = null;
+
+        Comparator<VectorSearchResult<Record>> comparator = Comparator
+            .comparingDouble(VectorSearchResult::getScore);
+        boolean higherScoreBetter = isHigherScoreBetter(distanceFunction);
+        if (higherScoreBetter) {
+            comparator = comparator.reversed();
+        }
+
+        // Bounded heap holding the best skip + top results, with the worst one at its head
+        int limit = options.getSkip() + options.getTop();
+        PriorityQueue<VectorSearchResult<Record>> heap = new PriorityQueue<>(limit + 1,
+            comparator.reversed());
+        Double scoreThreshold = options.getScoreThreshold();
+
+        for (int i = 0; i < records.size(); i++) {
+            Record record = records.get(i);
+            Object recordVector = vectorAccessor != null
+                ? vectorAccessor.get(record)
+                : ((JsonNode) OBJECT_MAPPER.valueToTree(record))
+                    .get(vectorField.getEffectiveStorageName());
 
             double score;
-            switch (distanceFunction) {
-                case COSINE_SIMILARITY:
-                    score = cosineSimilarity(vector, recordVector);
-                    break;
-                case COSINE_DISTANCE:
-                    score = cosineDistance(vector, recordVector);
-                    break;
-                case EUCLIDEAN_DISTANCE:
-                    score = euclideanDistance(vector, recordVector);
-                    break;
-                case DOT_PRODUCT:
-                    score = dot(vector, recordVector);
-                    break;
-                default:
-                    throw new SKException("Unsupported distance function");
+            if (recordVector instanceof float[]) {
+                // Vectors stored as arrays are scored without boxing their values
+                if (queryArray == null) {
+                    queryArray = toFloatArray(query);
+                }
+                score = score(distanceFunction, normalized, queryArray, (float[]) recordVector);
+            } else {
+                score = score(distanceFunction, normalized, query,
+                    toFloatList(recordVector, OBJECT_MAPPER));
             }
 
-            results.add(new VectorSearchResult<>(record, score));
-        }
+            if (scoreThreshold != null
+                && (higherScoreBetter ? score < scoreThreshold : score > scoreThreshold)) {
+                continue;
+            }
 
-        Comparator<VectorSearchResult<Record>> comparator = Comparator
-            .comparingDouble(VectorSearchResult::getScore);
-        // Higher scores are better
-        if (distanceFunction == DistanceFunction.COSINE_SIMILARITY
-            || distanceFunction == DistanceFunction.DOT_PRODUCT) {
-            comparator = comparator.reversed();
+            heap.add(keys == null
+                ? new VectorSearchResult<>(record, score)
+                : new VectorSearchResult<>(options.isKeysOnly() ? null : record, keys.get(i),
+                    score));
+            if (heap.size() > limit) {
+                heap.poll();
+            }
         }
 
-        return results.stream()
+        return heap.stream()
             .sorted(comparator)
             .skip(options.getSkip())
             .limit(options.getTop())
             .collect(Collectors.toList());
     }
+
+    private static double score(DistanceFunction distanceFunction, boolean normalized,
+        List<Float> query, List<Float> recordVector) {
+        switch (distanceFunction) {
+            case COSINE_SIMILARITY:
+                return normalized ? dot(query, recordVector)
+                    : cosineSimilarity(query, recordVector);
+            case COSINE_DISTANCE:
+                return normalized ? 1.0 - dot(query, recordVector)
+                    : cosineDistance(query, recordVector);
+            case EUCLIDEAN_DISTANCE:
+                return euclideanDistance(query, recordVector);
+            case DOT_PRODUCT:
+                return dot(query, recordVector);
+            default:
+                throw new SKException("Unsupported distance function");
+        }
+    }
+
+    private static double score(DistanceFunction distanceFunction, boolean normalized,
+        float[] query, float[] recordVector) {
+        switch (distanceFunction) {
+            case COSINE_SIMILARITY:
+                return normalized ? dot(query, recordVector)
+                    : cosineSimilarity(query, recordVector);
+            case COSINE_DISTANCE:
+                return normalized ? 1.0 - dot(query, recordVector)
+                    : cosineDistance(query, recordVector);
+            case EUCLIDEAN_DISTANCE:
+                return euclideanDistance(query, recordVector);
+            case DOT_PRODUCT:
+                return dot(query, recordVector);
+            default:
+                throw new SKException("Unsupported distance function");
+        }
+    }
+
+    private static float[] toFloatArray(List<Float> vector) {
+        float[] array = new float[vector.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = vector.get(i);
+        }
+        return array;
+    }
+
+    // Converts a vector read from a record, without copying a list of floats
+    @SuppressWarnings("unchecked")
+    private static List<Float> toFloatList(@Nullable Object vector, ObjectMapper objectMapper) {
+        if (vector == null || vector instanceof NullNode) {
+            throw new SKException("The record has no vector to search");
+        }
+        if (vector instanceof List
+            && ((List<?>) vector).stream().allMatch(Float.class::isInstance)) {
+            return (List<Float>) vector;
+        }
+        return objectMapper.convertValue(vector, new TypeReference<List<Float>>() {
+        });
+    }
 }
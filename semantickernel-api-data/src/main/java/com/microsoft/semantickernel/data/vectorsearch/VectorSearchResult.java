@@ -1,12 +1,17 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.vectorsearch;
 
+import javax.annotation.Nullable;
+
 /**
  * Represents a vector search result.
  * @param <Record> The type of the record.
  */
 public class VectorSearchResult<Record> {
+    @Nullable
     private final Record record;
+    @Nullable
+    private final Object key;
     private final double score;
 
     /**
@@ -16,19 +21,43 @@ public class VectorSearchResult<Record> {
      * @param score The score.
      */
     public VectorSearchResult(Record record, double score) {
+        this(record, null, score);
+    }
+
+    /**
+     * Creates a new instance of VectorSearchResult.
+     *
+     * @param record The record, or null if only the key was returned by the search.
+     * @param key The key of the record, or null if it was not returned by the search.
+     * @param score The score.
+     */
+    public VectorSearchResult(@Nullable Record record, @Nullable Object key, double score) {
         this.record = record;
+        this.key = key;
         this.score = score;
     }
 
     /**
      * Gets the record.
      *
-     * @return The record.
+     * @return The record, or null if the search only returned keys and the result has not been
+     * hydrated.
      */
+    @Nullable
     public Record getRecord() {
         return record;
     }
 
+    /**
+     * Gets the key of the record. The key is set when the search only returns keys and scores.
+     *
+     * @return The key of the record, or null if it was not returned by the search.
+     */
+    @Nullable
+    public Object getKey() {
+        return key;
+    }
+
     /**
      * Gets the score.
      *
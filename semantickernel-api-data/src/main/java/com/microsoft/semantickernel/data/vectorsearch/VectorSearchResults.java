@@ -1,9 +1,17 @@
 // Copyright (c) Microsoft. All rights reserved.
 package com.microsoft.semantickernel.data.vectorsearch;
 
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Mono;
 
 /**
  * The search results.
@@ -67,4 +75,53 @@ public class VectorSearchResults<Record> {
         return metadata;
     }
 
+    /**
+     * Hydrates the results that only carry a key, as returned by a search with
+     * {@link com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions#isKeysOnly()}.
+     * The records are fetched with a single batch get, so callers can deduplicate or re-rank
+     * the keys first and only hydrate the results they keep. Results whose record no longer
+     * exists are left out.
+     *
+     * @param collection  The collection the results were searched in.
+     * @param keyFunction A function returning the key of a record.
+     * @param options     The options for getting the records.
+     * @param <Key>       The type of the key of the records.
+     * @return A Mono emitting the results with their records.
+     */
+    @SuppressWarnings("unchecked")
+    public <Key> Mono<VectorSearchResults<Record>> hydrateAsync(
+        VectorStoreRecordCollection<Key, Record> collection,
+        Function<Record, Key> keyFunction,
+        @Nullable GetRecordOptions options) {
+        List<Key> keys = results.stream()
+            .filter(result -> result.getRecord() == null && result.getKey() != null)
+            .map(result -> (Key) result.getKey())
+            .collect(Collectors.toList());
+        if (keys.isEmpty()) {
+            return Mono.just(this);
+        }
+
+        return collection.getBatchAsync(keys, options)
+            .map(records -> {
+                Map<Object, Record> recordsByKey = new HashMap<>();
+                records.stream()
+                    .filter(Objects::nonNull)
+                    .forEach(record -> recordsByKey.put(keyFunction.apply(record), record));
+
+                List<VectorSearchResult<Record>> hydrated = results.stream()
+                    .map(result -> {
+                        if (result.getRecord() != null || result.getKey() == null) {
+                            return result;
+                        }
+                        Record record = recordsByKey.get(result.getKey());
+                        return record == null ? null
+                            : new VectorSearchResult<>(record, result.getKey(),
+                                result.getScore());
+                    })
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+
+                return new VectorSearchResults<>(hydrated, totalCount, metadata);
+            });
+    }
 }
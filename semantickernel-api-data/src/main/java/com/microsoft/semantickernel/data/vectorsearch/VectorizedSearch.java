@@ -2,6 +2,7 @@
 package com.microsoft.semantickernel.data.vectorsearch;
 
 import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -22,4 +23,22 @@ public interface VectorizedSearch<Record> {
      */
     Mono<VectorSearchResults<Record>> searchAsync(List<Float> vector,
         VectorSearchOptions options);
+
+    /**
+     * Vectorized search, emitting the results one by one, in order, as the store produces them.
+     * Consumers can start processing the first results before the search completes, and cancel
+     * the search once they have enough results.
+     * <p>
+     * The default implementation emits the results of {@link #searchAsync} once the search
+     * completes.
+     *
+     * @param vector The vector to search with.
+     * @param options The options to use for the search.
+     * @return A Flux of vector search results.
+     */
+    default Flux<VectorSearchResult<Record>> searchStreamAsync(List<Float> vector,
+        VectorSearchOptions options) {
+        return searchAsync(vector, options)
+            .flatMapIterable(VectorSearchResults::getResults);
+    }
 }
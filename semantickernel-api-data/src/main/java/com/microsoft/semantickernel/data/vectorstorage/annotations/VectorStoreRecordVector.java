@@ -43,4 +43,11 @@ public @interface VectorStoreRecordVector {
     @Nullable
     DistanceFunction distanceFunction() default DistanceFunction.UNDEFINED;
 
+    /**
+     * Whether the vectors are unit-normalized when they are stored, so that cosine scores are
+     * computed as dot products.
+     * @return Whether the vectors are unit-normalized when they are stored.
+     */
+    boolean normalizeOnIngest() default false;
+
 }
\ No newline at end of file
@@ -6,22 +6,33 @@ import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRe
 import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
 import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordVector;
 import com.microsoft.semantickernel.exceptions.SKException;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Represents a definition of a vector store record.
  */
 public class VectorStoreRecordDefinition {
 
+    // Definitions of the record classes, built once per class. The keys and values are weakly
+    // referenced, as the accessors of a definition refer to its class, so that the classes can be
+    // unloaded.
+    @GuardedBy("RECORD_CLASS_DEFINITIONS")
+    private static final Map<Class<?>, WeakReference<VectorStoreRecordDefinition>> RECORD_CLASS_DEFINITIONS = new WeakHashMap<>();
+
     private final VectorStoreRecordKeyField keyField;
     private final List<VectorStoreRecordDataField> dataFields;
     private final List<VectorStoreRecordVectorField> vectorFields;
@@ -30,6 +41,9 @@ public class VectorStoreRecordDefinition {
     private final List<VectorStoreRecordField> nonVectorFields;
     private final List<VectorStoreRecordField> allFields;
     private final Map<String, VectorStoreRecordField> allFieldsMap;
+    // Accessors by field name, for definitions built from a record class
+    @Nullable
+    private final Map<String, VectorStoreRecordFieldAccessor> fieldAccessors;
 
     /**
      * Gets the key field in the record definition.
@@ -97,10 +111,54 @@ public class VectorStoreRecordDefinition {
         return allFieldsMap.get(fieldName);
     }
 
+    /**
+     * Checks if the fields of the records can be read directly through field accessors, without
+     * serializing the records. This is the case for definitions created from a record class whose
+     * fields are accessible.
+     *
+     * @return boolean
+     */
+    public boolean hasFieldAccessors() {
+        return fieldAccessors != null;
+    }
+
+    /**
+     * Gets a definition with the same fields and no field accessors, whose records are read by
+     * serializing them. This is the definition used with a custom object mapper, as the accessors
+     * read the records the way the default object mapper serializes them.
+     *
+     * @return VectorStoreRecordDefinition
+     */
+    public VectorStoreRecordDefinition withoutFieldAccessors() {
+        if (fieldAccessors == null) {
+            return this;
+        }
+        return new VectorStoreRecordDefinition(keyField, dataFields, vectorFields, null);
+    }
+
+    /**
+     * Gets the accessor reading the field with the specified name from the records.
+     *
+     * @param fieldName The name of the field.
+     * @return VectorStoreRecordFieldAccessor
+     * @throws SKException if the definition has no field accessors, or the field is not found.
+     */
+    public VectorStoreRecordFieldAccessor getFieldAccessor(String fieldName) {
+        if (fieldAccessors == null) {
+            throw new SKException("The record definition has no field accessors");
+        }
+        VectorStoreRecordFieldAccessor fieldAccessor = fieldAccessors.get(fieldName);
+        if (fieldAccessor == null) {
+            throw new SKException("Field not found: " + fieldName);
+        }
+        return fieldAccessor;
+    }
+
     private VectorStoreRecordDefinition(
         VectorStoreRecordKeyField keyField,
         List<VectorStoreRecordDataField> dataFields,
-        List<VectorStoreRecordVectorField> vectorFields) {
+        List<VectorStoreRecordVectorField> vectorFields,
+        @Nullable Map<String, VectorStoreRecordFieldAccessor> fieldAccessors) {
         this.keyField = keyField;
         this.dataFields = Collections.unmodifiableList(dataFields);
         this.vectorFields = Collections.unmodifiableList(vectorFields);
@@ -112,18 +170,21 @@ public class VectorStoreRecordDefinition {
                 .collect(Collectors.toList()));
         this.allFieldsMap = Collections.unmodifiableMap(allFields.stream()
             .collect(Collectors.toMap(VectorStoreRecordField::getName, p -> p)));
+        this.fieldAccessors = fieldAccessors == null ? null
+            : Collections.unmodifiableMap(fieldAccessors);
     }
 
     private static VectorStoreRecordDefinition checkFields(
         List<VectorStoreRecordKeyField> keyFields,
         List<VectorStoreRecordDataField> dataFields,
-        List<VectorStoreRecordVectorField> vectorFields) {
+        List<VectorStoreRecordVectorField> vectorFields,
+        @Nullable Map<String, VectorStoreRecordFieldAccessor> fieldAccessors) {
         if (keyFields.size() != 1) {
             throw new IllegalArgumentException("Exactly one key field is required");
         }
 
         return new VectorStoreRecordDefinition(keyFields.iterator().next(), dataFields,
-            vectorFields);
+            vectorFields, fieldAccessors);
     }
 
     /**
@@ -148,21 +209,52 @@ public class VectorStoreRecordDefinition {
             .map(p -> (VectorStoreRecordVectorField) p)
             .collect(Collectors.toList());
 
-        return checkFields(keyFields, dataFields, vectorFields);
+        return checkFields(keyFields, dataFields, vectorFields, null);
     }
 
     /**
      * Create a VectorStoreRecordDefinition from a model.
+     * <p>
+     * The definition is built once per class. When the annotated fields of the class are
+     * accessible, and neither the class nor the fields have Jackson annotations changing how they
+     * are serialized, the definition has field accessors reading the records directly.
      *
      * @param recordClass The model class to create the definition from.
      * @return VectorStoreRecordDefinition
      */
     public static VectorStoreRecordDefinition fromRecordClass(Class<?> recordClass) {
+        synchronized (RECORD_CLASS_DEFINITIONS) {
+            WeakReference<VectorStoreRecordDefinition> reference = RECORD_CLASS_DEFINITIONS
+                .get(recordClass);
+            VectorStoreRecordDefinition definition = reference == null ? null : reference.get();
+            if (definition == null) {
+                definition = buildFromRecordClass(recordClass);
+                RECORD_CLASS_DEFINITIONS.put(recordClass, new WeakReference<>(definition));
+            }
+            return definition;
+        }
+    }
+
+    private static VectorStoreRecordDefinition buildFromRecordClass(Class<?> recordClass) {
         List<VectorStoreRecordKeyField> keyFields = new ArrayList<>();
         List<VectorStoreRecordDataField> dataFields = new ArrayList<>();
         List<VectorStoreRecordVectorField> vectorFields = new ArrayList<>();
+        Map<String, VectorStoreRecordFieldAccessor> fieldAccessors = new HashMap<>();
+        boolean accessible = !VectorStoreRecordFieldAccessor.changesSerialization(recordClass);
 
         for (Field field : recordClass.getDeclaredFields()) {
+            if (field.isAnnotationPresent(VectorStoreRecordKey.class)
+                || field.isAnnotationPresent(VectorStoreRecordData.class)
+                || field.isAnnotationPresent(VectorStoreRecordVector.class)) {
+                VectorStoreRecordFieldAccessor fieldAccessor = VectorStoreRecordFieldAccessor
+                    .create(field);
+                if (fieldAccessor == null) {
+                    accessible = false;
+                } else {
+                    fieldAccessors.put(field.getName(), fieldAccessor);
+                }
+            }
+
             String storageName = null;
             if (field.isAnnotationPresent(JsonProperty.class)) {
                 storageName = field.getAnnotation(JsonProperty.class).value();
@@ -200,6 +292,7 @@ public class VectorStoreRecordDefinition {
                                 .getActualTypeArguments()[0]
                             : null)
                     .isFilterable(dataAttribute.isFilterable())
+                    .isFullTextSearchable(dataAttribute.isFullTextSearchable())
                     .build());
             }
 
@@ -222,11 +315,14 @@ public class VectorStoreRecordDefinition {
                     .withDimensions(vectorAttribute.dimensions())
                     .withIndexKind(vectorAttribute.indexKind())
                     .withDistanceFunction(vectorAttribute.distanceFunction())
+                    .withNormalizeOnIngest(vectorAttribute.normalizeOnIngest())
                     .build());
             }
         }
 
-        return checkFields(keyFields, dataFields, vectorFields);
+        // Records are serialized instead if any field is inaccessible
+        return checkFields(keyFields, dataFields, vectorFields,
+            accessible ? fieldAccessors : null);
     }
 
     /**
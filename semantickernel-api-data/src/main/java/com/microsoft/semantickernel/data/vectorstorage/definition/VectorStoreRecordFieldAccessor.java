@@ -0,0 +1,140 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.vectorstorage.definition;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import javax.annotation.Nullable;
+
+/**
+ * Reads the value of a field of a record directly, through a method handle, without serializing
+ * the record.
+ * <p>
+ * The value is read the way Jackson serializes it with a default object mapper: through the
+ * public getter of the field when there is one, else from the field itself. Fields whose value
+ * Jackson annotations may change have no accessor.
+ */
+public final class VectorStoreRecordFieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class,
+        Object.class);
+
+    private final String fieldName;
+    // Getter adapted to (Object)Object, so that it can be invoked exactly
+    private final MethodHandle getter;
+
+    private VectorStoreRecordFieldAccessor(String fieldName, MethodHandle getter) {
+        this.fieldName = fieldName;
+        this.getter = getter;
+    }
+
+    /**
+     * Creates an accessor for a field of a record class.
+     *
+     * @param field The field.
+     * @return The accessor, or null if the field cannot be accessed or its serialization is
+     *     changed by Jackson annotations.
+     */
+    @Nullable
+    static VectorStoreRecordFieldAccessor create(Field field) {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            Method method = findGetter(field);
+            if (changesSerialization(field)
+                || (method != null && changesSerialization(method))) {
+                return null;
+            }
+            MethodHandle getter;
+            if (method != null) {
+                method.setAccessible(true);
+                getter = lookup.unreflect(method);
+            } else {
+                field.setAccessible(true);
+                getter = lookup.unreflectGetter(field);
+            }
+            return new VectorStoreRecordFieldAccessor(field.getName(),
+                getter.asType(GETTER_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            // Inaccessible, for example in a module that is not open
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether an element has Jackson annotations that may change how the records are
+     * serialized, other than property names and creators.
+     *
+     * @param element The record class, field or getter.
+     * @return {@code true} if the records are to be serialized rather than read by accessors.
+     */
+    static boolean changesSerialization(AnnotatedElement element) {
+        for (Annotation annotation : element.getAnnotations()) {
+            if (!annotation.annotationType().getName().startsWith("com.fasterxml.jackson.")) {
+                continue;
+            }
+            if (annotation instanceof JsonProperty) {
+                if (((JsonProperty) annotation).access() == JsonProperty.Access.WRITE_ONLY) {
+                    return true;
+                }
+            } else if (!(annotation instanceof JsonCreator)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Nullable
+    private static Method findGetter(Field field) {
+        String suffix = Character.toUpperCase(field.getName().charAt(0))
+            + field.getName().substring(1);
+        // As for Jackson, "is" getters only read booleans
+        boolean isBoolean = field.getType() == boolean.class || field.getType() == Boolean.class;
+        for (String prefix : isBoolean ? new String[] { "get", "is" }
+            : new String[] { "get" }) {
+            try {
+                Method method = field.getDeclaringClass().getMethod(prefix + suffix);
+                if (!Modifier.isStatic(method.getModifiers())
+                    && method.getReturnType() != void.class) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // Try the next prefix
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the name of the field.
+     *
+     * @return The name of the field.
+     */
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Reads the value of the field of a record.
+     *
+     * @param record The record.
+     * @return The value of the field.
+     * @throws SKException if the value cannot be read.
+     */
+    @Nullable
+    public Object get(Object record) {
+        try {
+            return (Object) getter.invokeExact(record);
+        } catch (Throwable e) {
+            throw new SKException(
+                String.format("Failed to read field %s of the record", fieldName), e);
+        }
+    }
+}
@@ -11,6 +11,7 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
     private final int dimensions;
     private final IndexKind indexKind;
     private final DistanceFunction distanceFunction;
+    private final boolean normalizeOnIngest;
 
     /**
      * Create a builder for the VectorStoreRecordVectorField class.
@@ -38,11 +39,36 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
         int dimensions,
         @Nullable IndexKind indexKind,
         @Nullable DistanceFunction distanceFunction) {
+        this(name, storageName, fieldType, fieldSubType, dimensions, indexKind, distanceFunction,
+            false);
+    }
+
+    /**
+     * Creates a new instance of the VectorStoreRecordVectorField class.
+     *
+     * @param name the name of the field
+     * @param storageName the storage name of the field
+     * @param fieldType the field type
+     * @param dimensions the number of dimensions in the vector
+     * @param indexKind the index kind
+     * @param distanceFunction the distance function
+     * @param normalizeOnIngest whether the vectors are unit-normalized when they are stored
+     */
+    public VectorStoreRecordVectorField(
+        @Nonnull String name,
+        @Nullable String storageName,
+        @Nonnull Class<?> fieldType,
+        Class<?> fieldSubType,
+        int dimensions,
+        @Nullable IndexKind indexKind,
+        @Nullable DistanceFunction distanceFunction,
+        boolean normalizeOnIngest) {
         super(name, storageName, fieldType, fieldSubType);
         this.dimensions = dimensions;
         this.indexKind = indexKind == null ? IndexKind.UNDEFINED : indexKind;
         this.distanceFunction = distanceFunction == null ? DistanceFunction.UNDEFINED
             : distanceFunction;
+        this.normalizeOnIngest = normalizeOnIngest;
     }
 
     /**
@@ -72,6 +98,17 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
         return distanceFunction;
     }
 
+    /**
+     * Gets whether the vectors are unit-normalized when they are stored. Only applies to the
+     * {@link DistanceFunction#COSINE_SIMILARITY} and {@link DistanceFunction#COSINE_DISTANCE}
+     * distance functions, whose scores are then computed as dot products.
+     *
+     * @return whether the vectors are unit-normalized when they are stored
+     */
+    public boolean isNormalizeOnIngest() {
+        return normalizeOnIngest;
+    }
+
     /**
      * A builder for the VectorStoreRecordVectorField class.
      */
@@ -80,6 +117,7 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
         private int dimensions;
         private IndexKind indexKind = IndexKind.UNDEFINED;
         private DistanceFunction distanceFunction = DistanceFunction.UNDEFINED;
+        private boolean normalizeOnIngest;
 
         /**
          * Sets the number of dimensions in the vector.
@@ -114,6 +152,19 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
             return this;
         }
 
+        /**
+         * Sets whether the vectors are unit-normalized when they are stored, and the query
+         * vectors when they are searched, so that cosine scores are computed as dot products.
+         * Stores persisting the vectors return the normalized vectors.
+         *
+         * @param normalizeOnIngest whether the vectors are unit-normalized when they are stored
+         * @return the builder
+         */
+        public Builder withNormalizeOnIngest(boolean normalizeOnIngest) {
+            this.normalizeOnIngest = normalizeOnIngest;
+            return this;
+        }
+
         /**
          * Builds a new instance of the VectorStoreRecordVectorField class.
          *
@@ -134,7 +185,8 @@ public class VectorStoreRecordVectorField extends VectorStoreRecordField {
             return new VectorStoreRecordVectorField(name, storageName, fieldType, fieldSubType,
                 dimensions,
                 indexKind,
-                distanceFunction);
+                distanceFunction,
+                normalizeOnIngest);
         }
     }
 }
@@ -35,6 +35,10 @@ public class VectorSearchOptions {
     private final int skip;
     private final boolean includeVectors;
     private final boolean includeTotalCount;
+    @Nullable
+    private final Double scoreThreshold;
+    private final boolean keysOnly;
+    private final int nprobe;
 
     /**
      * Creates a new instance of the VectorSearchOptions class.
@@ -48,12 +52,54 @@ public class VectorSearchOptions {
     public VectorSearchOptions(VectorSearchFilter vectorSearchFilter,
         String vectorFieldName, int top, int skip, boolean includeVectors,
         boolean includeTotalCount) {
+        this(vectorSearchFilter, vectorFieldName, top, skip, includeVectors, includeTotalCount,
+            null, false);
+    }
+
+    /**
+     * Creates a new instance of the VectorSearchOptions class.
+     * @param vectorSearchFilter The vector search filter.
+     * @param vectorFieldName The name of the vector field.
+     * @param top The limit of the number of results to return.
+     * @param skip The offset of the results to return.
+     * @param includeVectors A value indicating whether to include vectors in the results.
+     * @param includeTotalCount A value indicating whether to include the total count of the results.
+     * @param scoreThreshold The worst score a result may have, or null to return all results.
+     * @param keysOnly A value indicating whether to only return the keys and scores of the results.
+     */
+    public VectorSearchOptions(VectorSearchFilter vectorSearchFilter,
+        String vectorFieldName, int top, int skip, boolean includeVectors,
+        boolean includeTotalCount, @Nullable Double scoreThreshold, boolean keysOnly) {
+        this(vectorSearchFilter, vectorFieldName, top, skip, includeVectors, includeTotalCount,
+            scoreThreshold, keysOnly, 0);
+    }
+
+    /**
+     * Creates a new instance of the VectorSearchOptions class.
+     * @param vectorSearchFilter The vector search filter.
+     * @param vectorFieldName The name of the vector field.
+     * @param top The limit of the number of results to return.
+     * @param skip The offset of the results to return.
+     * @param includeVectors A value indicating whether to include vectors in the results.
+     * @param includeTotalCount A value indicating whether to include the total count of the results.
+     * @param scoreThreshold The worst score a result may have, or null to return all results.
+     * @param keysOnly A value indicating whether to only return the keys and scores of the results.
+     * @param nprobe The number of partitions of an inverted file index to search, or 0 to use
+     *               the default of the store.
+     */
+    public VectorSearchOptions(VectorSearchFilter vectorSearchFilter,
+        String vectorFieldName, int top, int skip, boolean includeVectors,
+        boolean includeTotalCount, @Nullable Double scoreThreshold, boolean keysOnly,
+        int nprobe) {
         this.vectorSearchFilter = vectorSearchFilter;
         this.vectorFieldName = vectorFieldName;
         this.top = Math.max(1, top);
         this.skip = Math.max(0, skip);
         this.includeVectors = includeVectors;
         this.includeTotalCount = includeTotalCount;
+        this.scoreThreshold = scoreThreshold;
+        this.keysOnly = keysOnly;
+        this.nprobe = Math.max(0, nprobe);
     }
 
     /**
@@ -112,6 +158,42 @@ public class VectorSearchOptions {
         return includeTotalCount;
     }
 
+    /**
+     * Gets the worst score a result may have. The threshold is expressed in the score of the
+     * store: it is a minimum score when a higher score is better, such as a similarity, and a
+     * maximum distance when a lower score is better. Stores computing distances in their queries
+     * apply it there; the others apply it to the candidates they score themselves.
+     *
+     * @return The score threshold, or null if results are not limited by score.
+     */
+    @Nullable
+    public Double getScoreThreshold() {
+        return scoreThreshold;
+    }
+
+    /**
+     * Gets a value indicating whether to only return the keys and scores of the results. The
+     * records are then not mapped, and can be fetched later with
+     * {@link com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults#hydrateAsync}.
+     *
+     * @return A value indicating whether to only return the keys and scores of the results.
+     */
+    public boolean isKeysOnly() {
+        return keysOnly;
+    }
+
+    /**
+     * Gets the number of partitions to search when the vector field has an inverted file
+     * index, such as an {@code IVFFLAT} index.
+     * Searching more partitions improves recall at the cost of latency. Stores without such an
+     * index ignore this value.
+     *
+     * @return The number of partitions to search, or 0 to use the default of the store.
+     */
+    public int getNprobe() {
+        return nprobe;
+    }
+
     /**
      * Creates a new instance of the Builder class.
      *
@@ -131,6 +213,9 @@ public class VectorSearchOptions {
         private int skip = 0;
         private boolean includeVectors = false;
         private boolean includeTotalCount = false;
+        private Double scoreThreshold;
+        private boolean keysOnly = false;
+        private int nprobe = 0;
 
         /**
          * Sets the vector search filter.
@@ -193,6 +278,38 @@ public class VectorSearchOptions {
             return this;
         }
 
+        /**
+         * Sets the worst score a result may have: a minimum score when a higher score is
+         * better, and a maximum distance when a lower score is better.
+         * @param scoreThreshold the score threshold
+         * @return {@code this} builder
+         */
+        public Builder withScoreThreshold(Double scoreThreshold) {
+            this.scoreThreshold = scoreThreshold;
+            return this;
+        }
+
+        /**
+         * Sets a value indicating whether to only return the keys and scores of the results.
+         * @param keysOnly a value indicating whether to only return the keys and scores of the results
+         * @return {@code this} builder
+         */
+        public Builder withKeysOnly(boolean keysOnly) {
+            this.keysOnly = keysOnly;
+            return this;
+        }
+
+        /**
+         * Sets the number of partitions to search when the vector field has an inverted file
+         * index.
+         * @param nprobe the number of partitions to search, or 0 to use the default of the store
+         * @return {@code this} builder
+         */
+        public Builder withNprobe(int nprobe) {
+            this.nprobe = nprobe;
+            return this;
+        }
+
         /**
          * Builds a new instance of the VectorSearchOptions class.
          * @return a new instance of the VectorSearchOptions class
@@ -200,7 +317,7 @@ public class VectorSearchOptions {
         @Override
         public VectorSearchOptions build() {
             return new VectorSearchOptions(vectorSearchFilter, vectorFieldName, top, skip,
-                includeVectors, includeTotalCount);
+                includeVectors, includeTotalCount, scoreThreshold, keysOnly, nprobe);
         }
     }
 }
@@ -3,17 +3,26 @@ package com.microsoft.semantickernel.services.textembedding;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.nio.FloatBuffer;
+import java.util.AbstractList;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
-/** Represents a strongly typed vector of numeric data. */
+/**
+ * Represents a strongly typed vector of numeric data.
+ * <p>
+ * The vector is stored as an array of primitive floats, so that an embedding takes four bytes
+ * per dimension. {@link #getVectorArray()} and {@link #getVectorBuffer()} read it without boxing
+ * the values, while {@link #getVector()} exposes it as a list.
+ */
 @SuppressFBWarnings("SING_SINGLETON_HAS_NONPRIVATE_CONSTRUCTOR") // This class is not a singleton
 public class Embedding {
 
     // vector is immutable!
-    private final List<Float> vector;
+    private final float[] vector;
+    // Read-only list view of the vector
+    private final List<Float> vectorList;
 
     private static final Embedding EMPTY = new Embedding();
 
@@ -27,7 +36,8 @@ public class Embedding {
 
     /** Initializes a new instance of the Embedding class. */
     public Embedding() {
-        this.vector = Collections.emptyList();
+        this.vector = new float[0];
+        this.vectorList = new FloatArrayList(this.vector);
     }
 
     /**
@@ -38,7 +48,12 @@ public class Embedding {
      */
     public Embedding(@Nonnull List<Float> vector) {
         Objects.requireNonNull(vector);
-        this.vector = Collections.unmodifiableList(vector);
+        this.vector = new float[vector.size()];
+        int i = 0;
+        for (Float value : vector) {
+            this.vector[i++] = value;
+        }
+        this.vectorList = new FloatArrayList(this.vector);
     }
 
     /**
@@ -49,19 +64,68 @@ public class Embedding {
      */
     public Embedding(@Nonnull float[] vector) {
         Objects.requireNonNull(vector);
-        List<Float> list = new ArrayList<>(vector.length);
-        for (float f : vector) {
-            list.add(f);
-        }
-        this.vector = Collections.unmodifiableList(list);
+        this.vector = vector.clone();
+        this.vectorList = new FloatArrayList(this.vector);
     }
 
     /**
-     * Return the embedding vector as a read-only list.
+     * Return the embedding vector as a read-only list. The list is a view of the vector, values
+     * are boxed as they are read.
      *
      * @return The embedding vector as a read-only list.
      */
     public List<Float> getVector() {
-        return Collections.unmodifiableList(this.vector);
+        return vectorList;
+    }
+
+    /**
+     * Return a copy of the embedding vector as an array.
+     *
+     * @return The embedding vector as an array.
+     */
+    public float[] getVectorArray() {
+        return vector.clone();
+    }
+
+    /**
+     * Return the embedding vector as a read-only buffer, a view of the vector that is not
+     * copied.
+     *
+     * @return The embedding vector as a read-only buffer.
+     */
+    public FloatBuffer getVectorBuffer() {
+        return FloatBuffer.wrap(vector).asReadOnlyBuffer();
+    }
+
+    /**
+     * Return the number of dimensions of the embedding vector.
+     *
+     * @return The number of dimensions of the embedding vector.
+     */
+    public int getDimensions() {
+        return vector.length;
+    }
+
+    /**
+     * A read-only list view of an array of floats.
+     */
+    private static final class FloatArrayList extends AbstractList<Float>
+        implements RandomAccess {
+
+        private final float[] array;
+
+        private FloatArrayList(float[] array) {
+            this.array = array;
+        }
+
+        @Override
+        public Float get(int index) {
+            return array[index];
+        }
+
+        @Override
+        public int size() {
+            return array.length;
+        }
     }
 }
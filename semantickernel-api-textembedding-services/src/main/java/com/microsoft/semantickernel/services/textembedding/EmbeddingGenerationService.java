@@ -3,6 +3,7 @@ package com.microsoft.semantickernel.services.textembedding;
 
 import com.microsoft.semantickernel.services.AIService;
 import java.util.List;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -28,4 +29,18 @@ public interface EmbeddingGenerationService<TValue> extends AIService {
 
     Mono<Embedding> generateEmbeddingAsync(TValue data);
 
+    /**
+     * Generates the embeddings of the data, emitting them in the order of the data as they are
+     * generated. Services splitting the data into several requests emit the embeddings of each
+     * request as soon as the preceding ones have been emitted.
+     * <p>
+     * The default implementation emits the embeddings of {@link #generateEmbeddingsAsync} once
+     * they are all generated.
+     *
+     * @param data List of texts to generate embeddings for
+     * @return Flux of the embeddings of each data point
+     */
+    default Flux<Embedding> generateEmbeddingsStreamAsync(List<TValue> data) {
+        return generateEmbeddingsAsync(data).flatMapIterable(embeddings -> embeddings);
+    }
 }
@@ -4,10 +4,19 @@ package com.microsoft.semantickernel.functionchoice;
 import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
 
 public class FunctionChoiceBehaviorOptions {
+
+    /**
+     * The default maximum number of tool calls of one response invoked concurrently.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_INVOCATIONS = 1;
+
     private final boolean parallelCallsAllowed;
+    private final int maxConcurrentInvocations;
 
-    private FunctionChoiceBehaviorOptions(boolean parallelCallsAllowed) {
+    private FunctionChoiceBehaviorOptions(boolean parallelCallsAllowed,
+        int maxConcurrentInvocations) {
         this.parallelCallsAllowed = parallelCallsAllowed;
+        this.maxConcurrentInvocations = maxConcurrentInvocations;
     }
 
     /**
@@ -26,11 +35,22 @@ public class FunctionChoiceBehaviorOptions {
         return parallelCallsAllowed;
     }
 
+    /**
+     * Gets the maximum number of tool calls of one response invoked concurrently when functions
+     * are auto-invoked. The results are added to the chat history in the order of the tool calls.
+     *
+     * @return The maximum number of concurrent invocations.
+     */
+    public int getMaxConcurrentInvocations() {
+        return maxConcurrentInvocations;
+    }
+
     /**
      * Builder for {@link FunctionChoiceBehaviorOptions}.
      */
     public static class Builder implements SemanticKernelBuilder<FunctionChoiceBehaviorOptions> {
         private boolean allowParallelCalls = false;
+        private int maxConcurrentInvocations = DEFAULT_MAX_CONCURRENT_INVOCATIONS;
 
         /**
          * Sets whether parallel calls to functions are allowed.
@@ -43,8 +63,25 @@ public class FunctionChoiceBehaviorOptions {
             return this;
         }
 
+        /**
+         * Sets the maximum number of tool calls of one response invoked concurrently when
+         * functions are auto-invoked. Defaults to {@link #DEFAULT_MAX_CONCURRENT_INVOCATIONS},
+         * invoking the tool calls one after another.
+         *
+         * @param maxConcurrentInvocations The maximum number of concurrent invocations.
+         * @return The builder instance.
+         */
+        public Builder withMaxConcurrentInvocations(int maxConcurrentInvocations) {
+            this.maxConcurrentInvocations = maxConcurrentInvocations;
+            return this;
+        }
+
         public FunctionChoiceBehaviorOptions build() {
-            return new FunctionChoiceBehaviorOptions(allowParallelCalls);
+            if (maxConcurrentInvocations < 1) {
+                throw new IllegalArgumentException("maxConcurrentInvocations must be positive");
+            }
+            return new FunctionChoiceBehaviorOptions(allowParallelCalls,
+                maxConcurrentInvocations);
         }
     }
 }
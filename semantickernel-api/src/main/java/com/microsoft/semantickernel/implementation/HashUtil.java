@@ -0,0 +1,44 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.implementation;
+
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 hashing of the keys of the caches.
+ */
+public final class HashUtil {
+
+    private HashUtil() {
+    }
+
+    /**
+     * Creates a SHA-256 message digest.
+     *
+     * @return The message digest.
+     * @throws SKException If SHA-256 is not available.
+     */
+    public static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new SKException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Formats a hash as a lowercase hexadecimal string.
+     *
+     * @param hash The hash.
+     * @return The hexadecimal string.
+     */
+    public static String toHexString(byte[] hash) {
+        StringBuilder hex = new StringBuilder(2 * hash.length);
+        for (byte b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16))
+                .append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -31,6 +31,11 @@ public class FunctionResultMetadata<UsageType> {
      */
     public static final String CREATED_AT = "createdAt";
 
+    /**
+     * The key for cacheHit metadata.
+     */
+    public static final String CACHE_HIT = "cacheHit";
+
     private final CaseInsensitiveMap<ContextVariable<?>> metadata;
 
     /**
@@ -87,6 +92,31 @@ public class FunctionResultMetadata<UsageType> {
         return new FunctionResultMetadata<>(metadata);
     }
 
+    /**
+     * Create a new instance of FunctionResultMetadata for a result served from a cache.
+     *
+     * @param id        The id of the cached result, or null.
+     * @param createdAt The time the cached result was created, or null.
+     * @return A new instance of FunctionResultMetadata.
+     */
+    public static FunctionResultMetadata<?> buildCacheHit(
+        @Nullable String id,
+        @Nullable OffsetDateTime createdAt) {
+
+        CaseInsensitiveMap<ContextVariable<?>> metadata = new CaseInsensitiveMap<>();
+
+        if (id != null) {
+            metadata.put(ID, ContextVariable.of(id));
+        }
+        if (createdAt != null) {
+            metadata.put(CREATED_AT, ContextVariable.of(createdAt));
+        }
+        metadata.put(CACHE_HIT, ContextVariable.of(Boolean.TRUE,
+            new ContextVariableTypeConverter.NoopConverter<>(Boolean.class)));
+
+        return new FunctionResultMetadata<>(metadata);
+    }
+
     /**
      * Create a new instance of FunctionResultMetadata with no metadata.
      *
@@ -146,4 +176,17 @@ public class FunctionResultMetadata<UsageType> {
         }
         return createdAt.getValue(OffsetDateTime.class);
     }
+
+    /**
+     * Whether the result was served from a cache rather than generated by the AI service.
+     *
+     * @return {@code true} if the result was served from a cache.
+     */
+    public boolean isCacheHit() {
+        ContextVariable<?> cacheHit = metadata.get(CACHE_HIT);
+        if (cacheHit == null) {
+            return false;
+        }
+        return Boolean.TRUE.equals(cacheHit.getValue(Object.class));
+    }
 }
@@ -0,0 +1,141 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * The messages of a completion, as kept by a {@link CompletionCache}.
+ */
+public final class CachedCompletion {
+
+    private final List<Message> messages;
+    private final OffsetDateTime createdAt;
+    private final Instant expiresAt;
+
+    /**
+     * Creates a new cached completion.
+     *
+     * @param messages  The messages of the completion.
+     * @param createdAt The time the completion was created.
+     * @param expiresAt The time after which the completion must not be served anymore.
+     */
+    public CachedCompletion(List<Message> messages, OffsetDateTime createdAt, Instant expiresAt) {
+        this.messages = Collections.unmodifiableList(new ArrayList<>(messages));
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Gets the messages of the completion.
+     *
+     * @return The messages.
+     */
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    /**
+     * Gets the time the completion was created.
+     *
+     * @return The creation time.
+     */
+    public OffsetDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time after which the completion must not be served anymore.
+     *
+     * @return The expiration time.
+     */
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Whether the completion has expired.
+     *
+     * @param now The current time.
+     * @return {@code true} if the completion has expired.
+     */
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    /**
+     * A message of a cached completion.
+     */
+    public static final class Message {
+
+        @Nullable
+        private final String id;
+        @Nullable
+        private final String role;
+        private final String content;
+        @Nullable
+        private final String modelId;
+
+        /**
+         * Creates a new message.
+         *
+         * @param id      The id of the response of the message, or null.
+         * @param role    The author role of a chat message, or null for a text completion.
+         * @param content The content of the message.
+         * @param modelId The id of the model that generated the message, or null.
+         */
+        public Message(
+            @Nullable String id,
+            @Nullable String role,
+            String content,
+            @Nullable String modelId) {
+            this.id = id;
+            this.role = role;
+            this.content = content;
+            this.modelId = modelId;
+        }
+
+        /**
+         * Gets the id of the response of the message.
+         *
+         * @return The id, or null.
+         */
+        @Nullable
+        public String getId() {
+            return id;
+        }
+
+        /**
+         * Gets the author role of a chat message.
+         *
+         * @return The author role, or null for a text completion.
+         */
+        @Nullable
+        public String getRole() {
+            return role;
+        }
+
+        /**
+         * Gets the content of the message.
+         *
+         * @return The content.
+         */
+        public String getContent() {
+            return content;
+        }
+
+        /**
+         * Gets the id of the model that generated the message.
+         *
+         * @return The model id, or null.
+         */
+        @Nullable
+        public String getModelId() {
+            return modelId;
+        }
+    }
+}
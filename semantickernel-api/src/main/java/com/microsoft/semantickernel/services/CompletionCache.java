@@ -0,0 +1,219 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.implementation.HashUtil;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+/**
+ * A cache of the completions of deterministic requests, shared by the caching chat completion and
+ * text generation services.
+ * <p>
+ * Completions are kept in a bounded in-memory tier, evicting the least recently used completions,
+ * and optionally in a {@link CompletionCacheStore} persisting them across runs. Each completion
+ * expires after the time to live of the cache, in both tiers.
+ */
+public class CompletionCache {
+
+    /**
+     * The default maximum number of completions of the in-memory tier.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1_000;
+
+    /**
+     * The default time a completion is served from the cache.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+    // Serializes the settings with a stable order of the properties and of the map entries
+    private static final ObjectMapper SETTINGS_MAPPER = JsonMapper.builder()
+        .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+        .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+        .build();
+
+    private final Duration ttl;
+    @Nullable
+    private final CompletionCacheStore store;
+    @GuardedBy("entries")
+    private final Map<String, CachedCompletion> entries;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxEntries The maximum number of completions of the in-memory tier.
+     * @param ttl        The time a completion is served from the cache.
+     * @param store      The persistent tier, or null.
+     */
+    public CompletionCache(int maxEntries, Duration ttl, @Nullable CompletionCacheStore store) {
+        if (maxEntries < 1) {
+            throw new SKException("maxEntries must be positive");
+        }
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new SKException("ttl must be positive");
+        }
+        this.ttl = ttl;
+        this.store = store;
+        // Access ordered, so that the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<String, CachedCompletion>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCompletion> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Whether the settings of a request make its completion deterministic, and thus cacheable.
+     * Only requests with a temperature of 0 are considered deterministic.
+     *
+     * @param settings The settings of the request, or null for the defaults of the service.
+     * @return {@code true} if the completion of the request can be cached.
+     */
+    public static boolean isDeterministic(@Nullable PromptExecutionSettings settings) {
+        return settings != null && settings.getTemperature() == 0;
+    }
+
+    /**
+     * Creates a builder of the key of a request.
+     *
+     * @return A new key builder.
+     */
+    public static KeyBuilder keyBuilder() {
+        return new KeyBuilder();
+    }
+
+    /**
+     * Whether the cache has a persistent tier, which may block.
+     *
+     * @return {@code true} if the cache has a persistent tier.
+     */
+    public boolean hasStore() {
+        return store != null;
+    }
+
+    /**
+     * Gets the completion cached for a key.
+     *
+     * @param key The key of the request.
+     * @return The completion, or null if none is cached for the key or if it has expired.
+     */
+    @Nullable
+    public CachedCompletion get(String key) {
+        Instant now = Instant.now();
+        synchronized (entries) {
+            CachedCompletion completion = entries.get(key);
+            if (completion != null) {
+                if (!completion.isExpired(now)) {
+                    return completion;
+                }
+                entries.remove(key);
+            }
+        }
+        if (store == null) {
+            return null;
+        }
+        CachedCompletion completion = store.get(key);
+        if (completion == null || completion.isExpired(now)) {
+            return null;
+        }
+        synchronized (entries) {
+            entries.put(key, completion);
+        }
+        return completion;
+    }
+
+    /**
+     * Caches the completion of a key.
+     *
+     * @param key      The key of the request.
+     * @param messages The messages of the completion.
+     * @return The cached completion.
+     */
+    public CachedCompletion put(String key, List<CachedCompletion.Message> messages) {
+        OffsetDateTime createdAt = OffsetDateTime.now(ZoneOffset.UTC);
+        CachedCompletion completion = new CachedCompletion(messages, createdAt,
+            createdAt.toInstant().plus(ttl));
+        synchronized (entries) {
+            entries.put(key, completion);
+        }
+        if (store != null) {
+            store.put(key, completion);
+        }
+        return completion;
+    }
+
+    /**
+     * Builds the key of a request, a SHA-256 hash of its canonicalized parts.
+     */
+    public static final class KeyBuilder {
+
+        private final MessageDigest digest;
+
+        private KeyBuilder() {
+            digest = HashUtil.newSha256Digest();
+        }
+
+        /**
+         * Adds a part to the key. Parts are length-prefixed, so that consecutive parts cannot
+         * be confused, and a null part differs from an empty part.
+         *
+         * @param part The part, or null.
+         * @return The key builder.
+         */
+        public KeyBuilder add(@Nullable String part) {
+            if (part == null) {
+                digest.update(ByteBuffer.allocate(4).putInt(-1).array());
+                return this;
+            }
+            byte[] bytes = part.getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            digest.update(bytes);
+            return this;
+        }
+
+        /**
+         * Adds the settings of a request to the key, serialized with sorted properties.
+         *
+         * @param settings The settings, or null.
+         * @return The key builder.
+         * @throws SKException If the settings cannot be serialized.
+         */
+        public KeyBuilder addSettings(@Nullable PromptExecutionSettings settings) {
+            if (settings == null) {
+                return add(null);
+            }
+            try {
+                return add(settings.getClass().getName())
+                    .add(SETTINGS_MAPPER.writeValueAsString(settings));
+            } catch (JsonProcessingException e) {
+                throw new SKException("Failed to serialize the execution settings", e);
+            }
+        }
+
+        /**
+         * Builds the key.
+         *
+         * @return The key, as a hexadecimal string.
+         */
+        public String build() {
+            return HashUtil.toHexString(digest.digest());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent store of completions, used as the second tier of a {@link CompletionCache}.
+ * <p>
+ * Implementations may block, and must be safe to use from several threads. Expired completions
+ * may be returned, and are discarded by the cache.
+ */
+public interface CompletionCacheStore {
+
+    /**
+     * Gets the completion stored for a key.
+     *
+     * @param key The key of the completion.
+     * @return The completion, or null if none is stored for the key.
+     */
+    @Nullable
+    CachedCompletion get(String key);
+
+    /**
+     * Stores the completion of a key, replacing any completion stored for the key.
+     *
+     * @param key        The key of the completion.
+     * @param completion The completion.
+     */
+    void put(String key, CachedCompletion completion);
+}
@@ -0,0 +1,157 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import com.microsoft.semantickernel.data.implementation.AppendOnlyFile;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * A {@link CompletionCacheStore} keeping the completions in a local, append-only file.
+ * <p>
+ * Each entry holds its length, followed by the key and the completion. The file is scanned when
+ * it is opened to index the position of the last entry of each key, after which a completion is
+ * read with a single positional read. An entry left incomplete by a crash is truncated when the
+ * file is opened. Replaced and expired entries are not removed from the file.
+ */
+public class FileCompletionCacheStore implements CompletionCacheStore, Closeable {
+
+    private final AppendOnlyFile file;
+    // Position of the length of the last entry of each key
+    private final Map<String, Long> positions;
+
+    private FileCompletionCacheStore(AppendOnlyFile file, Map<String, Long> positions) {
+        this.file = file;
+        this.positions = positions;
+    }
+
+    /**
+     * Opens a store, creating its file if needed.
+     *
+     * @param path The path of the file.
+     * @return The store.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static FileCompletionCacheStore open(Path path) throws IOException {
+        Map<String, Long> positions = new ConcurrentHashMap<>();
+        AppendOnlyFile file = AppendOnlyFile.open(path, (input, position) -> {
+            byte[] entry = new byte[input.readInt()];
+            input.readFully(entry);
+            String key = new DataInputStream(new ByteArrayInputStream(entry)).readUTF();
+            positions.put(key, position);
+        });
+        return new FileCompletionCacheStore(file, positions);
+    }
+
+    @Nullable
+    @Override
+    public CachedCompletion get(String key) {
+        Long position = positions.get(key);
+        if (position == null) {
+            return null;
+        }
+        try {
+            ByteBuffer length = ByteBuffer.allocate(4);
+            file.readFully(length, position);
+            ByteBuffer entry = ByteBuffer.allocate(length.getInt(0));
+            file.readFully(entry, position + 4);
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(entry.array()));
+            input.readUTF();
+            OffsetDateTime createdAt = OffsetDateTime.ofInstant(
+                Instant.ofEpochMilli(input.readLong()), ZoneOffset.UTC);
+            Instant expiresAt = Instant.ofEpochMilli(input.readLong());
+            int count = input.readInt();
+            List<CachedCompletion.Message> messages = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String id = readNullableString(input);
+                String role = readNullableString(input);
+                String content = readString(input);
+                String modelId = readNullableString(input);
+                messages.add(new CachedCompletion.Message(id, role, content, modelId));
+            }
+            return new CachedCompletion(messages, createdAt, expiresAt);
+        } catch (IOException e) {
+            throw new SKException("Failed to read the completion cache", e);
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, CachedCompletion completion) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(0);
+            output.writeUTF(key);
+            output.writeLong(completion.getCreatedAt().toInstant().toEpochMilli());
+            output.writeLong(completion.getExpiresAt().toEpochMilli());
+            output.writeInt(completion.getMessages().size());
+            for (CachedCompletion.Message message : completion.getMessages()) {
+                writeNullableString(output, message.getId());
+                writeNullableString(output, message.getRole());
+                writeString(output, message.getContent());
+                writeNullableString(output, message.getModelId());
+            }
+            output.flush();
+
+            ByteBuffer entry = ByteBuffer.wrap(bytes.toByteArray());
+            entry.putInt(0, entry.capacity() - 4);
+            positions.put(key, file.append(entry));
+        } catch (IOException e) {
+            throw new SKException("Failed to write the completion cache", e);
+        }
+    }
+
+    /**
+     * Gets the number of keys in the store.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    private static void writeString(DataOutputStream output, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static void writeNullableString(DataOutputStream output, @Nullable String value)
+        throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            writeString(output, value);
+        }
+    }
+
+    private static String readString(DataInputStream input) throws IOException {
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Nullable
+    private static String readNullableString(DataInputStream input) throws IOException {
+        return input.readBoolean() ? readString(input) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
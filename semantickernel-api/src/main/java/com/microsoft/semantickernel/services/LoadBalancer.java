@@ -0,0 +1,511 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Balances requests across services of the same kind, such as several deployments of a model.
+ * <p>
+ * Each request is sent to the available service with the lowest score, given by the
+ * {@link Strategy} and divided by the weight of the service. A service is unavailable:
+ * <ul>
+ *     <li>while it has as many outstanding requests as its quota, if it has one,</li>
+ *     <li>while its circuit is open: once a number of consecutive requests have failed with a
+ *     transient error, no request is sent to the service for a break duration, after which a
+ *     single trial request closes the circuit again if it succeeds. Transient errors are
+ *     throttled (429), timed out (408) and server (5xx) responses, timeouts and I/O errors; other
+ *     errors are caused by the request and do not count.</li>
+ * </ul>
+ * Requests fail with an {@link SKException} when no service is available.
+ * <p>
+ * When a hedge delay is set, a request still pending after the delay, or failing with a transient
+ * error, is also sent to another available service. The first response is used while the other
+ * request is cancelled.
+ *
+ * @param <T> The type of the services.
+ */
+public class LoadBalancer<T extends AIService> {
+
+    /**
+     * The default number of consecutive failures opening the circuit of a service.
+     */
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    /**
+     * The default duration a service is taken out of rotation once its circuit opens.
+     */
+    public static final Duration DEFAULT_BREAK_DURATION = Duration.ofSeconds(30);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancer.class);
+    // Weight of the latest latency in its moving average
+    private static final double LATENCY_SMOOTHING = 0.3;
+
+    /**
+     * The score of the services, the service with the lowest score receiving the next request.
+     */
+    public enum Strategy {
+        /**
+         * The number of outstanding requests of the service.
+         */
+        LEAST_OUTSTANDING_REQUESTS,
+        /**
+         * The exponentially weighted moving average of the latency of the service, multiplied by
+         * its number of outstanding requests plus one. Services without a measured latency are
+         * tried first.
+         */
+        LATENCY
+    }
+
+    private final List<Backend<T>> backends;
+    private final Strategy strategy;
+    private final int failureThreshold;
+    private final Duration breakDuration;
+    @Nullable
+    private final Duration hedgeDelay;
+    private final AtomicLong hedgedCount = new AtomicLong();
+
+    private LoadBalancer(
+        List<Backend<T>> backends,
+        Strategy strategy,
+        int failureThreshold,
+        Duration breakDuration,
+        @Nullable Duration hedgeDelay) {
+        this.backends = Collections.unmodifiableList(new ArrayList<>(backends));
+        this.strategy = strategy;
+        this.failureThreshold = failureThreshold;
+        this.breakDuration = breakDuration;
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * Creates a builder for a {@link LoadBalancer}.
+     *
+     * @param <T> The type of the services.
+     * @return A new builder.
+     */
+    public static <T extends AIService> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Gets the services requests are balanced across.
+     *
+     * @return The services.
+     */
+    public List<T> getServices() {
+        return backends.stream()
+            .map(backend -> backend.service)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets a request sent to the selected service, and hedged to another service if a hedge
+     * delay is set.
+     *
+     * @param request Creates the request to a service.
+     * @param <R>     The type of the result of the request.
+     * @return The request.
+     */
+    public <R> Mono<R> execute(Function<T, Mono<R>> request) {
+        return execute(request, true);
+    }
+
+    /**
+     * Gets a request sent to the selected service.
+     *
+     * @param request Creates the request to a service.
+     * @param hedge   Whether the request may be hedged, which requests with side effects must
+     *                not be.
+     * @param <R>     The type of the result of the request.
+     * @return The request.
+     */
+    public <R> Mono<R> execute(Function<T, Mono<R>> request, boolean hedge) {
+        return Mono.defer(() -> {
+            Backend<T> primary = select(null);
+            if (primary == null) {
+                return Mono.error(new SKException("No service available"));
+            }
+            if (!hedge || hedgeDelay == null) {
+                return send(primary, request, null);
+            }
+            // The first response wins and the other request is cancelled. A transient failure
+            // of the primary request sends the request to another service at once, and the
+            // request fails with the primary error once both requests have failed.
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            AtomicInteger failures = new AtomicInteger();
+            Sinks.Empty<Void> primaryFailed = Sinks.empty();
+            Function<Throwable, Mono<R>> onFailure = e -> failures.incrementAndGet() < 2
+                ? Mono.never()
+                : Mono.error(primaryError.get() != null ? primaryError.get() : e);
+
+            // A primary request cancelled by a faster hedged request took at least the hedge delay
+            Mono<R> primaryRequest = send(primary, request, hedgeDelay)
+                .onErrorResume(e -> {
+                    if (!isTransient(e)) {
+                        // Another service would fail the same way
+                        return Mono.error(e);
+                    }
+                    primaryError.set(e);
+                    primaryFailed.tryEmitEmpty();
+                    return onFailure.apply(e);
+                });
+            Mono<R> hedgedRequest = Mono.firstWithSignal(
+                Mono.delay(hedgeDelay).then(), primaryFailed.asMono())
+                .then(Mono.defer(() -> {
+                    Backend<T> secondary = select(primary);
+                    if (secondary == null) {
+                        return onFailure.apply(new SKException("No service available"));
+                    }
+                    hedgedCount.incrementAndGet();
+                    LOGGER.debug("Hedging request to {}", secondary.service.getServiceId());
+                    return send(secondary, request, null).onErrorResume(onFailure);
+                }));
+            return Mono.firstWithSignal(primaryRequest, hedgedRequest);
+        });
+    }
+
+    /**
+     * Gets a streaming request sent to the selected service. The request is outstanding until
+     * the stream terminates, and its latency is the latency of its first element.
+     *
+     * @param request Creates the request to a service.
+     * @param <R>     The type of the elements of the stream.
+     * @return The request.
+     */
+    public <R> Flux<R> executeMany(Function<T, Flux<R>> request) {
+        return Flux.defer(() -> {
+            Backend<T> backend = select(null);
+            if (backend == null) {
+                return Flux.error(new SKException("No service available"));
+            }
+            long start = System.nanoTime();
+            AtomicBoolean first = new AtomicBoolean(true);
+            AtomicBoolean done = new AtomicBoolean();
+            return request.apply(backend.service)
+                .doOnNext(element -> {
+                    if (first.compareAndSet(true, false)) {
+                        recordLatency(backend, System.nanoTime() - start);
+                    }
+                })
+                .doOnComplete(() -> complete(backend, done, true))
+                .doOnError(e -> complete(backend, done, !isTransient(e)))
+                .doOnCancel(() -> cancel(backend, done));
+        });
+    }
+
+    // Sends a request, recording its latency on success, or the lower bound of its latency, if
+    // any, when it is cancelled
+    private <R> Mono<R> send(Backend<T> backend, Function<T, Mono<R>> request,
+        @Nullable Duration cancelledLatency) {
+        long start = System.nanoTime();
+        AtomicBoolean done = new AtomicBoolean();
+        return Mono.defer(() -> request.apply(backend.service))
+            .doOnSuccess(result -> {
+                recordLatency(backend, System.nanoTime() - start);
+                complete(backend, done, true);
+            })
+            .doOnError(e -> complete(backend, done, !isTransient(e)))
+            .doOnCancel(() -> {
+                if (cancelledLatency != null && !done.get()) {
+                    recordLatency(backend,
+                        Math.max(System.nanoTime() - start, cancelledLatency.toNanos()));
+                }
+                cancel(backend, done);
+            });
+    }
+
+    // Selects the available service with the lowest score, and counts the request as outstanding.
+    // Services of equal scores are selected in turn, in proportion to their weights.
+    @Nullable
+    private synchronized Backend<T> select(@Nullable Backend<T> excluded) {
+        long now = System.nanoTime();
+        Backend<T> selected = null;
+        double selectedScore = Double.MAX_VALUE;
+        double totalWeight = 0;
+        for (Backend<T> backend : backends) {
+            if (backend == excluded || !isAvailable(backend, now)) {
+                continue;
+            }
+            backend.credit += backend.weight;
+            totalWeight += backend.weight;
+            double score = getScore(backend) / backend.weight;
+            if (selected == null || score < selectedScore
+                || (score == selectedScore && backend.credit > selected.credit)) {
+                selected = backend;
+                selectedScore = score;
+            }
+        }
+        if (selected != null) {
+            selected.credit -= totalWeight;
+            selected.outstanding++;
+            if (selected.openUntil != 0) {
+                selected.trial = true;
+            }
+        }
+        return selected;
+    }
+
+    private boolean isAvailable(Backend<T> backend, long now) {
+        if (backend.maxOutstanding > 0 && backend.outstanding >= backend.maxOutstanding) {
+            return false;
+        }
+        // A service whose circuit is half open takes a single trial request
+        return backend.openUntil == 0 || (now - backend.openUntil >= 0 && !backend.trial);
+    }
+
+    private double getScore(Backend<T> backend) {
+        switch (strategy) {
+            case LATENCY:
+                return backend.latency * (backend.outstanding + 1);
+            case LEAST_OUTSTANDING_REQUESTS:
+            default:
+                return backend.outstanding;
+        }
+    }
+
+    private synchronized void recordLatency(Backend<T> backend, long latency) {
+        backend.latency = backend.latency == 0 ? latency
+            : LATENCY_SMOOTHING * latency + (1 - LATENCY_SMOOTHING) * backend.latency;
+    }
+
+    // Whether an error tells that the service is unhealthy, rather than that the request is invalid:
+    // a throttled, timed out or server error response, a timeout or an I/O error
+    private static boolean isTransient(Throwable error) {
+        for (Throwable e = error; e != null; e = e.getCause()) {
+            if (e instanceof HttpResponseException) {
+                HttpResponse response = ((HttpResponseException) e).getResponse();
+                if (response == null) {
+                    return true;
+                }
+                int statusCode = response.getStatusCode();
+                return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+            }
+            if (e instanceof IOException || e instanceof TimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Completes a request. A request that failed with an error that is not transient still
+    // reached a healthy service.
+    private synchronized void complete(Backend<T> backend, AtomicBoolean done, boolean healthy) {
+        if (!done.compareAndSet(false, true)) {
+            return;
+        }
+        backend.outstanding--;
+        backend.trial = false;
+        if (healthy) {
+            backend.failures = 0;
+            backend.openUntil = 0;
+        } else if (++backend.failures >= failureThreshold || backend.openUntil != 0) {
+            backend.openUntil = System.nanoTime() + breakDuration.toNanos();
+            LOGGER.warn("Service {} taken out of rotation for {} after {} failures",
+                backend.service.getServiceId(), breakDuration, backend.failures);
+        }
+    }
+
+    private synchronized void cancel(Backend<T> backend, AtomicBoolean done) {
+        if (done.compareAndSet(false, true)) {
+            backend.outstanding--;
+            backend.trial = false;
+        }
+    }
+
+    /**
+     * Gets the number of outstanding requests of a service.
+     *
+     * @param service The service.
+     * @return The number of outstanding requests.
+     */
+    public synchronized int getOutstandingRequests(T service) {
+        return getBackend(service).outstanding;
+    }
+
+    /**
+     * Gets the moving average of the latency of a service.
+     *
+     * @param service The service.
+     * @return The average latency, or zero if no latency was measured.
+     */
+    public synchronized Duration getAverageLatency(T service) {
+        return Duration.ofNanos((long) getBackend(service).latency);
+    }
+
+    /**
+     * Whether the circuit of a service is open, so that it is out of rotation.
+     *
+     * @param service The service.
+     * @return {@code true} if the circuit of the service is open.
+     */
+    public synchronized boolean isCircuitOpen(T service) {
+        return getBackend(service).openUntil != 0;
+    }
+
+    /**
+     * Gets the number of requests hedged to a second service.
+     *
+     * @return The number of hedged requests.
+     */
+    public long getHedgedCount() {
+        return hedgedCount.get();
+    }
+
+    private Backend<T> getBackend(T service) {
+        return backends.stream()
+            .filter(backend -> backend.service == service)
+            .findFirst()
+            .orElseThrow(() -> new SKException("Unknown service"));
+    }
+
+    // A service and the state of its requests
+    private static class Backend<T> {
+
+        private final T service;
+        private final double weight;
+        private final int maxOutstanding;
+        // Guarded by the balancer
+        private int outstanding;
+        private double latency;
+        private int failures;
+        // Weighted round-robin credit, selecting services of equal scores
+        private double credit;
+        // When the circuit may be half opened, or 0 while closed
+        private long openUntil;
+        private boolean trial;
+
+        private Backend(T service, double weight, int maxOutstanding) {
+            this.service = service;
+            this.weight = weight;
+            this.maxOutstanding = maxOutstanding;
+        }
+    }
+
+    /**
+     * A builder for a {@link LoadBalancer}.
+     *
+     * @param <T> The type of the services.
+     */
+    public static class Builder<T extends AIService> implements
+        SemanticKernelBuilder<LoadBalancer<T>> {
+
+        private final List<Backend<T>> backends = new ArrayList<>();
+        private Strategy strategy = Strategy.LEAST_OUTSTANDING_REQUESTS;
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private Duration breakDuration = DEFAULT_BREAK_DURATION;
+        @Nullable
+        private Duration hedgeDelay;
+
+        /**
+         * Adds a service of weight 1 and without quota.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder<T> withService(T service) {
+            return withService(service, 1, 0);
+        }
+
+        /**
+         * Adds a service.
+         *
+         * @param service                The service.
+         * @param weight                 The weight of the service, a service of weight 2
+         *                               receiving as many requests as two services of weight 1.
+         * @param maxOutstandingRequests The maximum number of outstanding requests of the
+         *                               service, or 0 for no quota.
+         * @return The builder.
+         */
+        public Builder<T> withService(T service, double weight, int maxOutstandingRequests) {
+            if (weight <= 0) {
+                throw new SKException("weight must be positive");
+            }
+            if (maxOutstandingRequests < 0) {
+                throw new SKException(
+                    "maxOutstandingRequests must not be negative");
+            }
+            backends.add(new Backend<>(service, weight, maxOutstandingRequests));
+            return this;
+        }
+
+        /**
+         * Sets the strategy scoring the services. Defaults to
+         * {@link Strategy#LEAST_OUTSTANDING_REQUESTS}.
+         *
+         * @param strategy The strategy.
+         * @return The builder.
+         */
+        public Builder<T> withStrategy(Strategy strategy) {
+            this.strategy = strategy;
+            return this;
+        }
+
+        /**
+         * Sets the number of consecutive failures opening the circuit of a service. Defaults to
+         * {@link #DEFAULT_FAILURE_THRESHOLD}.
+         *
+         * @param failureThreshold The number of consecutive failures.
+         * @return The builder.
+         */
+        public Builder<T> withFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the duration a service is taken out of rotation once its circuit opens. Defaults
+         * to {@link #DEFAULT_BREAK_DURATION}.
+         *
+         * @param breakDuration The duration.
+         * @return The builder.
+         */
+        public Builder<T> withBreakDuration(Duration breakDuration) {
+            this.breakDuration = breakDuration;
+            return this;
+        }
+
+        /**
+         * Sets the delay after which a pending request is also sent to another service. Requests
+         * are not hedged by default.
+         *
+         * @param hedgeDelay The delay.
+         * @return The builder.
+         */
+        public Builder<T> withHedgeDelay(Duration hedgeDelay) {
+            this.hedgeDelay = hedgeDelay;
+            return this;
+        }
+
+        @Override
+        public LoadBalancer<T> build() {
+            if (backends.isEmpty()) {
+                throw new SKException("at least one service is required");
+            }
+            if (failureThreshold < 1) {
+                throw new SKException("failureThreshold must be positive");
+            }
+            return new LoadBalancer<>(backends, strategy, failureThreshold, breakDuration,
+                hedgeDelay);
+        }
+    }
+}
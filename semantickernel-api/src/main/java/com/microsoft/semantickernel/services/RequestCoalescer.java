@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalesces identical in-flight requests, so that they share a single upstream request.
+ * <p>
+ * The first subscription to a request of a key starts the upstream request, and the requests of
+ * the same key subscribed before it terminates share its result or its error. The upstream
+ * request is cancelled only once every subscriber has cancelled. A request subscribed after the
+ * upstream request has terminated starts a new one.
+ *
+ * @param <T> The type of the results of the requests.
+ */
+public class RequestCoalescer<T> {
+
+    private final Map<String, Mono<T>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     * Gets a request sharing the in-flight upstream request of its key.
+     *
+     * @param key     The key identifying identical requests.
+     * @param request Creates the upstream request, when no request of the key is in flight.
+     * @return The request.
+     */
+    public Mono<T> execute(String key, Supplier<Mono<T>> request) {
+        return Mono.defer(() -> {
+            requests.incrementAndGet();
+            boolean[] created = new boolean[1];
+            Mono<T> shared = inFlight.computeIfAbsent(key, k -> {
+                created[0] = true;
+                return share(k, request);
+            });
+            if (!created[0]) {
+                coalesced.incrementAndGet();
+            }
+            return shared;
+        });
+    }
+
+    private Mono<T> share(String key, Supplier<Mono<T>> request) {
+        AtomicReference<Mono<T>> shared = new AtomicReference<>();
+        shared.set(Mono.defer(request)
+            // Terminated or cancelled by its last subscriber
+            .doFinally(signal -> inFlight.remove(key, shared.get()))
+            .flux()
+            .publish()
+            .refCount(1)
+            .singleOrEmpty());
+        return shared.get();
+    }
+
+    /**
+     * Gets the number of upstream requests in flight.
+     *
+     * @return The number of in-flight requests.
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Gets the number of requests subscribed.
+     *
+     * @return The number of requests.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * Gets the number of requests that shared an upstream request already in flight.
+     *
+     * @return The number of coalesced requests.
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+}
@@ -0,0 +1,259 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.services.CachedCompletion;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.CompletionCacheStore;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A chat completion service caching the responses of another service to deterministic requests.
+ * <p>
+ * A request is cached only when its execution settings have a temperature of 0, and when it does
+ * not involve the invocation of functions: no tool call is automatically invoked, and the chat
+ * history holds no tool call result. The cache key is a hash of the model id, the execution
+ * settings, the return mode, the functions advertised to the model and the messages. Responses
+ * served from the cache are marked with {@link FunctionResultMetadata#isCacheHit()}.
+ * <p>
+ * Streaming requests are sent to the backing service as they are.
+ */
+public class CachingChatCompletionService implements ChatCompletionService {
+
+    private final ChatCompletionService service;
+    private final CompletionCache cache;
+
+    /**
+     * Creates a new caching service.
+     *
+     * @param service The service generating the responses.
+     * @param cache   The cache of the responses.
+     */
+    public CachingChatCompletionService(ChatCompletionService service, CompletionCache cache) {
+        this.service = service;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a builder for a {@link CachingChatCompletionService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        if (!isCacheable(invocationContext)) {
+            return service.getChatMessageContentsAsync(chatHistory, kernel, invocationContext);
+        }
+        List<ChatMessageContent<?>> messages = chatHistory.getMessages();
+        if (ChatCompletionRequests.hasToolMessages(messages)) {
+            return service.getChatMessageContentsAsync(chatHistory, kernel, invocationContext);
+        }
+
+        String key = ChatCompletionRequests.addMessages(
+            getKeyBuilder(kernel, invocationContext).add("history"), messages)
+            .build();
+        return getCached(key,
+            () -> service.getChatMessageContentsAsync(chatHistory, kernel, invocationContext));
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        if (!isCacheable(invocationContext)) {
+            return service.getChatMessageContentsAsync(prompt, kernel, invocationContext);
+        }
+        String key = getKeyBuilder(kernel, invocationContext)
+            .add("prompt")
+            .add(prompt)
+            .build();
+        return getCached(key,
+            () -> service.getChatMessageContentsAsync(prompt, kernel, invocationContext));
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(chatHistory, kernel,
+            invocationContext);
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(prompt, kernel, invocationContext);
+    }
+
+    private static boolean isCacheable(@Nullable InvocationContext invocationContext) {
+        return invocationContext != null
+            && CompletionCache.isDeterministic(invocationContext.getPromptExecutionSettings())
+            && !ChatCompletionRequests.invokesFunctions(invocationContext);
+    }
+
+    private CompletionCache.KeyBuilder getKeyBuilder(
+        @Nullable Kernel kernel,
+        InvocationContext invocationContext) {
+        return ChatCompletionRequests.addContext(CompletionCache.keyBuilder().add("chat"),
+            getModelId(), kernel, invocationContext);
+    }
+
+    private Mono<List<ChatMessageContent<?>>> getCached(
+        String key,
+        Supplier<Mono<List<ChatMessageContent<?>>>> request) {
+        Mono<List<ChatMessageContent<?>>> response = Mono.defer(() -> {
+            CachedCompletion completion = cache.get(key);
+            if (completion != null) {
+                return Mono.just(toMessages(completion));
+            }
+            Mono<List<ChatMessageContent<?>>> generated = request.get();
+            if (cache.hasStore()) {
+                generated = generated.publishOn(Schedulers.boundedElastic());
+            }
+            return generated.doOnNext(messages -> save(key, messages));
+        });
+        // The persistent tier may block
+        return cache.hasStore() ? response.subscribeOn(Schedulers.boundedElastic()) : response;
+    }
+
+    private void save(String key, List<ChatMessageContent<?>> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<CachedCompletion.Message> cached = new ArrayList<>(messages.size());
+        for (ChatMessageContent<?> message : messages) {
+            // Tool calls cannot be replayed from their content
+            if (message.getAuthorRole() == AuthorRole.TOOL || message.getContent() == null) {
+                return;
+            }
+            FunctionResultMetadata<?> metadata = message.getMetadata();
+            cached.add(new CachedCompletion.Message(
+                metadata == null ? null : metadata.getId(),
+                message.getAuthorRole().name(),
+                message.getContent(),
+                getModelId()));
+        }
+        cache.put(key, cached);
+    }
+
+    private static List<ChatMessageContent<?>> toMessages(CachedCompletion completion) {
+        List<ChatMessageContent<?>> messages = new ArrayList<>();
+        for (CachedCompletion.Message message : completion.getMessages()) {
+            messages.add(new ChatMessageContent<>(
+                AuthorRole.valueOf(message.getRole()),
+                message.getContent(),
+                message.getModelId(),
+                null,
+                null,
+                FunctionResultMetadata.buildCacheHit(message.getId(),
+                    completion.getCreatedAt())));
+        }
+        return Collections.unmodifiableList(messages);
+    }
+
+    /**
+     * A builder for a {@link CachingChatCompletionService}.
+     */
+    public static class Builder implements SemanticKernelBuilder<CachingChatCompletionService> {
+
+        @Nullable
+        private ChatCompletionService service;
+        private int maxEntries = CompletionCache.DEFAULT_MAX_ENTRIES;
+        private Duration ttl = CompletionCache.DEFAULT_TTL;
+        @Nullable
+        private CompletionCacheStore store;
+
+        /**
+         * Sets the service generating the responses.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(ChatCompletionService service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of responses of the in-memory tier. Defaults to
+         * {@link CompletionCache#DEFAULT_MAX_ENTRIES}.
+         *
+         * @param maxEntries The maximum number of responses.
+         * @return The builder.
+         */
+        public Builder withMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the time a response is served from the cache. Defaults to
+         * {@link CompletionCache#DEFAULT_TTL}.
+         *
+         * @param ttl The time to live of the responses.
+         * @return The builder.
+         */
+        public Builder withTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the persistent tier of the cache.
+         *
+         * @param store The persistent tier.
+         * @return The builder.
+         */
+        public Builder withStore(CompletionCacheStore store) {
+            this.store = store;
+            return this;
+        }
+
+        @Override
+        public CachingChatCompletionService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            if (ttl == null) {
+                throw new SKException("ttl is required");
+            }
+            return new CachingChatCompletionService(service,
+                new CompletionCache(maxEntries, ttl, store));
+        }
+    }
+}
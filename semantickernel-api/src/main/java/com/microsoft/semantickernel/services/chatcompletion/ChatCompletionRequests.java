@@ -0,0 +1,144 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.functionchoice.AutoFunctionChoiceBehavior;
+import com.microsoft.semantickernel.functionchoice.FunctionChoiceBehavior;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.orchestration.ToolCallBehavior;
+import com.microsoft.semantickernel.plugin.KernelPlugin;
+import com.microsoft.semantickernel.semanticfunctions.InputVariable;
+import com.microsoft.semantickernel.semanticfunctions.KernelFunction;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.chatcompletion.message.ChatMessageImageContent;
+import java.util.List;
+import javax.annotation.Nullable;
+
+/**
+ * Helpers canonicalizing chat completion requests, for the services deduplicating them.
+ */
+final class ChatCompletionRequests {
+
+    private ChatCompletionRequests() {
+    }
+
+    /**
+     * Whether the tool calls of the response to a request are automatically invoked, so that
+     * the response depends on the side effects of the functions.
+     *
+     * @param invocationContext The invocation context of the request, or null.
+     * @return {@code true} if the tool calls are automatically invoked.
+     */
+    static boolean invokesFunctions(@Nullable InvocationContext invocationContext) {
+        if (invocationContext == null) {
+            return false;
+        }
+        ToolCallBehavior toolCallBehavior = invocationContext.getToolCallBehavior();
+        if (toolCallBehavior != null && toolCallBehavior.isAutoInvokeAllowed()) {
+            return true;
+        }
+        FunctionChoiceBehavior functionChoiceBehavior = invocationContext
+            .getFunctionChoiceBehavior();
+        return functionChoiceBehavior instanceof AutoFunctionChoiceBehavior
+            && ((AutoFunctionChoiceBehavior) functionChoiceBehavior).isAutoInvoke();
+    }
+
+    /**
+     * Whether messages hold tool calls or tool call results, which cannot be canonicalized from
+     * their content.
+     *
+     * @param messages The messages.
+     * @return {@code true} if a message is a tool message or has no content.
+     */
+    static boolean hasToolMessages(List<? extends ChatMessageContent<?>> messages) {
+        for (ChatMessageContent<?> message : messages) {
+            if (message.getAuthorRole() == AuthorRole.TOOL || message.getContent() == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the context of a request to a key: the model id, the execution settings, the return
+     * mode and the functions advertised to the model.
+     *
+     * @param key               The key builder.
+     * @param modelId           The model id of the service, or null.
+     * @param kernel            The kernel of the request, or null.
+     * @param invocationContext The invocation context of the request, or null.
+     * @return The key builder.
+     */
+    static CompletionCache.KeyBuilder addContext(
+        CompletionCache.KeyBuilder key,
+        @Nullable String modelId,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        key.add(modelId);
+        if (invocationContext == null) {
+            return key.addSettings(null).add(null).add("no tools");
+        }
+        key.addSettings(invocationContext.getPromptExecutionSettings())
+            .add(invocationContext.returnMode().name());
+
+        ToolCallBehavior toolCallBehavior = invocationContext.getToolCallBehavior();
+        FunctionChoiceBehavior functionChoiceBehavior = invocationContext
+            .getFunctionChoiceBehavior();
+        if (kernel == null || (toolCallBehavior == null && functionChoiceBehavior == null)) {
+            return key.add("no tools");
+        }
+
+        key.add(toolCallBehavior == null ? null : toolCallBehavior.getClass().getName())
+            .add(functionChoiceBehavior == null ? null
+                : functionChoiceBehavior.getClass().getName());
+        if (toolCallBehavior instanceof ToolCallBehavior.RequiredKernelFunction) {
+            KernelFunction<?> required = ((ToolCallBehavior.RequiredKernelFunction) toolCallBehavior)
+                .getRequiredFunction();
+            key.add(required.getPluginName()).add(required.getName());
+        }
+        for (KernelPlugin plugin : kernel.getPlugins()) {
+            for (KernelFunction<?> function : plugin.getFunctions().values()) {
+                if (toolCallBehavior instanceof ToolCallBehavior.AllowedKernelFunctions
+                    && !((ToolCallBehavior.AllowedKernelFunctions) toolCallBehavior)
+                        .isFunctionAllowed(function)) {
+                    continue;
+                }
+                if (functionChoiceBehavior != null
+                    && !functionChoiceBehavior.isFunctionAllowed(function)) {
+                    continue;
+                }
+                key.add(plugin.getName())
+                    .add(function.getName())
+                    .add(function.getDescription());
+                for (InputVariable parameter : function.getMetadata().getParameters()) {
+                    key.add(parameter.getName())
+                        .add(parameter.getType())
+                        .add(parameter.getDescription())
+                        .add(String.valueOf(parameter.isRequired()));
+                }
+            }
+        }
+        return key;
+    }
+
+    /**
+     * Adds messages to a key.
+     *
+     * @param key      The key builder.
+     * @param messages The messages.
+     * @return The key builder.
+     */
+    static CompletionCache.KeyBuilder addMessages(
+        CompletionCache.KeyBuilder key,
+        List<? extends ChatMessageContent<?>> messages) {
+        for (ChatMessageContent<?> message : messages) {
+            key.add(message.getAuthorRole().name())
+                .add(message.getContentType().name())
+                .add(message.getContent());
+            if (message instanceof ChatMessageImageContent) {
+                key.add(String.valueOf(((ChatMessageImageContent<?>) message).getDetail()));
+            }
+        }
+        return key;
+    }
+}
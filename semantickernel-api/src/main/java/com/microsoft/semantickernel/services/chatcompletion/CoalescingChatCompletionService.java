@@ -0,0 +1,154 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.RequestCoalescer;
+import java.util.List;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A chat completion service sending identical concurrent requests to another service only once.
+ * <p>
+ * Requests are identical when they have the same model id, execution settings, return mode,
+ * functions advertised to the model and messages or prompt. The requests subscribed while an
+ * identical request is in flight share its response, and the request sent to the backing service
+ * is cancelled only once all of them have cancelled. See {@link RequestCoalescer}.
+ * <p>
+ * Requests whose tool calls are automatically invoked, chat histories with tool calls and
+ * streaming requests are sent to the backing service as they are.
+ */
+public class CoalescingChatCompletionService implements ChatCompletionService {
+
+    private final ChatCompletionService service;
+    private final RequestCoalescer<List<ChatMessageContent<?>>> coalescer = new RequestCoalescer<>();
+
+    /**
+     * Creates a new coalescing service.
+     *
+     * @param service The service generating the responses.
+     */
+    public CoalescingChatCompletionService(ChatCompletionService service) {
+        this.service = service;
+    }
+
+    /**
+     * Creates a builder for a {@link CoalescingChatCompletionService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the coalescer of the requests, which counts the in-flight and coalesced requests.
+     *
+     * @return The request coalescer.
+     */
+    public RequestCoalescer<List<ChatMessageContent<?>>> getCoalescer() {
+        return coalescer;
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        List<ChatMessageContent<?>> messages = chatHistory.getMessages();
+        if (ChatCompletionRequests.invokesFunctions(invocationContext)
+            || ChatCompletionRequests.hasToolMessages(messages)) {
+            return service.getChatMessageContentsAsync(chatHistory, kernel, invocationContext);
+        }
+        String key = ChatCompletionRequests.addMessages(
+            getKeyBuilder(kernel, invocationContext).add("history"), messages)
+            .build();
+        return coalescer.execute(key,
+            () -> service.getChatMessageContentsAsync(chatHistory, kernel, invocationContext));
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        if (ChatCompletionRequests.invokesFunctions(invocationContext)) {
+            return service.getChatMessageContentsAsync(prompt, kernel, invocationContext);
+        }
+        String key = getKeyBuilder(kernel, invocationContext)
+            .add("prompt")
+            .add(prompt)
+            .build();
+        return coalescer.execute(key,
+            () -> service.getChatMessageContentsAsync(prompt, kernel, invocationContext));
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(chatHistory, kernel,
+            invocationContext);
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(prompt, kernel, invocationContext);
+    }
+
+    private CompletionCache.KeyBuilder getKeyBuilder(
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return ChatCompletionRequests.addContext(CompletionCache.keyBuilder().add("chat"),
+            getModelId(), kernel, invocationContext);
+    }
+
+    /**
+     * A builder for a {@link CoalescingChatCompletionService}.
+     */
+    public static class Builder implements SemanticKernelBuilder<CoalescingChatCompletionService> {
+
+        @Nullable
+        private ChatCompletionService service;
+
+        /**
+         * Sets the service generating the responses.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(ChatCompletionService service) {
+            this.service = service;
+            return this;
+        }
+
+        @Override
+        public CoalescingChatCompletionService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            return new CoalescingChatCompletionService(service);
+        }
+    }
+}
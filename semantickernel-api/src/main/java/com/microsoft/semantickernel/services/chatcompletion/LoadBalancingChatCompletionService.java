@@ -0,0 +1,134 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.services.LoadBalancer;
+import java.util.List;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A chat completion service balancing requests across several chat completion services, such as
+ * the deployments of a model in several regions. See {@link LoadBalancer}.
+ * <p>
+ * The service is registered in a kernel as any other chat completion service, and has the model id
+ * and service id of the first of its services. Requests whose tool calls are automatically
+ * invoked are not hedged, so that the functions are not invoked twice.
+ */
+public class LoadBalancingChatCompletionService implements ChatCompletionService {
+
+    private final LoadBalancer<ChatCompletionService> loadBalancer;
+
+    /**
+     * Creates a new load balancing service.
+     *
+     * @param loadBalancer The load balancer of the services generating the responses.
+     */
+    public LoadBalancingChatCompletionService(LoadBalancer<ChatCompletionService> loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * Creates a builder for a {@link LoadBalancingChatCompletionService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the load balancer of the requests, which holds the state of the services.
+     *
+     * @return The load balancer.
+     */
+    public LoadBalancer<ChatCompletionService> getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return loadBalancer.getServices().get(0).getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return loadBalancer.getServices().get(0).getServiceId();
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return loadBalancer.execute(
+            service -> service.getChatMessageContentsAsync(chatHistory, kernel,
+                invocationContext),
+            !ChatCompletionRequests.invokesFunctions(invocationContext));
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return loadBalancer.execute(
+            service -> service.getChatMessageContentsAsync(prompt, kernel, invocationContext),
+            !ChatCompletionRequests.invokesFunctions(invocationContext));
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return loadBalancer.executeMany(
+            service -> service.getStreamingChatMessageContentsAsync(chatHistory, kernel,
+                invocationContext));
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return loadBalancer.executeMany(
+            service -> service.getStreamingChatMessageContentsAsync(prompt, kernel,
+                invocationContext));
+    }
+
+    /**
+     * A builder for a {@link LoadBalancingChatCompletionService}.
+     */
+    public static class Builder implements
+        SemanticKernelBuilder<LoadBalancingChatCompletionService> {
+
+        @Nullable
+        private LoadBalancer<ChatCompletionService> loadBalancer;
+
+        /**
+         * Sets the load balancer of the services generating the responses.
+         *
+         * @param loadBalancer The load balancer.
+         * @return The builder.
+         */
+        public Builder withLoadBalancer(LoadBalancer<ChatCompletionService> loadBalancer) {
+            this.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        @Override
+        public LoadBalancingChatCompletionService build() {
+            if (loadBalancer == null) {
+                throw new SKException("loadBalancer is required");
+            }
+            return new LoadBalancingChatCompletionService(loadBalancer);
+        }
+    }
+}
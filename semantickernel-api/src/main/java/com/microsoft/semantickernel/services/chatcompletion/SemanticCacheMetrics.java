@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The hits and misses of a {@link SemanticCachingChatCompletionService}.
+ * <p>
+ * A lookup is a request looked up in the cache, and is either a hit, served from the cache, or a
+ * miss, sent to the backing service. Requests that cannot be cached are bypassed without a
+ * lookup.
+ */
+public final class SemanticCacheMetrics {
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bypassed = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong invalidated = new AtomicLong();
+
+    SemanticCacheMetrics() {
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    void bypassed() {
+        bypassed.incrementAndGet();
+    }
+
+    void expired(int count) {
+        expired.addAndGet(count);
+    }
+
+    void invalidated() {
+        invalidated.incrementAndGet();
+    }
+
+    /**
+     * Gets the number of requests served from the cache.
+     *
+     * @return The number of hits.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of requests looked up in the cache and sent to the backing service.
+     *
+     * @return The number of misses.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of requests sent to the backing service without a lookup, as they cannot
+     * be cached.
+     *
+     * @return The number of bypassed requests.
+     */
+    public long getBypassed() {
+        return bypassed.get();
+    }
+
+    /**
+     * Gets the number of expired responses removed from the cache.
+     *
+     * @return The number of expired responses.
+     */
+    public long getExpired() {
+        return expired.get();
+    }
+
+    /**
+     * Gets the number of responses removed from the cache by an invalidation.
+     *
+     * @return The number of invalidated responses.
+     */
+    public long getInvalidated() {
+        return invalidated.get();
+    }
+
+    /**
+     * Gets the ratio of the lookups that were served from the cache.
+     *
+     * @return The hit rate, between 0 and 1, or 0 if no request was looked up.
+     */
+    public double getHitRate() {
+        long hits = this.hits.get();
+        long lookups = hits + misses.get();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "SemanticCacheMetrics{hits=%d, misses=%d, bypassed=%d, hitRate=%.3f, expired=%d, "
+                + "invalidated=%d}",
+            getHits(), getMisses(), getBypassed(), getHitRate(), getExpired(),
+            getInvalidated());
+    }
+}
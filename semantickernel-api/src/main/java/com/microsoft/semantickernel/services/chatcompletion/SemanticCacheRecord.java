@@ -0,0 +1,223 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordData;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordVector;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * A response stored by a {@link SemanticCachingChatCompletionService}, with the embedding of the
+ * prompt it answered.
+ * <p>
+ * The annotations of the record declare embeddings of {@link #DEFAULT_DIMENSIONS} dimensions,
+ * compared by {@link #DEFAULT_DISTANCE_FUNCTION cosine distance}, which all vector stores
+ * support. Collections storing embeddings of other dimensions, or comparing them with another
+ * distance function, are created with the definition returned by
+ * {@link #getRecordDefinition(int, DistanceFunction)}.
+ */
+public class SemanticCacheRecord {
+
+    /**
+     * The default number of dimensions of the embeddings of the prompts.
+     */
+    public static final int DEFAULT_DIMENSIONS = 1536;
+
+    /**
+     * The default distance function comparing the embeddings of the prompts.
+     */
+    public static final DistanceFunction DEFAULT_DISTANCE_FUNCTION = DistanceFunction.COSINE_DISTANCE;
+
+    /**
+     * The name of the field holding the hash of the context of the prompt.
+     */
+    public static final String CONTEXT_HASH_FIELD = "contextHash";
+
+    /**
+     * The name of the field holding the embedding of the prompt.
+     */
+    public static final String EMBEDDING_FIELD = "embedding";
+
+    @VectorStoreRecordKey
+    private final String id;
+
+    @VectorStoreRecordData(isFilterable = true)
+    private final String contextHash;
+
+    @VectorStoreRecordData
+    private final String prompt;
+
+    @VectorStoreRecordData
+    private final String role;
+
+    @VectorStoreRecordData
+    private final String content;
+
+    @VectorStoreRecordData
+    private final long createdAt;
+
+    @VectorStoreRecordData
+    private final long expiresAt;
+
+    @VectorStoreRecordVector(dimensions = DEFAULT_DIMENSIONS, distanceFunction = DistanceFunction.COSINE_DISTANCE)
+    private final List<Float> embedding;
+
+    /**
+     * Creates a new record.
+     *
+     * @param id          The key of the record.
+     * @param contextHash The hash of the context of the prompt: the model, the execution
+     *                    settings, the functions and the previous messages.
+     * @param prompt      The prompt.
+     * @param role        The author role of the response.
+     * @param content     The content of the response.
+     * @param createdAt   The time the response was created, in milliseconds since the epoch.
+     * @param expiresAt   The time after which the response must not be served anymore, in
+     *                    milliseconds since the epoch.
+     * @param embedding   The embedding of the prompt.
+     */
+    @JsonCreator
+    public SemanticCacheRecord(
+        @JsonProperty("id") String id,
+        @JsonProperty(CONTEXT_HASH_FIELD) String contextHash,
+        @JsonProperty("prompt") String prompt,
+        @JsonProperty("role") String role,
+        @JsonProperty("content") String content,
+        @JsonProperty("createdAt") long createdAt,
+        @JsonProperty("expiresAt") long expiresAt,
+        @JsonProperty(EMBEDDING_FIELD) List<Float> embedding) {
+        this.id = id;
+        this.contextHash = contextHash;
+        this.prompt = prompt;
+        this.role = role;
+        this.content = content;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.embedding = Collections.unmodifiableList(new ArrayList<>(embedding));
+    }
+
+    /**
+     * Gets the definition of records whose embeddings have a number of dimensions, compared by
+     * the {@link #DEFAULT_DISTANCE_FUNCTION default distance function}.
+     *
+     * @param dimensions The number of dimensions of the embeddings.
+     * @return The record definition.
+     */
+    public static VectorStoreRecordDefinition getRecordDefinition(int dimensions) {
+        return getRecordDefinition(dimensions, DEFAULT_DISTANCE_FUNCTION);
+    }
+
+    /**
+     * Gets the definition of records whose embeddings have a number of dimensions, compared by a
+     * distance function.
+     *
+     * @param dimensions       The number of dimensions of the embeddings.
+     * @param distanceFunction The distance function comparing the embeddings.
+     * @return The record definition.
+     */
+    public static VectorStoreRecordDefinition getRecordDefinition(int dimensions,
+        DistanceFunction distanceFunction) {
+        List<VectorStoreRecordField> fields = VectorStoreRecordDefinition
+            .fromRecordClass(SemanticCacheRecord.class)
+            .getAllFields()
+            .stream()
+            .map(field -> {
+                if (!(field instanceof VectorStoreRecordVectorField)) {
+                    return field;
+                }
+                VectorStoreRecordVectorField vectorField = (VectorStoreRecordVectorField) field;
+                return VectorStoreRecordVectorField.builder()
+                    .withName(vectorField.getName())
+                    .withStorageName(vectorField.getStorageName())
+                    .withFieldType(vectorField.getFieldType(), vectorField.getFieldSubType())
+                    .withDimensions(dimensions)
+                    .withIndexKind(vectorField.getIndexKind())
+                    .withDistanceFunction(distanceFunction)
+                    .build();
+            })
+            .collect(Collectors.toList());
+        return VectorStoreRecordDefinition.fromFields(fields);
+    }
+
+    /**
+     * Gets the key of the record.
+     *
+     * @return The key.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Gets the hash of the context of the prompt.
+     *
+     * @return The context hash.
+     */
+    public String getContextHash() {
+        return contextHash;
+    }
+
+    /**
+     * Gets the prompt.
+     *
+     * @return The prompt.
+     */
+    public String getPrompt() {
+        return prompt;
+    }
+
+    /**
+     * Gets the author role of the response.
+     *
+     * @return The author role.
+     */
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Gets the content of the response.
+     *
+     * @return The content.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    /**
+     * Gets the time the response was created, in milliseconds since the epoch.
+     *
+     * @return The creation time.
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Gets the time after which the response must not be served anymore, in milliseconds since
+     * the epoch.
+     *
+     * @return The expiration time.
+     */
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    /**
+     * Gets the embedding of the prompt.
+     *
+     * @return The embedding.
+     */
+    public List<Float> getEmbedding() {
+        return embedding;
+    }
+}
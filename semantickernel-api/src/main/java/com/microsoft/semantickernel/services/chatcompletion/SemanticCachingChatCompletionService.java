@@ -0,0 +1,492 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.textembedding.TextEmbeddingGenerationService;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A chat completion service serving the responses of another service to prompts similar to
+ * prompts it already answered.
+ * <p>
+ * The prompt, which is the last message of the chat history and must be a user message, is
+ * embedded and searched in a collection of {@link SemanticCacheRecord}s. The search is restricted
+ * to the records of the same context: the model id, the execution settings, the functions
+ * advertised to the model and the previous messages of the chat history. The most similar
+ * record whose cosine similarity reaches the threshold is served, marked with
+ * {@link FunctionResultMetadata#isCacheHit()} and with the key of the record as id, so that a
+ * wrong response can be removed with {@link #invalidateAsync(String)}. Otherwise the request is
+ * sent to the backing service, and a response of a single message is stored once it completes.
+ * <p>
+ * Records expire after the time to live of the cache, and expired records found by a search are
+ * deleted. Requests whose tool calls are automatically invoked, chat histories with tool calls
+ * and streaming requests are sent to the backing service as they are. Failures of the collection
+ * or of the embedding service are logged, and the request is then sent to the backing service.
+ * <p>
+ * The collection must exist before the service is used.
+ */
+public class SemanticCachingChatCompletionService implements ChatCompletionService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(
+        SemanticCachingChatCompletionService.class);
+
+    /**
+     * The default minimum cosine similarity of a cached prompt to the prompt of a request.
+     */
+    public static final double DEFAULT_SIMILARITY_THRESHOLD = 0.95;
+
+    /**
+     * The default time a response is served from the cache.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofDays(1);
+
+    /**
+     * The default number of records returned by a search of the collection.
+     */
+    public static final int DEFAULT_SEARCH_TOP = 3;
+
+    private final ChatCompletionService service;
+    private final TextEmbeddingGenerationService embeddingGenerationService;
+    private final VectorStoreRecordCollection<String, SemanticCacheRecord> collection;
+    private final DistanceFunction distanceFunction;
+    // The similarity threshold, as a score of the distance function
+    private final double scoreThreshold;
+    private final Duration ttl;
+    private final int searchTop;
+    private final SemanticCacheMetrics metrics = new SemanticCacheMetrics();
+
+    /**
+     * Creates a new semantic caching service.
+     *
+     * @param service                    The service generating the responses.
+     * @param embeddingGenerationService The service embedding the prompts.
+     * @param collection                 The collection storing the responses.
+     * @param similarityThreshold        The minimum cosine similarity of a cached prompt to the
+     *                                   prompt of a request.
+     * @param distanceFunction           The distance function of the embeddings of the
+     *                                   collection.
+     * @param ttl                        The time a response is served from the cache.
+     * @param searchTop                  The number of records returned by a search.
+     */
+    public SemanticCachingChatCompletionService(
+        ChatCompletionService service,
+        TextEmbeddingGenerationService embeddingGenerationService,
+        VectorStoreRecordCollection<String, SemanticCacheRecord> collection,
+        double similarityThreshold,
+        DistanceFunction distanceFunction,
+        Duration ttl,
+        int searchTop) {
+        this.service = service;
+        this.embeddingGenerationService = embeddingGenerationService;
+        this.collection = collection;
+        this.distanceFunction = distanceFunction;
+        this.scoreThreshold = toScoreThreshold(similarityThreshold, distanceFunction);
+        this.ttl = ttl;
+        this.searchTop = searchTop;
+    }
+
+    /**
+     * Creates a builder for a {@link SemanticCachingChatCompletionService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the hits and misses of the cache.
+     *
+     * @return The metrics of the cache.
+     */
+    public SemanticCacheMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Removes a response from the cache.
+     *
+     * @param id The key of the record of the response, which is the id of the metadata of the
+     *           responses served from the cache.
+     * @return A Mono completing once the response is removed.
+     */
+    public Mono<Void> invalidateAsync(String id) {
+        return collection.deleteAsync(id, null)
+            .doOnSuccess(ignored -> metrics.invalidated());
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        Supplier<Mono<List<ChatMessageContent<?>>>> request = () -> service
+            .getChatMessageContentsAsync(chatHistory, kernel, invocationContext);
+        List<ChatMessageContent<?>> messages = chatHistory.getMessages();
+        if (ChatCompletionRequests.invokesFunctions(invocationContext)
+            || messages.isEmpty()
+            || ChatCompletionRequests.hasToolMessages(messages)
+            || messages.get(messages.size() - 1).getAuthorRole() != AuthorRole.USER) {
+            return bypass(request);
+        }
+
+        List<ChatMessageContent<?>> previous = messages.subList(0, messages.size() - 1);
+        String contextHash = ChatCompletionRequests.addMessages(getKeyBuilder(kernel,
+            invocationContext).add("history"), previous)
+            .build();
+        return lookup(contextHash, messages.get(messages.size() - 1).getContent(), request);
+    }
+
+    @Override
+    public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        Supplier<Mono<List<ChatMessageContent<?>>>> request = () -> service
+            .getChatMessageContentsAsync(prompt, kernel, invocationContext);
+        if (ChatCompletionRequests.invokesFunctions(invocationContext)) {
+            return bypass(request);
+        }
+        String contextHash = getKeyBuilder(kernel, invocationContext)
+            .add("prompt")
+            .build();
+        return lookup(contextHash, prompt, request);
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        ChatHistory chatHistory,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(chatHistory, kernel,
+            invocationContext);
+    }
+
+    @Override
+    public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+        String prompt,
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return service.getStreamingChatMessageContentsAsync(prompt, kernel, invocationContext);
+    }
+
+    private CompletionCache.KeyBuilder getKeyBuilder(
+        @Nullable Kernel kernel,
+        @Nullable InvocationContext invocationContext) {
+        return ChatCompletionRequests.addContext(CompletionCache.keyBuilder().add("semantic"),
+            getModelId(), kernel, invocationContext);
+    }
+
+    private Mono<List<ChatMessageContent<?>>> bypass(
+        Supplier<Mono<List<ChatMessageContent<?>>>> request) {
+        return Mono.defer(() -> {
+            metrics.bypassed();
+            return request.get();
+        });
+    }
+
+    private Mono<List<ChatMessageContent<?>>> lookup(
+        String contextHash,
+        String prompt,
+        Supplier<Mono<List<ChatMessageContent<?>>>> request) {
+        return Mono.defer(() -> embeddingGenerationService.generateEmbeddingAsync(prompt))
+            .map(embedding -> Optional.of(embedding.getVector()))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to embed the prompt, the cache is bypassed", e);
+                return Mono.just(Optional.empty());
+            })
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(embedding -> {
+                if (!embedding.isPresent()) {
+                    return bypass(request);
+                }
+                List<Float> vector = embedding.get();
+                return search(contextHash, vector)
+                    .<List<ChatMessageContent<?>>>map(record -> {
+                        metrics.hit();
+                        return toMessages(record);
+                    })
+                    .switchIfEmpty(Mono.defer(() -> {
+                        metrics.miss();
+                        return request.get()
+                            .flatMap(messages -> save(contextHash, prompt, vector, messages)
+                                .thenReturn(messages));
+                    }));
+            });
+    }
+
+    private Mono<SemanticCacheRecord> search(String contextHash, List<Float> vector) {
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName(SemanticCacheRecord.EMBEDDING_FIELD)
+            .withVectorSearchFilter(VectorSearchFilter.builder()
+                .equalTo(SemanticCacheRecord.CONTEXT_HASH_FIELD, contextHash)
+                .build())
+            .withTop(searchTop)
+            .build();
+
+        return Mono.defer(() -> collection.searchAsync(vector, options))
+            .flatMap(results -> {
+                long now = Instant.now().toEpochMilli();
+                List<String> expired = new ArrayList<>();
+                SemanticCacheRecord match = null;
+                for (VectorSearchResult<SemanticCacheRecord> result : results.getResults()) {
+                    SemanticCacheRecord record = result.getRecord();
+                    if (record == null) {
+                        continue;
+                    }
+                    if (record.getExpiresAt() <= now) {
+                        expired.add(record.getId());
+                    } else if (match == null && isSimilar(result.getScore())) {
+                        match = record;
+                    }
+                }
+                return deleteExpired(expired).then(Mono.justOrEmpty(match));
+            })
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to search the cache", e);
+                return Mono.empty();
+            });
+    }
+
+    // Converts a cosine similarity to a score of a distance function. The embedding services
+    // generate normalized embeddings, whose dot product is their cosine similarity and whose
+    // euclidean distance is sqrt(2 - 2 * similarity).
+    private static double toScoreThreshold(double similarity, DistanceFunction distanceFunction) {
+        switch (distanceFunction) {
+            case COSINE_SIMILARITY:
+            case DOT_PRODUCT:
+                return similarity;
+            case COSINE_DISTANCE:
+                return 1 - similarity;
+            case EUCLIDEAN_DISTANCE:
+                return Math.sqrt(2 - 2 * similarity);
+            default:
+                throw new SKException("Unsupported distance function: " + distanceFunction);
+        }
+    }
+
+    private boolean isSimilar(double score) {
+        return VectorOperations.isHigherScoreBetter(distanceFunction)
+            ? score >= scoreThreshold
+            : score <= scoreThreshold;
+    }
+
+    private Mono<Void> deleteExpired(List<String> expired) {
+        if (expired.isEmpty()) {
+            return Mono.empty();
+        }
+        return collection.deleteBatchAsync(expired, null)
+            .doOnSuccess(ignored -> metrics.expired(expired.size()))
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to delete the expired responses of the cache", e);
+                return Mono.empty();
+            });
+    }
+
+    private Mono<Void> save(
+        String contextHash,
+        String prompt,
+        List<Float> vector,
+        List<ChatMessageContent<?>> messages) {
+        // Only responses of a single message, without tool calls, can be served again
+        if (messages.size() != 1 || ChatCompletionRequests.hasToolMessages(messages)) {
+            return Mono.empty();
+        }
+        ChatMessageContent<?> message = messages.get(0);
+        Instant now = Instant.now();
+        SemanticCacheRecord record = new SemanticCacheRecord(
+            UUID.randomUUID().toString(),
+            contextHash,
+            prompt,
+            message.getAuthorRole().name(),
+            message.getContent(),
+            now.toEpochMilli(),
+            now.plus(ttl).toEpochMilli(),
+            vector);
+        return collection.upsertAsync(record, null)
+            .then()
+            .onErrorResume(e -> {
+                LOGGER.warn("Failed to store the response in the cache", e);
+                return Mono.empty();
+            });
+    }
+
+    private List<ChatMessageContent<?>> toMessages(SemanticCacheRecord record) {
+        return Collections.singletonList(new ChatMessageContent<>(
+            AuthorRole.valueOf(record.getRole()),
+            record.getContent(),
+            getModelId(),
+            null,
+            null,
+            FunctionResultMetadata.buildCacheHit(record.getId(), OffsetDateTime.ofInstant(
+                Instant.ofEpochMilli(record.getCreatedAt()), ZoneOffset.UTC))));
+    }
+
+    /**
+     * A builder for a {@link SemanticCachingChatCompletionService}.
+     */
+    public static class Builder
+        implements SemanticKernelBuilder<SemanticCachingChatCompletionService> {
+
+        @Nullable
+        private ChatCompletionService service;
+        @Nullable
+        private TextEmbeddingGenerationService embeddingGenerationService;
+        @Nullable
+        private VectorStoreRecordCollection<String, SemanticCacheRecord> collection;
+        private double similarityThreshold = DEFAULT_SIMILARITY_THRESHOLD;
+        private DistanceFunction distanceFunction = SemanticCacheRecord.DEFAULT_DISTANCE_FUNCTION;
+        private Duration ttl = DEFAULT_TTL;
+        private int searchTop = DEFAULT_SEARCH_TOP;
+
+        /**
+         * Sets the service generating the responses.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(ChatCompletionService service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the service embedding the prompts.
+         *
+         * @param embeddingGenerationService The embedding generation service.
+         * @return The builder.
+         */
+        public Builder withEmbeddingGenerationService(
+            TextEmbeddingGenerationService embeddingGenerationService) {
+            this.embeddingGenerationService = embeddingGenerationService;
+            return this;
+        }
+
+        /**
+         * Sets the collection storing the responses.
+         *
+         * @param collection The collection.
+         * @return The builder.
+         */
+        public Builder withCollection(
+            VectorStoreRecordCollection<String, SemanticCacheRecord> collection) {
+            this.collection = collection;
+            return this;
+        }
+
+        /**
+         * Sets the minimum cosine similarity of a cached prompt to the prompt of a request.
+         * Defaults to {@link #DEFAULT_SIMILARITY_THRESHOLD}.
+         *
+         * @param similarityThreshold The similarity threshold.
+         * @return The builder.
+         */
+        public Builder withSimilarityThreshold(double similarityThreshold) {
+            this.similarityThreshold = similarityThreshold;
+            return this;
+        }
+
+        /**
+         * Sets the distance function of the embeddings of the collection, as declared by the
+         * definition of its records. Defaults to
+         * {@link SemanticCacheRecord#DEFAULT_DISTANCE_FUNCTION}. The similarity threshold is
+         * compared to the scores of the searches in the units of this function.
+         *
+         * @param distanceFunction The distance function.
+         * @return The builder.
+         * @see SemanticCacheRecord#getRecordDefinition(int, DistanceFunction)
+         */
+        public Builder withDistanceFunction(DistanceFunction distanceFunction) {
+            this.distanceFunction = distanceFunction;
+            return this;
+        }
+
+        /**
+         * Sets the time a response is served from the cache. Defaults to {@link #DEFAULT_TTL}.
+         *
+         * @param ttl The time to live of the responses.
+         * @return The builder.
+         */
+        public Builder withTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the number of records returned by a search of the collection, among which expired
+         * records are deleted. Defaults to {@link #DEFAULT_SEARCH_TOP}.
+         *
+         * @param searchTop The number of records.
+         * @return The builder.
+         */
+        public Builder withSearchTop(int searchTop) {
+            this.searchTop = searchTop;
+            return this;
+        }
+
+        @Override
+        public SemanticCachingChatCompletionService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            if (embeddingGenerationService == null) {
+                throw new SKException("embeddingGenerationService is required");
+            }
+            if (collection == null) {
+                throw new SKException("collection is required");
+            }
+            if (similarityThreshold < -1 || similarityThreshold > 1) {
+                throw new SKException(
+                    "similarityThreshold must be between -1 and 1");
+            }
+            if (distanceFunction == null || distanceFunction == DistanceFunction.UNDEFINED) {
+                throw new SKException("distanceFunction is required");
+            }
+            if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+                throw new SKException("ttl must be positive");
+            }
+            if (searchTop < 1) {
+                throw new SKException("searchTop must be positive");
+            }
+            return new SemanticCachingChatCompletionService(service, embeddingGenerationService,
+                collection, similarityThreshold, distanceFunction, ttl, searchTop);
+        }
+    }
+}
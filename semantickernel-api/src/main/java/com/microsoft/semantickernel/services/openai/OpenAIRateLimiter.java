@@ -0,0 +1,585 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.openai;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpPipelinePosition;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Limits the rate and the concurrency of the requests sent to an OpenAI deployment.
+ * <p>
+ * A limiter is meant to be shared by every service, of every kernel, sending requests to the same
+ * deployment, and is set on the services with {@link OpenAiServiceBuilder#withRateLimiter}.
+ * Requests are sent once:
+ * <ul>
+ *     <li>fewer requests than the concurrency limit are in flight,</li>
+ *     <li>the requests per minute and the estimated tokens per minute of the deployment quota
+ *     have not been used, as token buckets refilled continuously,</li>
+ *     <li>the backoff requested by the last throttled request has elapsed.</li>
+ * </ul>
+ * The concurrency limit adapts to the quota of the deployment: it is increased by one once as many
+ * requests as the limit have succeeded, and halved when a request is throttled by the service,
+ * with a 429 status. No request is sent until the delay of the {@code Retry-After} header of the
+ * throttled request has elapsed.
+ * <p>
+ * The limiter doesn't retry the throttled requests, which are retried by the retry policy of the
+ * client, so that the retries of the client and of the limiter don't multiply. To adapt to every
+ * throttled attempt rather than to the requests failing once the retries of the client are
+ * exhausted, add the policy of the limiter to the client:
+ * <pre>{@code
+ * OpenAIAsyncClient client = new OpenAIClientBuilder()
+ *     .addPolicy(rateLimiter.getHttpPipelinePolicy())
+ *     ...
+ *     .buildAsyncClient();
+ * }</pre>
+ * <p>
+ * Waiting requests are queued per caller, usually the kernel sending the request, and the callers
+ * are served in turn, so that a caller sending many requests doesn't starve the others.
+ */
+public class OpenAIRateLimiter {
+
+    /**
+     * The default initial number of concurrent requests.
+     */
+    public static final int DEFAULT_INITIAL_CONCURRENCY = 4;
+    /**
+     * The default maximum number of concurrent requests.
+     */
+    public static final int DEFAULT_MAX_CONCURRENCY = 64;
+    /**
+     * The default delay before sending requests again after a request throttled without a
+     * {@code Retry-After} header.
+     */
+    public static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OpenAIRateLimiter.class);
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+    // Caller of the requests sent without one
+    private static final Object DEFAULT_CALLER = new Object();
+
+    private final int requestsPerMinute;
+    private final int tokensPerMinute;
+    private final int maxConcurrency;
+    private final Duration defaultRetryAfter;
+
+    // Queues of the waiting requests of each caller, in the order the callers are served
+    private final Map<Object, Deque<Permit>> queues = new LinkedHashMap<>();
+    private double availableRequests;
+    private double availableTokens;
+    private long refilledAt;
+    private int concurrencyLimit;
+    private int inFlight;
+    private int queued;
+    private int successes;
+    private long pausedUntil;
+    // Whether the throttled responses are observed by the policy of the limiter
+    private boolean observingResponses;
+    private long scheduledAt;
+    private boolean scheduled;
+    private long requestCount;
+    private long throttledCount;
+    private long totalQueueWaitNanos;
+    private long maxQueueWaitNanos;
+
+    /**
+     * Creates a new rate limiter.
+     *
+     * @param requestsPerMinute  The maximum number of requests per minute, or 0 for no limit.
+     * @param tokensPerMinute    The maximum number of estimated tokens per minute, or 0 for no
+     *                           limit.
+     * @param initialConcurrency The initial number of concurrent requests.
+     * @param maxConcurrency     The maximum number of concurrent requests.
+     * @param defaultRetryAfter  The delay before sending requests again after a request
+     *                           throttled without a {@code Retry-After} header.
+     */
+    public OpenAIRateLimiter(
+        int requestsPerMinute,
+        int tokensPerMinute,
+        int initialConcurrency,
+        int maxConcurrency,
+        Duration defaultRetryAfter) {
+        this.requestsPerMinute = requestsPerMinute;
+        this.tokensPerMinute = tokensPerMinute;
+        this.maxConcurrency = maxConcurrency;
+        this.defaultRetryAfter = defaultRetryAfter;
+        this.concurrencyLimit = Math.min(initialConcurrency, maxConcurrency);
+        this.availableRequests = requestsPerMinute;
+        this.availableTokens = tokensPerMinute;
+        this.refilledAt = System.nanoTime();
+    }
+
+    /**
+     * Creates a builder for an {@link OpenAIRateLimiter}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets a policy observing the responses to the requests sent by a client, to be added to the
+     * {@link com.azure.core.http.HttpPipeline} of the client. The policy runs for every attempt of
+     * the retry policy of the client, so that the limiter adapts to every throttled attempt. Once
+     * the policy is created, the limiter ignores the throttled requests failing once the retries
+     * of the client are exhausted, whose last attempt was observed by the policy.
+     *
+     * @return The policy.
+     */
+    public HttpPipelinePolicy getHttpPipelinePolicy() {
+        synchronized (this) {
+            observingResponses = true;
+        }
+        return new HttpPipelinePolicy() {
+            @Override
+            public Mono<HttpResponse> process(HttpPipelineCallContext context,
+                HttpPipelineNextPolicy next) {
+                return next.process().doOnNext(response -> {
+                    if (response.getStatusCode() == 429) {
+                        throttled(response);
+                    }
+                });
+            }
+
+            @Override
+            public HttpPipelinePosition getPipelinePosition() {
+                return HttpPipelinePosition.PER_RETRY;
+            }
+        };
+    }
+
+    /**
+     * Gets a request sent once the limits allow it.
+     *
+     * @param caller          The caller of the request, usually its kernel, or {@code null}.
+     * @param estimatedTokens The estimated number of tokens of the request and its response.
+     * @param request         Creates the request.
+     * @param <T>             The type of the result of the request.
+     * @return The request.
+     */
+    public <T> Mono<T> execute(
+        @Nullable Object caller,
+        int estimatedTokens,
+        Supplier<Mono<T>> request) {
+        return acquire(caller, estimatedTokens)
+            .flatMap(permit -> Mono.defer(request)
+                .doOnSuccess(result -> release(permit, true, null))
+                .doOnError(e -> release(permit, false, e))
+                .doOnCancel(() -> release(permit, false, null)));
+    }
+
+    /**
+     * Gets a streaming request sent once the limits allow it. The request counts as in flight
+     * until the stream terminates.
+     *
+     * @param caller          The caller of the request, usually its kernel, or {@code null}.
+     * @param estimatedTokens The estimated number of tokens of the request and its response.
+     * @param request         Creates the request.
+     * @param <T>             The type of the elements of the stream.
+     * @return The request.
+     */
+    public <T> Flux<T> executeMany(
+        @Nullable Object caller,
+        int estimatedTokens,
+        Supplier<Flux<T>> request) {
+        return acquire(caller, estimatedTokens)
+            .flatMapMany(permit -> Flux.defer(request)
+                .doOnComplete(() -> release(permit, true, null))
+                .doOnError(e -> release(permit, false, e))
+                .doOnCancel(() -> release(permit, false, null)));
+    }
+
+    private Mono<Permit> acquire(@Nullable Object caller, int estimatedTokens) {
+        return Mono.create(sink -> {
+            Permit permit = new Permit(caller == null ? DEFAULT_CALLER : caller,
+                estimatedTokens, sink);
+            sink.onCancel(() -> cancel(permit));
+            synchronized (this) {
+                queues.computeIfAbsent(permit.caller, k -> new ArrayDeque<>()).add(permit);
+                queued++;
+            }
+            dispatch();
+        });
+    }
+
+    private void cancel(Permit permit) {
+        synchronized (this) {
+            if (!permit.granted) {
+                Deque<Permit> queue = queues.get(permit.caller);
+                if (queue != null && queue.remove(permit)) {
+                    queued--;
+                    if (queue.isEmpty()) {
+                        queues.remove(permit.caller);
+                    }
+                }
+                return;
+            }
+        }
+        // Granted, but cancelled before the request was sent
+        release(permit, false, null);
+    }
+
+    private void release(Permit permit, boolean succeeded, @Nullable Throwable error) {
+        if (!permit.released.compareAndSet(false, true)) {
+            return;
+        }
+        synchronized (this) {
+            inFlight--;
+            if (error != null && isThrottled(error)) {
+                if (!observingResponses) {
+                    throttled(((HttpResponseException) error).getResponse());
+                }
+            } else if (succeeded && ++successes >= concurrencyLimit) {
+                concurrencyLimit = Math.min(maxConcurrency, concurrencyLimit + 1);
+                successes = 0;
+            }
+        }
+        dispatch();
+    }
+
+    // Sends the waiting requests the limits allow, in turn for each caller
+    private void dispatch() {
+        List<Permit> granted = new ArrayList<>();
+        synchronized (this) {
+            long now = System.nanoTime();
+            refill(now);
+            long delay = 0;
+            while (inFlight < concurrencyLimit && !queues.isEmpty()) {
+                if (now - pausedUntil < 0) {
+                    delay = pausedUntil - now;
+                    break;
+                }
+                Iterator<Map.Entry<Object, Deque<Permit>>> callers = queues.entrySet().iterator();
+                Map.Entry<Object, Deque<Permit>> next = callers.next();
+                Permit permit = next.getValue().peek();
+                int tokens = getTokens(permit);
+                delay = getRefillDelay(tokens);
+                if (delay > 0) {
+                    break;
+                }
+                next.getValue().poll();
+                // The caller is served again once the others have been
+                callers.remove();
+                if (!next.getValue().isEmpty()) {
+                    queues.put(next.getKey(), next.getValue());
+                }
+                if (requestsPerMinute > 0) {
+                    availableRequests -= 1;
+                }
+                if (tokensPerMinute > 0) {
+                    availableTokens -= tokens;
+                }
+                long wait = now - permit.queuedAt;
+                totalQueueWaitNanos += wait;
+                maxQueueWaitNanos = Math.max(maxQueueWaitNanos, wait);
+                requestCount++;
+                queued--;
+                inFlight++;
+                permit.granted = true;
+                granted.add(permit);
+            }
+            if (delay > 0 && (!scheduled || now + delay - scheduledAt < 0)) {
+                scheduled = true;
+                scheduledAt = now + delay;
+                Schedulers.parallel().schedule(this::dispatchScheduled, delay,
+                    TimeUnit.NANOSECONDS);
+            }
+        }
+        granted.forEach(permit -> permit.sink.success(permit));
+    }
+
+    private void dispatchScheduled() {
+        synchronized (this) {
+            if (System.nanoTime() - scheduledAt >= 0) {
+                scheduled = false;
+            }
+        }
+        dispatch();
+    }
+
+    private synchronized void throttled(HttpResponse response) {
+        long now = System.nanoTime();
+        throttledCount++;
+        // Halve the limit once for the requests throttled while the service was paused
+        if (now - pausedUntil >= 0) {
+            concurrencyLimit = Math.max(1, concurrencyLimit / 2);
+            successes = 0;
+        }
+        Duration retryAfter = getRetryAfter(response);
+        if (retryAfter == null) {
+            retryAfter = defaultRetryAfter;
+        }
+        pausedUntil = Math.max(pausedUntil, now + retryAfter.toNanos());
+        LOGGER.debug("Request throttled, concurrency limit lowered to {}, paused for {}",
+            concurrencyLimit, retryAfter);
+    }
+
+    private void refill(long now) {
+        double elapsed = (double) (now - refilledAt) / NANOS_PER_MINUTE;
+        refilledAt = now;
+        availableRequests = Math.min(requestsPerMinute,
+            availableRequests + elapsed * requestsPerMinute);
+        availableTokens = Math.min(tokensPerMinute,
+            availableTokens + elapsed * tokensPerMinute);
+    }
+
+    // A request estimated to exceed the quota on its own waits for a full bucket
+    private int getTokens(Permit permit) {
+        return tokensPerMinute > 0 ? Math.min(permit.tokens, tokensPerMinute) : 0;
+    }
+
+    private long getRefillDelay(int tokens) {
+        double minutes = 0;
+        if (requestsPerMinute > 0 && availableRequests < 1) {
+            minutes = (1 - availableRequests) / requestsPerMinute;
+        }
+        if (tokensPerMinute > 0 && availableTokens < tokens) {
+            minutes = Math.max(minutes, (tokens - availableTokens) / tokensPerMinute);
+        }
+        return minutes > 0 ? Math.max(1, (long) Math.ceil(minutes * NANOS_PER_MINUTE)) : 0;
+    }
+
+    /**
+     * Gets the delay requested by the {@code retry-after-ms} or {@code Retry-After} header of a
+     * throttled response.
+     *
+     * @param response The response.
+     * @return The delay, or {@code null} if the response has no valid header.
+     */
+    @Nullable
+    public static Duration getRetryAfter(HttpResponse response) {
+        try {
+            String millis = response.getHeaderValue(HttpHeaderName.RETRY_AFTER_MS);
+            if (millis != null) {
+                return Duration.ofMillis(Math.max(0, Long.parseLong(millis.trim())));
+            }
+            String retryAfter = response.getHeaderValue(HttpHeaderName.RETRY_AFTER);
+            if (retryAfter != null) {
+                if (retryAfter.trim().matches("\\d+")) {
+                    return Duration.ofSeconds(Long.parseLong(retryAfter.trim()));
+                }
+                OffsetDateTime date = OffsetDateTime.parse(retryAfter.trim(),
+                    DateTimeFormatter.RFC_1123_DATE_TIME);
+                Duration delay = Duration.between(OffsetDateTime.now(), date);
+                return delay.isNegative() ? Duration.ZERO : delay;
+            }
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            LOGGER.debug("Invalid Retry-After header", ex);
+        }
+        return null;
+    }
+
+    private static boolean isThrottled(Throwable e) {
+        return e instanceof HttpResponseException
+            && ((HttpResponseException) e).getResponse() != null
+            && ((HttpResponseException) e).getResponse().getStatusCode() == 429;
+    }
+
+    /**
+     * Gets the current number of concurrent requests allowed.
+     *
+     * @return The concurrency limit.
+     */
+    public synchronized int getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    /**
+     * Gets the number of requests in flight.
+     *
+     * @return The number of in-flight requests.
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * Gets the number of requests waiting to be sent.
+     *
+     * @return The number of queued requests.
+     */
+    public synchronized int getQueuedCount() {
+        return queued;
+    }
+
+    /**
+     * Gets the number of requests sent.
+     *
+     * @return The number of requests.
+     */
+    public synchronized long getRequestCount() {
+        return requestCount;
+    }
+
+    /**
+     * Gets the number of requests throttled by the service, counting every throttled attempt once
+     * the policy of the limiter observes the responses.
+     *
+     * @return The number of throttled requests.
+     */
+    public synchronized long getThrottledCount() {
+        return throttledCount;
+    }
+
+    /**
+     * Gets the average time the sent requests waited in the queue.
+     *
+     * @return The average queue wait time.
+     */
+    public synchronized Duration getAverageQueueWait() {
+        return requestCount == 0 ? Duration.ZERO
+            : Duration.ofNanos(totalQueueWaitNanos / requestCount);
+    }
+
+    /**
+     * Gets the longest time a sent request waited in the queue.
+     *
+     * @return The maximum queue wait time.
+     */
+    public synchronized Duration getMaxQueueWait() {
+        return Duration.ofNanos(maxQueueWaitNanos);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "OpenAIRateLimiter{"
+            + "concurrencyLimit=" + concurrencyLimit
+            + ", inFlight=" + inFlight
+            + ", queued=" + queued
+            + ", requests=" + requestCount
+            + ", throttled=" + throttledCount
+            + ", averageQueueWait=" + getAverageQueueWait()
+            + ", maxQueueWait=" + getMaxQueueWait()
+            + '}';
+    }
+
+    // A waiting or in-flight request
+    private static class Permit {
+
+        private final Object caller;
+        private final int tokens;
+        private final MonoSink<Permit> sink;
+        private final long queuedAt = System.nanoTime();
+        private final AtomicBoolean released = new AtomicBoolean();
+        // Guarded by the limiter
+        private boolean granted;
+
+        private Permit(Object caller, int tokens, MonoSink<Permit> sink) {
+            this.caller = caller;
+            this.tokens = tokens;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * A builder for an {@link OpenAIRateLimiter}.
+     */
+    public static class Builder implements SemanticKernelBuilder<OpenAIRateLimiter> {
+
+        private int requestsPerMinute;
+        private int tokensPerMinute;
+        private int initialConcurrency = DEFAULT_INITIAL_CONCURRENCY;
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private Duration defaultRetryAfter = DEFAULT_RETRY_AFTER;
+
+        /**
+         * Sets the maximum number of requests per minute, the RPM quota of the deployment.
+         * Defaults to no limit.
+         *
+         * @param requestsPerMinute The maximum number of requests per minute.
+         * @return The builder.
+         */
+        public Builder withRequestsPerMinute(int requestsPerMinute) {
+            this.requestsPerMinute = requestsPerMinute;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tokens per minute, the TPM quota of the deployment. The
+         * tokens of a request are estimated as four characters per token of the request, plus
+         * its maximum number of completion tokens. Defaults to no limit.
+         *
+         * @param tokensPerMinute The maximum number of tokens per minute.
+         * @return The builder.
+         */
+        public Builder withTokensPerMinute(int tokensPerMinute) {
+            this.tokensPerMinute = tokensPerMinute;
+            return this;
+        }
+
+        /**
+         * Sets the initial number of concurrent requests. Defaults to
+         * {@link #DEFAULT_INITIAL_CONCURRENCY}.
+         *
+         * @param initialConcurrency The initial number of concurrent requests.
+         * @return The builder.
+         */
+        public Builder withInitialConcurrency(int initialConcurrency) {
+            this.initialConcurrency = initialConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of concurrent requests. Defaults to
+         * {@link #DEFAULT_MAX_CONCURRENCY}.
+         *
+         * @param maxConcurrency The maximum number of concurrent requests.
+         * @return The builder.
+         */
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets the delay before sending requests again after a request throttled without a
+         * {@code Retry-After} header. Defaults to {@link #DEFAULT_RETRY_AFTER}.
+         *
+         * @param defaultRetryAfter The delay.
+         * @return The builder.
+         */
+        public Builder withDefaultRetryAfter(Duration defaultRetryAfter) {
+            this.defaultRetryAfter = defaultRetryAfter;
+            return this;
+        }
+
+        @Override
+        public OpenAIRateLimiter build() {
+            if (requestsPerMinute < 0 || tokensPerMinute < 0) {
+                throw new SKException("rate limits must not be negative");
+            }
+            if (initialConcurrency < 1 || maxConcurrency < 1) {
+                throw new SKException("concurrency must be positive");
+            }
+            return new OpenAIRateLimiter(requestsPerMinute, tokensPerMinute, initialConcurrency,
+                maxConcurrency, defaultRetryAfter);
+        }
+    }
+}
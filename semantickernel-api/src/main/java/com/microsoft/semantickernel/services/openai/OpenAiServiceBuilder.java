@@ -24,6 +24,8 @@ public abstract class OpenAiServiceBuilder<C, T extends AIService, U extends Ope
     protected String serviceId;
     @Nullable
     protected String deploymentName;
+    @Nullable
+    protected OpenAIRateLimiter rateLimiter;
 
     /**
      * Sets the model ID for the service.
@@ -72,6 +74,19 @@ public abstract class OpenAiServiceBuilder<C, T extends AIService, U extends Ope
         return (U) this;
     }
 
+    /**
+     * Sets the rate limiter of the requests sent by the service. A limiter is usually shared by
+     * the services sending requests to the same deployment. The chat completion, text generation
+     * and text embedding services support rate limiting.
+     *
+     * @param rateLimiter The rate limiter
+     * @return The builder
+     */
+    public U withRateLimiter(OpenAIRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+        return (U) this;
+    }
+
     /**
      * Builds the service.
      * @return The service
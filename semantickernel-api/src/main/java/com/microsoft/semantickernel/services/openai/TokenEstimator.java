@@ -0,0 +1,22 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.openai;
+
+/**
+ * Rough estimates of the number of tokens of the requests, for the services limiting or batching
+ * them without a tokenizer of their model.
+ */
+public final class TokenEstimator {
+
+    private TokenEstimator() {
+    }
+
+    /**
+     * Roughly estimates the number of tokens of a text, as four characters per token.
+     *
+     * @param text The text.
+     * @return The estimated number of tokens.
+     */
+    public static int estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+}
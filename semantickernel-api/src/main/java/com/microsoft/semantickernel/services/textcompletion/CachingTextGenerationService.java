@@ -0,0 +1,206 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import com.microsoft.semantickernel.services.CachedCompletion;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.CompletionCacheStore;
+import com.microsoft.semantickernel.services.StreamingTextContent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A text generation service caching the completions of another service to deterministic
+ * requests.
+ * <p>
+ * A request is cached only when its execution settings have a temperature of 0. The cache key is
+ * a hash of the model id, the execution settings and the prompt. Completions served from the
+ * cache are marked with {@link FunctionResultMetadata#isCacheHit()}.
+ * <p>
+ * Streaming requests are sent to the backing service as they are.
+ */
+public class CachingTextGenerationService implements TextGenerationService {
+
+    private final TextGenerationService service;
+    private final CompletionCache cache;
+
+    /**
+     * Creates a new caching service.
+     *
+     * @param service The service generating the completions.
+     * @param cache   The cache of the completions.
+     */
+    public CachingTextGenerationService(TextGenerationService service, CompletionCache cache) {
+        this.service = service;
+        this.cache = cache;
+    }
+
+    /**
+     * Creates a builder for a {@link CachingTextGenerationService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<TextContent>> getTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        if (!CompletionCache.isDeterministic(executionSettings)) {
+            return service.getTextContentsAsync(prompt, executionSettings, kernel);
+        }
+        String key = CompletionCache.keyBuilder()
+            .add("text")
+            .add(getModelId())
+            .addSettings(executionSettings)
+            .add(prompt)
+            .build();
+
+        Mono<List<TextContent>> response = Mono.defer(() -> {
+            CachedCompletion completion = cache.get(key);
+            if (completion != null) {
+                return Mono.just(toTextContents(completion));
+            }
+            Mono<List<TextContent>> generated = service.getTextContentsAsync(prompt,
+                executionSettings, kernel);
+            if (cache.hasStore()) {
+                generated = generated.publishOn(Schedulers.boundedElastic());
+            }
+            return generated.doOnNext(contents -> save(key, contents));
+        });
+        // The persistent tier may block
+        return cache.hasStore() ? response.subscribeOn(Schedulers.boundedElastic()) : response;
+    }
+
+    @Override
+    public Flux<StreamingTextContent> getStreamingTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        return service.getStreamingTextContentsAsync(prompt, executionSettings, kernel);
+    }
+
+    private void save(String key, List<TextContent> contents) {
+        if (contents.isEmpty()) {
+            return;
+        }
+        List<CachedCompletion.Message> cached = new ArrayList<>(contents.size());
+        for (TextContent content : contents) {
+            FunctionResultMetadata<?> metadata = content.getMetadata();
+            cached.add(new CachedCompletion.Message(
+                metadata == null ? null : metadata.getId(),
+                null,
+                content.getContent(),
+                getModelId()));
+        }
+        cache.put(key, cached);
+    }
+
+    private static List<TextContent> toTextContents(CachedCompletion completion) {
+        List<TextContent> contents = new ArrayList<>();
+        for (CachedCompletion.Message message : completion.getMessages()) {
+            contents.add(new TextContent(
+                message.getContent(),
+                message.getModelId(),
+                FunctionResultMetadata.buildCacheHit(message.getId(),
+                    completion.getCreatedAt())));
+        }
+        return Collections.unmodifiableList(contents);
+    }
+
+    /**
+     * A builder for a {@link CachingTextGenerationService}.
+     */
+    public static class Builder implements SemanticKernelBuilder<CachingTextGenerationService> {
+
+        @Nullable
+        private TextGenerationService service;
+        private int maxEntries = CompletionCache.DEFAULT_MAX_ENTRIES;
+        private Duration ttl = CompletionCache.DEFAULT_TTL;
+        @Nullable
+        private CompletionCacheStore store;
+
+        /**
+         * Sets the service generating the completions.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(TextGenerationService service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of completions of the in-memory tier. Defaults to
+         * {@link CompletionCache#DEFAULT_MAX_ENTRIES}.
+         *
+         * @param maxEntries The maximum number of completions.
+         * @return The builder.
+         */
+        public Builder withMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the time a completion is served from the cache. Defaults to
+         * {@link CompletionCache#DEFAULT_TTL}.
+         *
+         * @param ttl The time to live of the completions.
+         * @return The builder.
+         */
+        public Builder withTtl(Duration ttl) {
+            this.ttl = ttl;
+            return this;
+        }
+
+        /**
+         * Sets the persistent tier of the cache.
+         *
+         * @param store The persistent tier.
+         * @return The builder.
+         */
+        public Builder withStore(CompletionCacheStore store) {
+            this.store = store;
+            return this;
+        }
+
+        @Override
+        public CachingTextGenerationService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            if (ttl == null) {
+                throw new SKException("ttl is required");
+            }
+            return new CachingTextGenerationService(service,
+                new CompletionCache(maxEntries, ttl, store));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import com.microsoft.semantickernel.services.CompletionCache;
+import com.microsoft.semantickernel.services.RequestCoalescer;
+import com.microsoft.semantickernel.services.StreamingTextContent;
+import java.util.List;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A text generation service sending identical concurrent requests to another service only once.
+ * <p>
+ * Requests are identical when they have the same model id, execution settings and prompt. The
+ * requests subscribed while an identical request is in flight share its completions, and the
+ * request sent to the backing service is cancelled only once all of them have cancelled. See
+ * {@link RequestCoalescer}.
+ * <p>
+ * Streaming requests are sent to the backing service as they are.
+ */
+public class CoalescingTextGenerationService implements TextGenerationService {
+
+    private final TextGenerationService service;
+    private final RequestCoalescer<List<TextContent>> coalescer = new RequestCoalescer<>();
+
+    /**
+     * Creates a new coalescing service.
+     *
+     * @param service The service generating the completions.
+     */
+    public CoalescingTextGenerationService(TextGenerationService service) {
+        this.service = service;
+    }
+
+    /**
+     * Creates a builder for a {@link CoalescingTextGenerationService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the coalescer of the requests, which counts the in-flight and coalesced requests.
+     *
+     * @return The request coalescer.
+     */
+    public RequestCoalescer<List<TextContent>> getCoalescer() {
+        return coalescer;
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<TextContent>> getTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        String key = CompletionCache.keyBuilder()
+            .add("text")
+            .add(getModelId())
+            .addSettings(executionSettings)
+            .add(prompt)
+            .build();
+        return coalescer.execute(key,
+            () -> service.getTextContentsAsync(prompt, executionSettings, kernel));
+    }
+
+    @Override
+    public Flux<StreamingTextContent> getStreamingTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        return service.getStreamingTextContentsAsync(prompt, executionSettings, kernel);
+    }
+
+    /**
+     * A builder for a {@link CoalescingTextGenerationService}.
+     */
+    public static class Builder implements SemanticKernelBuilder<CoalescingTextGenerationService> {
+
+        @Nullable
+        private TextGenerationService service;
+
+        /**
+         * Sets the service generating the completions.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(TextGenerationService service) {
+            this.service = service;
+            return this;
+        }
+
+        @Override
+        public CoalescingTextGenerationService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            return new CoalescingTextGenerationService(service);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textcompletion;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import com.microsoft.semantickernel.services.LoadBalancer;
+import com.microsoft.semantickernel.services.StreamingTextContent;
+import java.util.List;
+import javax.annotation.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * A text generation service balancing requests across several text generation services, such as
+ * the deployments of a model in several regions. See {@link LoadBalancer}.
+ * <p>
+ * The service is registered in a kernel as any other text generation service, and has the model
+ * id and service id of the first of its services.
+ */
+public class LoadBalancingTextGenerationService implements TextGenerationService {
+
+    private final LoadBalancer<TextGenerationService> loadBalancer;
+
+    /**
+     * Creates a new load balancing service.
+     *
+     * @param loadBalancer The load balancer of the services generating the completions.
+     */
+    public LoadBalancingTextGenerationService(LoadBalancer<TextGenerationService> loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    /**
+     * Creates a builder for a {@link LoadBalancingTextGenerationService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Gets the load balancer of the requests, which holds the state of the services.
+     *
+     * @return The load balancer.
+     */
+    public LoadBalancer<TextGenerationService> getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return loadBalancer.getServices().get(0).getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return loadBalancer.getServices().get(0).getServiceId();
+    }
+
+    @Override
+    public Mono<List<TextContent>> getTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        return loadBalancer.execute(
+            service -> service.getTextContentsAsync(prompt, executionSettings, kernel));
+    }
+
+    @Override
+    public Flux<StreamingTextContent> getStreamingTextContentsAsync(
+        String prompt,
+        @Nullable PromptExecutionSettings executionSettings,
+        @Nullable Kernel kernel) {
+        return loadBalancer.executeMany(
+            service -> service.getStreamingTextContentsAsync(prompt, executionSettings, kernel));
+    }
+
+    /**
+     * A builder for a {@link LoadBalancingTextGenerationService}.
+     */
+    public static class Builder implements
+        SemanticKernelBuilder<LoadBalancingTextGenerationService> {
+
+        @Nullable
+        private LoadBalancer<TextGenerationService> loadBalancer;
+
+        /**
+         * Sets the load balancer of the services generating the completions.
+         *
+         * @param loadBalancer The load balancer.
+         * @return The builder.
+         */
+        public Builder withLoadBalancer(LoadBalancer<TextGenerationService> loadBalancer) {
+            this.loadBalancer = loadBalancer;
+            return this;
+        }
+
+        @Override
+        public LoadBalancingTextGenerationService build() {
+            if (loadBalancer == null) {
+                throw new SKException("loadBalancer is required");
+            }
+            return new LoadBalancingTextGenerationService(loadBalancer);
+        }
+    }
+}
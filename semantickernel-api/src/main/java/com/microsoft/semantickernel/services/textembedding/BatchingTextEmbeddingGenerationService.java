@@ -0,0 +1,325 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.services.openai.TokenEstimator;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A text embedding generation service coalescing concurrent single text requests into batches.
+ * <p>
+ * Texts passed to {@link #generateEmbeddingAsync(String)} are queued, and the queue is sent to
+ * the backing service as a single {@link #generateEmbeddingsAsync(List)} request when the first
+ * queued text has waited for the maximum delay, or as soon as the queue reaches the maximum
+ * number of texts or of tokens. The embeddings of the batch are then dispatched to each caller.
+ * A caller cancelling before its batch is sent leaves the queue. Lists of texts are already
+ * batches, and are sent to the backing service as they are.
+ */
+public class BatchingTextEmbeddingGenerationService implements TextEmbeddingGenerationService {
+
+    /**
+     * The default maximum time a text waits for other texts to join its batch.
+     */
+    public static final Duration DEFAULT_MAX_DELAY = Duration.ofMillis(5);
+
+    /**
+     * The default maximum number of texts of a batch.
+     */
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private final EmbeddingGenerationService<String> service;
+    private final Duration maxDelay;
+    private final int maxBatchSize;
+    private final int maxBatchTokens;
+    private final ToIntFunction<String> tokenCounter;
+    private final Scheduler scheduler;
+
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private List<Request> pending = new ArrayList<>();
+    @GuardedBy("lock")
+    private int pendingTokens;
+    // Identifies the queued batch, so that the timer of a batch already sent does not flush the
+    // next one
+    @GuardedBy("lock")
+    private long pendingBatch;
+    @GuardedBy("lock")
+    @Nullable
+    private Disposable timer;
+
+    /**
+     * Creates a new batching service.
+     *
+     * @param service        The service generating the embeddings.
+     * @param maxDelay       The maximum time a text waits for other texts to join its batch.
+     * @param maxBatchSize   The maximum number of texts of a batch.
+     * @param maxBatchTokens The maximum number of tokens of a batch, or 0 for no limit.
+     * @param tokenCounter   Estimates the number of tokens of a text, or null to estimate four
+     *                       characters per token.
+     */
+    public BatchingTextEmbeddingGenerationService(
+        EmbeddingGenerationService<String> service,
+        Duration maxDelay,
+        int maxBatchSize,
+        int maxBatchTokens,
+        @Nullable ToIntFunction<String> tokenCounter) {
+        this.service = service;
+        this.maxDelay = maxDelay;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchTokens = maxBatchTokens;
+        this.tokenCounter = tokenCounter != null ? tokenCounter
+            : TokenEstimator::estimateTokens;
+        this.scheduler = Schedulers.parallel();
+    }
+
+    /**
+     * Creates a builder for a {@link BatchingTextEmbeddingGenerationService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+        return service.generateEmbeddingsAsync(data);
+    }
+
+    @Override
+    public Flux<Embedding> generateEmbeddingsStreamAsync(List<String> data) {
+        return service.generateEmbeddingsStreamAsync(data);
+    }
+
+    @Override
+    public Mono<Embedding> generateEmbeddingAsync(String data) {
+        return Mono.create(sink -> {
+            Request request = new Request(data, tokenCounter.applyAsInt(data), sink);
+            enqueue(request);
+            sink.onCancel(() -> cancel(request));
+        });
+    }
+
+    private void enqueue(Request request) {
+        List<Request> overflow = null;
+        List<Request> full = null;
+        synchronized (lock) {
+            // A text that would exceed the token limit starts a new batch
+            if (!pending.isEmpty() && maxBatchTokens > 0
+                && pendingTokens + request.tokens > maxBatchTokens) {
+                overflow = takePending();
+            }
+            pending.add(request);
+            pendingTokens += request.tokens;
+            if (pending.size() >= maxBatchSize
+                || (maxBatchTokens > 0 && pendingTokens >= maxBatchTokens)) {
+                full = takePending();
+            } else if (timer == null) {
+                long batch = pendingBatch;
+                timer = scheduler.schedule(() -> flush(batch), maxDelay.toNanos(),
+                    TimeUnit.NANOSECONDS);
+            }
+        }
+        if (overflow != null) {
+            send(overflow);
+        }
+        if (full != null) {
+            send(full);
+        }
+    }
+
+    private void flush(long batch) {
+        List<Request> requests;
+        synchronized (lock) {
+            // The batch was sent, or its callers cancelled, while the timer was firing
+            if (batch != pendingBatch) {
+                return;
+            }
+            requests = takePending();
+        }
+        send(requests);
+    }
+
+    private void cancel(Request request) {
+        synchronized (lock) {
+            if (!pending.remove(request)) {
+                // The batch of the request was already sent
+                return;
+            }
+            pendingTokens -= request.tokens;
+            if (pending.isEmpty()) {
+                takePending();
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private List<Request> takePending() {
+        List<Request> batch = pending;
+        pending = new ArrayList<>();
+        pendingTokens = 0;
+        pendingBatch++;
+        if (timer != null) {
+            timer.dispose();
+            timer = null;
+        }
+        return batch;
+    }
+
+    private void send(List<Request> batch) {
+        List<String> texts = batch.stream()
+            .map(request -> request.text)
+            .collect(Collectors.toList());
+        Mono.defer(() -> service.generateEmbeddingsAsync(texts))
+            .subscribe(
+                embeddings -> {
+                    if (embeddings.size() != batch.size()) {
+                        SKException error = new SKException(String.format(
+                            "The service generated %d embeddings for %d texts",
+                            embeddings.size(), batch.size()));
+                        batch.forEach(request -> request.sink.error(error));
+                        return;
+                    }
+                    for (int i = 0; i < batch.size(); i++) {
+                        batch.get(i).sink.success(embeddings.get(i));
+                    }
+                },
+                error -> batch.forEach(request -> request.sink.error(error)),
+                // Completes the callers of a batch that produced no embeddings
+                () -> batch.forEach(request -> request.sink.success()));
+    }
+
+    /**
+     * A text waiting for its embedding.
+     */
+    private static final class Request {
+
+        private final String text;
+        private final int tokens;
+        private final MonoSink<Embedding> sink;
+
+        private Request(String text, int tokens, MonoSink<Embedding> sink) {
+            this.text = text;
+            this.tokens = tokens;
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * A builder for a {@link BatchingTextEmbeddingGenerationService}.
+     */
+    public static class Builder
+        implements SemanticKernelBuilder<BatchingTextEmbeddingGenerationService> {
+
+        @Nullable
+        private EmbeddingGenerationService<String> service;
+        private Duration maxDelay = DEFAULT_MAX_DELAY;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private int maxBatchTokens;
+        @Nullable
+        private ToIntFunction<String> tokenCounter;
+
+        /**
+         * Sets the service generating the embeddings.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(EmbeddingGenerationService<String> service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the maximum time a text waits for other texts to join its batch. Defaults to
+         * {@link #DEFAULT_MAX_DELAY}.
+         *
+         * @param maxDelay The maximum delay.
+         * @return The builder.
+         */
+        public Builder withMaxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of texts of a batch. Defaults to
+         * {@link #DEFAULT_MAX_BATCH_SIZE}.
+         *
+         * @param maxBatchSize The maximum number of texts.
+         * @return The builder.
+         */
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tokens of a batch, as estimated by the token counter. A
+         * text exceeding the limit on its own is sent alone. Defaults to 0, for no limit.
+         *
+         * @param maxBatchTokens The maximum number of tokens.
+         * @return The builder.
+         */
+        public Builder withMaxBatchTokens(int maxBatchTokens) {
+            this.maxBatchTokens = maxBatchTokens;
+            return this;
+        }
+
+        /**
+         * Sets the function estimating the number of tokens of a text. Defaults to
+         * {@link TokenEstimator#estimateTokens(String)}.
+         *
+         * @param tokenCounter The token counter.
+         * @return The builder.
+         */
+        public Builder withTokenCounter(ToIntFunction<String> tokenCounter) {
+            this.tokenCounter = tokenCounter;
+            return this;
+        }
+
+        @Override
+        public BatchingTextEmbeddingGenerationService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            if (maxDelay == null || maxDelay.isNegative()) {
+                throw new SKException("maxDelay must not be negative");
+            }
+            if (maxBatchSize < 1) {
+                throw new SKException("maxBatchSize must be positive");
+            }
+            if (maxBatchTokens < 0) {
+                throw new SKException("maxBatchTokens must not be negative");
+            }
+            return new BatchingTextEmbeddingGenerationService(service, maxDelay, maxBatchSize,
+                maxBatchTokens, tokenCounter);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import com.microsoft.semantickernel.builders.SemanticKernelBuilder;
+import com.microsoft.semantickernel.exceptions.SKException;
+import com.microsoft.semantickernel.implementation.HashUtil;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * A text embedding generation service caching the embeddings generated by another service.
+ * <p>
+ * Embeddings are keyed by a hash of the model id, the dimensions and the text. They are kept in
+ * a bounded in-memory tier, evicting the least recently used embeddings, and optionally in an
+ * {@link EmbeddingCacheStore} persisting them across runs. Only the texts missing from both tiers
+ * are sent to the backing service, in a single request, and their embeddings are spliced back in
+ * the order of the texts.
+ */
+public class CachingTextEmbeddingGenerationService implements TextEmbeddingGenerationService {
+
+    /**
+     * The default maximum number of embeddings of the in-memory tier.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+    private final EmbeddingGenerationService<String> service;
+    private final int dimensions;
+    @Nullable
+    private final EmbeddingCacheStore store;
+    @GuardedBy("entries")
+    private final Map<String, Embedding> entries;
+
+    /**
+     * Creates a new caching service.
+     *
+     * @param service    The service generating the embeddings.
+     * @param dimensions The dimensions of the embeddings of the service, part of the cache keys,
+     *                   or 0 if the service uses the default dimensions of its model.
+     * @param maxEntries The maximum number of embeddings of the in-memory tier.
+     * @param store      The persistent tier, or null.
+     */
+    public CachingTextEmbeddingGenerationService(
+        EmbeddingGenerationService<String> service,
+        int dimensions,
+        int maxEntries,
+        @Nullable EmbeddingCacheStore store) {
+        this.service = service;
+        this.dimensions = dimensions;
+        this.store = store;
+        // Access ordered, so that the eldest entry is the least recently used
+        this.entries = new LinkedHashMap<String, Embedding>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Embedding> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates a builder for a {@link CachingTextEmbeddingGenerationService}.
+     *
+     * @return A new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Nullable
+    @Override
+    public String getModelId() {
+        return service.getModelId();
+    }
+
+    @Nullable
+    @Override
+    public String getServiceId() {
+        return service.getServiceId();
+    }
+
+    @Override
+    public Mono<Embedding> generateEmbeddingAsync(String data) {
+        return generateEmbeddingsAsync(Collections.singletonList(data))
+            .flatMap(embeddings -> embeddings.isEmpty() ? Mono.empty()
+                : Mono.just(embeddings.get(0)));
+    }
+
+    @Override
+    public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+        if (store == null) {
+            return Mono.defer(() -> generate(data));
+        }
+        // The persistent tier may block
+        return Mono.defer(() -> generate(data))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<List<Embedding>> generate(List<String> data) {
+        Embedding[] embeddings = new Embedding[data.size()];
+        // Indices of the texts of each missing key, in the order of the texts
+        Map<String, List<Integer>> misses = new LinkedHashMap<>();
+        List<String> missingTexts = new ArrayList<>();
+
+        for (int i = 0; i < data.size(); i++) {
+            String key = getKey(data.get(i));
+            Embedding embedding = lookup(key);
+            if (embedding != null) {
+                embeddings[i] = embedding;
+                continue;
+            }
+            List<Integer> indices = misses.get(key);
+            if (indices == null) {
+                indices = new ArrayList<>();
+                misses.put(key, indices);
+                missingTexts.add(data.get(i));
+            }
+            indices.add(i);
+        }
+
+        if (misses.isEmpty()) {
+            return Mono.just(Collections.unmodifiableList(Arrays.asList(embeddings)));
+        }
+
+        Mono<List<Embedding>> generated = service.generateEmbeddingsAsync(missingTexts);
+        if (store != null) {
+            generated = generated.publishOn(Schedulers.boundedElastic());
+        }
+        return generated.map(results -> {
+            if (results.size() != missingTexts.size()) {
+                throw new SKException(String.format(
+                    "The service generated %d embeddings for %d texts", results.size(),
+                    missingTexts.size()));
+            }
+            int i = 0;
+            for (Map.Entry<String, List<Integer>> miss : misses.entrySet()) {
+                Embedding embedding = results.get(i++);
+                save(miss.getKey(), embedding);
+                for (int index : miss.getValue()) {
+                    embeddings[index] = embedding;
+                }
+            }
+            return Collections.unmodifiableList(Arrays.asList(embeddings));
+        });
+    }
+
+    @Nullable
+    private Embedding lookup(String key) {
+        synchronized (entries) {
+            Embedding embedding = entries.get(key);
+            if (embedding != null) {
+                return embedding;
+            }
+        }
+        if (store == null) {
+            return null;
+        }
+        Embedding embedding = store.get(key);
+        if (embedding != null) {
+            synchronized (entries) {
+                entries.put(key, embedding);
+            }
+        }
+        return embedding;
+    }
+
+    private void save(String key, Embedding embedding) {
+        synchronized (entries) {
+            entries.put(key, embedding);
+        }
+        if (store != null) {
+            store.put(key, embedding);
+        }
+    }
+
+    /**
+     * Gets the cache key of a text, a SHA-256 hash of the model id, the dimensions and the text.
+     *
+     * @param text The text.
+     * @return The cache key.
+     */
+    String getKey(String text) {
+        MessageDigest digest = HashUtil.newSha256Digest();
+        String modelId = getModelId();
+        digest.update((modelId == null ? "" : modelId).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(String.valueOf(dimensions).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        return HashUtil.toHexString(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * A builder for a {@link CachingTextEmbeddingGenerationService}.
+     */
+    public static class Builder
+        implements SemanticKernelBuilder<CachingTextEmbeddingGenerationService> {
+
+        @Nullable
+        private EmbeddingGenerationService<String> service;
+        private int dimensions;
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        @Nullable
+        private EmbeddingCacheStore store;
+
+        /**
+         * Sets the service generating the embeddings.
+         *
+         * @param service The service.
+         * @return The builder.
+         */
+        public Builder withService(EmbeddingGenerationService<String> service) {
+            this.service = service;
+            return this;
+        }
+
+        /**
+         * Sets the dimensions of the embeddings of the service, part of the cache keys. Defaults
+         * to 0, for services using the default dimensions of their model.
+         *
+         * @param dimensions The dimensions.
+         * @return The builder.
+         */
+        public Builder withDimensions(int dimensions) {
+            this.dimensions = dimensions;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of embeddings of the in-memory tier. Defaults to
+         * {@link #DEFAULT_MAX_ENTRIES}.
+         *
+         * @param maxEntries The maximum number of embeddings.
+         * @return The builder.
+         */
+        public Builder withMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Sets the persistent tier of the cache.
+         *
+         * @param store The persistent tier.
+         * @return The builder.
+         */
+        public Builder withStore(EmbeddingCacheStore store) {
+            this.store = store;
+            return this;
+        }
+
+        @Override
+        public CachingTextEmbeddingGenerationService build() {
+            if (service == null) {
+                throw new SKException("service is required");
+            }
+            if (maxEntries < 1) {
+                throw new SKException("maxEntries must be positive");
+            }
+            if (dimensions < 0) {
+                throw new SKException("dimensions must not be negative");
+            }
+            return new CachingTextEmbeddingGenerationService(service, dimensions, maxEntries,
+                store);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import javax.annotation.Nullable;
+
+/**
+ * A persistent store of embeddings, used as the second tier of a
+ * {@link CachingTextEmbeddingGenerationService}.
+ * <p>
+ * Implementations may block, and must be safe to use from several threads.
+ */
+public interface EmbeddingCacheStore {
+
+    /**
+     * Gets the embedding stored for a key.
+     *
+     * @param key The key of the embedding.
+     * @return The embedding, or null if none is stored for the key.
+     */
+    @Nullable
+    Embedding get(String key);
+
+    /**
+     * Stores the embedding of a key.
+     *
+     * @param key       The key of the embedding.
+     * @param embedding The embedding.
+     */
+    void put(String key, Embedding embedding);
+}
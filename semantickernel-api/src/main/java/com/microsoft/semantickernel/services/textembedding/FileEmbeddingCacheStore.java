@@ -0,0 +1,109 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import com.microsoft.semantickernel.data.implementation.AppendOnlyFile;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nullable;
+
+/**
+ * An {@link EmbeddingCacheStore} keeping the embeddings in a local, append-only file.
+ * <p>
+ * Each entry holds its key, the number of dimensions and the vector. The file is scanned when it
+ * is opened to index the position of each entry, after which an embedding is read with a single
+ * positional read. An entry left incomplete by a crash is truncated when the file is opened.
+ */
+public class FileEmbeddingCacheStore implements EmbeddingCacheStore, Closeable {
+
+    private final AppendOnlyFile file;
+    // Position of the dimensions of the vector of each key
+    private final Map<String, Long> positions;
+
+    private FileEmbeddingCacheStore(AppendOnlyFile file, Map<String, Long> positions) {
+        this.file = file;
+        this.positions = positions;
+    }
+
+    /**
+     * Opens a store, creating its file if needed.
+     *
+     * @param path The path of the file.
+     * @return The store.
+     * @throws IOException If the file cannot be opened or read.
+     */
+    public static FileEmbeddingCacheStore open(Path path) throws IOException {
+        Map<String, Long> positions = new ConcurrentHashMap<>();
+        AppendOnlyFile file = AppendOnlyFile.open(path, (input, position) -> {
+            byte[] key = new byte[input.readUnsignedShort()];
+            input.readFully(key);
+            int dimensions = input.readInt();
+            AppendOnlyFile.skipFully(input, 4L * dimensions);
+            positions.put(new String(key, StandardCharsets.UTF_8), position + 2 + key.length);
+        });
+        return new FileEmbeddingCacheStore(file, positions);
+    }
+
+    @Nullable
+    @Override
+    public Embedding get(String key) {
+        Long position = positions.get(key);
+        if (position == null) {
+            return null;
+        }
+        try {
+            ByteBuffer dimensions = ByteBuffer.allocate(4);
+            file.readFully(dimensions, position);
+            ByteBuffer vector = ByteBuffer.allocate(4 * dimensions.getInt(0));
+            file.readFully(vector, position + 4);
+            vector.flip();
+            float[] values = new float[dimensions.getInt(0)];
+            vector.asFloatBuffer().get(values);
+            return new Embedding(values);
+        } catch (IOException e) {
+            throw new SKException("Failed to read the embedding cache", e);
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, Embedding embedding) {
+        if (positions.containsKey(key)) {
+            return;
+        }
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length > 0xFFFF) {
+            throw new SKException("The key of the embedding is too long");
+        }
+        ByteBuffer entry = ByteBuffer.allocate(2 + keyBytes.length + 4
+            + 4 * embedding.getDimensions());
+        entry.putShort((short) keyBytes.length);
+        entry.put(keyBytes);
+        entry.putInt(embedding.getDimensions());
+        entry.asFloatBuffer().put(embedding.getVectorBuffer());
+        entry.clear();
+        try {
+            positions.put(key, file.append(entry) + 2 + keyBytes.length);
+        } catch (IOException e) {
+            throw new SKException("Failed to write the embedding cache", e);
+        }
+    }
+
+    /**
+     * Gets the number of embeddings in the store.
+     *
+     * @return The number of embeddings.
+     */
+    public int size() {
+        return positions.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        file.close();
+    }
+}
@@ -0,0 +1,159 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.options.GetRecordOptions;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ReplicatedVectorStoreRecordCollectionTest {
+
+    private static final Duration SLOW_REPLICA_DELAY = Duration.ofSeconds(5);
+
+    private static VolatileVectorStoreRecordCollection<Hotel> createReplica() {
+        return new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+    }
+
+    /**
+     * A replica answering every read after a long delay, counting the reads it receives.
+     */
+    private static class SlowReplica extends VolatileVectorStoreRecordCollection<Hotel> {
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        SlowReplica() {
+            super("hotels", VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+        }
+
+        @Override
+        public Mono<Hotel> getAsync(String key, GetRecordOptions options) {
+            reads.incrementAndGet();
+            return super.getAsync(key, options).delayElement(SLOW_REPLICA_DELAY);
+        }
+
+        @Override
+        public Mono<VectorSearchResults<Hotel>> searchAsync(List<Float> vector,
+            VectorSearchOptions options) {
+            reads.incrementAndGet();
+            return super.searchAsync(vector, options).delayElement(SLOW_REPLICA_DELAY);
+        }
+    }
+
+    private static ReplicatedVectorStoreRecordCollection<String, Hotel> createCollection(
+        List<VectorStoreRecordCollection<String, Hotel>> replicas) {
+        ReplicatedVectorStoreRecordCollection<String, Hotel> collection;
+        collection = new ReplicatedVectorStoreRecordCollection<>("hotels", replicas,
+            ReplicatedVectorStoreRecordCollectionOptions.<String, Hotel>builder()
+                .withKeyClass(String.class)
+                .withRecordClass(Hotel.class)
+                .withInitialHedgeDelay(Duration.ofMillis(100))
+                .withWriteToAllReplicas(true)
+                .build());
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(getHotels(), null).block();
+        return collection;
+    }
+
+    private static List<Hotel> getHotels() {
+        return Arrays.asList(
+            new Hotel("id_1", "Hotel 1", 1, "Hotel 1 description",
+                Arrays.asList(0.5f, 3.2f, 7.1f, -4.0f, 2.8f, 10.0f, -1.3f, 5.5f), null, null, null,
+                4.0),
+            new Hotel("id_2", "Hotel 2", 2, "Hotel 2 description",
+                Arrays.asList(-2.0f, 8.1f, 0.9f, 5.4f, -3.3f, 2.2f, 9.9f, -4.5f), null, null, null,
+                4.0),
+            new Hotel("id_3", "Hotel 3", 3, "Hotel 3 description",
+                Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f, -0.8f, 1.1f, -2.2f, 8.3f), null, null, null,
+                5.0));
+    }
+
+    @Test
+    public void writesAreSentToAllReplicas() {
+        VolatileVectorStoreRecordCollection<Hotel> first = createReplica();
+        VolatileVectorStoreRecordCollection<Hotel> second = createReplica();
+        ReplicatedVectorStoreRecordCollection<String, Hotel> collection = createCollection(
+            Arrays.asList(first, second));
+
+        assertNotNull(first.getAsync("id_2", null).block());
+        assertNotNull(second.getAsync("id_2", null).block());
+
+        collection.deleteAsync("id_2", null).block();
+        assertNull(first.getAsync("id_2", null).block());
+        assertNull(second.getAsync("id_2", null).block());
+    }
+
+    @Test
+    public void slowReadsAreHedged() {
+        SlowReplica slow = new SlowReplica();
+        ReplicatedVectorStoreRecordCollection<String, Hotel> collection = createCollection(
+            Arrays.asList(slow, createReplica()));
+
+        long start = System.nanoTime();
+        VectorSearchResults<Hotel> results = collection.searchAsync(
+            Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f, -0.8f, 1.1f, -2.2f, 8.2f),
+            VectorSearchOptions.builder()
+                .withVectorFieldName("euclidean")
+                .withTop(1)
+                .build())
+            .block();
+        assertNotNull(results);
+        assertEquals("id_3", results.getResults().get(0).getRecord().getId());
+
+        for (int i = 0; i < 10; i++) {
+            assertNotNull(collection.getAsync("id_1", null).block());
+        }
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(SLOW_REPLICA_DELAY) < 0);
+
+        // Once measured, the slow replica is no longer the primary replica
+        assertTrue(slow.reads.get() < 11);
+    }
+
+    @Test
+    public void failedReadsAreAnsweredByTheHedgedReplica() {
+        VolatileVectorStoreRecordCollection<Hotel> failing = new VolatileVectorStoreRecordCollection<Hotel>(
+            "hotels", VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build()) {
+            @Override
+            public Mono<Hotel> getAsync(String key, GetRecordOptions options) {
+                return Mono.error(new IllegalStateException("unavailable"));
+            }
+        };
+        ReplicatedVectorStoreRecordCollection<String, Hotel> collection = createCollection(
+            Arrays.asList(failing, createReplica()));
+
+        Hotel hotel = collection.getAsync("id_1", null).block(Duration.ofSeconds(5));
+        assertNotNull(hotel);
+        assertEquals("id_1", hotel.getId());
+        // Missing records are not found on either replica
+        assertNull(collection.getAsync("id_missing", null).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void emptyReadsAreNotHedged() {
+        SlowReplica slow = new SlowReplica();
+        ReplicatedVectorStoreRecordCollection<String, Hotel> collection = createCollection(
+            Arrays.asList(createReplica(), slow));
+
+        // The primary replica answers at once that the record is not found
+        assertNull(collection.getAsync("id_missing", null).block(Duration.ofSeconds(5)));
+        assertEquals(0, slow.reads.get());
+    }
+}
@@ -0,0 +1,181 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.VectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+public class ShardedVectorStoreRecordCollectionTest {
+
+    private List<VectorStoreRecordCollection<String, Hotel>> shards;
+    private ShardedVectorStoreRecordCollection<String, Hotel> collection;
+
+    @BeforeEach
+    public void setup() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            shards.add(createShard());
+        }
+        collection = createShardedCollection(shards, null);
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(getHotels(), null).block();
+    }
+
+    private static VolatileVectorStoreRecordCollection<Hotel> createShard() {
+        return new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+    }
+
+    private static ShardedVectorStoreRecordCollection<String, Hotel> createShardedCollection(
+        List<VectorStoreRecordCollection<String, Hotel>> shards, Duration shardTimeout) {
+        return new ShardedVectorStoreRecordCollection<>("hotels", shards,
+            ShardedVectorStoreRecordCollectionOptions.<String, Hotel>builder()
+                .withKeyClass(String.class)
+                .withRecordClass(Hotel.class)
+                .withShardTimeout(shardTimeout)
+                .build());
+    }
+
+    private static List<Hotel> getHotels() {
+        return Arrays.asList(
+            new Hotel("id_1", "Hotel 1", 1, "Hotel 1 description",
+                Arrays.asList(0.5f, 3.2f, 7.1f, -4.0f, 2.8f, 10.0f, -1.3f, 5.5f), null, null, null,
+                4.0),
+            new Hotel("id_2", "Hotel 2", 2, "Hotel 2 description",
+                Arrays.asList(-2.0f, 8.1f, 0.9f, 5.4f, -3.3f, 2.2f, 9.9f, -4.5f), null, null, null,
+                4.0),
+            new Hotel("id_3", "Hotel 3", 3, "Hotel 3 description",
+                Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f, -0.8f, 1.1f, -2.2f, 8.3f), null, null, null,
+                5.0),
+            new Hotel("id_4", "Hotel 4", 4, "Hotel 4 description",
+                Arrays.asList(7.0f, 1.2f, -5.3f, 2.5f, 6.6f, -7.8f, 3.9f, -0.1f), null, null, null,
+                4.0),
+            new Hotel("id_5", "Hotel 5", 5, "Hotel 5 description",
+                Arrays.asList(-3.5f, 4.4f, -1.2f, 9.9f, 5.7f, -6.1f, 7.8f, -2.0f), null, null, null,
+                4.0));
+    }
+
+    /**
+     * Search embeddings similar to the third hotel embeddings.
+     * In order of similarity:
+     * 1. Hotel 3
+     * 2. Hotel 1
+     * 3. Hotel 4
+     */
+    private static final List<Float> SEARCH_EMBEDDINGS = Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f,
+        -0.8f, 1.1f, -2.2f, 8.2f);
+
+    private static List<String> getIds(VectorSearchResults<Hotel> results) {
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Hotel::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void recordsAreStoredInExactlyOneShard() {
+        for (Hotel hotel : getHotels()) {
+            long owners = shards.stream()
+                .filter(shard -> shard.getAsync(hotel.getId(), null).block() != null)
+                .count();
+            assertEquals(1, owners);
+        }
+
+        Hotel hotel = collection.getAsync("id_4", null).block();
+        assertNotNull(hotel);
+        assertEquals("Hotel 4", hotel.getName());
+    }
+
+    @Test
+    public void batchOperationsKeepKeyOrder() {
+        List<Hotel> hotels = collection
+            .getBatchAsync(Arrays.asList("id_5", "id_1", "id_3", "id_2"), null).block();
+        assertNotNull(hotels);
+        assertEquals(Arrays.asList("id_5", "id_1", "id_3", "id_2"),
+            hotels.stream().map(Hotel::getId).collect(Collectors.toList()));
+
+        collection.deleteBatchAsync(Arrays.asList("id_1", "id_2"), null).block();
+        hotels = collection.getBatchAsync(Arrays.asList("id_1", "id_2", "id_3"), null).block();
+        assertEquals(1, hotels.size());
+    }
+
+    @Test
+    public void searchMergesShardResults() {
+        VolatileVectorStoreRecordCollection<Hotel> single = createShard();
+        single.createCollectionAsync().block();
+        single.upsertBatchAsync(getHotels(), null).block();
+
+        for (String vectorField : Arrays.asList("euclidean", "cosineSimilarity")) {
+            VectorSearchOptions options = VectorSearchOptions.builder()
+                .withVectorFieldName(vectorField)
+                .withTop(3)
+                .build();
+
+            assertEquals(getIds(single.searchAsync(SEARCH_EMBEDDINGS, options).block()),
+                getIds(collection.searchAsync(SEARCH_EMBEDDINGS, options).block()));
+        }
+    }
+
+    @Test
+    public void searchAppliesSkipAcrossShards() {
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(2)
+            .withSkip(1)
+            .build();
+
+        assertEquals(Arrays.asList("id_1", "id_4"),
+            getIds(collection.searchAsync(SEARCH_EMBEDDINGS, options).block()));
+    }
+
+    @Test
+    public void searchReturnsPartialResultsOnShardTimeout() {
+        List<VectorStoreRecordCollection<String, Hotel>> slowShards = new ArrayList<>(shards);
+        slowShards.set(0, new VolatileVectorStoreRecordCollection<Hotel>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build()) {
+            @Override
+            public Mono<VectorSearchResults<Hotel>> searchAsync(List<Float> vector,
+                VectorSearchOptions options) {
+                return super.searchAsync(vector, options).delayElement(Duration.ofSeconds(5));
+            }
+        });
+
+        ShardedVectorStoreRecordCollection<String, Hotel> partial = createShardedCollection(
+            slowShards, Duration.ofMillis(200));
+        partial.createCollectionAsync().block();
+        partial.upsertBatchAsync(getHotels(), null).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(5)
+            .build();
+
+        VectorSearchResults<Hotel> results = partial.searchAsync(SEARCH_EMBEDDINGS, options)
+            .block();
+        assertNotNull(results);
+        assertEquals(1,
+            results.getMetadata().get(ShardedVectorStoreRecordCollection.SHARDS_TIMED_OUT));
+
+        long inSlowShard = getHotels().stream()
+            .filter(hotel -> shards.get(0).getAsync(hotel.getId(), null).block() != null)
+            .count();
+        assertEquals(5 - inSlowShard, results.getResults().size());
+    }
+}
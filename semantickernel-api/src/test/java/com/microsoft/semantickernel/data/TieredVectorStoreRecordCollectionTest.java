@@ -0,0 +1,236 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class TieredVectorStoreRecordCollectionTest {
+
+    private VolatileVectorStoreRecordCollection<Hotel> coldCollection;
+
+    @BeforeEach
+    public void setup() {
+        coldCollection = new VolatileVectorStoreRecordCollection<>(
+            "hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+        coldCollection.createCollectionAsync().block();
+        coldCollection.upsertBatchAsync(getHotels(), null).block();
+    }
+
+    private TieredVectorStoreRecordCollection<Hotel> createTieredCollection(int capacity,
+        double scoreThreshold) {
+        return new TieredVectorStoreRecordCollection<>(coldCollection,
+            TieredVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .withHotTierCapacity(capacity)
+                .withHotTierScoreThreshold(scoreThreshold)
+                .build());
+    }
+
+    private static List<Hotel> getHotels() {
+        return Arrays.asList(
+            new Hotel("id_1", "Hotel 1", 1, "Hotel 1 description",
+                Arrays.asList(0.5f, 3.2f, 7.1f, -4.0f, 2.8f, 10.0f, -1.3f, 5.5f), null, null, null,
+                4.0),
+            new Hotel("id_2", "Hotel 2", 2, "Hotel 2 description",
+                Arrays.asList(-2.0f, 8.1f, 0.9f, 5.4f, -3.3f, 2.2f, 9.9f, -4.5f), null, null, null,
+                4.0),
+            new Hotel("id_3", "Hotel 3", 3, "Hotel 3 description",
+                Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f, -0.8f, 1.1f, -2.2f, 8.3f), null, null, null,
+                5.0),
+            new Hotel("id_4", "Hotel 4", 4, "Hotel 4 description",
+                Arrays.asList(7.0f, 1.2f, -5.3f, 2.5f, 6.6f, -7.8f, 3.9f, -0.1f), null, null, null,
+                4.0),
+            new Hotel("id_5", "Hotel 5", 5, "Hotel 5 description",
+                Arrays.asList(-3.5f, 4.4f, -1.2f, 9.9f, 5.7f, -6.1f, 7.8f, -2.0f), null, null, null,
+                4.0));
+    }
+
+    /**
+     * Search embeddings similar to the third hotel embeddings.
+     * In order of similarity:
+     * 1. Hotel 3
+     * 2. Hotel 1
+     * 3. Hotel 4
+     */
+    private static final List<Float> SEARCH_EMBEDDINGS = Arrays.asList(4.5f, -6.2f, 3.1f, 7.7f,
+        -0.8f, 1.1f, -2.2f, 8.2f);
+
+    @Test
+    public void getPromotesToHotTier() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 100.0);
+
+        assertNotNull(collection.getAsync("id_1", null).block());
+
+        // Served from the hot tier once removed from the cold tier
+        coldCollection.deleteAsync("id_1", null).block();
+        Hotel hotel = collection.getAsync("id_1", null).block();
+        assertNotNull(hotel);
+        assertEquals("Hotel 1", hotel.getName());
+    }
+
+    @Test
+    public void getBatchSplicesHotAndColdRecords() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 100.0);
+        collection.getAsync("id_2", null).block();
+
+        List<Hotel> hotels = collection
+            .getBatchAsync(Arrays.asList("id_3", "id_2", "id_1"), null).block();
+        assertNotNull(hotels);
+        assertEquals(Arrays.asList("id_3", "id_2", "id_1"),
+            hotels.stream().map(Hotel::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsedRecords() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(2, 100.0);
+
+        collection.getAsync("id_1", null).block();
+        collection.getAsync("id_2", null).block();
+        collection.getAsync("id_1", null).block();
+        collection.getAsync("id_3", null).block();
+
+        coldCollection.deleteBatchAsync(Arrays.asList("id_1", "id_2", "id_3"), null).block();
+
+        assertNotNull(collection.getAsync("id_1", null).block());
+        assertNull(collection.getAsync("id_2", null).block());
+        assertNotNull(collection.getAsync("id_3", null).block());
+    }
+
+    @Test
+    public void pinnedRecordsAreNotEvicted() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(1, 100.0);
+        collection.pinAsync(Collections.singletonList("id_1")).block();
+
+        collection.getAsync("id_2", null).block();
+        collection.getAsync("id_3", null).block();
+
+        coldCollection.deleteBatchAsync(Arrays.asList("id_1", "id_2", "id_3"), null).block();
+
+        assertNotNull(collection.getAsync("id_1", null).block());
+        assertNull(collection.getAsync("id_2", null).block());
+        assertNotNull(collection.getAsync("id_3", null).block());
+    }
+
+    @Test
+    public void upsertRefreshesResidentRecords() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 100.0);
+        collection.getAsync("id_1", null).block();
+
+        Hotel updated = new Hotel("id_1", "Hotel 1 updated", 1, "Hotel 1 description",
+            getHotels().get(0).getEuclidean(), null, null, null, 4.5);
+        collection.upsertAsync(updated, null).block();
+
+        coldCollection.deleteAsync("id_1", null).block();
+        Hotel hotel = collection.getAsync("id_1", null).block();
+        assertNotNull(hotel);
+        assertEquals("Hotel 1 updated", hotel.getName());
+    }
+
+    @Test
+    public void searchFallsThroughWhenHotTierIsIncomplete() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 100.0);
+        collection.pinAsync(Arrays.asList("id_1", "id_4")).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .build();
+
+        // The hot tier results come first, followed by the results of the cold tier
+        List<VectorSearchResult<Hotel>> results = collection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(Arrays.asList("id_1", "id_4", "id_3"),
+            results.stream().map(r -> r.getRecord().getId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void searchReturnsColdResultsBelowScoreThreshold() {
+        // No pinned hotel is within this euclidean distance of the search embeddings
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 1.0);
+        collection.pinAsync(Arrays.asList("id_1", "id_2", "id_4")).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(2)
+            .withSkip(1)
+            .build();
+
+        List<VectorSearchResult<Hotel>> results = collection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(Arrays.asList("id_1", "id_4"),
+            results.stream().map(r -> r.getRecord().getId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void searchPromotesColdResults() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 1.0);
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(1)
+            .build();
+        collection.searchAsync(SEARCH_EMBEDDINGS, options).block();
+
+        // Served from the hot tier once removed from the cold tier
+        coldCollection.deleteAsync("id_3", null).block();
+        List<VectorSearchResult<Hotel>> results = collection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals("id_3", results.get(0).getRecord().getId());
+    }
+
+    @Test
+    public void searchIsServedFromHotTier() {
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 100.0);
+        collection.pinAsync(Arrays.asList("id_1", "id_3", "id_4")).block();
+        coldCollection.deleteBatchAsync(Arrays.asList("id_1", "id_3", "id_4"), null).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .build();
+
+        List<VectorSearchResult<Hotel>> results = collection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(Arrays.asList("id_3", "id_1", "id_4"),
+            results.stream().map(r -> r.getRecord().getId()).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void searchFallsThroughBelowScoreThreshold() {
+        // Only the closest hotel is within this euclidean distance of the search embeddings
+        TieredVectorStoreRecordCollection<Hotel> collection = createTieredCollection(10, 1.0);
+        collection.pinAsync(Arrays.asList("id_1", "id_2", "id_3")).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(2)
+            .build();
+
+        List<VectorSearchResult<Hotel>> results = collection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(2, results.size());
+        assertEquals("id_3", results.get(0).getRecord().getId());
+
+        // The hot tier only held id_1, id_2 and id_3, the cold tier also returns id_4 when asked
+        options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .build();
+        results = collection.searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals("id_4", results.get(2).getRecord().getId());
+    }
+}
@@ -0,0 +1,176 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class VectorStoreNormalizeOnIngestTest {
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            vector.add(random.nextFloat() * 10 - 5);
+        }
+        return vector;
+    }
+
+    private static List<Hotel> getHotels() {
+        Random random = new Random(17);
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            List<Float> vector = randomVector(random);
+            hotels.add(new Hotel("id_" + i, i % 2 == 0 ? "Even" : "Odd", i, "Hotel " + i,
+                vector, vector, vector, vector, i / 10.0));
+        }
+        return hotels;
+    }
+
+    private static VectorStoreRecordDefinition getNormalizedDefinition() {
+        List<VectorStoreRecordField> fields = new ArrayList<>();
+        for (VectorStoreRecordField field : VectorStoreRecordDefinition
+            .fromRecordClass(Hotel.class).getAllFields()) {
+            if (field instanceof VectorStoreRecordVectorField) {
+                VectorStoreRecordVectorField vectorField = (VectorStoreRecordVectorField) field;
+                field = new VectorStoreRecordVectorField(vectorField.getName(),
+                    vectorField.getStorageName(), vectorField.getFieldType(),
+                    vectorField.getFieldSubType(), vectorField.getDimensions(),
+                    vectorField.getIndexKind(), vectorField.getDistanceFunction(), true);
+            }
+            fields.add(field);
+        }
+        return VectorStoreRecordDefinition.fromFields(fields);
+    }
+
+    private static VolatileVectorStoreRecordCollection<Hotel> createCollection(
+        VectorStoreRecordDefinition recordDefinition) {
+        VolatileVectorStoreRecordCollection<Hotel> collection;
+        collection = new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .withRecordDefinition(recordDefinition)
+                .build());
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(getHotels(), null).block();
+        return collection;
+    }
+
+    private static List<VectorSearchResult<Hotel>> search(
+        VolatileVectorStoreRecordCollection<Hotel> collection, String vectorFieldName,
+        List<Float> vector, Double scoreThreshold) {
+        VectorSearchResults<Hotel> results = collection.searchAsync(vector,
+            VectorSearchOptions.builder()
+                .withVectorFieldName(vectorFieldName)
+                .withTop(10)
+                .withScoreThreshold(scoreThreshold)
+                .withVectorSearchFilter(VectorSearchFilter.builder()
+                    .equalTo("name", "Odd")
+                    .build())
+                .build())
+            .block();
+        assertNotNull(results);
+        return results.getResults();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "cosineSimilarity", "cosineDistance" })
+    public void normalizedSearchesMatchCosineSearches(String vectorFieldName) {
+        VolatileVectorStoreRecordCollection<Hotel> collection = createCollection(
+            VectorStoreRecordDefinition.fromRecordClass(Hotel.class));
+        VolatileVectorStoreRecordCollection<Hotel> normalizedCollection = createCollection(
+            getNormalizedDefinition());
+
+        Random random = new Random(19);
+        for (int i = 0; i < 10; i++) {
+            List<Float> query = randomVector(random);
+            // Both a similarity and a distance of 0.5 keep part of the records
+            Double threshold = i % 2 == 0 ? null : 0.5;
+            List<VectorSearchResult<Hotel>> expected = search(collection, vectorFieldName,
+                query, threshold);
+            List<VectorSearchResult<Hotel>> actual = search(normalizedCollection,
+                vectorFieldName, query, threshold);
+
+            assertFalse(expected.isEmpty());
+            assertEquals(expected.size(), actual.size());
+            for (int j = 0; j < expected.size(); j++) {
+                assertEquals(expected.get(j).getRecord().getId(),
+                    actual.get(j).getRecord().getId());
+                assertEquals("Odd", actual.get(j).getRecord().getName());
+                assertEquals(expected.get(j).getScore(), actual.get(j).getScore(), 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void normalizedVectorsAreSharedByTheInstancesOfACollection() {
+        VolatileVectorStore vectorStore = new VolatileVectorStore();
+        VolatileVectorStoreRecordCollectionOptions<Hotel> options = VolatileVectorStoreRecordCollectionOptions
+            .<Hotel>builder()
+            .withRecordClass(Hotel.class)
+            .withRecordDefinition(getNormalizedDefinition())
+            .build();
+        VolatileVectorStoreRecordCollection<Hotel> writer = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", options);
+        writer.createCollectionAsync().block();
+        writer.upsertBatchAsync(getHotels(), null).block();
+
+        List<Float> query = randomVector(new Random(23));
+        VolatileVectorStoreRecordCollection<Hotel> reader = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", options);
+        // The first search normalizes the vectors written by the writer
+        assertFalse(search(reader, "cosineSimilarity", query, null).isEmpty());
+
+        writer.upsertAsync(new Hotel("id_new", "Odd", 1000, "New hotel",
+            query, query, query, query, 4.0), null).block();
+        assertEquals("id_new",
+            search(reader, "cosineSimilarity", query, null).get(0).getRecord().getId());
+    }
+
+    @Test
+    public void normalizesOnlyCosineFields() {
+        List<Float> vector = Arrays.asList(3f, 4f);
+        VectorStoreRecordVectorField.Builder builder = VectorStoreRecordVectorField.builder()
+            .withName("vector")
+            .withFieldType(List.class)
+            .withDimensions(2)
+            .withIndexKind(IndexKind.FLAT)
+            .withNormalizeOnIngest(true);
+
+        VectorStoreRecordVectorField cosineField = builder
+            .withDistanceFunction(DistanceFunction.COSINE_SIMILARITY)
+            .build();
+        assertTrue(VectorOperations.isNormalizedOnIngest(cosineField));
+        assertEquals(Arrays.asList(0.6f, 0.8f),
+            VectorOperations.normalizeOnIngest(cosineField, vector));
+        // A zero vector is left as is
+        float[] zero = new float[2];
+        assertSame(zero, VectorOperations.normalizeOnIngest(cosineField, zero));
+
+        VectorStoreRecordVectorField dotProductField = builder
+            .withDistanceFunction(DistanceFunction.DOT_PRODUCT)
+            .build();
+        assertFalse(VectorOperations.isNormalizedOnIngest(dotProductField));
+        assertSame(vector, VectorOperations.normalizeOnIngest(dotProductField, vector));
+    }
+}
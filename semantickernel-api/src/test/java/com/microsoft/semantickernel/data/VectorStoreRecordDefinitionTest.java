@@ -0,0 +1,57 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordData;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDataField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import org.junit.jupiter.api.Test;
+
+public class VectorStoreRecordDefinitionTest {
+
+    public static class Article {
+        @VectorStoreRecordKey
+        private final String id;
+        @VectorStoreRecordData(isFullTextSearchable = true)
+        private final String text;
+        @VectorStoreRecordData(isFilterable = true)
+        private final String category;
+
+        public Article(String id, String text, String category) {
+            this.id = id;
+            this.text = text;
+            this.category = category;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+    }
+
+    @Test
+    public void dataFieldAttributesAreReadFromTheRecordClass() {
+        VectorStoreRecordDefinition definition = VectorStoreRecordDefinition
+            .fromRecordClass(Article.class);
+
+        VectorStoreRecordDataField text = (VectorStoreRecordDataField) definition
+            .getField("text");
+        assertTrue(text.isFullTextSearchable());
+        assertFalse(text.isFilterable());
+
+        VectorStoreRecordDataField category = (VectorStoreRecordDataField) definition
+            .getField("category");
+        assertFalse(category.isFullTextSearchable());
+        assertTrue(category.isFilterable());
+    }
+}
@@ -0,0 +1,196 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordData;
+import com.microsoft.semantickernel.data.vectorstorage.annotations.VectorStoreRecordKey;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.exceptions.SKException;
+import org.junit.jupiter.api.Test;
+
+public class VectorStoreRecordFieldAccessorTest {
+
+    public static class Room {
+        @VectorStoreRecordKey
+        private final String id;
+        @VectorStoreRecordData
+        private final String open;
+        @VectorStoreRecordData
+        private final boolean available;
+
+        public Room(String id, String open, boolean available) {
+            this.id = id;
+            this.open = open;
+            this.available = available;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        // Not a getter of the string field
+        public String isOpen() {
+            return "never";
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+    }
+
+    public static class FormattedRoom {
+        @VectorStoreRecordKey
+        private final String id;
+        @VectorStoreRecordData
+        @JsonSerialize(using = ToStringSerializer.class)
+        private final int floor;
+
+        public FormattedRoom(String id, int floor) {
+            this.id = id;
+            this.floor = floor;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public int getFloor() {
+            return floor;
+        }
+    }
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            vector.add(random.nextFloat());
+        }
+        return vector;
+    }
+
+    private static List<Hotel> getHotels() {
+        Random random = new Random(11);
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            List<Float> vector = randomVector(random);
+            hotels.add(new Hotel("id_" + i, i % 2 == 0 ? "Even" : "Odd", i, "Hotel " + i,
+                vector, vector, vector, vector, i / 10.0));
+        }
+        return hotels;
+    }
+
+    private static VolatileVectorStoreRecordCollection<Hotel> createCollection(
+        VectorStoreRecordDefinition recordDefinition) {
+        VolatileVectorStoreRecordCollection<Hotel> collection;
+        collection = new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .withRecordDefinition(recordDefinition)
+                .build());
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(getHotels(), null).block();
+        return collection;
+    }
+
+    private static List<String> search(VolatileVectorStoreRecordCollection<Hotel> collection,
+        List<Float> vector) {
+        VectorSearchResults<Hotel> results = collection.searchAsync(vector,
+            VectorSearchOptions.builder()
+                .withVectorFieldName("euclidean")
+                .withTop(10)
+                .withVectorSearchFilter(VectorSearchFilter.builder()
+                    .equalTo("name", "Odd")
+                    .build())
+                .build())
+            .block();
+        assertNotNull(results);
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Hotel::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void recordClassDefinitionsAreCached() {
+        assertSame(VectorStoreRecordDefinition.fromRecordClass(Hotel.class),
+            VectorStoreRecordDefinition.fromRecordClass(Hotel.class));
+    }
+
+    @Test
+    public void accessorsReadFieldsOfRecords() {
+        VectorStoreRecordDefinition recordDefinition = VectorStoreRecordDefinition
+            .fromRecordClass(Hotel.class);
+        assertTrue(recordDefinition.hasFieldAccessors());
+
+        List<Float> vector = Arrays.asList(1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f);
+        Hotel hotel = new Hotel("id_1", "Hotel", 5, "A hotel", vector, vector, vector, vector,
+            4.5);
+        assertEquals("id_1", recordDefinition.getFieldAccessor("id").get(hotel));
+        assertEquals(5, recordDefinition.getFieldAccessor("code").get(hotel));
+        assertEquals(4.5, recordDefinition.getFieldAccessor("rating").get(hotel));
+        assertSame(vector, recordDefinition.getFieldAccessor("euclidean").get(hotel));
+        // Read from the field, which has no getter
+        assertSame(vector, recordDefinition.getFieldAccessor("cosineSimilarity").get(hotel));
+    }
+
+    @Test
+    public void fieldsDefinitionsHaveNoAccessors() {
+        VectorStoreRecordDefinition recordDefinition = VectorStoreRecordDefinition.fromFields(
+            VectorStoreRecordDefinition.fromRecordClass(Hotel.class).getAllFields());
+        assertFalse(recordDefinition.hasFieldAccessors());
+        assertThrows(SKException.class, () -> recordDefinition.getFieldAccessor("id"));
+    }
+
+    @Test
+    public void searchesMatchWithAndWithoutAccessors() {
+        VolatileVectorStoreRecordCollection<Hotel> collection = createCollection(
+            VectorStoreRecordDefinition.fromRecordClass(Hotel.class));
+        VolatileVectorStoreRecordCollection<Hotel> serializingCollection = createCollection(
+            VectorStoreRecordDefinition.fromFields(
+                VectorStoreRecordDefinition.fromRecordClass(Hotel.class).getAllFields()));
+
+        Random random = new Random(13);
+        for (int i = 0; i < 10; i++) {
+            List<Float> query = randomVector(random);
+            List<String> ids = search(collection, query);
+            assertEquals(10, ids.size());
+            assertEquals(search(serializingCollection, query), ids);
+        }
+    }
+
+    @Test
+    public void isGettersOnlyReadBooleans() {
+        VectorStoreRecordDefinition recordDefinition = VectorStoreRecordDefinition
+            .fromRecordClass(Room.class);
+        assertTrue(recordDefinition.hasFieldAccessors());
+
+        Room room = new Room("id_1", "always", true);
+        assertEquals("always", recordDefinition.getFieldAccessor("open").get(room));
+        assertEquals(true, recordDefinition.getFieldAccessor("available").get(room));
+    }
+
+    @Test
+    public void jacksonAnnotatedRecordsAreSerialized() {
+        assertFalse(VectorStoreRecordDefinition.fromRecordClass(FormattedRoom.class)
+            .hasFieldAccessors());
+        assertFalse(VectorStoreRecordDefinition.fromRecordClass(Hotel.class)
+            .withoutFieldAccessors().hasFieldAccessors());
+    }
+}
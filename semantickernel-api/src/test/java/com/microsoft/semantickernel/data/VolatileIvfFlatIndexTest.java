@@ -0,0 +1,161 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.definition.IndexKind;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordDefinition;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordField;
+import com.microsoft.semantickernel.data.vectorstorage.definition.VectorStoreRecordVectorField;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VolatileIvfFlatIndexTest {
+
+    private static final int LIST_COUNT = 10;
+
+    private VolatileVectorStoreRecordCollection<Hotel> exactCollection;
+    private VolatileVectorStoreRecordCollection<Hotel> ivfCollection;
+
+    @BeforeEach
+    public void setup() {
+        exactCollection = new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+        ivfCollection = new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .withRecordDefinition(getIvfRecordDefinition())
+                .withIvfListCount(LIST_COUNT)
+                .withIvfNprobe(1)
+                .build());
+
+        List<Hotel> hotels = getHotels();
+        exactCollection.createCollectionAsync().block();
+        exactCollection.upsertBatchAsync(hotels, null).block();
+        ivfCollection.createCollectionAsync().block();
+        ivfCollection.upsertBatchAsync(hotels, null).block();
+    }
+
+    // The Hotel record definition, with IVFFLAT indexes on all vector fields
+    private static VectorStoreRecordDefinition getIvfRecordDefinition() {
+        VectorStoreRecordDefinition definition = VectorStoreRecordDefinition
+            .fromRecordClass(Hotel.class);
+        List<VectorStoreRecordField> fields = new ArrayList<>(definition.getNonVectorFields());
+        for (VectorStoreRecordVectorField field : definition.getVectorFields()) {
+            fields.add(new VectorStoreRecordVectorField(field.getName(), field.getStorageName(),
+                field.getFieldType(), field.getFieldSubType(), field.getDimensions(),
+                IndexKind.IVFFLAT, field.getDistanceFunction()));
+        }
+        return VectorStoreRecordDefinition.fromFields(fields);
+    }
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            vector.add(random.nextFloat() * 20 - 10);
+        }
+        return vector;
+    }
+
+    private static List<Hotel> getHotels() {
+        Random random = new Random(7);
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            List<Float> vector = randomVector(random);
+            hotels.add(new Hotel("id_" + i, "Hotel " + i, i, "Hotel " + i + " description",
+                vector, vector, vector, vector, 4.0));
+        }
+        return hotels;
+    }
+
+    private static List<String> getIds(VectorSearchResults<Hotel> results) {
+        assertNotNull(results);
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Hotel::getId)
+            .collect(Collectors.toList());
+    }
+
+    @Test
+    public void searchingAllListsMatchesExactSearch() {
+        Random random = new Random(11);
+        for (String vectorField : Arrays.asList("euclidean", "cosineSimilarity")) {
+            List<Float> query = randomVector(random);
+            VectorSearchOptions options = VectorSearchOptions.builder()
+                .withVectorFieldName(vectorField)
+                .withTop(5)
+                .withSkip(2)
+                .withNprobe(LIST_COUNT)
+                .build();
+
+            assertEquals(getIds(exactCollection.searchAsync(query, options).block()),
+                getIds(ivfCollection.searchAsync(query, options).block()));
+        }
+    }
+
+    @Test
+    public void newRecordsAreAssignedToTrainedLists() {
+        List<Float> query = randomVector(new Random(13));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(1)
+            .build();
+
+        // The first search trains the index
+        assertFalse(getIds(ivfCollection.searchAsync(query, options).block()).isEmpty());
+
+        ivfCollection.upsertAsync(new Hotel("id_new", "Hotel new", 1000, "New hotel",
+            query, query, query, query, 4.0), null).block();
+        assertEquals(Arrays.asList("id_new"),
+            getIds(ivfCollection.searchAsync(query, options).block()));
+
+        ivfCollection.deleteAsync("id_new", null).block();
+        ivfCollection.rebuildIndexesAsync().block();
+        assertFalse(getIds(ivfCollection.searchAsync(query, options).block())
+            .contains("id_new"));
+    }
+
+    @Test
+    public void indexesAreSharedByTheInstancesOfACollection() {
+        VolatileVectorStore vectorStore = new VolatileVectorStore();
+        VolatileVectorStoreRecordCollectionOptions<Hotel> collectionOptions = VolatileVectorStoreRecordCollectionOptions
+            .<Hotel>builder()
+            .withRecordClass(Hotel.class)
+            .withRecordDefinition(getIvfRecordDefinition())
+            .withIvfListCount(LIST_COUNT)
+            .withIvfNprobe(1)
+            .build();
+        VolatileVectorStoreRecordCollection<Hotel> writer = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", collectionOptions);
+        writer.createCollectionAsync().block();
+        writer.upsertBatchAsync(getHotels(), null).block();
+
+        List<Float> query = randomVector(new Random(17));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(1)
+            .build();
+        VolatileVectorStoreRecordCollection<Hotel> reader = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", collectionOptions);
+        // The first search trains the index shared with the writer
+        assertFalse(getIds(reader.searchAsync(query, options).block()).isEmpty());
+
+        writer.upsertAsync(new Hotel("id_new", "Hotel new", 1000, "New hotel",
+            query, query, query, query, 4.0), null).block();
+        assertEquals(Arrays.asList("id_new"),
+            getIds(reader.searchAsync(query, options).block()));
+    }
+}
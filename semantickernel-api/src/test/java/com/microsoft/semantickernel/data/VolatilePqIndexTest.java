@@ -0,0 +1,260 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.microsoft.semantickernel.data.vectorsearch.ProductQuantizer;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class VolatilePqIndexTest {
+
+    private static final int DIMENSIONS = 8;
+    private static final int QUERIES = 50;
+
+    private VolatileVectorStoreRecordCollection<Hotel> exactCollection;
+    private VolatileVectorStoreRecordCollection<Hotel> pqCollection;
+    private VolatileVectorStoreRecordCollection<Hotel> rescoredCollection;
+
+    @BeforeEach
+    public void setup() {
+        exactCollection = createCollection(0, 0);
+        pqCollection = createCollection(4, 0);
+        rescoredCollection = createCollection(4, 5);
+    }
+
+    private static VolatileVectorStoreRecordCollection<Hotel> createCollection(
+        int pqSubspaceCount, int pqRescoreFactor) {
+        VolatileVectorStoreRecordCollection<Hotel> collection;
+        collection = new VolatileVectorStoreRecordCollection<>("hotels",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .withPqSubspaceCount(pqSubspaceCount)
+                .withPqRescoreFactor(pqRescoreFactor)
+                .build());
+        collection.createCollectionAsync().block();
+        collection.upsertBatchAsync(getHotels(), null).block();
+        return collection;
+    }
+
+    private static List<Float> randomVector(Random random) {
+        List<Float> vector = new ArrayList<>();
+        for (int i = 0; i < DIMENSIONS; i++) {
+            vector.add(random.nextFloat() * 20 - 10);
+        }
+        return vector;
+    }
+
+    private static List<Hotel> getHotels() {
+        Random random = new Random(7);
+        List<Hotel> hotels = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            List<Float> vector = randomVector(random);
+            hotels.add(new Hotel("id_" + i, "Hotel " + i, i, "Hotel " + i + " description",
+                vector, vector, vector, vector, 4.0));
+        }
+        return hotels;
+    }
+
+    private static List<String> getIds(VectorSearchResults<Hotel> results) {
+        assertNotNull(results);
+        return results.getResults().stream()
+            .map(VectorSearchResult::getRecord)
+            .map(Hotel::getId)
+            .collect(Collectors.toList());
+    }
+
+    // Recall@10 of the collection against the exact search of VectorOperations
+    private double getRecall(VolatileVectorStoreRecordCollection<Hotel> collection,
+        String vectorField) {
+        Random random = new Random(11);
+        int found = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            List<Float> query = randomVector(random);
+            VectorSearchOptions options = VectorSearchOptions.builder()
+                .withVectorFieldName(vectorField)
+                .withTop(10)
+                .build();
+
+            Set<String> expected = new HashSet<>(
+                getIds(exactCollection.searchAsync(query, options).block()));
+            List<String> actual = getIds(collection.searchAsync(query, options).block());
+            assertEquals(10, actual.size());
+            actual.retainAll(expected);
+            found += actual.size();
+        }
+        return found / (10.0 * QUERIES);
+    }
+
+    @Test
+    public void recallAgainstExactSearch() {
+        for (String vectorField : Arrays.asList("euclidean", "cosineSimilarity", "dotProduct")) {
+            double recall = getRecall(pqCollection, vectorField);
+            double rescoredRecall = getRecall(rescoredCollection, vectorField);
+
+            assertTrue(recall >= 0.5, vectorField + " recall@10 was " + recall);
+            assertTrue(rescoredRecall >= 0.95,
+                vectorField + " rescored recall@10 was " + rescoredRecall);
+        }
+    }
+
+    @Test
+    public void rescoredResultsHaveExactScores() {
+        List<Float> query = randomVector(new Random(13));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("cosineDistance")
+            .withTop(3)
+            .withSkip(1)
+            .build();
+
+        VectorSearchResults<Hotel> exact = exactCollection.searchAsync(query, options).block();
+        VectorSearchResults<Hotel> rescored = rescoredCollection.searchAsync(query, options)
+            .block();
+        assertEquals(getIds(exact), getIds(rescored));
+        for (int i = 0; i < exact.getResults().size(); i++) {
+            assertEquals(exact.getResults().get(i).getScore(),
+                rescored.getResults().get(i).getScore(), 1e-6);
+        }
+    }
+
+    @Test
+    public void scoreThresholdIsAppliedToExactScores() {
+        List<Float> query = randomVector(new Random(13));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(5)
+            .build();
+        VectorSearchResults<Hotel> exact = exactCollection.searchAsync(query, options).block();
+        assertNotNull(exact);
+
+        // Only the two best hotels reach the exact score of the second one
+        VectorSearchOptions thresholdOptions = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(5)
+            .withScoreThreshold(exact.getResults().get(1).getScore())
+            .build();
+        VectorSearchResults<Hotel> results = pqCollection.searchAsync(query, thresholdOptions)
+            .block();
+        assertEquals(getIds(exact).subList(0, 2), getIds(results));
+        for (int i = 0; i < 2; i++) {
+            assertEquals(exact.getResults().get(i).getScore(),
+                results.getResults().get(i).getScore(), 1e-6);
+        }
+    }
+
+    @Test
+    public void rescoredSearchesReturnKeysOnly() {
+        List<Float> query = randomVector(new Random(13));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .build();
+        VectorSearchOptions keysOnlyOptions = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .withKeysOnly(true)
+            .build();
+
+        VectorSearchResults<Hotel> keys = rescoredCollection.searchAsync(query, keysOnlyOptions)
+            .block();
+        assertNotNull(keys);
+        assertEquals(getIds(rescoredCollection.searchAsync(query, options).block()),
+            keys.getResults().stream()
+                .map(VectorSearchResult::getKey)
+                .collect(Collectors.toList()));
+        assertTrue(keys.getResults().stream().allMatch(result -> result.getRecord() == null));
+    }
+
+    @Test
+    public void newRecordsAreEncodedWithTrainedQuantizer() {
+        List<Float> query = randomVector(new Random(17));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(1)
+            .build();
+
+        // The first search trains the quantizer
+        assertFalse(getIds(pqCollection.searchAsync(query, options).block()).isEmpty());
+
+        pqCollection.upsertAsync(new Hotel("id_new", "Hotel new", 3000, "New hotel",
+            query, query, query, query, 4.0), null).block();
+        assertEquals(Arrays.asList("id_new"),
+            getIds(pqCollection.searchAsync(query, options).block()));
+
+        pqCollection.deleteAsync("id_new", null).block();
+        pqCollection.rebuildIndexesAsync().block();
+        assertFalse(getIds(pqCollection.searchAsync(query, options).block())
+            .contains("id_new"));
+    }
+
+    @Test
+    public void quantizersAreSharedByTheInstancesOfACollection() {
+        VolatileVectorStore vectorStore = new VolatileVectorStore();
+        VolatileVectorStoreRecordCollectionOptions<Hotel> collectionOptions = VolatileVectorStoreRecordCollectionOptions
+            .<Hotel>builder()
+            .withRecordClass(Hotel.class)
+            .withPqSubspaceCount(4)
+            .build();
+        VolatileVectorStoreRecordCollection<Hotel> writer = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", collectionOptions);
+        writer.createCollectionAsync().block();
+        writer.upsertBatchAsync(getHotels(), null).block();
+
+        List<Float> query = randomVector(new Random(17));
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(1)
+            .build();
+        VolatileVectorStoreRecordCollection<Hotel> reader = (VolatileVectorStoreRecordCollection<Hotel>) vectorStore
+            .getCollection("hotels", collectionOptions);
+        // The first search trains the quantizer shared with the writer
+        assertFalse(getIds(reader.searchAsync(query, options).block()).isEmpty());
+
+        writer.upsertAsync(new Hotel("id_new", "Hotel new", 3000, "New hotel",
+            query, query, query, query, 4.0), null).block();
+        assertEquals(Arrays.asList("id_new"),
+            getIds(reader.searchAsync(query, options).block()));
+    }
+
+    @Test
+    public void quantizerIsWrittenAndRead() throws IOException {
+        Random random = new Random(19);
+        float[][] sample = new float[500][DIMENSIONS];
+        for (float[] vector : sample) {
+            for (int d = 0; d < DIMENSIONS; d++) {
+                vector[d] = random.nextFloat();
+            }
+        }
+        ProductQuantizer quantizer = ProductQuantizer.train(sample, 4);
+        assertEquals(4, quantizer.getCodeSize());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        quantizer.write(new DataOutputStream(bytes));
+        ProductQuantizer read = ProductQuantizer.read(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        for (float[] vector : sample) {
+            assertArrayEquals(quantizer.encode(vector), read.encode(vector));
+        }
+    }
+}
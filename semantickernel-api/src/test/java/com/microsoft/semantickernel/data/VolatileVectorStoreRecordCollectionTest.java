@@ -12,6 +12,7 @@ import java.util.stream.Collectors;
 
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchFilter;
 import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResult;
+import com.microsoft.semantickernel.data.vectorsearch.VectorSearchResults;
 import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
 import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
 import org.junit.jupiter.api.BeforeAll;
@@ -204,4 +205,89 @@ public class VolatileVectorStoreRecordCollectionTest {
         // The first hotel should be the most similar
         assertEquals(hotels.get(0).getId(), results.get(0).getRecord().getId());
     }
+
+    @ParameterizedTest
+    @EnumSource(DistanceFunction.class)
+    public void searchWithScoreThreshold(DistanceFunction distanceFunction) {
+        List<Hotel> hotels = getHotels();
+        recordCollection.upsertBatchAsync(hotels, null).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName(distanceFunction.getValue())
+            .withTop(5)
+            .build();
+
+        List<VectorSearchResult<Hotel>> results = recordCollection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(5, results.size());
+
+        // Only the two most similar hotels reach the score of the second result
+        options = VectorSearchOptions.builder()
+            .withVectorFieldName(distanceFunction.getValue())
+            .withTop(5)
+            .withScoreThreshold(results.get(1).getScore())
+            .build();
+
+        List<VectorSearchResult<Hotel>> thresholdResults = recordCollection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block().getResults();
+        assertEquals(2, thresholdResults.size());
+        assertEquals(results.get(0).getRecord().getId(),
+            thresholdResults.get(0).getRecord().getId());
+        assertEquals(results.get(1).getRecord().getId(),
+            thresholdResults.get(1).getRecord().getId());
+    }
+
+    @Test
+    public void searchKeysOnlyAndHydrate() {
+        List<Hotel> hotels = getHotels();
+        recordCollection.upsertBatchAsync(hotels, null).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .withKeysOnly(true)
+            .build();
+
+        VectorSearchResults<Hotel> results = recordCollection
+            .searchAsync(SEARCH_EMBEDDINGS, options).block();
+        assertNotNull(results);
+        assertEquals(Arrays.asList("id_3", "id_1", "id_4"), results.getResults().stream()
+            .map(VectorSearchResult::getKey)
+            .collect(Collectors.toList()));
+        assertTrue(results.getResults().stream().allMatch(result -> result.getRecord() == null));
+
+        // Records deleted since the search are left out
+        recordCollection.deleteAsync("id_1", null).block();
+        VectorSearchResults<Hotel> hydrated = results
+            .hydrateAsync(recordCollection, Hotel::getId, null).block();
+        assertNotNull(hydrated);
+        assertEquals(Arrays.asList("id_3", "id_4"), hydrated.getResults().stream()
+            .map(result -> result.getRecord().getId())
+            .collect(Collectors.toList()));
+        assertEquals(results.getResults().get(0).getScore(),
+            hydrated.getResults().get(0).getScore());
+    }
+
+    @Test
+    public void searchStream() {
+        recordCollection.upsertBatchAsync(getHotels(), null).block();
+
+        VectorSearchOptions options = VectorSearchOptions.builder()
+            .withVectorFieldName("euclidean")
+            .withTop(3)
+            .build();
+
+        List<String> ids = recordCollection.searchStreamAsync(SEARCH_EMBEDDINGS, options)
+            .map(result -> result.getRecord().getId())
+            .collectList()
+            .block();
+        assertEquals(Arrays.asList("id_3", "id_1", "id_4"), ids);
+
+        VectorSearchResult<Hotel> first = recordCollection
+            .searchStreamAsync(SEARCH_EMBEDDINGS, options)
+            .next()
+            .block();
+        assertNotNull(first);
+        assertEquals("id_3", first.getRecord().getId());
+    }
 }
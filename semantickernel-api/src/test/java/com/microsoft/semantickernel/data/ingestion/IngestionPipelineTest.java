@@ -0,0 +1,204 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.data.ingestion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.microsoft.semantickernel.data.Hotel;
+import com.microsoft.semantickernel.data.VolatileVectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.VolatileVectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.services.textembedding.Embedding;
+import com.microsoft.semantickernel.services.textembedding.TextEmbeddingGenerationService;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class IngestionPipelineTest {
+
+    /**
+     * Embeds a text as its length, recording the requests.
+     */
+    private static class RecordingService implements TextEmbeddingGenerationService {
+
+        private final List<List<String>> requests = Collections
+            .synchronizedList(new ArrayList<>());
+        @Nullable
+        private final String failingText;
+
+        private RecordingService(@Nullable String failingText) {
+            this.failingText = failingText;
+        }
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return "model";
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+            requests.add(new ArrayList<>(data));
+            if (data.contains(failingText)) {
+                return Mono.error(new IllegalStateException("failed"));
+            }
+            return Mono.just(data.stream()
+                .map(text -> {
+                    float[] vector = new float[8];
+                    vector[0] = text.length();
+                    return new Embedding(vector);
+                })
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Mono<Embedding> generateEmbeddingAsync(String data) {
+            return generateEmbeddingsAsync(Collections.singletonList(data))
+                .map(embeddings -> embeddings.get(0));
+        }
+    }
+
+    private VolatileVectorStoreRecordCollection<Hotel> collection;
+
+    @BeforeEach
+    public void setup() {
+        collection = new VolatileVectorStoreRecordCollection<>(
+            "chunks",
+            VolatileVectorStoreRecordCollectionOptions.<Hotel>builder()
+                .withRecordClass(Hotel.class)
+                .build());
+        collection.createCollectionAsync().block();
+    }
+
+    // Documents are "id:text", split into their words
+    private IngestionPipeline<String, Hotel> createPipeline(RecordingService service,
+        IngestionCheckpointStore checkpointStore) {
+        return IngestionPipeline.<String, Hotel>builder()
+            .withDocumentIdFunction(document -> document.substring(0, document.indexOf(':')))
+            .withSplitter(document -> {
+                String text = document.substring(document.indexOf(':') + 1);
+                return text.isEmpty() ? Flux.empty() : Flux.fromArray(text.split(" "));
+            })
+            .withEmbeddingGenerationService(service)
+            .withRecordMapper((chunk, embedding) -> new Hotel(
+                chunk.getDocumentId() + "-" + chunk.getIndex(), chunk.getText(),
+                chunk.getIndex(), chunk.getDocument(), embedding.getVector(), null, null, null,
+                0.0))
+            .withCollection(collection)
+            .withCheckpointStore(checkpointStore)
+            .withEmbeddingBatchSize(4)
+            .withUpsertBatchSize(5)
+            .withMaxBatchDelay(Duration.ofMillis(10))
+            .build();
+    }
+
+    private static List<String> documents(int count) {
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add("doc" + i + ":alpha beta gamma");
+        }
+        return documents;
+    }
+
+    @Test
+    public void documentsAreSplitEmbeddedAndUpserted() {
+        RecordingService service = new RecordingService(null);
+        InMemoryIngestionCheckpointStore checkpointStore = new InMemoryIngestionCheckpointStore();
+        IngestionPipeline<String, Hotel> pipeline = createPipeline(service, checkpointStore);
+
+        List<String> documents = new ArrayList<>(documents(10));
+        documents.add("empty:");
+        List<String> completed = pipeline.ingestAsync(Flux.fromIterable(documents))
+            .collectList()
+            .block();
+
+        assertEquals(11, new HashSet<>(completed).size());
+        assertEquals(11, checkpointStore.size());
+        for (int i = 0; i < 10; i++) {
+            for (int chunk = 0; chunk < 3; chunk++) {
+                Hotel hotel = collection.getAsync("doc" + i + "-" + chunk, null).block();
+                assertNotNull(hotel);
+                assertEquals((float) hotel.getName().length(), hotel.getEuclidean().get(0));
+            }
+        }
+        service.requests.forEach(request -> assertTrue(request.size() <= 4));
+        assertEquals(30, service.requests.stream().mapToInt(List::size).sum());
+
+        assertEquals(11, pipeline.getSplitMetrics().getCompleted());
+        assertEquals(30, pipeline.getEmbeddingMetrics().getCompleted());
+        assertEquals(30, pipeline.getUpsertMetrics().getCompleted());
+        assertEquals(0, pipeline.getUpsertMetrics().getLag());
+        assertTrue(pipeline.getUpsertMetrics().getThroughput() > 0);
+    }
+
+    @Test
+    public void failedDocumentsAreNotCheckpointed() {
+        RecordingService service = new RecordingService("broken");
+        InMemoryIngestionCheckpointStore checkpointStore = new InMemoryIngestionCheckpointStore();
+        IngestionPipeline<String, Hotel> pipeline = createPipeline(service, checkpointStore);
+
+        assertThrows(IllegalStateException.class, () -> pipeline
+            .ingestAsync(Flux.just("good:alpha beta gamma delta", "bad:broken"))
+            .blockLast());
+        assertFalse(checkpointStore.isCompleted("bad"));
+        assertNull(collection.getAsync("bad-0", null).block());
+    }
+
+    @Test
+    public void restartedIngestionSkipsCheckpointedDocuments(@TempDir Path directory)
+        throws IOException {
+        Path path = directory.resolve("checkpoints.txt");
+        try (FileIngestionCheckpointStore checkpointStore = FileIngestionCheckpointStore
+            .open(path)) {
+            createPipeline(new RecordingService(null), checkpointStore)
+                .ingestAsync(Flux.fromIterable(documents(3)))
+                .blockLast();
+            assertEquals(3, checkpointStore.size());
+        }
+
+        // Simulate a checkpoint left incomplete by a crash
+        Files.write(path, "doc3".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (FileIngestionCheckpointStore checkpointStore = FileIngestionCheckpointStore
+            .open(path)) {
+            assertEquals(3, checkpointStore.size());
+            RecordingService service = new RecordingService(null);
+            IngestionPipeline<String, Hotel> pipeline = createPipeline(service, checkpointStore);
+
+            List<String> completed = pipeline.ingestAsync(Flux.fromIterable(documents(5)))
+                .collectList()
+                .block();
+
+            assertEquals(new HashSet<>(Arrays.asList("doc3", "doc4")), new HashSet<>(completed));
+            assertEquals(3, pipeline.getSkippedDocuments());
+            assertEquals(6, service.requests.stream().mapToInt(List::size).sum());
+            assertEquals(5, checkpointStore.size());
+        }
+        assertEquals(5, Files.readAllLines(path).size());
+    }
+}
@@ -0,0 +1,203 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpResponse;
+import com.microsoft.semantickernel.exceptions.SKException;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class LoadBalancerTest {
+
+    private static AIService service(String serviceId) {
+        return new AIService() {
+            @Nullable
+            @Override
+            public String getModelId() {
+                return "model";
+            }
+
+            @Nullable
+            @Override
+            public String getServiceId() {
+                return serviceId;
+            }
+        };
+    }
+
+    @Test
+    public void requestsGoToTheServiceWithTheLeastOutstandingRequests() {
+        AIService east = service("east");
+        AIService west = service("west");
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(east)
+            .withService(west)
+            .build();
+        Sinks.One<String> pending = Sinks.one();
+
+        loadBalancer.execute(service -> pending.asMono()).subscribe();
+        String first = loadBalancer.getOutstandingRequests(east) == 1 ? "east" : "west";
+        String second = loadBalancer
+            .execute(service -> Mono.just(service.getServiceId()))
+            .block();
+
+        assertFalse(first.equals(second));
+        pending.tryEmitValue("done");
+        assertEquals(0, loadBalancer.getOutstandingRequests(east));
+        assertEquals(0, loadBalancer.getOutstandingRequests(west));
+    }
+
+    @Test
+    public void requestsAreSpreadInProportionToTheWeights() {
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(service("east"), 2, 0)
+            .withService(service("west"), 1, 0)
+            .build();
+
+        List<String> serviceIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            serviceIds.add(loadBalancer
+                .execute(service -> Mono.just(service.getServiceId()))
+                .block());
+        }
+
+        assertEquals(4, Collections.frequency(serviceIds, "east"));
+        assertEquals(2, Collections.frequency(serviceIds, "west"));
+    }
+
+    @Test
+    public void servicesAtTheirQuotaAreNotSelected() {
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(service("east"), 1, 1)
+            .build();
+        Sinks.One<String> pending = Sinks.one();
+
+        loadBalancer.execute(service -> pending.asMono()).subscribe();
+
+        assertThrows(SKException.class,
+            () -> loadBalancer.execute(service -> Mono.just("second")).block());
+        pending.tryEmitValue("done");
+        assertEquals("third", loadBalancer.execute(service -> Mono.just("third")).block());
+    }
+
+    @Test
+    public void failingServicesAreTakenOutOfRotation() {
+        AIService east = service("east");
+        AIService west = service("west");
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(east)
+            .withService(west)
+            .withFailureThreshold(2)
+            .withBreakDuration(Duration.ofMillis(100))
+            .build();
+
+        List<String> serviceIds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            serviceIds.add(loadBalancer
+                .execute(service -> service == east
+                    ? Mono.<String>error(new IOException("unavailable"))
+                    : Mono.just("west"))
+                .onErrorReturn("error")
+                .block());
+        }
+
+        assertEquals(2, Collections.frequency(serviceIds, "error"));
+        assertTrue(loadBalancer.isCircuitOpen(east));
+
+        // Once the break has elapsed, a successful trial request closes the circuit
+        Mono.delay(Duration.ofMillis(150)).block();
+        loadBalancer.execute(service -> Mono.just("ok"), false).block();
+        loadBalancer.execute(service -> Mono.just("ok"), false).block();
+        assertFalse(loadBalancer.isCircuitOpen(east));
+    }
+
+    @Test
+    public void slowRequestsAreHedgedToAnotherService() {
+        AIService east = service("east");
+        AIService west = service("west");
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(east)
+            .withService(west)
+            .withHedgeDelay(Duration.ofMillis(50))
+            .build();
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        String serviceId = loadBalancer
+            .execute(service -> service == east
+                ? Mono.<String>never().doOnCancel(() -> cancelled.set(true))
+                : Mono.just("west"))
+            .block(Duration.ofSeconds(5));
+
+        assertEquals("west", serviceId);
+        assertTrue(cancelled.get());
+        assertEquals(1, loadBalancer.getHedgedCount());
+        assertEquals(0, loadBalancer.getOutstandingRequests(east));
+        // The cancelled request took at least the hedge delay
+        assertTrue(loadBalancer.getAverageLatency(east).toMillis() >= 50);
+    }
+
+    @Test
+    public void hedgedRequestsFailWithTheErrorOfTheirService() {
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(service("east"))
+            .withHedgeDelay(Duration.ofMillis(10))
+            .build();
+
+        assertThrows(IllegalStateException.class, () -> loadBalancer
+            .execute(service -> Mono.<String>error(new IllegalStateException("unavailable")))
+            .block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void clientErrorsDoNotOpenTheCircuit() {
+        AIService east = service("east");
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(east)
+            .withFailureThreshold(1)
+            .build();
+        HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatusCode()).thenReturn(400);
+
+        assertThrows(HttpResponseException.class, () -> loadBalancer
+            .execute(service -> Mono.<String>error(
+                new HttpResponseException("Bad request", response)))
+            .block());
+        assertFalse(loadBalancer.isCircuitOpen(east));
+    }
+
+    @Test
+    public void failedRequestsAreSentToAnotherServiceAtOnce() {
+        AIService east = service("east");
+        AIService west = service("west");
+        LoadBalancer<AIService> loadBalancer = LoadBalancer.<AIService>builder()
+            .withService(east)
+            .withService(west)
+            .withHedgeDelay(Duration.ofSeconds(10))
+            .build();
+
+        String serviceId = loadBalancer
+            .execute(service -> service == east
+                ? Mono.<String>error(new IOException("unavailable"))
+                : Mono.just("west"))
+            .block(Duration.ofSeconds(5));
+
+        assertEquals("west", serviceId);
+        assertEquals(0, loadBalancer.getOutstandingRequests(east));
+        assertEquals(0, loadBalancer.getOutstandingRequests(west));
+    }
+}
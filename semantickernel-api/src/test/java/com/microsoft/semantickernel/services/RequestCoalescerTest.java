@@ -0,0 +1,106 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class RequestCoalescerTest {
+
+    @Test
+    public void identicalRequestsShareTheUpstreamRequest() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<>();
+        AtomicInteger upstream = new AtomicInteger();
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<List<String>> responses = Flux.range(0, 5)
+            .flatMap(i -> coalescer.execute("key", () -> {
+                upstream.incrementAndGet();
+                return response.asMono();
+            }))
+            .collectList()
+            .cache();
+        responses.subscribe();
+
+        assertEquals(1, coalescer.getInFlightCount());
+        response.tryEmitValue("response");
+        responses.block().forEach(value -> assertEquals("response", value));
+        assertEquals(1, upstream.get());
+        assertEquals(4, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlightCount());
+
+        // A request subscribed once the upstream request has completed starts a new one
+        coalescer.execute("key", () -> {
+            upstream.incrementAndGet();
+            return Mono.just("again");
+        }).block();
+        assertEquals(2, upstream.get());
+    }
+
+    @Test
+    public void requestsOfDifferentKeysAreNotShared() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<>();
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+
+        Mono<String> firstResponse = coalescer.execute("first", first::asMono).cache();
+        Mono<String> secondResponse = coalescer.execute("second", second::asMono).cache();
+        firstResponse.subscribe();
+        secondResponse.subscribe();
+
+        assertEquals(2, coalescer.getInFlightCount());
+        first.tryEmitValue("1");
+        second.tryEmitValue("2");
+        assertEquals("1", firstResponse.block());
+        assertEquals("2", secondResponse.block());
+    }
+
+    @Test
+    public void errorsAreSharedWithEverySubscriber() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<>();
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = coalescer.execute("key", response::asMono).cache();
+        Mono<String> second = coalescer.execute("key", response::asMono).cache();
+        first.subscribe(value -> {
+        }, error -> {
+        });
+        second.subscribe(value -> {
+        }, error -> {
+        });
+        response.tryEmitError(new IllegalStateException("failed"));
+
+        assertThrows(IllegalStateException.class, first::block);
+        assertThrows(IllegalStateException.class, second::block);
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+
+    @Test
+    public void upstreamRequestIsCancelledByItsLastSubscriber() {
+        RequestCoalescer<String> coalescer = new RequestCoalescer<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> upstream = Mono.<String>never()
+            .doOnCancel(() -> cancelled.set(true));
+
+        Disposable first = coalescer.execute("key", () -> upstream).subscribe();
+        Disposable second = coalescer.execute("key", () -> upstream).subscribe();
+
+        first.dispose();
+        assertFalse(cancelled.get());
+        assertEquals(1, coalescer.getInFlightCount());
+
+        second.dispose();
+        assertTrue(cancelled.get());
+        assertEquals(0, coalescer.getInFlightCount());
+    }
+}
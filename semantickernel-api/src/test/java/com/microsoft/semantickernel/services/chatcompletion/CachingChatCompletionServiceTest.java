@@ -0,0 +1,180 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import com.microsoft.semantickernel.services.FileCompletionCacheStore;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class CachingChatCompletionServiceTest {
+
+    /**
+     * Answers with the number of the request and the last message, counting the requests.
+     */
+    private static class CountingService implements ChatCompletionService {
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return "model";
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+            ChatHistory chatHistory,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Mono.fromCallable(() -> Collections.singletonList(
+                new ChatMessageContent<>(AuthorRole.ASSISTANT,
+                    requests.incrementAndGet() + ": "
+                        + chatHistory.getLastMessage().get().getContent(),
+                    "model", null, null, FunctionResultMetadata.build("id"))));
+        }
+
+        @Override
+        public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+            String prompt,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return getChatMessageContentsAsync(new ChatHistory().addUserMessage(prompt),
+                kernel, invocationContext);
+        }
+
+        @Override
+        public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+            ChatHistory chatHistory,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+            String prompt,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Flux.empty();
+        }
+    }
+
+    private static InvocationContext withTemperature(double temperature) {
+        return InvocationContext.builder()
+            .withPromptExecutionSettings(PromptExecutionSettings.builder()
+                .withTemperature(temperature)
+                .build())
+            .build();
+    }
+
+    private static ChatMessageContent<?> ask(ChatCompletionService service, String question,
+        InvocationContext invocationContext) {
+        ChatHistory chatHistory = new ChatHistory()
+            .addSystemMessage("Classify the question")
+            .addUserMessage(question);
+        return service.getChatMessageContentsAsync(chatHistory, null, invocationContext)
+            .block()
+            .get(0);
+    }
+
+    @Test
+    public void deterministicRequestsAreCached() {
+        CountingService service = new CountingService();
+        CachingChatCompletionService caching = CachingChatCompletionService.builder()
+            .withService(service)
+            .build();
+
+        ChatMessageContent<?> first = ask(caching, "a", withTemperature(0));
+        ChatMessageContent<?> second = ask(caching, "a", withTemperature(0));
+        ChatMessageContent<?> other = ask(caching, "b", withTemperature(0));
+
+        assertEquals("1: a", first.getContent());
+        assertFalse(first.getMetadata().isCacheHit());
+        assertEquals("1: a", second.getContent());
+        assertEquals(AuthorRole.ASSISTANT, second.getAuthorRole());
+        assertTrue(second.getMetadata().isCacheHit());
+        assertEquals("id", second.getMetadata().getId());
+        assertNotNull(second.getMetadata().getCreatedAt());
+        assertEquals("2: b", other.getContent());
+        assertEquals(2, service.requests.get());
+    }
+
+    @Test
+    public void nonDeterministicRequestsAreNotCached() {
+        CountingService service = new CountingService();
+        CachingChatCompletionService caching = CachingChatCompletionService.builder()
+            .withService(service)
+            .build();
+
+        ask(caching, "a", withTemperature(0.7));
+        ask(caching, "a", withTemperature(0.7));
+        ask(caching, "a", InvocationContext.builder().build());
+        caching.getChatMessageContentsAsync("a", null, null).block();
+
+        assertEquals(4, service.requests.get());
+    }
+
+    @Test
+    public void expiredResponsesAreRegenerated() throws InterruptedException {
+        CountingService service = new CountingService();
+        CachingChatCompletionService caching = CachingChatCompletionService.builder()
+            .withService(service)
+            .withTtl(Duration.ofMillis(10))
+            .build();
+
+        ask(caching, "a", withTemperature(0));
+        Thread.sleep(50);
+        ChatMessageContent<?> regenerated = ask(caching, "a", withTemperature(0));
+
+        assertEquals("2: a", regenerated.getContent());
+        assertFalse(regenerated.getMetadata().isCacheHit());
+    }
+
+    @Test
+    public void responsesArePersisted(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("completions.bin");
+        CountingService service = new CountingService();
+
+        try (FileCompletionCacheStore store = FileCompletionCacheStore.open(path)) {
+            ask(CachingChatCompletionService.builder()
+                .withService(service)
+                .withStore(store)
+                .build(), "a", withTemperature(0));
+        }
+
+        try (FileCompletionCacheStore store = FileCompletionCacheStore.open(path)) {
+            assertEquals(1, store.size());
+            ChatMessageContent<?> cached = ask(CachingChatCompletionService.builder()
+                .withService(service)
+                .withStore(store)
+                .build(), "a", withTemperature(0));
+
+            assertEquals("1: a", cached.getContent());
+            assertTrue(cached.getMetadata().isCacheHit());
+        }
+        assertEquals(1, service.requests.get());
+    }
+}
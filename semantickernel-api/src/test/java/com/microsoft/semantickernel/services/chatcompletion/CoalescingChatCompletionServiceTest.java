@@ -0,0 +1,84 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class CoalescingChatCompletionServiceTest {
+
+    @Test
+    public void concurrentIdenticalRequestsAreSentOnce() {
+        AtomicInteger requests = new AtomicInteger();
+        ChatCompletionService service = new ChatCompletionService() {
+            @Nullable
+            @Override
+            public String getModelId() {
+                return "model";
+            }
+
+            @Nullable
+            @Override
+            public String getServiceId() {
+                return null;
+            }
+
+            @Override
+            public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+                ChatHistory chatHistory, @Nullable Kernel kernel,
+                @Nullable InvocationContext invocationContext) {
+                return Mono.fromCallable(() -> Collections.<ChatMessageContent<?>>singletonList(
+                    new ChatMessageContent<>(AuthorRole.ASSISTANT,
+                        requests.incrementAndGet() + ": "
+                            + chatHistory.getLastMessage().get().getContent())))
+                    .delayElement(Duration.ofMillis(100));
+            }
+
+            @Override
+            public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(String prompt,
+                @Nullable Kernel kernel, @Nullable InvocationContext invocationContext) {
+                return getChatMessageContentsAsync(new ChatHistory().addUserMessage(prompt),
+                    kernel, invocationContext);
+            }
+
+            @Override
+            public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+                ChatHistory chatHistory, @Nullable Kernel kernel,
+                @Nullable InvocationContext invocationContext) {
+                return Flux.empty();
+            }
+
+            @Override
+            public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+                String prompt, @Nullable Kernel kernel,
+                @Nullable InvocationContext invocationContext) {
+                return Flux.empty();
+            }
+        };
+        CoalescingChatCompletionService coalescing = CoalescingChatCompletionService.builder()
+            .withService(service)
+            .build();
+
+        List<String> responses = Flux.range(0, 10)
+            .flatMap(i -> coalescing.getChatMessageContentsAsync(new ChatHistory()
+                .addSystemMessage("Summarize")
+                .addUserMessage(i % 2 == 0 ? "even" : "odd"), null, null))
+            .map(messages -> messages.get(0).getContent())
+            .collectList()
+            .block();
+
+        assertEquals(2, requests.get());
+        assertEquals(10, responses.size());
+        assertEquals(5, responses.stream().filter(response -> response.endsWith("even")).count());
+        assertEquals(8, coalescing.getCoalescer().getCoalescedCount());
+    }
+}
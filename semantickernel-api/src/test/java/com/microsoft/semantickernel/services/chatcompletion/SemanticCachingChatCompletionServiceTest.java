@@ -0,0 +1,228 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.chatcompletion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.data.VolatileVectorStoreRecordCollection;
+import com.microsoft.semantickernel.data.VolatileVectorStoreRecordCollectionOptions;
+import com.microsoft.semantickernel.data.vectorstorage.definition.DistanceFunction;
+import com.microsoft.semantickernel.data.vectorstorage.options.VectorSearchOptions;
+import com.microsoft.semantickernel.orchestration.InvocationContext;
+import com.microsoft.semantickernel.services.textembedding.Embedding;
+import com.microsoft.semantickernel.services.textembedding.TextEmbeddingGenerationService;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class SemanticCachingChatCompletionServiceTest {
+
+    /**
+     * Answers with the number of the request and the last message, counting the requests.
+     */
+    private static class CountingService implements ChatCompletionService {
+
+        private final AtomicInteger requests = new AtomicInteger();
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return "model";
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+            ChatHistory chatHistory,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Mono.fromCallable(() -> Collections.singletonList(
+                new ChatMessageContent<>(AuthorRole.ASSISTANT, requests.incrementAndGet() + ": "
+                    + chatHistory.getLastMessage().get().getContent())));
+        }
+
+        @Override
+        public Mono<List<ChatMessageContent<?>>> getChatMessageContentsAsync(
+            String prompt,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return getChatMessageContentsAsync(new ChatHistory().addUserMessage(prompt),
+                kernel, invocationContext);
+        }
+
+        @Override
+        public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+            ChatHistory chatHistory,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Flux.empty();
+        }
+
+        @Override
+        public Flux<StreamingChatContent<?>> getStreamingChatMessageContentsAsync(
+            String prompt,
+            @Nullable Kernel kernel,
+            @Nullable InvocationContext invocationContext) {
+            return Flux.empty();
+        }
+    }
+
+    /**
+     * Embeds the texts mentioning a refund in one direction, and the other texts in another.
+     */
+    private static class TopicEmbeddingService implements TextEmbeddingGenerationService {
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return "embeddings";
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<Embedding> generateEmbeddingAsync(String data) {
+            return Mono.just(data.contains("refund")
+                ? new Embedding(new float[] { 1, 0.01f * data.length() })
+                : new Embedding(new float[] { 0, 1 }));
+        }
+
+        @Override
+        public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+            return Flux.fromIterable(data)
+                .concatMap(this::generateEmbeddingAsync)
+                .collectList();
+        }
+    }
+
+    private CountingService service;
+    private VolatileVectorStoreRecordCollection<SemanticCacheRecord> collection;
+
+    @BeforeEach
+    public void setup() {
+        service = new CountingService();
+        collection = new VolatileVectorStoreRecordCollection<>("cache",
+            VolatileVectorStoreRecordCollectionOptions.<SemanticCacheRecord>builder()
+                .withRecordClass(SemanticCacheRecord.class)
+                .withRecordDefinition(SemanticCacheRecord.getRecordDefinition(2))
+                .build());
+        collection.createCollectionAsync().block();
+    }
+
+    private SemanticCachingChatCompletionService.Builder builder() {
+        return SemanticCachingChatCompletionService.builder()
+            .withService(service)
+            .withEmbeddingGenerationService(new TopicEmbeddingService())
+            .withCollection(collection)
+            .withSimilarityThreshold(0.99);
+    }
+
+    private static ChatMessageContent<?> ask(ChatCompletionService service,
+        String systemMessage, String question) {
+        ChatHistory chatHistory = new ChatHistory()
+            .addSystemMessage(systemMessage)
+            .addUserMessage(question);
+        return service.getChatMessageContentsAsync(chatHistory, null, null).block().get(0);
+    }
+
+    @Test
+    public void similarPromptsAreServedFromTheCache() {
+        SemanticCachingChatCompletionService caching = builder().build();
+
+        ChatMessageContent<?> first = ask(caching, "Support", "I want a refund");
+        ChatMessageContent<?> similar = ask(caching, "Support", "I want a refund now");
+        ChatMessageContent<?> other = ask(caching, "Support", "Where is my parcel?");
+        ChatMessageContent<?> otherContext = ask(caching, "Sales", "I want a refund");
+
+        assertEquals("1: I want a refund", first.getContent());
+        assertNull(first.getMetadata());
+        assertEquals("1: I want a refund", similar.getContent());
+        assertTrue(similar.getMetadata().isCacheHit());
+        assertEquals("2: Where is my parcel?", other.getContent());
+        assertEquals("3: I want a refund", otherContext.getContent());
+
+        assertEquals(3, service.requests.get());
+        assertEquals(1, caching.getMetrics().getHits());
+        assertEquals(3, caching.getMetrics().getMisses());
+        assertEquals(0.25, caching.getMetrics().getHitRate());
+    }
+
+    @Test
+    public void similarityIsComparedWithTheDistanceFunctionOfTheCollection() {
+        collection = new VolatileVectorStoreRecordCollection<>("similarity",
+            VolatileVectorStoreRecordCollectionOptions.<SemanticCacheRecord>builder()
+                .withRecordClass(SemanticCacheRecord.class)
+                .withRecordDefinition(SemanticCacheRecord.getRecordDefinition(2,
+                    DistanceFunction.COSINE_SIMILARITY))
+                .build());
+        collection.createCollectionAsync().block();
+        SemanticCachingChatCompletionService caching = builder()
+            .withCollection(collection)
+            .withDistanceFunction(DistanceFunction.COSINE_SIMILARITY)
+            .build();
+
+        ask(caching, "Support", "I want a refund");
+        ChatMessageContent<?> similar = ask(caching, "Support", "I want a refund now");
+        ChatMessageContent<?> other = ask(caching, "Support", "Where is my parcel?");
+
+        assertEquals("1: I want a refund", similar.getContent());
+        assertEquals("2: Where is my parcel?", other.getContent());
+    }
+
+    @Test
+    public void invalidatedResponsesAreRegenerated() {
+        SemanticCachingChatCompletionService caching = builder().build();
+
+        ask(caching, "Support", "I want a refund");
+        ChatMessageContent<?> cached = ask(caching, "Support", "I want a refund");
+        caching.invalidateAsync(cached.getMetadata().getId()).block();
+        ChatMessageContent<?> regenerated = ask(caching, "Support", "I want a refund");
+
+        assertEquals("2: I want a refund", regenerated.getContent());
+        assertEquals(1, caching.getMetrics().getInvalidated());
+    }
+
+    @Test
+    public void expiredResponsesAreDeleted() throws InterruptedException {
+        SemanticCachingChatCompletionService caching = builder()
+            .withTtl(Duration.ofMillis(10))
+            .build();
+
+        ask(caching, "Support", "I want a refund");
+        Thread.sleep(50);
+        long regeneratedAfter = System.currentTimeMillis();
+        ChatMessageContent<?> regenerated = ask(caching, "Support", "I want a refund");
+
+        assertEquals("2: I want a refund", regenerated.getContent());
+        assertEquals(1, caching.getMetrics().getExpired());
+        // Only the regenerated response is left
+        List<Long> createdAt = collection.searchAsync(Arrays.asList(1f, 0f),
+            VectorSearchOptions.builder().withTop(10).build())
+            .block()
+            .getResults()
+            .stream()
+            .map(result -> result.getRecord().getCreatedAt())
+            .collect(Collectors.toList());
+        assertEquals(1, createdAt.size());
+        assertTrue(createdAt.get(0) >= regeneratedAfter);
+    }
+}
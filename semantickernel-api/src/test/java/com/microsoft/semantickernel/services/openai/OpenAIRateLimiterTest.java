@@ -0,0 +1,154 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.openai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.azure.core.exception.HttpResponseException;
+import com.azure.core.http.HttpHeaderName;
+import com.azure.core.http.HttpPipelineCallContext;
+import com.azure.core.http.HttpPipelineNextPolicy;
+import com.azure.core.http.HttpResponse;
+import com.azure.core.http.policy.HttpPipelinePolicy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+public class OpenAIRateLimiterTest {
+
+    @Test
+    public void requestsBeyondTheConcurrencyLimitAreQueued() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withInitialConcurrency(2)
+            .build();
+        Sinks.One<String> response = Sinks.one();
+
+        List<Disposable> requests = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            requests.add(limiter.execute(null, 1, response::asMono).subscribe());
+        }
+        assertEquals(2, limiter.getInFlightCount());
+        assertEquals(3, limiter.getQueuedCount());
+
+        // Cancelled requests leave the queue
+        requests.get(4).dispose();
+        assertEquals(2, limiter.getQueuedCount());
+
+        response.tryEmitValue("response");
+        assertEquals(0, limiter.getInFlightCount());
+        assertEquals(0, limiter.getQueuedCount());
+        assertEquals(4, limiter.getRequestCount());
+    }
+
+    @Test
+    public void callersAreServedInTurn() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withInitialConcurrency(1)
+            .withMaxConcurrency(1)
+            .build();
+        List<String> sent = Collections.synchronizedList(new ArrayList<>());
+        Sinks.One<String> first = Sinks.one();
+
+        limiter.execute("a", 1, first::asMono).subscribe();
+        for (int i = 0; i < 3; i++) {
+            limiter.execute("a", 1, () -> {
+                sent.add("a");
+                return Mono.just("a");
+            }).subscribe();
+        }
+        limiter.execute("b", 1, () -> {
+            sent.add("b");
+            return Mono.just("b");
+        }).subscribe();
+
+        first.tryEmitValue("first");
+        assertEquals(4, sent.size());
+        assertEquals("b", sent.get(1));
+    }
+
+    @Test
+    public void throttledRequestsLowerTheLimitAndAreNotRetried() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withInitialConcurrency(8)
+            .build();
+        HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatusCode()).thenReturn(429);
+        when(response.getHeaderValue(HttpHeaderName.RETRY_AFTER_MS)).thenReturn("20");
+        AtomicInteger attempts = new AtomicInteger();
+
+        // The retries are left to the retry policy of the client
+        assertThrows(HttpResponseException.class, () -> limiter.execute(null, 1, () -> {
+            attempts.incrementAndGet();
+            return Mono.error(new HttpResponseException("Too many requests", response));
+        }).block(Duration.ofSeconds(5)));
+
+        assertEquals(1, attempts.get());
+        assertEquals(1, limiter.getThrottledCount());
+        assertEquals(4, limiter.getConcurrencyLimit());
+        // The next request waits for the Retry-After delay
+        assertEquals("response", limiter.execute(null, 1, () -> Mono.just("response"))
+            .block(Duration.ofSeconds(5)));
+        assertTrue(limiter.getMaxQueueWait().toMillis() >= 10);
+    }
+
+    @Test
+    public void thePolicyObservesEveryThrottledAttempt() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withInitialConcurrency(8)
+            .build();
+        HttpPipelinePolicy policy = limiter.getHttpPipelinePolicy();
+        HttpResponse response = mock(HttpResponse.class);
+        when(response.getStatusCode()).thenReturn(429);
+        when(response.getHeaderValue(HttpHeaderName.RETRY_AFTER_MS)).thenReturn("0");
+        HttpPipelineNextPolicy next = mock(HttpPipelineNextPolicy.class);
+        when(next.process()).thenReturn(Mono.just(response));
+
+        // Two attempts of the retry policy of the client, the last failing the request
+        policy.process(mock(HttpPipelineCallContext.class), next).block();
+        policy.process(mock(HttpPipelineCallContext.class), next).block();
+        assertThrows(HttpResponseException.class, () -> limiter.execute(null, 1,
+            () -> Mono.error(new HttpResponseException("Too many requests", response)))
+            .block(Duration.ofSeconds(5)));
+
+        assertEquals(2, limiter.getThrottledCount());
+        assertEquals(2, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    public void successfulRequestsRaiseTheLimit() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withInitialConcurrency(2)
+            .withMaxConcurrency(3)
+            .build();
+
+        for (int i = 0; i < 10; i++) {
+            limiter.execute(null, 1, () -> Mono.just("response")).block();
+        }
+        assertEquals(3, limiter.getConcurrencyLimit());
+    }
+
+    @Test
+    public void requestsWaitForTheTokensPerMinute() {
+        OpenAIRateLimiter limiter = OpenAIRateLimiter.builder()
+            .withTokensPerMinute(60_000)
+            .build();
+
+        limiter.execute(null, 60_000, () -> Mono.just("first")).block();
+        // 100 tokens are refilled in 100 milliseconds
+        String second = limiter.execute(null, 100, () -> Mono.just("second"))
+            .block(Duration.ofSeconds(5));
+
+        assertEquals("second", second);
+        assertEquals(0, limiter.getQueuedCount());
+        assertTrue(limiter.getMaxQueueWait().toMillis() >= 50);
+    }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textcompletion;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microsoft.semantickernel.Kernel;
+import com.microsoft.semantickernel.orchestration.FunctionResultMetadata;
+import com.microsoft.semantickernel.orchestration.PromptExecutionSettings;
+import com.microsoft.semantickernel.services.StreamingTextContent;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class CachingTextGenerationServiceTest {
+
+    @Test
+    public void deterministicRequestsAreCached() {
+        AtomicInteger requests = new AtomicInteger();
+        TextGenerationService service = new TextGenerationService() {
+            @Nullable
+            @Override
+            public String getModelId() {
+                return "model";
+            }
+
+            @Nullable
+            @Override
+            public String getServiceId() {
+                return null;
+            }
+
+            @Override
+            public Mono<List<TextContent>> getTextContentsAsync(String prompt,
+                @Nullable PromptExecutionSettings executionSettings, @Nullable Kernel kernel) {
+                return Mono.fromCallable(() -> Collections.singletonList(new TextContent(
+                    requests.incrementAndGet() + ": " + prompt, "model",
+                    FunctionResultMetadata.build("id"))));
+            }
+
+            @Override
+            public Flux<StreamingTextContent> getStreamingTextContentsAsync(String prompt,
+                @Nullable PromptExecutionSettings executionSettings, @Nullable Kernel kernel) {
+                return Flux.empty();
+            }
+        };
+        CachingTextGenerationService caching = CachingTextGenerationService.builder()
+            .withService(service)
+            .build();
+        PromptExecutionSettings deterministic = PromptExecutionSettings.builder()
+            .withTemperature(0)
+            .build();
+
+        TextContent first = caching.getTextContentsAsync("a", deterministic, null).block()
+            .get(0);
+        TextContent second = caching.getTextContentsAsync("a", deterministic, null).block()
+            .get(0);
+        TextContent sampled = caching.getTextContentsAsync("a", null, null).block().get(0);
+
+        assertFalse(first.getMetadata().isCacheHit());
+        assertEquals("1: a", second.getContent());
+        assertTrue(second.getMetadata().isCacheHit());
+        assertEquals("2: a", sampled.getContent());
+        assertEquals(2, requests.get());
+    }
+}
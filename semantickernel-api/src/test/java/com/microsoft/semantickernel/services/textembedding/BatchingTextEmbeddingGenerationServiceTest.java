@@ -0,0 +1,177 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public class BatchingTextEmbeddingGenerationServiceTest {
+
+    /**
+     * Embeds a text as its length, recording the requests.
+     */
+    private static class RecordingService implements TextEmbeddingGenerationService {
+
+        private final List<List<String>> requests = Collections
+            .synchronizedList(new ArrayList<>());
+        private final boolean failing;
+
+        private RecordingService(boolean failing) {
+            this.failing = failing;
+        }
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return "model";
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+            requests.add(new ArrayList<>(data));
+            if (failing) {
+                return Mono.error(new IllegalStateException("failed"));
+            }
+            return Mono.just(data.stream()
+                .map(text -> new Embedding(new float[] { text.length() }))
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Mono<Embedding> generateEmbeddingAsync(String data) {
+            return generateEmbeddingsAsync(Collections.singletonList(data))
+                .map(embeddings -> embeddings.get(0));
+        }
+    }
+
+    private static String text(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append('a');
+        }
+        return text.toString();
+    }
+
+    // Requests the embeddings of texts of lengths 1 to count concurrently
+    private static Map<String, Embedding> embedConcurrently(
+        BatchingTextEmbeddingGenerationService service, int count) {
+        return Flux.range(1, count)
+            .map(BatchingTextEmbeddingGenerationServiceTest::text)
+            .flatMap(text -> service.generateEmbeddingAsync(text)
+                .map(embedding -> Collections.singletonMap(text, embedding)), count)
+            .collectMap(map -> map.keySet().iterator().next(),
+                map -> map.values().iterator().next())
+            .block();
+    }
+
+    @Test
+    public void concurrentCallsAreBatched() {
+        RecordingService service = new RecordingService(false);
+        BatchingTextEmbeddingGenerationService batching = BatchingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxDelay(Duration.ofMillis(200))
+            .withMaxBatchSize(10)
+            .build();
+
+        Map<String, Embedding> embeddings = embedConcurrently(batching, 50);
+
+        assertEquals(50, embeddings.size());
+        embeddings.forEach((text, embedding) -> assertEquals((float) text.length(),
+            embedding.getVector().get(0)));
+        assertEquals(5, service.requests.size());
+        service.requests.forEach(request -> assertEquals(10, request.size()));
+    }
+
+    @Test
+    public void partialBatchIsSentAfterTheDelay() {
+        RecordingService service = new RecordingService(false);
+        BatchingTextEmbeddingGenerationService batching = BatchingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxDelay(Duration.ofMillis(20))
+            .build();
+
+        assertEquals(3, embedConcurrently(batching, 3).size());
+        assertEquals(1, service.requests.size());
+        assertEquals(3, service.requests.get(0).size());
+    }
+
+    @Test
+    public void batchesRespectTheTokenLimit() {
+        RecordingService service = new RecordingService(false);
+        BatchingTextEmbeddingGenerationService batching = BatchingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxDelay(Duration.ofMillis(200))
+            .withMaxBatchTokens(20)
+            .withTokenCounter(String::length)
+            .build();
+
+        assertEquals(10, embedConcurrently(batching, 10).size());
+        assertTrue(service.requests.size() > 1);
+        for (List<String> request : service.requests) {
+            int tokens = request.stream().mapToInt(String::length).sum();
+            // A text longer than the limit is sent alone
+            assertTrue(tokens <= 20 || request.size() == 1);
+        }
+        assertEquals(10, service.requests.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    public void cancelledCallersLeaveTheQueue() {
+        RecordingService service = new RecordingService(false);
+        BatchingTextEmbeddingGenerationService batching = BatchingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxDelay(Duration.ofMillis(50))
+            .build();
+
+        Disposable cancelled = batching.generateEmbeddingAsync("cancelled").subscribe();
+        Mono<Embedding> kept = batching.generateEmbeddingAsync("kept").cache();
+        kept.subscribe();
+        cancelled.dispose();
+
+        assertEquals(4f, kept.block().getVector().get(0));
+        assertEquals(Collections.singletonList(Collections.singletonList("kept")),
+            service.requests);
+    }
+
+    @Test
+    public void errorsAreDispatchedToEveryCaller() {
+        RecordingService service = new RecordingService(true);
+        BatchingTextEmbeddingGenerationService batching = BatchingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxBatchSize(2)
+            .build();
+
+        Mono<Embedding> first = batching.generateEmbeddingAsync("a").cache();
+        Mono<Embedding> second = batching.generateEmbeddingAsync("b").cache();
+        first.subscribe(embedding -> {
+        }, error -> {
+        });
+        assertThrows(IllegalStateException.class, second::block);
+        assertThrows(IllegalStateException.class, first::block);
+        assertEquals(1, service.requests.size());
+    }
+}
@@ -0,0 +1,185 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Mono;
+
+public class CachingTextEmbeddingGenerationServiceTest {
+
+    /**
+     * Embeds a text as its length and its first character, recording the requests.
+     */
+    private static class RecordingService implements TextEmbeddingGenerationService {
+
+        private final String modelId;
+        private final List<List<String>> requests = Collections
+            .synchronizedList(new ArrayList<>());
+
+        private RecordingService(String modelId) {
+            this.modelId = modelId;
+        }
+
+        @Nullable
+        @Override
+        public String getModelId() {
+            return modelId;
+        }
+
+        @Nullable
+        @Override
+        public String getServiceId() {
+            return null;
+        }
+
+        @Override
+        public Mono<List<Embedding>> generateEmbeddingsAsync(List<String> data) {
+            requests.add(new ArrayList<>(data));
+            return Mono.just(data.stream()
+                .map(RecordingService::embed)
+                .collect(Collectors.toList()));
+        }
+
+        @Override
+        public Mono<Embedding> generateEmbeddingAsync(String data) {
+            return generateEmbeddingsAsync(Collections.singletonList(data))
+                .map(embeddings -> embeddings.get(0));
+        }
+
+        private static Embedding embed(String text) {
+            return new Embedding(new float[] { text.length(), text.charAt(0) });
+        }
+    }
+
+    private static void assertEmbeddings(List<String> texts, List<Embedding> embeddings) {
+        assertEquals(texts.size(), embeddings.size());
+        for (int i = 0; i < texts.size(); i++) {
+            assertArrayEquals(RecordingService.embed(texts.get(i)).getVectorArray(),
+                embeddings.get(i).getVectorArray());
+        }
+    }
+
+    @Test
+    public void onlyMissesAreSentToTheService() {
+        RecordingService service = new RecordingService("model");
+        CachingTextEmbeddingGenerationService cache = CachingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .build();
+
+        List<String> first = Arrays.asList("apple", "banana", "apple");
+        assertEmbeddings(first, cache.generateEmbeddingsAsync(first).block());
+        assertEquals(Collections.singletonList(Arrays.asList("apple", "banana")),
+            service.requests);
+
+        List<String> second = Arrays.asList("cherry", "banana", "date", "apple");
+        assertEmbeddings(second, cache.generateEmbeddingsAsync(second).block());
+        assertEquals(Arrays.asList("cherry", "date"), service.requests.get(1));
+
+        assertEmbeddings(Collections.singletonList("date"),
+            Collections.singletonList(cache.generateEmbeddingAsync("date").block()));
+        assertEquals(2, service.requests.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedEmbeddingsAreEvicted() {
+        RecordingService service = new RecordingService("model");
+        CachingTextEmbeddingGenerationService cache = CachingTextEmbeddingGenerationService
+            .builder()
+            .withService(service)
+            .withMaxEntries(2)
+            .build();
+
+        cache.generateEmbeddingsAsync(Arrays.asList("a", "bb")).block();
+        cache.generateEmbeddingAsync("a").block();
+        cache.generateEmbeddingAsync("ccc").block();
+        assertEquals(2, service.requests.size());
+
+        // "bb" was the least recently used
+        cache.generateEmbeddingsAsync(Arrays.asList("a", "bb", "ccc")).block();
+        assertEquals(Collections.singletonList("bb"), service.requests.get(2));
+    }
+
+    @Test
+    public void keysDependOnTheModelAndDimensions() {
+        CachingTextEmbeddingGenerationService small = CachingTextEmbeddingGenerationService
+            .builder()
+            .withService(new RecordingService("model"))
+            .withDimensions(256)
+            .build();
+        CachingTextEmbeddingGenerationService large = CachingTextEmbeddingGenerationService
+            .builder()
+            .withService(new RecordingService("model"))
+            .withDimensions(1024)
+            .build();
+        CachingTextEmbeddingGenerationService other = CachingTextEmbeddingGenerationService
+            .builder()
+            .withService(new RecordingService("other"))
+            .withDimensions(256)
+            .build();
+
+        assertEquals(64, small.getKey("text").length());
+        assertNotEquals(small.getKey("text"), large.getKey("text"));
+        assertNotEquals(small.getKey("text"), other.getKey("text"));
+        assertNotEquals(small.getKey("text"), small.getKey("text2"));
+    }
+
+    @Test
+    public void persistentStoreSurvivesReopening(@TempDir Path directory) throws IOException {
+        Path path = directory.resolve("embeddings.bin");
+        List<String> texts = Arrays.asList("apple", "banana");
+
+        try (FileEmbeddingCacheStore store = FileEmbeddingCacheStore.open(path)) {
+            RecordingService service = new RecordingService("model");
+            assertEmbeddings(texts, CachingTextEmbeddingGenerationService.builder()
+                .withService(service)
+                .withStore(store)
+                .build()
+                .generateEmbeddingsAsync(texts)
+                .block());
+            assertEquals(2, store.size());
+        }
+
+        // Simulate an entry left incomplete by a crash
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0, 40, 1, 2 }));
+        }
+
+        try (FileEmbeddingCacheStore store = FileEmbeddingCacheStore.open(path)) {
+            assertEquals(2, store.size());
+            RecordingService service = new RecordingService("model");
+            CachingTextEmbeddingGenerationService cache = CachingTextEmbeddingGenerationService
+                .builder()
+                .withService(service)
+                .withStore(store)
+                .build();
+            assertNotNull(store.get(cache.getKey("apple")));
+            assertNull(store.get(cache.getKey("cherry")));
+
+            List<String> more = Arrays.asList("banana", "cherry", "apple");
+            assertEmbeddings(more, cache.generateEmbeddingsAsync(more).block());
+            assertEquals(Collections.singletonList(Collections.singletonList("cherry")),
+                service.requests);
+            assertEquals(3, store.size());
+        }
+    }
+}
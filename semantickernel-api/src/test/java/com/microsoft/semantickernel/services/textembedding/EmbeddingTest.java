@@ -0,0 +1,65 @@
+// Copyright (c) Microsoft. All rights reserved.
+package com.microsoft.semantickernel.services.textembedding;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.FloatBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.util.Arrays;
+import java.util.List;
+
+import com.microsoft.semantickernel.data.vectorsearch.VectorOperations;
+import org.junit.jupiter.api.Test;
+
+public class EmbeddingTest {
+
+    @Test
+    public void viewsExposeTheVector() {
+        float[] vector = { 1f, 2f, 3f };
+        Embedding embedding = new Embedding(vector);
+        // The embedding keeps its own copy
+        vector[0] = 10f;
+
+        assertEquals(3, embedding.getDimensions());
+        assertEquals(Arrays.asList(1f, 2f, 3f), embedding.getVector());
+        assertSame(embedding.getVector(), embedding.getVector());
+        assertArrayEquals(new float[] { 1f, 2f, 3f }, embedding.getVectorArray());
+        assertNotSame(embedding.getVectorArray(), embedding.getVectorArray());
+
+        FloatBuffer buffer = embedding.getVectorBuffer();
+        assertTrue(buffer.isReadOnly());
+        assertEquals(3, buffer.remaining());
+        assertEquals(2f, buffer.get(1));
+        assertThrows(ReadOnlyBufferException.class, () -> buffer.put(0, 5f));
+    }
+
+    @Test
+    public void vectorIsReadOnly() {
+        Embedding embedding = new Embedding(Arrays.asList(1f, 2f));
+        List<Float> vector = embedding.getVector();
+        assertThrows(UnsupportedOperationException.class, () -> vector.set(0, 5f));
+        assertThrows(UnsupportedOperationException.class, () -> vector.add(5f));
+        assertArrayEquals(new float[] { 1f, 2f }, embedding.getVectorArray());
+        assertEquals(0, Embedding.empty().getDimensions());
+    }
+
+    @Test
+    public void arrayOperationsMatchListOperations() {
+        Embedding x = new Embedding(new float[] { 0.5f, -1f, 2f, 4f });
+        Embedding y = new Embedding(new float[] { 1.5f, 3f, -2f, 0.25f });
+
+        assertEquals(VectorOperations.dot(x.getVector(), y.getVector()),
+            VectorOperations.dot(x.getVectorArray(), y.getVectorArray()), 1e-6);
+        assertEquals(VectorOperations.cosineSimilarity(x.getVector(), y.getVector()),
+            VectorOperations.cosineSimilarity(x.getVectorArray(), y.getVectorArray()), 1e-6);
+        assertEquals(VectorOperations.cosineDistance(x.getVector(), y.getVector()),
+            VectorOperations.cosineDistance(x.getVectorArray(), y.getVectorArray()), 1e-6);
+        assertEquals(VectorOperations.euclideanDistance(x.getVector(), y.getVector()),
+            VectorOperations.euclideanDistance(x.getVectorArray(), y.getVectorArray()), 1e-6);
+    }
+}